@@ -0,0 +1,130 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.EnrichmentProperties;
+import com.samgov.ingestor.config.EnrichmentProperties.Field;
+import com.samgov.ingestor.config.EnrichmentProperties.Rule;
+import com.samgov.ingestor.service.OpportunityClassifier.Classification;
+import com.samgov.ingestor.service.OpportunityClassifier.Rules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-record cost of opportunity classification.
+ *
+ * classify runs the compiled automaton over a title and description with the default rules
+ * from application.yaml; legacyTitleChecks is the upper-case-and-contains chain ingestion
+ * used before, which only looked at the title and only derived the SBIR/STTR fields.
+ *
+ * Run with ./gradlew jmh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OpportunityClassifierBenchmark {
+
+    private static final String[] TITLES = {
+            "SBIR Phase II: Autonomous Sensing for Contested Environments",
+            "Janitorial Services - Building 42",
+            "STTR Phase I Topic AF241-0003 Hypersonic Materials",
+            "Enterprise IT Modernization Support (TS/SCI)",
+            "Sources Sought: Cloud Migration for the Department of Defense",
+            "Grounds Maintenance, Fort Liberty"
+    };
+
+    private static final String[] DESCRIPTIONS = {
+            "The Air Force seeks innovative approaches. Offerors must comply with ITAR and protect "
+                    + "Controlled Unclassified Information per NIST SP 800-171.",
+            "Provide custodial services for the regional office. No security clearance is required.",
+            "Work requires a Top Secret facility clearance and a DD Form 254. Deliverables include a "
+                    + "final report and prototype demonstration.",
+            "The Government intends to award a firm-fixed-price contract for circuit board repair and "
+                    + "related methodology documentation."
+    };
+
+    @Param({"200", "2000"})
+    public int descriptionWords;
+
+    private Rules rules;
+    private List<String> titles;
+    private List<String> descriptions;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        EnrichmentProperties properties = new EnrichmentProperties();
+        properties.setRules(List.of(
+                rule(Field.SBIR, null, "SBIR", "Small Business Innovation Research"),
+                rule(Field.STTR, null, "STTR", "Small Business Technology Transfer"),
+                rule(Field.SBIR_PHASE, "III", "Phase III", "Phase 3"),
+                rule(Field.SBIR_PHASE, "II", "Phase II", "Phase 2"),
+                rule(Field.SBIR_PHASE, "I", "Phase I", "Phase 1"),
+                rule(Field.DOD, null, "DoD", "Department of Defense", "Army", "Navy", "Air Force", "Marine Corps",
+                        "Space Force", "DARPA", "DISA", "Defense Logistics Agency", "Missile Defense Agency",
+                        "Defense Health Agency", "USSOCOM"),
+                rule(Field.ITAR, null, "ITAR", "International Traffic in Arms", "USML", "Export Controlled",
+                        "Export-Controlled"),
+                rule(Field.CUI, null, "CUI", "Controlled Unclassified Information", "NIST SP 800-171",
+                        "NIST 800-171", "DFARS 252.204-7012", "CMMC"),
+                rule(Field.CLEARANCE, "TOP_SECRET_SCI", "TS/SCI", "TS-SCI", "Top Secret/SCI"),
+                rule(Field.CLEARANCE, "TOP_SECRET", "Top Secret", "TS clearance", "TS facility clearance"),
+                rule(Field.CLEARANCE, "SECRET", "Secret clearance", "Secret facility clearance", "Secret FCL",
+                        "DD-254", "DD 254", "DD Form 254"),
+                rule(Field.CLEARANCE, "CONFIDENTIAL", "Confidential clearance")));
+        rules = new OpportunityClassifier(properties).compile();
+
+        // Descriptions of the requested length, stitched from realistic sentences
+        Random random = new Random(42);
+        titles = new ArrayList<>();
+        descriptions = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            titles.add(TITLES[random.nextInt(TITLES.length)]);
+            StringBuilder description = new StringBuilder();
+            while (description.length() < descriptionWords * 6) {
+                description.append(DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)]).append(' ');
+            }
+            descriptions.add(description.toString());
+        }
+    }
+
+    private static Rule rule(Field field, String value, String... keywords) {
+        Rule rule = new Rule();
+        rule.setField(field);
+        rule.setValue(value);
+        rule.setKeywords(List.of(keywords));
+        return rule;
+    }
+
+    @Benchmark
+    public Classification classify() {
+        int record = next++ & 63;
+        return rules.classify(titles.get(record), descriptions.get(record));
+    }
+
+    @Benchmark
+    public String legacyTitleChecks() {
+        int record = next++ & 63;
+        String title = titles.get(record).toUpperCase();
+        boolean sbir = title.contains("SBIR");
+        boolean sttr = title.contains("STTR");
+        String phase = null;
+        if (title.contains("PHASE III") || title.contains("PHASE 3")) {
+            phase = "III";
+        } else if (title.contains("PHASE II") || title.contains("PHASE 2")) {
+            phase = "II";
+        } else if (title.contains("PHASE I") || title.contains("PHASE 1")) {
+            phase = "I";
+        }
+        return sbir || sttr ? phase : null;
+    }
+}
@@ -0,0 +1,89 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.FacetIndexProperties;
+import com.samgov.ingestor.service.OpportunityFacetIndex.Change;
+import com.samgov.ingestor.service.OpportunityFacetIndex.Dimension;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of facet counting against an index of synthetic opportunities: one attribute's
+ * counts under a combination of selections, and a dashboard-style count with a deadline range.
+ *
+ * Run with ./gradlew jmh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OpportunityFacetIndexBenchmark {
+
+    private static final String[] STATUSES = {"ACTIVE", "ACTIVE", "ACTIVE", "CLOSED", "CANCELLED"};
+    private static final String[] AGENCIES = {
+            "Department of the Navy", "Department of the Army", "Department of the Air Force",
+            "Department of Energy", "Department of Veterans Affairs", "General Services Administration",
+            "National Aeronautics and Space Administration", "Department of Homeland Security"
+    };
+    private static final String[] SET_ASIDES = {"SBA", "8A", "HZC", "SDVOSBC", "WOSB", null};
+    private static final String[] TYPES = {"o", "p", "k", "r", "a"};
+    private static final String[] STATES = {"VA", "MD", "DC", "CA", "TX", "FL", "CO", "WA", "OH", "AL"};
+
+    private static final Map<Dimension, List<String>> SELECTION = Map.of(
+            Dimension.STATUS, List.of("ACTIVE"),
+            Dimension.NAICS, List.of("541511", "541512", "541519"),
+            Dimension.SET_ASIDE, List.of("SBA", "8A"));
+    private static final Map<Dimension, List<String>> ACTIVE = Map.of(Dimension.STATUS, List.of("ACTIVE"));
+
+    @Param({"10000", "100000"})
+    public int opportunities;
+
+    private OpportunityFacetIndex index;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        today = LocalDate.now();
+        List<Change> rows = new ArrayList<>(opportunities);
+        for (int i = 0; i < opportunities; i++) {
+            rows.add(new Change(
+                    "opp-" + i,
+                    STATUSES[random.nextInt(STATUSES.length)],
+                    String.valueOf(541500 + random.nextInt(40)),
+                    AGENCIES[random.nextInt(AGENCIES.length)],
+                    SET_ASIDES[random.nextInt(SET_ASIDES.length)],
+                    TYPES[random.nextInt(TYPES.length)],
+                    STATES[random.nextInt(STATES.length)],
+                    null,
+                    random.nextInt(20) == 0,
+                    random.nextInt(50) == 0,
+                    null,
+                    today.plusDays(random.nextInt(240) - 60),
+                    Instant.now()));
+        }
+        index = OpportunityFacetIndex.of(rows, new FacetIndexProperties());
+    }
+
+    @Benchmark
+    public Map<String, Long> agencyCounts() {
+        return index.counts(Dimension.AGENCY, SELECTION, null, null);
+    }
+
+    @Benchmark
+    public long closingSoon() {
+        return index.count(ACTIVE, today, today.plusDays(7));
+    }
+}
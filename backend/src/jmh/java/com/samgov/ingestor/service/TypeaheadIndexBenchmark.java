@@ -0,0 +1,87 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.TypeaheadProperties;
+import com.samgov.ingestor.service.TypeaheadIndex.Change;
+import com.samgov.ingestor.service.TypeaheadIndex.Completion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one typeahead lookup against an index of synthetic active opportunities.
+ *
+ * Prefixes run from a single letter (the largest subtrees) to most of a word, the way a user
+ * types them; the cost should stay flat because every node caches its best suggestions.
+ *
+ * Run with ./gradlew jmh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TypeaheadIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "Cybersecurity", "Cloud", "Migration", "Support", "Services", "Network", "Operations",
+            "Maintenance", "Engineering", "Software", "Development", "Logistics", "Training",
+            "Facilities", "Janitorial", "Hypersonic", "Materials", "Satellite", "Ground", "Station",
+            "Modernization", "Enterprise", "Data", "Analytics", "Medical", "Equipment", "Repair"
+    };
+
+    private static final String[] AGENCIES = {
+            "Department of the Navy", "Department of the Army", "Department of the Air Force",
+            "Department of Energy", "Department of Veterans Affairs", "General Services Administration",
+            "National Aeronautics and Space Administration", "Department of Homeland Security"
+    };
+
+    private static final String[] PREFIXES = {"c", "cy", "cyb", "cybers", "de", "department of the a",
+            "sat", "5415", "w912", "mod"};
+
+    @Param({"10000", "100000"})
+    public int opportunities;
+
+    private TypeaheadIndex index;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        List<Change> rows = new ArrayList<>(opportunities);
+        for (int i = 0; i < opportunities; i++) {
+            StringBuilder title = new StringBuilder();
+            int words = 3 + random.nextInt(5);
+            for (int w = 0; w < words; w++) {
+                title.append(w > 0 ? " " : "").append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            rows.add(new Change(
+                    "opp-" + i,
+                    title.toString(),
+                    AGENCIES[random.nextInt(AGENCIES.length)],
+                    null,
+                    String.valueOf(541000 + random.nextInt(1000)),
+                    "Computer Systems Design Services",
+                    String.format("W912DY-%02d-R-%05d", 20 + random.nextInt(6), i),
+                    true,
+                    today.minusDays(random.nextInt(365)),
+                    Instant.now()));
+        }
+        index = TypeaheadIndex.of(rows, new TypeaheadProperties());
+    }
+
+    @Benchmark
+    public List<Completion> suggest() {
+        return index.suggest(PREFIXES[next++ % PREFIXES.length], 10);
+    }
+}
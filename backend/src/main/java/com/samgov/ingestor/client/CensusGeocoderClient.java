@@ -4,14 +4,24 @@ import com.samgov.ingestor.config.CensusProperties;
 import com.samgov.ingestor.dto.GeocodingResultDto.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * US Census Bureau Geocoder API client.
@@ -20,7 +30,8 @@ import java.util.concurrent.locks.ReentrantLock;
  * API Documentation: https://geocoding.geo.census.gov/geocoder/
  * Free API, no key required.
  *
- * Note: Uses ReentrantLock instead of synchronized to avoid pinning virtual threads.
+ * Rate limiting and 429 backoff are applied by a shared {@link OutboundRateLimiter} on the RestClient;
+ * configured slow-changing endpoints are served from the {@link HttpResponseCache} in front of it.
  */
 @Service
 public class CensusGeocoderClient {
@@ -29,14 +40,15 @@ public class CensusGeocoderClient {
 
     private final RestClient restClient;
     private final CensusProperties properties;
-    private final Lock rateLimitLock = new ReentrantLock();
-    private volatile long lastCallTime = 0;
 
-    public CensusGeocoderClient(CensusProperties properties) {
+    public CensusGeocoderClient(CensusProperties properties, OutboundRateLimiterRegistry rateLimiters,
+                                HttpResponseCache responseCache) {
         this.properties = properties;
         this.restClient = RestClient.builder()
                 .baseUrl(properties.getGeocoderUrl())
                 .defaultHeader("Accept", MediaType.APPLICATION_JSON_VALUE)
+                .requestInterceptor(responseCache.interceptor("census.geocoder"))
+                .requestInterceptor(rateLimiters.forApi("census.geocoder", properties.getRateLimitMs()).interceptor())
                 .build();
     }
 
@@ -51,8 +63,6 @@ public class CensusGeocoderClient {
             return null;
         }
 
-        applyRateLimit();
-
         log.debug("Geocoding address: {}", address);
 
         try {
@@ -118,8 +128,6 @@ public class CensusGeocoderClient {
             return null;
         }
 
-        applyRateLimit();
-
         log.debug("Geocoding address components: {}, {}, {} {}", street, city, state, zip);
 
         try {
@@ -176,6 +184,65 @@ public class CensusGeocoderClient {
         }
     }
 
+    /**
+     * Geocode many addresses with one upload to the batch endpoint.
+     *
+     * The addresses are sent as a Census batch CSV file (id, street, city, state, ZIP) and
+     * the result file is parsed line by line as it streams back, so a 10,000-row batch costs
+     * one rate-limited request instead of 10,000.
+     *
+     * @param addresses At most 10,000 addresses with unique ids
+     * @return Results for the matched ids (unmatched ids are absent), or null if the request failed
+     */
+    public Map<String, SimpleGeocodingResult> batchGeocode(List<BatchAddress> addresses) {
+        if (!properties.isEnabled() || addresses == null || addresses.isEmpty()) {
+            return Map.of();
+        }
+
+        log.debug("Batch geocoding {} addresses", addresses.size());
+
+        StringBuilder csv = new StringBuilder(addresses.size() * 48);
+        for (BatchAddress address : addresses) {
+            csv.append(csvField(address.id())).append(',')
+                    .append(csvField(address.street())).append(',')
+                    .append(csvField(address.city())).append(',')
+                    .append(csvField(address.state())).append(',')
+                    .append(csvField(address.zip())).append("\r\n");
+        }
+
+        MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
+        form.add("addressFile", new ByteArrayResource(csv.toString().getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return "addresses.csv";
+            }
+        });
+        form.add("benchmark", properties.getBenchmark());
+        form.add("vintage", properties.getVintage());
+
+        try {
+            Map<String, SimpleGeocodingResult> results = restClient.post()
+                    .uri("/geographies/addressbatch")
+                    .contentType(MediaType.MULTIPART_FORM_DATA)
+                    .accept(MediaType.ALL)
+                    .body(form)
+                    .exchange((request, response) -> {
+                        JsonStreamDecoder.requireSuccess(response);
+                        return readBatchResults(response.getBody());
+                    });
+
+            log.info("Batch geocoded {} of {} addresses", results.size(), addresses.size());
+            return results;
+
+        } catch (RestClientException e) {
+            log.error("Error batch geocoding {} addresses: {}", addresses.size(), e.getMessage());
+            return null;
+        } catch (Exception e) {
+            log.error("Unexpected error batch geocoding {} addresses: {}", addresses.size(), e.getMessage(), e);
+            return null;
+        }
+    }
+
     /**
      * Reverse geocode: Get geography info from coordinates.
      *
@@ -188,8 +255,6 @@ public class CensusGeocoderClient {
             return null;
         }
 
-        applyRateLimit();
-
         log.debug("Reverse geocoding coordinates: {}, {}", latitude, longitude);
 
         try {
@@ -230,37 +295,92 @@ public class CensusGeocoderClient {
     }
 
     /**
-     * Applies rate limiting by sleeping if necessary.
-     * Uses ReentrantLock to avoid pinning virtual threads.
+     * Returns whether the integration is enabled.
      */
-    private void applyRateLimit() {
-        rateLimitLock.lock();
-        try {
-            long now = System.currentTimeMillis();
-            long timeSinceLastCall = now - lastCallTime;
-            long rateLimitMs = properties.getRateLimitMs();
-
-            if (timeSinceLastCall < rateLimitMs && lastCallTime > 0) {
-                try {
-                    long sleepTime = rateLimitMs - timeSinceLastCall;
-                    log.trace("Rate limiting: sleeping for {}ms", sleepTime);
-                    TimeUnit.MILLISECONDS.sleep(sleepTime);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.warn("Rate limit sleep interrupted");
-                }
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Reads a batch result file. Geographies rows are
+     * id, input, Match|No_Match|Tie, Exact|Non_Exact, matched address, "lon,lat", TIGER line id,
+     * side, state FIPS, county FIPS, tract, block; non-matches stop after the third field.
+     */
+    private static Map<String, SimpleGeocodingResult> readBatchResults(InputStream body) throws IOException {
+        Map<String, SimpleGeocodingResult> results = new HashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            List<String> fields = parseCsvLine(line);
+            if (fields.size() < 6 || !"Match".equalsIgnoreCase(fields.get(2))) {
+                continue;
             }
+            String[] coordinates = fields.get(5).split(",");
+            if (coordinates.length != 2) {
+                continue;
+            }
+            try {
+                String state = field(fields, 8);
+                String county = field(fields, 9);
+                results.put(fields.get(0), new SimpleGeocodingResult(
+                        fields.get(4),
+                        new BigDecimal(coordinates[1].trim()),
+                        new BigDecimal(coordinates[0].trim()),
+                        state,
+                        state != null && county != null ? state + county : null,
+                        field(fields, 10),
+                        null,
+                        null,
+                        null));
+            } catch (NumberFormatException e) {
+                log.debug("Skipping batch result with unreadable coordinates: {}", line);
+            }
+        }
+        return results;
+    }
 
-            lastCallTime = System.currentTimeMillis();
-        } finally {
-            rateLimitLock.unlock();
+    private static String field(List<String> fields, int index) {
+        if (index >= fields.size() || fields.get(index).isBlank()) {
+            return null;
         }
+        return fields.get(index);
     }
 
     /**
-     * Returns whether the integration is enabled.
+     * Splits one CSV line, honoring double-quoted fields with embedded commas and "" escapes.
      */
-    public boolean isEnabled() {
-        return properties.isEnabled();
+    public static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "\"\"";
+        }
+        return '"' + value.replace("\"", "\"\"").replace('\n', ' ').replace('\r', ' ') + '"';
     }
 }
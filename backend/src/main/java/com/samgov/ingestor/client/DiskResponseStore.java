@@ -0,0 +1,190 @@
+package com.samgov.ingestor.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * File-per-entry store behind {@link HttpResponseCache}.
+ *
+ * <p>Entries live at {@code <directory>/<api>/<key>.bin} and are read through a read-only
+ * memory map, so a hit hands the page-cached bytes straight to the response body without
+ * copying them onto the heap. Writes go to a temp file that is atomically moved into place;
+ * a reader holding the old mapping keeps seeing the old entry.
+ *
+ * <p>Layout: magic, storedAt (epoch ms), status, header count, headers as
+ * (name, value) length-prefixed UTF-8 pairs, body length, body.
+ */
+final class DiskResponseStore {
+
+    private static final Logger log = LoggerFactory.getLogger(DiskResponseStore.class);
+
+    private static final int MAGIC = 0x48524331; // "HRC1"
+    private static final String SUFFIX = ".bin";
+
+    private final Path directory;
+
+    DiskResponseStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * A stored response. The body is a read-only view and may be backed by a file mapping.
+     */
+    record Entry(int status, HttpHeaders headers, ByteBuffer body, Instant storedAt) {
+
+        Entry withStoredAt(Instant refreshed) {
+            return new Entry(status, headers, body, refreshed);
+        }
+    }
+
+    /**
+     * Returns the entry for a key, or null if there is none or it cannot be read.
+     */
+    Entry get(String api, String key) {
+        Path file = path(api, key);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(mapped);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Discarding unreadable cache entry {}: {}", file, e.getMessage());
+            delete(file);
+            return null;
+        }
+    }
+
+    /**
+     * Writes an entry, replacing any previous one. Failures are logged; the cache is best effort.
+     */
+    void put(String api, String key, Entry entry) {
+        Path file = path(api, key);
+        Path temp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            temp = Files.createTempFile(file.getParent(), key, ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer encoded = encode(entry);
+                while (encoded.hasRemaining()) {
+                    channel.write(encoded);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write cache entry {}: {}", file, e.getMessage());
+            if (temp != null) {
+                delete(temp);
+            }
+        }
+    }
+
+    /**
+     * Deletes entries last stored or revalidated before the cutoff.
+     *
+     * @return number of entries deleted
+     */
+    int purgeStoredBefore(Instant cutoff) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            return (int) files
+                    .filter(Files::isRegularFile)
+                    .filter(file -> isOlderThan(file, cutoff))
+                    .filter(DiskResponseStore::delete)
+                    .count();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to purge HTTP cache directory {}: {}", directory, e.getMessage());
+            return 0;
+        }
+    }
+
+    private Path path(String api, String key) {
+        return directory.resolve(api).resolve(key + SUFFIX);
+    }
+
+    private static boolean isOlderThan(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean delete(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Entry decode(ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalStateException("bad magic");
+        }
+        Instant storedAt = Instant.ofEpochMilli(buffer.getLong());
+        int status = buffer.getInt();
+
+        HttpHeaders headers = new HttpHeaders();
+        int headerCount = buffer.getInt();
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(readString(buffer), readString(buffer));
+        }
+
+        int bodyLength = buffer.getInt();
+        ByteBuffer body = buffer.slice(buffer.position(), bodyLength).asReadOnlyBuffer();
+        return new Entry(status, HttpHeaders.readOnlyHttpHeaders(headers), body, storedAt);
+    }
+
+    private static ByteBuffer encode(Entry entry) {
+        List<byte[]> headerBytes = entry.headers().entrySet().stream()
+                .flatMap(header -> header.getValue().stream().map(value -> Map.entry(header.getKey(), value)))
+                .flatMap(pair -> Stream.of(
+                        pair.getKey().getBytes(StandardCharsets.UTF_8),
+                        pair.getValue().getBytes(StandardCharsets.UTF_8)))
+                .toList();
+
+        ByteBuffer body = entry.body().duplicate();
+        int size = 4 + 8 + 4 + 4 + 4 + body.remaining();
+        for (byte[] bytes : headerBytes) {
+            size += 4 + bytes.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putLong(entry.storedAt().toEpochMilli());
+        buffer.putInt(entry.status());
+        buffer.putInt(headerBytes.size() / 2);
+        for (byte[] bytes : headerBytes) {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+        buffer.putInt(body.remaining());
+        buffer.put(body);
+        return buffer.flip();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,303 @@
+package com.samgov.ingestor.client;
+
+import com.samgov.ingestor.config.HttpCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conditional-request disk cache for slow-changing external API endpoints
+ * (recipient profiles, agency budgets, reference lists, open solicitations, reverse geocodes).
+ *
+ * <p>Use {@link #interceptor(String)} on a {@code RestClient} <em>before</em> the API's
+ * {@link OutboundRateLimiter} interceptor: a fresh hit returns without reaching the limiter,
+ * so it costs neither a permit nor daily quota. Once an entry's per-endpoint TTL has passed it
+ * is revalidated with If-None-Match / If-Modified-Since; a 304 refreshes the entry and serves
+ * the stored body, anything else replaces it.
+ *
+ * <p>Only GET requests matching a configured endpoint are cached. The key is the method, the
+ * URI with its query parameters sorted and {@code api_key} removed, and the Accept header.
+ *
+ * <p>Metrics exposed per {@code api} tag:
+ * <ul>
+ *   <li>samgov_http_cache_requests_total{result=hit|revalidated|miss} - Cacheable requests by outcome</li>
+ * </ul>
+ */
+@Component
+public class HttpResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpResponseCache.class);
+
+    private static final Set<String> API_KEY_PARAMS = Set.of("api_key", "apikey", "api-key");
+
+    // Hop-by-hop and framing headers that do not describe the stored body
+    private static final Set<String> UNSTORED_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(), HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(), "keep-alive");
+
+    private static final ClientHttpRequestInterceptor PASS_THROUGH =
+            (request, body, execution) -> execution.execute(request, body);
+
+    private final HttpCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final DiskResponseStore store;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public HttpResponseCache(HttpCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.store = new DiskResponseStore(Path.of(properties.getDirectory()));
+
+        if (isActive()) {
+            int purged = store.purgeStoredBefore(Instant.now().minus(properties.getRetention()));
+            log.info("HTTP response cache at {} with {} endpoint rules ({} expired entries purged)",
+                    properties.getDirectory(), properties.getEndpoints().size(), purged);
+        }
+    }
+
+    /**
+     * Deletes entries not stored or revalidated within the retention. Runs at startup and on
+     * http-cache.purge-cron, so a long-running instance does not keep entries for endpoints
+     * it stopped requesting.
+     *
+     * @return number of entries deleted
+     */
+    @Scheduled(cron = "${http-cache.purge-cron:0 15 4 * * *}")
+    public int purgeExpired() {
+        if (!isActive()) {
+            return 0;
+        }
+        int purged = store.purgeStoredBefore(Instant.now().minus(properties.getRetention()));
+        log.info("Purged {} expired HTTP response cache entries from {}", purged, properties.getDirectory());
+        return purged;
+    }
+
+    private boolean isActive() {
+        return properties.isEnabled() && !properties.getEndpoints().isEmpty();
+    }
+
+    /**
+     * Returns the caching interceptor for an API. APIs without configured endpoints, or a
+     * disabled cache, get an interceptor that passes every request through.
+     *
+     * @param api stable API name, the same one passed to {@link OutboundRateLimiterRegistry}
+     */
+    public ClientHttpRequestInterceptor interceptor(String api) {
+        List<HttpCacheProperties.Endpoint> rules = properties.getEndpoints().stream()
+                .filter(endpoint -> api.equals(endpoint.getApi()))
+                .toList();
+        if (!properties.isEnabled() || rules.isEmpty()) {
+            return PASS_THROUGH;
+        }
+
+        return (request, body, execution) -> {
+            Duration ttl = request.getMethod() == HttpMethod.GET ? ttlFor(rules, request.getURI()) : null;
+            if (ttl == null) {
+                return execution.execute(request, body);
+            }
+
+            String key = key(request);
+            DiskResponseStore.Entry cached = store.get(api, key);
+            Instant now = Instant.now();
+
+            if (cached != null && cached.storedAt().plus(ttl).isAfter(now)) {
+                counter(api, "hit").increment();
+                return new CachedResponse(cached);
+            }
+
+            if (cached != null) {
+                String etag = cached.headers().getETag();
+                long lastModified = cached.headers().getLastModified();
+                if (etag != null) {
+                    request.getHeaders().setIfNoneMatch(etag);
+                }
+                if (lastModified > 0) {
+                    request.getHeaders().setIfModifiedSince(lastModified);
+                }
+            }
+
+            ClientHttpResponse response = execution.execute(request, body);
+
+            if (cached != null && response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                response.close();
+                DiskResponseStore.Entry refreshed = cached.withStoredAt(now);
+                store.put(api, key, refreshed);
+                counter(api, "revalidated").increment();
+                return new CachedResponse(refreshed);
+            }
+
+            counter(api, "miss").increment();
+            if (!isStorable(response)) {
+                return response;
+            }
+
+            int status = response.getStatusCode().value();
+            HttpHeaders headers = storedHeaders(response.getHeaders());
+            byte[] bytes;
+            try (response) {
+                bytes = StreamUtils.copyToByteArray(response.getBody());
+            }
+            DiskResponseStore.Entry entry = new DiskResponseStore.Entry(status, headers, ByteBuffer.wrap(bytes), now);
+            if (bytes.length <= properties.getMaxEntryBytes()) {
+                store.put(api, key, entry);
+            }
+            return new CachedResponse(entry);
+        };
+    }
+
+    private Duration ttlFor(List<HttpCacheProperties.Endpoint> rules, URI uri) {
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        for (HttpCacheProperties.Endpoint rule : rules) {
+            if (pathMatcher.match(rule.getPath(), path)) {
+                return rule.getTtl();
+            }
+        }
+        return null;
+    }
+
+    private boolean isStorable(ClientHttpResponse response) throws IOException {
+        if (response.getStatusCode().value() != HttpStatus.OK.value()) {
+            return false;
+        }
+        HttpHeaders headers = response.getHeaders();
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null && cacheControl.toLowerCase().contains("no-store")) {
+            return false;
+        }
+        // Skip reading a body we already know is too large to keep
+        return headers.getContentLength() <= properties.getMaxEntryBytes();
+    }
+
+    private static HttpHeaders storedHeaders(HttpHeaders headers) {
+        HttpHeaders stored = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!UNSTORED_HEADERS.contains(name.toLowerCase())) {
+                stored.addAll(name, values);
+            }
+        });
+        return stored;
+    }
+
+    /**
+     * Normalized cache key: same endpoint, parameters and representation give the same key
+     * regardless of parameter order or API key.
+     */
+    static String key(HttpRequest request) {
+        URI uri = request.getURI();
+        Map<String, List<String>> query = new TreeMap<>(
+                UriComponentsBuilder.fromUri(uri).build().getQueryParams());
+        API_KEY_PARAMS.forEach(query::remove);
+
+        StringBuilder normalized = new StringBuilder()
+                .append(request.getMethod().name()).append(' ')
+                .append(uri.getHost()).append(uri.getRawPath());
+        query.forEach((name, values) -> values.stream().sorted()
+                .forEach(value -> normalized.append('&').append(name).append('=').append(value)));
+        normalized.append(' ').append(request.getHeaders().getAccept());
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private Counter counter(String api, String result) {
+        return counters.computeIfAbsent(api + '|' + result, ignored -> Counter.builder("samgov.http.cache.requests")
+                .description("Cacheable outbound requests by cache outcome")
+                .tag("api", api)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Serves a stored entry as if it had just arrived from the API.
+     */
+    private static final class CachedResponse implements ClientHttpResponse {
+
+        private final DiskResponseStore.Entry entry;
+
+        private CachedResponse(DiskResponseStore.Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatusCode.valueOf(entry.status());
+        }
+
+        @Override
+        public String getStatusText() {
+            HttpStatus status = HttpStatus.resolve(entry.status());
+            return status != null ? status.getReasonPhrase() : "";
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return entry.headers();
+        }
+
+        @Override
+        public InputStream getBody() {
+            ByteBuffer body = entry.body().duplicate();
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return body.hasRemaining() ? body.get() & 0xFF : -1;
+                }
+
+                @Override
+                public int read(byte[] target, int offset, int length) {
+                    if (!body.hasRemaining()) {
+                        return -1;
+                    }
+                    int count = Math.min(length, body.remaining());
+                    body.get(target, offset, count);
+                    return count;
+                }
+
+                @Override
+                public int available() {
+                    return body.remaining();
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            // Nothing to release; the mapping is freed when the buffer is collected
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.samgov.ingestor.client;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Decodes API responses with a Jackson {@link JsonParser} instead of binding the whole payload.
+ *
+ * Elements of the record array are bound one at a time and handed to a consumer as soon as they
+ * are read, so the response body is never buffered into a String or a wrapper object graph and
+ * peak heap is bounded by what the consumer keeps. Top-level fields other than the record array
+ * are retained only when requested as metadata (e.g. totals) and skipped otherwise.
+ */
+public class JsonStreamDecoder {
+
+    private final ObjectMapper objectMapper;
+
+    public JsonStreamDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Streams the elements of a top-level JSON array.
+     *
+     * @return number of elements decoded; 0 for an empty or {@code null} body
+     */
+    public <T> int readArray(InputStream body, Class<T> type, Consumer<? super T> consumer) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.VALUE_NULL) {
+                return 0;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected a JSON array but found " + token);
+            }
+            return readElements(parser, objectMapper.readerFor(type), consumer);
+        }
+    }
+
+    /**
+     * Streams the elements of {@code arrayField} inside a top-level JSON object.
+     *
+     * @param metadataFields other top-level fields to keep, e.g. {@code totalRecords}
+     * @return the requested metadata fields that were present, or null for an empty or {@code null} body
+     */
+    public <T> Map<String, JsonNode> readObject(InputStream body, String arrayField, Class<T> type,
+                                                Set<String> metadataFields, Consumer<? super T> consumer)
+            throws IOException {
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object but found " + token);
+            }
+
+            ObjectReader reader = objectMapper.readerFor(type);
+            Map<String, JsonNode> metadata = new HashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals(arrayField) && value == JsonToken.START_ARRAY) {
+                    readElements(parser, reader, consumer);
+                } else if (metadataFields.contains(field)) {
+                    metadata.put(field, parser.readValueAsTree());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return metadata;
+        }
+    }
+
+    /**
+     * Binds a metadata node kept by {@link #readObject} to a type, or returns null if it is absent.
+     */
+    public <T> T convert(JsonNode node, Class<T> type) throws IOException {
+        return node == null || node.isNull() ? null : objectMapper.treeToValue(node, type);
+    }
+
+    /**
+     * Throws for 4xx/5xx responses. {@code RestClient.exchange} skips the default status
+     * handlers, so streaming callers must check the status before reading the body.
+     */
+    public static void requireSuccess(ClientHttpResponse response) throws IOException {
+        HttpStatusCode status = response.getStatusCode();
+        if (status.isError()) {
+            throw new RestClientResponseException("HTTP " + status.value() + " " + response.getStatusText(),
+                    status, response.getStatusText(), response.getHeaders(), null, null);
+        }
+    }
+
+    private <T> int readElements(JsonParser parser, ObjectReader reader, Consumer<? super T> consumer)
+            throws IOException {
+        int count = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new JsonParseException(parser, "Unexpected end of input inside array");
+            }
+            if (token == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            T element = reader.readValue(parser);
+            consumer.accept(element);
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,14 @@
+package com.samgov.ingestor.client;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown when an outbound API's daily request quota has been used up.
+ * Extends {@link RestClientException} so clients handle it like any other failed call.
+ */
+public class OutboundQuotaExceededException extends RestClientException {
+
+    public OutboundQuotaExceededException(String api, long dailyQuota) {
+        super("Daily quota of " + dailyQuota + " requests exhausted for " + api);
+    }
+}
@@ -0,0 +1,235 @@
+package com.samgov.ingestor.client;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token-bucket limiter for one outbound API, shared by every thread calling it.
+ *
+ * Permits refill at one per {@code minInterval} up to {@code burst}. Waiting callers park
+ * via bucket4j's blocking strategy without holding any lock, so virtual threads unmount
+ * instead of queueing behind a mutex. A {@code 429} response pauses the whole API for the
+ * server's {@code Retry-After} (or an exponential backoff when absent) and the request is
+ * retried; a daily quota, when configured, is counted per UTC day.
+ *
+ * Use {@link #interceptor()} on a {@code RestClient} so every request is accounted for.
+ */
+public final class OutboundRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboundRateLimiter.class);
+
+    private static final Duration BASE_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+    private static final int MAX_THROTTLE_RETRIES = 3;
+
+    private final String api;
+    private final Bucket bucket;
+    private final long dailyQuota;
+    private final AtomicLong usedToday = new AtomicLong();
+    private final AtomicReference<LocalDate> quotaDay = new AtomicReference<>(LocalDate.now(ZoneOffset.UTC));
+    private final AtomicLong pausedUntilNanos = new AtomicLong();
+    private final AtomicInteger consecutiveThrottles = new AtomicInteger();
+    private final AtomicLong throttledTotal = new AtomicLong();
+
+    /**
+     * @param api         name used in logs and metric tags
+     * @param minInterval steady-state spacing between requests; zero disables the bucket
+     * @param burst       requests allowed back-to-back after an idle period
+     * @param dailyQuota  requests allowed per UTC day; zero for unlimited
+     */
+    public OutboundRateLimiter(String api, Duration minInterval, int burst, long dailyQuota) {
+        this.api = api;
+        this.dailyQuota = dailyQuota;
+        this.bucket = minInterval.isZero() ? null : Bucket.builder()
+                .addLimit(Bandwidth.classic(Math.max(1, burst), Refill.greedy(1, minInterval)))
+                .build();
+    }
+
+    /**
+     * Waits for a permit, honoring any active {@code Retry-After} pause.
+     *
+     * @throws OutboundQuotaExceededException if the daily quota is exhausted
+     * @throws InterruptedException           if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        // A request cancelled before it starts spends neither quota nor a permit
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Cancelled before acquiring a " + api + " permit");
+        }
+        reserveQuota();
+
+        try {
+            long pauseNanos = pausedUntilNanos.get() - System.nanoTime();
+            if (pauseNanos > 0) {
+                log.debug("{} paused after 429, waiting {}ms", api, TimeUnit.NANOSECONDS.toMillis(pauseNanos));
+                TimeUnit.NANOSECONDS.sleep(pauseNanos);
+            }
+
+            if (bucket != null) {
+                bucket.asBlocking().consume(1);
+            }
+        } catch (InterruptedException e) {
+            // Never sent, so it does not count against the daily quota
+            usedToday.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Records a {@code 429} response and pauses all callers.
+     *
+     * @param retryAfter server-provided delay, or null to use exponential backoff
+     * @return the pause applied
+     */
+    public Duration onThrottled(Duration retryAfter) {
+        int attempt = consecutiveThrottles.incrementAndGet();
+        throttledTotal.incrementAndGet();
+        Duration pause = retryAfter != null ? retryAfter : backoff(attempt);
+        if (pause.compareTo(MAX_BACKOFF) > 0) {
+            pause = MAX_BACKOFF;
+        }
+        long until = System.nanoTime() + pause.toNanos();
+        pausedUntilNanos.accumulateAndGet(until, Math::max);
+        log.warn("{} returned 429 ({} in a row), pausing for {}s", api, attempt, pause.toSeconds());
+        return pause;
+    }
+
+    /**
+     * Records a non-throttled response, resetting the backoff.
+     */
+    public void onSuccess() {
+        consecutiveThrottles.set(0);
+    }
+
+    /**
+     * Interceptor that acquires a permit before each request and retries on {@code 429}.
+     */
+    public ClientHttpRequestInterceptor interceptor() {
+        return (request, body, execution) -> {
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting for " + api + " rate limit");
+                }
+
+                ClientHttpResponse response = execution.execute(request, body);
+                if (response.getStatusCode().value() != HttpStatus.TOO_MANY_REQUESTS.value()) {
+                    onSuccess();
+                    return response;
+                }
+
+                Duration retryAfter = parseRetryAfter(response.getHeaders());
+                onThrottled(retryAfter);
+                if (attempt >= MAX_THROTTLE_RETRIES) {
+                    return response;
+                }
+                response.close();
+            }
+        };
+    }
+
+    // ============================================
+    // METRICS
+    // ============================================
+
+    public String getApi() {
+        return api;
+    }
+
+    /**
+     * Requests left today, or -1 when no quota is configured.
+     */
+    public long getRemainingQuota() {
+        rollQuotaDay();
+        return dailyQuota > 0 ? Math.max(0, dailyQuota - usedToday.get()) : -1;
+    }
+
+    public long getUsedToday() {
+        rollQuotaDay();
+        return usedToday.get();
+    }
+
+    /**
+     * Seconds a caller arriving now would wait for a permit.
+     */
+    public double getWaitSeconds() {
+        long waitNanos = Math.max(0, pausedUntilNanos.get() - System.nanoTime());
+        if (bucket != null) {
+            waitNanos = Math.max(waitNanos, bucket.estimateAbilityToConsume(1).getNanosToWaitForRefill());
+        }
+        return waitNanos / 1_000_000_000.0;
+    }
+
+    public long getThrottledTotal() {
+        return throttledTotal.get();
+    }
+
+    // ============================================
+    // INTERNALS
+    // ============================================
+
+    private void reserveQuota() {
+        rollQuotaDay();
+        long used = usedToday.incrementAndGet();
+        if (dailyQuota > 0 && used > dailyQuota) {
+            usedToday.decrementAndGet();
+            throw new OutboundQuotaExceededException(api, dailyQuota);
+        }
+    }
+
+    private void rollQuotaDay() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate current = quotaDay.get();
+        if (!today.equals(current) && quotaDay.compareAndSet(current, today)) {
+            usedToday.set(0);
+        }
+    }
+
+    private static Duration backoff(int attempt) {
+        long factor = 1L << Math.min(attempt - 1, 16);
+        return BASE_BACKOFF.multipliedBy(factor);
+    }
+
+    /**
+     * Parses {@code Retry-After} as delta-seconds or an HTTP date.
+     */
+    static Duration parseRetryAfter(HttpHeaders headers) {
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration delay = Duration.between(ZonedDateTime.now(ZoneOffset.UTC), at);
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (DateTimeParseException e2) {
+                log.debug("Ignoring unparseable Retry-After: {}", value);
+                return null;
+            }
+        }
+    }
+}
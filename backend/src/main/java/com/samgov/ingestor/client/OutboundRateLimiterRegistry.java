@@ -0,0 +1,81 @@
+package com.samgov.ingestor.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one {@link OutboundRateLimiter} per external API so every client and thread
+ * calling the same API draws from the same bucket and quota.
+ *
+ * <p>Metrics exposed per {@code api} tag:
+ * <ul>
+ *   <li>samgov_outbound_quota_remaining - Requests left today (-1 when unlimited)</li>
+ *   <li>samgov_outbound_quota_used - Requests made today</li>
+ *   <li>samgov_outbound_wait_seconds - Wait a new request would incur right now</li>
+ *   <li>samgov_outbound_throttled_total - 429 responses received</li>
+ * </ul>
+ */
+@Component
+public class OutboundRateLimiterRegistry {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, OutboundRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    public OutboundRateLimiterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the limiter for an API, creating it on first use.
+     * Later calls for the same API return the existing limiter regardless of arguments.
+     *
+     * @param api           stable API name, used as the metric tag
+     * @param minIntervalMs steady-state spacing between requests (0 for none)
+     * @param burst         requests allowed back-to-back after an idle period
+     * @param dailyQuota    requests allowed per UTC day (0 for unlimited)
+     */
+    public OutboundRateLimiter forApi(String api, long minIntervalMs, int burst, long dailyQuota) {
+        return limiters.computeIfAbsent(api, name -> register(
+                new OutboundRateLimiter(name, Duration.ofMillis(minIntervalMs), burst, dailyQuota)));
+    }
+
+    /**
+     * Returns the limiter for an API with no burst and no daily quota.
+     */
+    public OutboundRateLimiter forApi(String api, long minIntervalMs) {
+        return forApi(api, minIntervalMs, 1, 0);
+    }
+
+    private OutboundRateLimiter register(OutboundRateLimiter limiter) {
+        String api = limiter.getApi();
+
+        Gauge.builder("samgov.outbound.quota.remaining", limiter, OutboundRateLimiter::getRemainingQuota)
+                .description("Outbound requests left in today's quota (-1 when unlimited)")
+                .tag("api", api)
+                .register(meterRegistry);
+
+        Gauge.builder("samgov.outbound.quota.used", limiter, OutboundRateLimiter::getUsedToday)
+                .description("Outbound requests made today")
+                .tag("api", api)
+                .register(meterRegistry);
+
+        Gauge.builder("samgov.outbound.wait", limiter, OutboundRateLimiter::getWaitSeconds)
+                .description("Seconds a new outbound request would wait for a permit")
+                .baseUnit("seconds")
+                .tag("api", api)
+                .register(meterRegistry);
+
+        FunctionCounter.builder("samgov.outbound.throttled", limiter, OutboundRateLimiter::getThrottledTotal)
+                .description("Outbound requests answered with 429 Too Many Requests")
+                .tag("api", api)
+                .register(meterRegistry);
+
+        return limiter;
+    }
+}
@@ -0,0 +1,230 @@
+package com.samgov.ingestor.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily walks an offset-paged API, yielding one page at a time.
+ *
+ * The first page is fetched on the caller's thread to learn the total record count;
+ * subsequent pages are prefetched on virtual threads, keeping at most
+ * {@code maxInFlight} requests outstanding while the consumer processes the current page.
+ * Only the pages in flight are held in memory, never the full result set.
+ *
+ * Iteration stops at the first empty or short page, at the reported total, or at
+ * {@code maxPages}, whichever comes first. Walks may start at a later page to resume
+ * from a checkpoint; page indexes (and {@code maxPages}) stay absolute. Always close the iterator (or the stream
+ * returned by {@link #stream()}) so outstanding requests are cancelled.
+ *
+ * @param <T> item type contained in each page
+ */
+public final class PrefetchingPageIterator<T> implements Iterator<List<T>>, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PrefetchingPageIterator.class);
+
+    /**
+     * Fetches a single page by zero-based page index.
+     * Implementations should return an empty page rather than throw on recoverable errors.
+     */
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+        FetchedPage<T> fetch(int pageIndex);
+    }
+
+    /**
+     * One page of results plus the total record count reported by the API (-1 if unknown).
+     */
+    public record FetchedPage<T>(List<T> items, int totalRecords) {
+        public FetchedPage {
+            items = items != null ? items : List.of();
+        }
+
+        public static <T> FetchedPage<T> empty() {
+            return new FetchedPage<>(List.of(), -1);
+        }
+    }
+
+    /**
+     * Whether a fetch failed only because this iterator cancelled it: a short page or
+     * {@link #close()} interrupts the prefetches still in flight. Fetchers should return an
+     * empty page for these without reporting a failure; nobody will read it.
+     *
+     * @param failure what the fetch threw
+     */
+    public static boolean isCancellation(Throwable failure) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException
+                    || cause instanceof ClosedByInterruptException
+                    || cause instanceof CancellationException
+                    // Timeouts are InterruptedIOExceptions too, but real failures
+                    || (cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final PageFetcher<T> fetcher;
+    private final int pageSize;
+    private final int maxInFlight;
+    private final Deque<Future<FetchedPage<T>>> inFlight = new ArrayDeque<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final int startPage;
+    private int pageLimit;
+    private int nextPageToSchedule;
+    private boolean started = false;
+    private boolean exhausted = false;
+    private List<T> nextItems;
+
+    public PrefetchingPageIterator(PageFetcher<T> fetcher, int pageSize, int maxPages, int maxInFlight) {
+        this(fetcher, pageSize, maxPages, maxInFlight, 0);
+    }
+
+    public PrefetchingPageIterator(PageFetcher<T> fetcher, int pageSize, int maxPages, int maxInFlight,
+                                   int startPage) {
+        this.fetcher = fetcher;
+        this.pageSize = Math.max(1, pageSize);
+        this.pageLimit = Math.max(1, maxPages);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.startPage = Math.max(0, startPage);
+        this.nextPageToSchedule = this.startPage;
+    }
+
+    /**
+     * Wraps this iterator in a sequential stream that closes the iterator when the stream is closed.
+     */
+    public Stream<List<T>> stream() {
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextItems != null) {
+            return true;
+        }
+        if (exhausted) {
+            return false;
+        }
+        return advance();
+    }
+
+    @Override
+    public List<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<T> items = nextItems;
+        nextItems = null;
+        return items;
+    }
+
+    @Override
+    public void close() {
+        exhausted = true;
+        cancelInFlight();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Number of pages requested so far, including those still in flight.
+     */
+    public int getPagesRequested() {
+        return nextPageToSchedule - startPage;
+    }
+
+    private boolean advance() {
+        FetchedPage<T> page;
+        if (!started) {
+            started = true;
+            if (startPage >= pageLimit) {
+                exhausted = true;
+                return false;
+            }
+            page = fetcher.fetch(startPage);
+            nextPageToSchedule = startPage + 1;
+            if (page.totalRecords() >= 0) {
+                int totalPages = (int) Math.ceil((double) page.totalRecords() / pageSize);
+                pageLimit = Math.min(pageLimit, totalPages);
+            }
+        } else {
+            Future<FetchedPage<T>> future = inFlight.pollFirst();
+            if (future == null) {
+                exhausted = true;
+                return false;
+            }
+            page = await(future);
+        }
+
+        if (page.items().isEmpty()) {
+            finish();
+            return false;
+        }
+
+        if (page.items().size() < pageSize) {
+            // Short page means we've reached the end - drop any speculative prefetches
+            pageLimit = nextPageToSchedule;
+            cancelInFlight();
+        }
+
+        nextItems = page.items();
+        schedulePrefetch();
+        return true;
+    }
+
+    private void schedulePrefetch() {
+        while (inFlight.size() < maxInFlight && nextPageToSchedule < pageLimit) {
+            final int pageIndex = nextPageToSchedule++;
+            inFlight.addLast(executor.submit(() -> fetcher.fetch(pageIndex)));
+        }
+    }
+
+    private FetchedPage<T> await(Future<FetchedPage<T>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for page prefetch");
+            return FetchedPage.empty();
+        } catch (ExecutionException e) {
+            log.error("Page prefetch failed: {}", e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            return FetchedPage.empty();
+        }
+    }
+
+    private void finish() {
+        exhausted = true;
+        cancelInFlight();
+    }
+
+    private void cancelInFlight() {
+        Future<FetchedPage<T>> future;
+        while ((future = inFlight.pollFirst()) != null) {
+            future.cancel(true);
+        }
+    }
+}
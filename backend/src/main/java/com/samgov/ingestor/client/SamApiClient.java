@@ -1,8 +1,11 @@
 package com.samgov.ingestor.client;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samgov.ingestor.client.PrefetchingPageIterator.FetchedPage;
 import com.samgov.ingestor.config.SamGovProperties;
+import com.samgov.ingestor.dto.PostedDateWindow;
 import com.samgov.ingestor.dto.SamOpportunityDto;
-import com.samgov.ingestor.dto.SamSearchResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -10,19 +13,31 @@ import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.util.UriBuilder;
 
-import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 /**
  * SAM.gov API client for fetching government contract opportunities.
- * Implements rate limiting to avoid 429 errors from the API.
+ * Rate limiting, daily quota and 429 backoff are applied by the shared
+ * {@link OutboundRateLimiter} installed on the {@code samGovRestClient} bean, so prefetching
+ * threads wait for permits without serializing on a lock.
  * All parameters are configurable via application.yaml.
- * 
- * Note: Uses ReentrantLock instead of synchronized to avoid pinning virtual threads.
+ *
+ * Searches are paged over the {@code offset} parameter until {@code totalRecords} is drained
+ * (bounded by {@code sam.gov.max-pages}). The {@code stream*} methods yield pages lazily so
+ * callers can process results as they arrive; the {@code List}-returning methods drain the
+ * same streams for convenience. Incremental callers pass an explicit {@link PostedDateWindow}
+ * and a failure flag so they only advance their watermark after a clean walk.
+ *
+ * Response bodies are decoded with {@link JsonStreamDecoder}: opportunities are bound one at a
+ * time straight off the socket (the shape documented on {@code SamSearchResponse}), so a
+ * 1,000-row page never exists as a buffered payload alongside its DTOs.
  */
 @Service
 public class SamApiClient {
@@ -30,119 +45,183 @@ public class SamApiClient {
     private static final Logger log = LoggerFactory.getLogger(SamApiClient.class);
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
 
+    private static final String OPPORTUNITIES_FIELD = "opportunitiesData";
+    private static final String TOTAL_RECORDS_FIELD = "totalRecords";
+
     private final RestClient restClient;
     private final SamGovProperties properties;
-    private final Lock rateLimitLock = new ReentrantLock();
-    private volatile long lastCallTime = 0;
+    private final JsonStreamDecoder decoder;
 
-    public SamApiClient(RestClient samGovRestClient, SamGovProperties properties) {
+    public SamApiClient(RestClient samGovRestClient, SamGovProperties properties, ObjectMapper objectMapper) {
         this.restClient = samGovRestClient;
         this.properties = properties;
+        this.decoder = new JsonStreamDecoder(objectMapper);
     }
 
     /**
      * Fetches opportunities from SAM.gov for the given NAICS code.
-     * Uses configured parameters for limit, date range, procurement types, and set-asides.
+     * Uses configured parameters for page size, date range, procurement types, and set-asides.
      *
      * @param naicsCode The NAICS code to filter opportunities (e.g., "541511")
-     * @return List of SamOpportunityDto, empty list if error occurs
+     * @return List of SamOpportunityDto across all pages, empty list if error occurs
      */
     public List<SamOpportunityDto> fetchOpportunities(String naicsCode) {
-        applyRateLimit();
+        try (Stream<List<SamOpportunityDto>> pages = streamOpportunityPages(naicsCode)) {
+            return pages.flatMap(List::stream).toList();
+        }
+    }
 
-        String postedFrom = LocalDate.now()
-                .minusDays(properties.getPostedWithinDays())
-                .format(DATE_FORMATTER);
-        String postedTo = LocalDate.now().format(DATE_FORMATTER);
+    /**
+     * Lazily streams pages of opportunities for the given NAICS code using the configured ptype.
+     * The returned stream must be closed to cancel any prefetched pages.
+     *
+     * @param naicsCode The NAICS code to filter opportunities
+     * @return Stream of pages, each at most {@code sam.gov.limit} records
+     */
+    public Stream<List<SamOpportunityDto>> streamOpportunityPages(String naicsCode) {
+        return streamOpportunityPages(naicsCode, properties.getPtype());
+    }
+
+    /**
+     * Lazily streams pages of opportunities for the given NAICS code and procurement type.
+     * The returned stream must be closed to cancel any prefetched pages.
+     */
+    public Stream<List<SamOpportunityDto>> streamOpportunityPages(String naicsCode, String ptype) {
+        return streamOpportunityPages(naicsCode, ptype, defaultWindow(), 0, new AtomicBoolean());
+    }
 
-        log.info("Fetching SAM.gov opportunities - NAICS: {}, postedFrom: {}, postedTo: {}, limit: {}, ptype: {}",
-                naicsCode, postedFrom, postedTo, properties.getLimit(), properties.getPtype());
+    /**
+     * Lazily streams pages of opportunities posted within the given window, starting at
+     * {@code startPage} when resuming from a checkpoint.
+     * {@code fetchFailed} is set if any page request fails, in which case the stream ends early
+     * and the window must not be considered covered.
+     */
+    public Stream<List<SamOpportunityDto>> streamOpportunityPages(String naicsCode, String ptype,
+                                                                  PostedDateWindow window, int startPage,
+                                                                  AtomicBoolean fetchFailed) {
+        Map<String, Object> params = baseParams(window);
+        params.put("ptype", ptype);
+        params.put("ncode", naicsCode);
+        addSetAside(params);
+
+        log.info("Fetching SAM.gov opportunities - NAICS: {}, postedFrom: {}, postedTo: {}, pageSize: {}, ptype: {}",
+                naicsCode, params.get("postedFrom"), params.get("postedTo"), properties.getLimit(), ptype);
+
+        return streamPages(params, properties.getLimit(), properties.getMaxPages(), startPage,
+                "NAICS " + naicsCode, fetchFailed);
+    }
+
+    /**
+     * Walks the search identified by {@code params} page by page.
+     */
+    private Stream<List<SamOpportunityDto>> streamPages(Map<String, Object> params, int pageSize, int maxPages,
+                                                        int startPage, String label, AtomicBoolean fetchFailed) {
+        PrefetchingPageIterator<SamOpportunityDto> iterator = new PrefetchingPageIterator<>(
+                pageIndex -> fetchPage(params, pageIndex, pageSize, label, fetchFailed),
+                pageSize,
+                maxPages,
+                properties.getMaxInFlightPages(),
+                startPage);
+        return iterator.stream();
+    }
+
+    /**
+     * Fetches a single page. SAM.gov treats {@code offset} as the starting record index.
+     */
+    private FetchedPage<SamOpportunityDto> fetchPage(Map<String, Object> params, int pageIndex,
+                                                     int pageSize, String label, AtomicBoolean fetchFailed) {
+        if (Thread.currentThread().isInterrupted()) {
+            // Prefetch cancelled before it started; don't spend a rate-limit permit on it
+            return FetchedPage.empty();
+        }
+        Map<String, Object> pageParams = new LinkedHashMap<>(params);
+        pageParams.put("limit", pageSize);
+        pageParams.put("offset", pageIndex * pageSize);
 
         try {
-            SamSearchResponse response = restClient.get()
-                    .uri(uriBuilder -> buildUri(uriBuilder, naicsCode, postedFrom, postedTo))
-                    .retrieve()
-                    .body(SamSearchResponse.class);
-
-            if (response == null) {
-                log.warn("Received null response from SAM.gov API");
-                return List.of();
+            List<SamOpportunityDto> opportunities = new ArrayList<>(pageSize);
+            Map<String, JsonNode> metadata = restClient.get()
+                    .uri(uriBuilder -> buildUri(uriBuilder, pageParams))
+                    .exchange((request, response) -> {
+                        JsonStreamDecoder.requireSuccess(response);
+                        return decoder.readObject(response.getBody(), OPPORTUNITIES_FIELD, SamOpportunityDto.class,
+                                Set.of(TOTAL_RECORDS_FIELD), opportunities::add);
+                    });
+
+            if (metadata == null) {
+                log.warn("Received null response from SAM.gov API ({}, page {})", label, pageIndex);
+                fetchFailed.set(true);
+                return FetchedPage.empty();
             }
 
-            List<SamOpportunityDto> opportunities = response.getOpportunities();
-            log.info("Successfully fetched {} opportunities for NAICS {} (total available: {})",
-                    opportunities.size(), naicsCode, response.totalRecords());
+            JsonNode totalRecords = metadata.get(TOTAL_RECORDS_FIELD);
+            int total = totalRecords != null && totalRecords.canConvertToInt() ? totalRecords.asInt() : -1;
+            log.info("Fetched page {} with {} opportunities for {} (total available: {})",
+                    pageIndex, opportunities.size(), label, total);
 
-            return opportunities;
+            return new FetchedPage<>(opportunities, total);
 
-        } catch (RestClientException e) {
-            log.error("Error fetching opportunities from SAM.gov for NAICS {}: {}",
-                    naicsCode, e.getMessage());
-            return List.of();
         } catch (Exception e) {
-            log.error("Unexpected error fetching opportunities from SAM.gov: {}", e.getMessage(), e);
-            return List.of();
+            if (PrefetchingPageIterator.isCancellation(e)) {
+                // A short page ended the walk; this speculative page is not needed
+                log.debug("Cancelled fetch of SAM.gov page {} for {}", pageIndex, label);
+                return FetchedPage.empty();
+            }
+            if (e instanceof RestClientException) {
+                log.error("Error fetching opportunities from SAM.gov for {} (page {}): {}",
+                        label, pageIndex, e.getMessage());
+            } else {
+                log.error("Unexpected error fetching opportunities from SAM.gov: {}", e.getMessage(), e);
+            }
+            fetchFailed.set(true);
+            return FetchedPage.empty();
         }
     }
 
     /**
-     * Builds the URI with all configured query parameters.
+     * Builds the URI with all query parameters.
      * Uses URI template variables to properly encode special characters.
      */
-    private java.net.URI buildUri(UriBuilder uriBuilder, String naicsCode, String postedFrom, String postedTo) {
-        uriBuilder
-                .queryParam("api_key", "{apiKey}")
-                .queryParam("postedFrom", "{postedFrom}")
-                .queryParam("postedTo", "{postedTo}")
-                .queryParam("limit", "{limit}")
-                .queryParam("ptype", "{ptype}")
-                .queryParam("ncode", "{ncode}");
-
-        // Add set-aside filter if configured
-        String setAside = properties.getSetAside();
-        if (setAside != null && !setAside.isBlank()) {
-            uriBuilder.queryParam("setaside", "{setaside}");
-            return uriBuilder.build(
-                    properties.getApiKey(), postedFrom, postedTo, properties.getLimit(),
-                    properties.getPtype(), naicsCode, setAside);
-        }
+    private java.net.URI buildUri(UriBuilder uriBuilder, Map<String, Object> params) {
+        params.keySet().forEach(name -> uriBuilder.queryParam(name, "{" + name + "}"));
+        return uriBuilder.build(params);
+    }
 
-        return uriBuilder.build(
-                properties.getApiKey(), postedFrom, postedTo, properties.getLimit(),
-                properties.getPtype(), naicsCode);
+    /**
+     * Parameters shared by every search: API key and the posted date window.
+     */
+    private Map<String, Object> baseParams(PostedDateWindow window) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("api_key", properties.getApiKey());
+        params.put("postedFrom", window.postedFrom().format(DATE_FORMATTER));
+        params.put("postedTo", window.postedTo().format(DATE_FORMATTER));
+        return params;
     }
 
     /**
-     * Applies rate limiting by sleeping if necessary.
-     * Uses configurable delay from properties to avoid 429 errors.
-     * 
-     * Uses ReentrantLock instead of synchronized to avoid pinning virtual threads.
-     * Virtual threads can be unmounted during lock.lock() and Thread.sleep().
+     * The configured posted-within-days window ending today.
      */
-    private void applyRateLimit() {
-        rateLimitLock.lock();
-        try {
-            long now = System.currentTimeMillis();
-            long timeSinceLastCall = now - lastCallTime;
-            long rateLimitMs = properties.getRateLimitMs();
-
-            if (timeSinceLastCall < rateLimitMs && lastCallTime > 0) {
-                try {
-                    long sleepTime = rateLimitMs - timeSinceLastCall;
-                    log.debug("Rate limiting: sleeping for {}ms", sleepTime);
-                    TimeUnit.MILLISECONDS.sleep(sleepTime);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.warn("Rate limit sleep interrupted");
-                }
-            }
+    public PostedDateWindow defaultWindow() {
+        return PostedDateWindow.lastDays(properties.getPostedWithinDays());
+    }
 
-            lastCallTime = System.currentTimeMillis();
-        } finally {
-            rateLimitLock.unlock();
+    /**
+     * Adds the set-aside filter if configured.
+     */
+    private void addSetAside(Map<String, Object> params) {
+        String setAside = properties.getSetAside();
+        if (setAside != null && !setAside.isBlank()) {
+            params.put("setaside", setAside);
         }
     }
 
+    /**
+     * Upper bound on pages walked per search; a walk that reaches it may be truncated.
+     */
+    public int getMaxPages() {
+        return properties.getMaxPages();
+    }
+
     /**
      * Returns the configured NAICS codes from properties.
      */
@@ -156,60 +235,28 @@ public class SamApiClient {
      *
      * @param naicsCode The NAICS code to filter
      * @param ptype     Procurement type: o=Original, k=Combined, p=Presolicitation, r=Sources Sought
-     * @param limit     Maximum results to return
+     * @param limit     Maximum results to return (paged if larger than the configured page size)
      * @return List of SamOpportunityDto
      */
     public List<SamOpportunityDto> fetchOpportunitiesWithParams(String naicsCode, String ptype, int limit) {
-        applyRateLimit();
+        Map<String, Object> params = baseParams(defaultWindow());
+        params.put("ptype", ptype);
+        params.put("ncode", naicsCode);
+        addSetAside(params);
 
-        String postedFrom = LocalDate.now()
-                .minusDays(properties.getPostedWithinDays())
-                .format(DATE_FORMATTER);
-        String postedTo = LocalDate.now().format(DATE_FORMATTER);
+        int pageSize = Math.max(1, Math.min(limit, properties.getLimit()));
+        int maxPages = Math.min(properties.getMaxPages(), (int) Math.ceil((double) limit / pageSize));
 
         log.info("Custom search - NAICS: {}, ptype: {}, postedFrom: {}, postedTo: {}, limit: {}",
-                naicsCode, ptype, postedFrom, postedTo, limit);
-
-        try {
-            SamSearchResponse response = restClient.get()
-                    .uri(uriBuilder -> {
-                        uriBuilder
-                                .queryParam("api_key", "{apiKey}")
-                                .queryParam("postedFrom", "{postedFrom}")
-                                .queryParam("postedTo", "{postedTo}")
-                                .queryParam("limit", "{limit}")
-                                .queryParam("ptype", "{ptype}")
-                                .queryParam("ncode", "{ncode}");
-
-                        String setAside = properties.getSetAside();
-                        if (setAside != null && !setAside.isBlank()) {
-                            uriBuilder.queryParam("setaside", "{setaside}");
-                            return uriBuilder.build(
-                                    properties.getApiKey(), postedFrom, postedTo, limit, ptype, naicsCode, setAside);
-                        }
-                        return uriBuilder.build(
-                                properties.getApiKey(), postedFrom, postedTo, limit, ptype, naicsCode);
-                    })
-                    .retrieve()
-                    .body(SamSearchResponse.class);
-
-            if (response == null) {
-                log.warn("Received null response from SAM.gov API");
-                return List.of();
-            }
-
-            List<SamOpportunityDto> opportunities = response.getOpportunities();
-            log.info("Custom search returned {} opportunities for NAICS {} (total: {})",
-                    opportunities.size(), naicsCode, response.totalRecords());
-
+                naicsCode, ptype, params.get("postedFrom"), params.get("postedTo"), limit);
+
+        try (Stream<List<SamOpportunityDto>> pages = streamPages(params, pageSize, maxPages, 0,
+                "NAICS " + naicsCode, new AtomicBoolean())) {
+            List<SamOpportunityDto> opportunities = pages.flatMap(List::stream)
+                    .limit(limit)
+                    .toList();
+            log.info("Custom search returned {} opportunities for NAICS {}", opportunities.size(), naicsCode);
             return opportunities;
-
-        } catch (RestClientException e) {
-            log.error("Custom search error for NAICS {}: {}", naicsCode, e.getMessage());
-            return List.of();
-        } catch (Exception e) {
-            log.error("Unexpected error in custom search: {}", e.getMessage(), e);
-            return List.of();
         }
     }
 
@@ -217,7 +264,16 @@ public class SamApiClient {
      * Convenience method to search for Sources Sought opportunities only.
      */
     public List<SamOpportunityDto> fetchSourcesSought(String naicsCode) {
-        return fetchOpportunitiesWithParams(naicsCode, "r", properties.getLimit());
+        try (Stream<List<SamOpportunityDto>> pages = streamSourcesSoughtPages(naicsCode)) {
+            return pages.flatMap(List::stream).toList();
+        }
+    }
+
+    /**
+     * Lazily streams pages of Sources Sought (ptype=r) opportunities for a NAICS code.
+     */
+    public Stream<List<SamOpportunityDto>> streamSourcesSoughtPages(String naicsCode) {
+        return streamOpportunityPages(naicsCode, "r");
     }
 
     /**
@@ -234,50 +290,37 @@ public class SamApiClient {
      * Searches across all procurement types to capture SBIR Phase I, II, III.
      *
      * @param keyword The keyword to search (e.g., "SBIR" or "STTR")
-     * @return List of matching opportunities
+     * @return List of matching opportunities across all pages
      */
     public List<SamOpportunityDto> fetchSbirOpportunities(String keyword) {
-        applyRateLimit();
-
-        String postedFrom = LocalDate.now()
-                .minusDays(properties.getPostedWithinDays())
-                .format(DATE_FORMATTER);
-        String postedTo = LocalDate.now().format(DATE_FORMATTER);
-
-        log.info("Fetching SBIR/STTR opportunities - keyword: {}, postedFrom: {}, postedTo: {}",
-                keyword, postedFrom, postedTo);
+        try (Stream<List<SamOpportunityDto>> pages = streamSbirPages(keyword)) {
+            return pages.flatMap(List::stream).toList();
+        }
+    }
 
-        try {
-            SamSearchResponse response = restClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .queryParam("api_key", "{apiKey}")
-                            .queryParam("postedFrom", "{postedFrom}")
-                            .queryParam("postedTo", "{postedTo}")
-                            .queryParam("limit", "{limit}")
-                            .queryParam("title", "{title}")
-                            .build(properties.getApiKey(), postedFrom, postedTo, 
-                                   properties.getLimit(), keyword))
-                    .retrieve()
-                    .body(SamSearchResponse.class);
-
-            if (response == null) {
-                log.warn("Received null response from SAM.gov API for SBIR search");
-                return List.of();
-            }
+    /**
+     * Lazily streams pages of opportunities whose title matches the keyword.
+     * The returned stream must be closed to cancel any prefetched pages.
+     */
+    public Stream<List<SamOpportunityDto>> streamSbirPages(String keyword) {
+        return streamSbirPages(keyword, defaultWindow(), 0, new AtomicBoolean());
+    }
 
-            List<SamOpportunityDto> opportunities = response.getOpportunities();
-            log.info("Successfully fetched {} {} opportunities (total available: {})",
-                    opportunities.size(), keyword, response.totalRecords());
+    /**
+     * Lazily streams pages of keyword matches posted within the given window, starting at
+     * {@code startPage} when resuming from a checkpoint.
+     * {@code fetchFailed} is set if any page request fails.
+     */
+    public Stream<List<SamOpportunityDto>> streamSbirPages(String keyword, PostedDateWindow window,
+                                                           int startPage, AtomicBoolean fetchFailed) {
+        Map<String, Object> params = baseParams(window);
+        params.put("title", keyword);
 
-            return opportunities;
+        log.info("Fetching SBIR/STTR opportunities - keyword: {}, postedFrom: {}, postedTo: {}",
+                keyword, params.get("postedFrom"), params.get("postedTo"));
 
-        } catch (RestClientException e) {
-            log.error("Error fetching {} opportunities from SAM.gov: {}", keyword, e.getMessage());
-            return List.of();
-        } catch (Exception e) {
-            log.error("Unexpected error fetching {} opportunities: {}", keyword, e.getMessage(), e);
-            return List.of();
-        }
+        return streamPages(params, properties.getLimit(), properties.getMaxPages(), startPage,
+                "keyword " + keyword, fetchFailed);
     }
 
     /**
@@ -296,6 +339,20 @@ public class SamApiClient {
                 .toList();
     }
 
+    /**
+     * Returns the configured procurement types (e.g. "k,o").
+     */
+    public String getConfiguredPtype() {
+        return properties.getPtype();
+    }
+
+    /**
+     * Returns the configured SBIR/STTR search keywords.
+     */
+    public List<String> getSbirKeywords() {
+        return properties.getSbirKeywords();
+    }
+
     /**
      * Check if SBIR/STTR search is enabled.
      */
@@ -1,10 +1,10 @@
 package com.samgov.ingestor.client;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.samgov.ingestor.config.SbirGovProperties;
 import com.samgov.ingestor.dto.SbirAwardDto;
 import com.samgov.ingestor.dto.SbirSolicitationDto;
+import com.samgov.ingestor.util.IngestionProgress;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -13,15 +13,16 @@ import org.springframework.web.client.RestClientException;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * SBIR.gov API client for fetching SBIR/STTR awards and solicitations.
  * API Documentation: https://www.sbir.gov/api
- * 
- * Note: Uses ReentrantLock instead of synchronized to avoid pinning virtual threads.
+ *
+ * Rate limiting and 429 backoff are applied by a shared {@link OutboundRateLimiter} on the RestClient;
+ * configured slow-changing endpoints are served from the {@link HttpResponseCache} in front of it.
+ * Responses are top-level JSON arrays decoded with {@link JsonStreamDecoder}, so awards reach
+ * {@link #forEachAward} callers one at a time without buffering the payload.
  */
 @Service
 public class SbirGovApiClient {
@@ -30,15 +31,17 @@ public class SbirGovApiClient {
 
     private final RestClient restClient;
     private final SbirGovProperties properties;
-    private final ObjectMapper objectMapper;
-    private final Lock rateLimitLock = new ReentrantLock();
-    private volatile long lastCallTime = 0;
+    private final JsonStreamDecoder decoder;
 
-    public SbirGovApiClient(SbirGovProperties properties, ObjectMapper objectMapper) {
+    public SbirGovApiClient(SbirGovProperties properties, ObjectMapper objectMapper,
+                            OutboundRateLimiterRegistry rateLimiters,
+                            HttpResponseCache responseCache) {
         this.properties = properties;
-        this.objectMapper = objectMapper;
+        this.decoder = new JsonStreamDecoder(objectMapper);
         this.restClient = RestClient.builder()
                 .baseUrl(properties.getBaseUrl())
+                .requestInterceptor(responseCache.interceptor("sbir.gov"))
+                .requestInterceptor(rateLimiters.forApi("sbir.gov", properties.getRateLimitMs()).interceptor())
                 .build();
     }
 
@@ -52,17 +55,28 @@ public class SbirGovApiClient {
      */
     public List<SbirAwardDto> fetchAwards(String agency, Integer year) {
         List<SbirAwardDto> allAwards = new ArrayList<>();
+        forEachAward(agency, year, allAwards::add);
+        return allAwards;
+    }
+
+    /**
+     * Streams SBIR/STTR awards page by page, handing each award to the consumer as soon as it
+     * is decoded. The consumer runs while the response is being read.
+     *
+     * @param agency Agency code (DOD, NASA, NSF, etc.) or null for all
+     * @param year   Award year or null for recent
+     * @return number of awards delivered
+     */
+    public int forEachAward(String agency, Integer year, Consumer<SbirAwardDto> consumer) {
         int start = 0;
         int rows = properties.getRowsPerRequest();
-        boolean hasMore = true;
+        int total = 0;
 
-        while (hasMore && start < properties.getMaxResults()) {
-            applyRateLimit();
-            
+        while (start < properties.getMaxResults()) {
             final int currentStart = start;
 
             try {
-                String response = restClient.get()
+                Integer count = restClient.get()
                         .uri(uriBuilder -> {
                             uriBuilder.path("/awards");
                             if (agency != null && !agency.isBlank()) {
@@ -75,42 +89,36 @@ public class SbirGovApiClient {
                             uriBuilder.queryParam("start", currentStart);
                             return uriBuilder.build();
                         })
-                        .retrieve()
-                        .body(String.class);
+                        .exchange((request, response) -> {
+                            JsonStreamDecoder.requireSuccess(response);
+                            return decoder.readArray(response.getBody(), SbirAwardDto.class, consumer);
+                        });
 
-                if (response == null || response.isBlank()) {
-                    log.warn("Empty response from SBIR.gov API");
+                IngestionProgress.recordPage();
+                if (count == null || count == 0) {
                     break;
                 }
+                total += count;
+                start += rows;
+                log.debug("Fetched {} awards, total so far: {}", count, total);
 
-                List<SbirAwardDto> awards = objectMapper.readValue(response, 
-                        new TypeReference<List<SbirAwardDto>>() {});
-
-                if (awards == null || awards.isEmpty()) {
-                    hasMore = false;
-                } else {
-                    allAwards.addAll(awards);
-                    start += rows;
-                    log.debug("Fetched {} awards, total so far: {}", awards.size(), allAwards.size());
-                    
-                    // If we got fewer than requested, we've reached the end
-                    if (awards.size() < rows) {
-                        hasMore = false;
-                    }
+                // If we got fewer than requested, we've reached the end
+                if (count < rows) {
+                    break;
                 }
 
             } catch (RestClientException e) {
                 log.error("Error fetching awards from SBIR.gov: {}", e.getMessage());
                 break;
             } catch (Exception e) {
-                log.error("Unexpected error parsing SBIR.gov response: {}", e.getMessage(), e);
+                log.error("Unexpected error reading SBIR.gov response: {}", e.getMessage(), e);
                 break;
             }
         }
 
-        log.info("Fetched {} total awards from SBIR.gov (agency: {}, year: {})", 
-                allAwards.size(), agency, year);
-        return allAwards;
+        log.info("Fetched {} total awards from SBIR.gov (agency: {}, year: {})",
+                total, agency, year);
+        return total;
     }
 
     /**
@@ -144,6 +152,23 @@ public class SbirGovApiClient {
         return allAwards;
     }
 
+    /**
+     * Streams recent awards (current year and previous year) for all configured agencies.
+     *
+     * @return number of awards delivered
+     */
+    public int forEachRecentAward(Consumer<SbirAwardDto> consumer) {
+        int currentYear = java.time.Year.now().getValue();
+        int total = 0;
+        for (int year : new int[] {currentYear, currentYear - 1}) {
+            for (String agency : properties.getAgencies()) {
+                log.info("Fetching SBIR awards for agency: {}", agency);
+                total += forEachAward(agency, year, consumer);
+            }
+        }
+        return total;
+    }
+
     /**
      * Fetches open solicitations from SBIR.gov API.
      * Note: This endpoint may be under maintenance per SBIR.gov notice.
@@ -151,28 +176,25 @@ public class SbirGovApiClient {
      * @return List of SbirSolicitationDto
      */
     public List<SbirSolicitationDto> fetchOpenSolicitations() {
-        applyRateLimit();
-
         try {
-            String response = restClient.get()
+            List<SbirSolicitationDto> solicitations = new ArrayList<>();
+            restClient.get()
                     .uri(uriBuilder -> uriBuilder
                             .path("/solicitations")
                             .queryParam("open", "1")
                             .build())
-                    .retrieve()
-                    .body(String.class);
+                    .exchange((request, response) -> {
+                        JsonStreamDecoder.requireSuccess(response);
+                        return decoder.readArray(response.getBody(), SbirSolicitationDto.class, solicitations::add);
+                    });
 
-            if (response == null || response.isBlank()) {
+            if (solicitations.isEmpty()) {
                 log.warn("Empty response from SBIR.gov solicitations API");
                 return List.of();
             }
 
-            List<SbirSolicitationDto> solicitations = objectMapper.readValue(response,
-                    new TypeReference<List<SbirSolicitationDto>>() {});
-
-            log.info("Fetched {} open solicitations from SBIR.gov", 
-                    solicitations != null ? solicitations.size() : 0);
-            return solicitations != null ? solicitations : List.of();
+            log.info("Fetched {} open solicitations from SBIR.gov", solicitations.size());
+            return solicitations;
 
         } catch (RestClientException e) {
             log.error("Error fetching solicitations from SBIR.gov: {}", e.getMessage());
@@ -187,27 +209,21 @@ public class SbirGovApiClient {
      * Search awards by company/firm name.
      */
     public List<SbirAwardDto> searchByFirm(String firmName) {
-        applyRateLimit();
-
         try {
-            String response = restClient.get()
+            List<SbirAwardDto> awards = new ArrayList<>();
+            restClient.get()
                     .uri(uriBuilder -> uriBuilder
                             .path("/awards")
                             .queryParam("firm", firmName)
                             .queryParam("rows", properties.getRowsPerRequest())
                             .build())
-                    .retrieve()
-                    .body(String.class);
+                    .exchange((request, response) -> {
+                        JsonStreamDecoder.requireSuccess(response);
+                        return decoder.readArray(response.getBody(), SbirAwardDto.class, awards::add);
+                    });
 
-            if (response == null || response.isBlank()) {
-                return List.of();
-            }
-
-            List<SbirAwardDto> awards = objectMapper.readValue(response,
-                    new TypeReference<List<SbirAwardDto>>() {});
-
-            log.info("Found {} awards for firm: {}", awards != null ? awards.size() : 0, firmName);
-            return awards != null ? awards : List.of();
+            log.info("Found {} awards for firm: {}", awards.size(), firmName);
+            return awards;
 
         } catch (Exception e) {
             log.error("Error searching SBIR.gov by firm: {}", e.getMessage());
@@ -249,31 +265,4 @@ public class SbirGovApiClient {
     public boolean isEnabled() {
         return properties.isEnabled();
     }
-
-    /**
-     * Applies rate limiting to avoid overwhelming the SBIR.gov API.
-     */
-    private void applyRateLimit() {
-        rateLimitLock.lock();
-        try {
-            long now = System.currentTimeMillis();
-            long timeSinceLastCall = now - lastCallTime;
-            long rateLimitMs = properties.getRateLimitMs();
-
-            if (timeSinceLastCall < rateLimitMs && lastCallTime > 0) {
-                try {
-                    long sleepTime = rateLimitMs - timeSinceLastCall;
-                    log.debug("Rate limiting SBIR.gov: sleeping for {}ms", sleepTime);
-                    TimeUnit.MILLISECONDS.sleep(sleepTime);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.warn("Rate limit sleep interrupted");
-                }
-            }
-
-            lastCallTime = System.currentTimeMillis();
-        } finally {
-            rateLimitLock.unlock();
-        }
-    }
 }
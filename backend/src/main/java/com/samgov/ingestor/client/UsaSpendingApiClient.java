@@ -1,8 +1,12 @@
 package com.samgov.ingestor.client;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samgov.ingestor.client.PrefetchingPageIterator.FetchedPage;
 import com.samgov.ingestor.config.UsaSpendingProperties;
 import com.samgov.ingestor.dto.UsaSpendingAwardDto;
 import com.samgov.ingestor.dto.UsaSpendingSearchResponse;
+import com.samgov.ingestor.util.IngestionProgress;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
@@ -13,9 +17,8 @@ import org.springframework.web.client.RestClientException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 /**
  * USAspending.gov API client for fetching federal spending and award data.
@@ -24,7 +27,11 @@ import java.util.concurrent.locks.ReentrantLock;
  * API Documentation: https://api.usaspending.gov/
  * No API key required (free public API).
  *
- * Note: Uses ReentrantLock instead of synchronized to avoid pinning virtual threads.
+ * Rate limiting and 429 backoff are applied by a shared {@link OutboundRateLimiter} on the RestClient;
+ * configured slow-changing endpoints are served from the {@link HttpResponseCache} in front of it.
+ * Award searches are decoded with {@link JsonStreamDecoder}, binding one award at a time
+ * instead of materializing the whole response, and multi-page searches prefetch upcoming
+ * pages concurrently (see {@link #streamAwardPages}).
  */
 @Service
 public class UsaSpendingApiClient {
@@ -32,17 +39,24 @@ public class UsaSpendingApiClient {
     private static final Logger log = LoggerFactory.getLogger(UsaSpendingApiClient.class);
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    private static final String RESULTS_FIELD = "results";
+    private static final String PAGE_METADATA_FIELD = "page_metadata";
+
     private final RestClient restClient;
     private final UsaSpendingProperties properties;
-    private final Lock rateLimitLock = new ReentrantLock();
-    private volatile long lastCallTime = 0;
+    private final JsonStreamDecoder decoder;
 
-    public UsaSpendingApiClient(UsaSpendingProperties properties) {
+    public UsaSpendingApiClient(UsaSpendingProperties properties, ObjectMapper objectMapper,
+                                OutboundRateLimiterRegistry rateLimiters,
+                                HttpResponseCache responseCache) {
         this.properties = properties;
+        this.decoder = new JsonStreamDecoder(objectMapper);
         this.restClient = RestClient.builder()
                 .baseUrl(properties.getBaseUrl())
                 .defaultHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
                 .defaultHeader("Accept", MediaType.APPLICATION_JSON_VALUE)
+                .requestInterceptor(responseCache.interceptor("usaspending.gov"))
+                .requestInterceptor(rateLimiters.forApi("usaspending.gov", properties.getRateLimitMs()).interceptor())
                 .build();
     }
 
@@ -61,71 +75,123 @@ public class UsaSpendingApiClient {
             return List.of();
         }
 
-        applyRateLimit();
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(properties.getAwardLookbackDays());
+        FetchedPage<UsaSpendingAwardDto> fetched =
+                fetchAwardPage(naicsCode, agency, startDate, endDate, page, new AtomicBoolean());
+        if (!fetched.items().isEmpty()) {
+            IngestionProgress.recordPage();
+        }
+        return fetched.items();
+    }
+
+    /**
+     * Lazily streams award pages for one (NAICS, agency) filter, up to maxResults.
+     * Up to max-in-flight-pages pages are requested concurrently on virtual threads while the
+     * current page is consumed; every request still goes through the shared rate limiter, so
+     * concurrency hides response latency without exceeding the configured rate.
+     * Close the stream to cancel outstanding requests.
+     *
+     * @param naicsCode   Optional NAICS code filter
+     * @param agency      Optional agency filter
+     * @param fetchFailed set when a page could not be fetched, so callers can tell a failed
+     *                    walk from one that reached the last page
+     */
+    public Stream<List<UsaSpendingAwardDto>> streamAwardPages(String naicsCode, String agency,
+                                                              AtomicBoolean fetchFailed) {
+        if (!properties.isEnabled()) {
+            log.debug("USAspending integration is disabled");
+            return Stream.empty();
+        }
 
+        // One window for the whole walk, so pages fetched around midnight stay consistent
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(properties.getAwardLookbackDays());
+        int maxPages = Math.max(1, properties.getMaxResults() / properties.getPageSize());
+        PrefetchingPageIterator<UsaSpendingAwardDto> iterator = new PrefetchingPageIterator<>(
+                pageIndex -> fetchAwardPage(naicsCode, agency, startDate, endDate, pageIndex + 1, fetchFailed),
+                properties.getPageSize(),
+                maxPages,
+                properties.getMaxInFlightPages());
+        return iterator.stream();
+    }
+
+    /**
+     * Fetch all awards with pagination, respecting max results limit.
+     *
+     * @param naicsCode Optional NAICS code filter
+     * @param agency    Optional agency filter
+     * @return Aggregated list of all awards up to maxResults
+     */
+    public List<UsaSpendingAwardDto> fetchAllAwards(String naicsCode, String agency) {
+        try (Stream<List<UsaSpendingAwardDto>> pages = streamAwardPages(naicsCode, agency, new AtomicBoolean())) {
+            List<UsaSpendingAwardDto> allAwards = pages.flatMap(List::stream).toList();
+            log.info("Fetched total of {} awards (NAICS: {}, agency: {})", allAwards.size(), naicsCode, agency);
+            return allAwards;
+        }
+    }
 
+    /**
+     * Fetches one page of the award search. The reported total lets the page iterator stop
+     * scheduling requests past the last page.
+     */
+    private FetchedPage<UsaSpendingAwardDto> fetchAwardPage(String naicsCode, String agency, LocalDate startDate,
+                                                            LocalDate endDate, int page, AtomicBoolean fetchFailed) {
+        if (Thread.currentThread().isInterrupted()) {
+            // Prefetch cancelled before it started; don't spend a rate-limit permit on it
+            return FetchedPage.empty();
+        }
         Map<String, Object> requestBody = buildSearchRequest(naicsCode, agency, startDate, endDate, page);
 
         log.info("Searching USAspending awards - NAICS: {}, agency: {}, page: {}, dateRange: {} to {}",
                 naicsCode, agency, page, startDate, endDate);
 
         try {
-            UsaSpendingSearchResponse response = restClient.post()
+            List<UsaSpendingAwardDto> awards = new ArrayList<>(properties.getPageSize());
+            Map<String, JsonNode> metadata = restClient.post()
                     .uri("/search/spending_by_award/")
                     .body(requestBody)
-                    .retrieve()
-                    .body(UsaSpendingSearchResponse.class);
+                    .exchange((request, response) -> {
+                        JsonStreamDecoder.requireSuccess(response);
+                        return decoder.readObject(response.getBody(), RESULTS_FIELD, UsaSpendingAwardDto.class,
+                                Set.of(PAGE_METADATA_FIELD), awards::add);
+                    });
 
-            if (response == null) {
+            if (metadata == null) {
                 log.warn("Received null response from USAspending API");
-                return List.of();
+                fetchFailed.set(true);
+                return FetchedPage.empty();
             }
 
-            List<UsaSpendingAwardDto> awards = response.getAwards();
+            UsaSpendingSearchResponse.PageMetadata pageMetadata = decoder.convert(
+                    metadata.get(PAGE_METADATA_FIELD), UsaSpendingSearchResponse.PageMetadata.class);
+            UsaSpendingSearchResponse response = new UsaSpendingSearchResponse(awards, pageMetadata, null);
             log.info("Successfully fetched {} awards (total: {}, hasMore: {})",
                     awards.size(), response.getTotalCount(), response.hasMore());
 
-            return awards;
+            int total = -1;
+            if (pageMetadata != null && pageMetadata.total() != null) {
+                total = pageMetadata.total();
+            } else if (pageMetadata != null && Boolean.FALSE.equals(pageMetadata.hasNext())) {
+                // The award search usually reports only hasNext; the last page pins the total
+                total = (page - 1) * properties.getPageSize() + awards.size();
+            }
+            return new FetchedPage<>(awards, total);
 
-        } catch (RestClientException e) {
-            log.error("Error fetching awards from USAspending: {}", e.getMessage());
-            return List.of();
         } catch (Exception e) {
-            log.error("Unexpected error fetching awards from USAspending: {}", e.getMessage(), e);
-            return List.of();
-        }
-    }
-
-    /**
-     * Fetch all awards with pagination, respecting max results limit.
-     *
-     * @param naicsCode Optional NAICS code filter
-     * @param agency    Optional agency filter
-     * @return Aggregated list of all awards up to maxResults
-     */
-    public List<UsaSpendingAwardDto> fetchAllAwards(String naicsCode, String agency) {
-        List<UsaSpendingAwardDto> allAwards = new ArrayList<>();
-        int page = 1;
-        int maxPages = properties.getMaxResults() / properties.getPageSize();
-
-        while (page <= maxPages) {
-            List<UsaSpendingAwardDto> pageAwards = searchAwards(naicsCode, agency, page);
-            if (pageAwards.isEmpty()) {
-                break;
+            if (PrefetchingPageIterator.isCancellation(e)) {
+                // A short page ended the walk; this speculative page is not needed
+                log.debug("Cancelled fetch of USAspending award page {}", page);
+                return FetchedPage.empty();
             }
-            allAwards.addAll(pageAwards);
-
-            if (pageAwards.size() < properties.getPageSize()) {
-                // Last page reached
-                break;
+            if (e instanceof RestClientException) {
+                log.error("Error fetching awards from USAspending: {}", e.getMessage());
+            } else {
+                log.error("Unexpected error fetching awards from USAspending: {}", e.getMessage(), e);
             }
-            page++;
         }
-
-        log.info("Fetched total of {} awards across {} pages", allAwards.size(), page);
-        return allAwards;
+        fetchFailed.set(true);
+        return FetchedPage.empty();
     }
 
     /**
@@ -141,8 +207,6 @@ public class UsaSpendingApiClient {
             return Map.of();
         }
 
-        applyRateLimit();
-
         log.info("Fetching recipient spending data for UEI: {}", uei);
 
         try {
@@ -172,8 +236,6 @@ public class UsaSpendingApiClient {
             return Map.of();
         }
 
-        applyRateLimit();
-
         log.info("Fetching agency budget for code: {}", agencyCode);
 
         try {
@@ -200,8 +262,6 @@ public class UsaSpendingApiClient {
             return List.of();
         }
 
-        applyRateLimit();
-
         log.info("Fetching toptier agencies list");
 
         try {
@@ -306,34 +366,6 @@ public class UsaSpendingApiClient {
         return filters;
     }
 
-    /**
-     * Applies rate limiting by sleeping if necessary.
-     * Uses ReentrantLock to avoid pinning virtual threads.
-     */
-    private void applyRateLimit() {
-        rateLimitLock.lock();
-        try {
-            long now = System.currentTimeMillis();
-            long timeSinceLastCall = now - lastCallTime;
-            long rateLimitMs = properties.getRateLimitMs();
-
-            if (timeSinceLastCall < rateLimitMs && lastCallTime > 0) {
-                try {
-                    long sleepTime = rateLimitMs - timeSinceLastCall;
-                    log.debug("Rate limiting: sleeping for {}ms", sleepTime);
-                    TimeUnit.MILLISECONDS.sleep(sleepTime);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.warn("Rate limit sleep interrupted");
-                }
-            }
-
-            lastCallTime = System.currentTimeMillis();
-        } finally {
-            rateLimitLock.unlock();
-        }
-    }
-
     /**
      * Returns whether the integration is enabled.
      */
@@ -1,20 +1,38 @@
 package com.samgov.ingestor.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.samgov.ingestor.dto.FacetedSearchResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheManager;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
 /**
  * Cache configuration for application performance.
  *
  * This configuration provides:
- * - A fallback ConcurrentMapCacheManager when Redis is not available
+ * - A fallback in-memory Caffeine CacheManager when Redis is not available
+ * - The search results cache, which is always in memory (see {@link #searchResultsCache})
  * - Cache name constants used across the application
- * - TTL values for cache entries (used by RedisConfig when Redis is enabled)
+ * - TTL values for cache entries
+ * - A cache.hit.ratio gauge per cache, next to the cache.gets counters Spring Boot binds
  *
  * For production deployments with Redis, set spring.data.redis.host to enable
  * Redis-based caching via RedisConfig.
@@ -31,25 +49,104 @@ public class CacheConfig {
     public static final String SEARCH_RESULTS_CACHE = "searchResults";
     public static final String API_RESPONSES_CACHE = "apiResponses";
 
+    // Entries per cache in the in-memory fallback
+    private static final long MAX_ENTRIES_PER_CACHE = 10_000;
+
+    private static final Map<String, Long> TTL_SECONDS = Map.of(
+        OPPORTUNITIES_CACHE, CacheTTL.OPPORTUNITIES_SECONDS,
+        CONTRACTS_CACHE, CacheTTL.CONTRACTS_SECONDS,
+        USERS_CACHE, CacheTTL.USERS_SECONDS,
+        TENANT_SETTINGS_CACHE, CacheTTL.TENANT_SETTINGS_SECONDS,
+        PERMISSIONS_CACHE, CacheTTL.PERMISSIONS_SECONDS,
+        API_RESPONSES_CACHE, CacheTTL.API_RESPONSES_SECONDS
+    );
+
     /**
-     * Fallback CacheManager using ConcurrentMapCache.
+     * Fallback CacheManager using size-bounded Caffeine caches with the TTLs below.
      * Only created when no RedisCacheManager is available (e.g., in tests or local dev without Redis).
      */
     @Bean
     @ConditionalOnMissingBean(RedisCacheManager.class)
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
-            OPPORTUNITIES_CACHE,
-            CONTRACTS_CACHE,
-            USERS_CACHE,
-            TENANT_SETTINGS_CACHE,
-            PERMISSIONS_CACHE,
-            SEARCH_RESULTS_CACHE,
-            API_RESPONSES_CACHE
-        );
+    public CacheManager cacheManager(SearchCacheProperties searchCacheProperties) {
+        List<Cache> caches = new ArrayList<>();
+        TTL_SECONDS.forEach((name, ttl) -> caches.add(new CaffeineCache(name, Caffeine.newBuilder()
+            .maximumSize(MAX_ENTRIES_PER_CACHE)
+            .expireAfterWrite(Duration.ofSeconds(ttl))
+            .recordStats()
+            .build())));
+        if (searchCacheProperties.isEnabled()) {
+            caches.add(searchResultsCache(searchCacheProperties));
+        }
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
         return cacheManager;
     }
 
+    /**
+     * The search results cache. It stays in memory even when Redis holds the other caches:
+     * result pages are large, change with every ingestion, and are cheaper to recompute than
+     * to ship through Redis as JSON.
+     *
+     * Bounded by weight rather than entry count, a result weighing one per row or facet bucket
+     * it holds, so a few wide pages cannot crowd out many narrow ones. Entries are keyed by the
+     * {@link com.samgov.ingestor.service.OpportunityDataGeneration opportunity data generation}
+     * and are never cleared; stale ones go by age or weight.
+     */
+    public static CaffeineCache searchResultsCache(SearchCacheProperties properties) {
+        return new CaffeineCache(SEARCH_RESULTS_CACHE, Caffeine.newBuilder()
+            .maximumWeight(properties.getMaxWeight())
+            .weigher((Object key, Object value) -> rows(value))
+            .expireAfterWrite(Duration.ofSeconds(properties.getTtlSeconds()))
+            .recordStats()
+            .build(), false);
+    }
+
+    private static int rows(Object result) {
+        if (result instanceof Page<?> page) {
+            return 1 + page.getNumberOfElements();
+        }
+        if (result instanceof FacetedSearchResponse response) {
+            int buckets = response.getFacets() == null ? 0
+                : response.getFacets().values().stream().mapToInt(Collection::size).sum();
+            return rows(response.getOpportunities()) + buckets;
+        }
+        if (result instanceof Collection<?> items) {
+            return 1 + items.size();
+        }
+        return 1;
+    }
+
+    /**
+     * Hit ratio of each cache since startup, from the statistics the caches record.
+     */
+    @Bean
+    public MeterBinder cacheHitRatioMetrics(CacheManager cacheManager) {
+        return registry -> cacheManager.getCacheNames().forEach(name -> {
+            Cache cache = cacheManager.getCache(name);
+            ToDoubleFunction<Cache> hitRatio = hitRatio(cache);
+            if (hitRatio != null) {
+                Gauge.builder("cache.hit.ratio", cache, hitRatio)
+                    .description("Share of cache lookups that were hits")
+                    .tag("cache", name)
+                    .register(registry);
+            }
+        });
+    }
+
+    private static ToDoubleFunction<Cache> hitRatio(Cache cache) {
+        if (cache instanceof CaffeineCache) {
+            return c -> ((CaffeineCache) c).getNativeCache().stats().hitRate();
+        }
+        if (cache instanceof RedisCache) {
+            return c -> {
+                CacheStatistics statistics = ((RedisCache) c).getStatistics();
+                long lookups = statistics.getHits() + statistics.getMisses();
+                return lookups == 0 ? 1.0 : (double) statistics.getHits() / lookups;
+            };
+        }
+        return null;
+    }
+
     /**
      * Cache TTL values (in seconds) for Redis implementation.
      */
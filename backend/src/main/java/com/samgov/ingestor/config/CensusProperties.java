@@ -1,5 +1,6 @@
 package com.samgov.ingestor.config;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -46,6 +47,32 @@ public class CensusProperties {
     @Min(value = 1, message = "Max retries must be at least 1")
     private int maxRetries = 3;
 
+    // Geocode through the batch endpoint (one CSV upload per batch) instead of one request per address
+    private boolean batchEnabled = true;
+
+    // Addresses per batch upload; the Census geocoder accepts at most 10,000
+    @Min(value = 1, message = "Max batch addresses must be at least 1")
+    @Max(value = 10_000, message = "Max batch addresses cannot exceed 10,000")
+    private int maxBatchAddresses = 10_000;
+
+    // Days before a place the geocoder could not match is tried again
+    @Min(value = 0, message = "No-match retry days cannot be negative")
+    private int noMatchRetryDays = 30;
+
+    // Resolve ZIP-only and city/state places from the offline gazetteer before calling the geocoder
+    private boolean gazetteerEnabled = true;
+
+    // Gazetteer compiled at build time and shipped in the jar (Spring resource location)
+    @NotBlank(message = "Gazetteer resource is required")
+    private String gazetteerResource = "classpath:gazetteer/gazetteer.bin";
+
+    // Optional override: compiled gazetteer file used instead of the bundled one; rebuilt from
+    // gazetteerSourceDir when missing or older than the sources
+    private String gazetteerFile = "";
+
+    // Optional override: directory holding newer Census Gazetteer files (ZCTA, ZCTA-to-county relationship, places)
+    private String gazetteerSourceDir = "";
+
     // Getters and Setters
 
     public boolean isEnabled() {
@@ -119,4 +146,60 @@ public class CensusProperties {
     public void setMaxRetries(int maxRetries) {
         this.maxRetries = maxRetries;
     }
+
+    public boolean isBatchEnabled() {
+        return batchEnabled;
+    }
+
+    public void setBatchEnabled(boolean batchEnabled) {
+        this.batchEnabled = batchEnabled;
+    }
+
+    public int getMaxBatchAddresses() {
+        return maxBatchAddresses;
+    }
+
+    public void setMaxBatchAddresses(int maxBatchAddresses) {
+        this.maxBatchAddresses = maxBatchAddresses;
+    }
+
+    public int getNoMatchRetryDays() {
+        return noMatchRetryDays;
+    }
+
+    public void setNoMatchRetryDays(int noMatchRetryDays) {
+        this.noMatchRetryDays = noMatchRetryDays;
+    }
+
+    public boolean isGazetteerEnabled() {
+        return gazetteerEnabled;
+    }
+
+    public void setGazetteerEnabled(boolean gazetteerEnabled) {
+        this.gazetteerEnabled = gazetteerEnabled;
+    }
+
+    public String getGazetteerResource() {
+        return gazetteerResource;
+    }
+
+    public void setGazetteerResource(String gazetteerResource) {
+        this.gazetteerResource = gazetteerResource;
+    }
+
+    public String getGazetteerFile() {
+        return gazetteerFile;
+    }
+
+    public void setGazetteerFile(String gazetteerFile) {
+        this.gazetteerFile = gazetteerFile;
+    }
+
+    public String getGazetteerSourceDir() {
+        return gazetteerSourceDir;
+    }
+
+    public void setGazetteerSourceDir(String gazetteerSourceDir) {
+        this.gazetteerSourceDir = gazetteerSourceDir;
+    }
 }
@@ -44,9 +44,10 @@ package com.samgov.ingestor.config;
  * CREATE INDEX IF NOT EXISTS idx_audit_logs_entity 
  *     ON audit_logs(entity_type, entity_id);
  * 
- * -- Full-text search
- * CREATE INDEX IF NOT EXISTS idx_opportunities_fts 
- *     ON opportunities USING gin(to_tsvector('english', title || ' ' || COALESCE(description, '')));
+ * -- Full-text search: applied automatically by FullTextIndexRunner once the generated
+ * -- search_vector column (db/search-vector.sql) exists
+ * CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_opp_search_vector
+ *     ON opportunities USING gin (search_vector);
  */
 public class DatabaseIndexes {
 
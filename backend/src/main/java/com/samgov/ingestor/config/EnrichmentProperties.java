@@ -0,0 +1,87 @@
+package com.samgov.ingestor.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyword rules that classify opportunities (SBIR/STTR, phase, DoD, ITAR, CUI, clearance)
+ * from their title and description during ingestion.
+ * Binds to the 'ingestion.enrichment' prefix in application.yaml.
+ *
+ * Keywords match case-insensitively as whole words. For fields that take a value
+ * (SBIR_PHASE, CLEARANCE) the first matching rule in list order wins, so list the most
+ * specific value first.
+ */
+@Validated
+@ConfigurationProperties(prefix = "ingestion.enrichment")
+public class EnrichmentProperties {
+
+    @Valid
+    private List<Rule> rules = new ArrayList<>();
+
+    /**
+     * Opportunity fields a rule can set.
+     */
+    public enum Field {
+        SBIR,
+        STTR,
+        SBIR_PHASE,
+        DOD,
+        ITAR,
+        CUI,
+        CLEARANCE
+    }
+
+    /**
+     * Sets one field when any of its keywords appears.
+     */
+    public static class Rule {
+
+        @NotNull(message = "Rule field is required")
+        private Field field;
+
+        // Value stored for SBIR_PHASE (e.g. II) and CLEARANCE (e.g. TOP_SECRET); ignored for flags
+        private String value;
+
+        @NotEmpty(message = "Rule keywords are required")
+        private List<String> keywords = new ArrayList<>();
+
+        public Field getField() {
+            return field;
+        }
+
+        public void setField(Field field) {
+            this.field = field;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+
+        public List<String> getKeywords() {
+            return keywords;
+        }
+
+        public void setKeywords(List<String> keywords) {
+            this.keywords = keywords;
+        }
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+}
@@ -0,0 +1,62 @@
+package com.samgov.ingestor.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration for the in-memory facet count index.
+ * Binds to the 'search.facets' prefix in application.yaml.
+ */
+@Validated
+@ConfigurationProperties(prefix = "search.facets")
+public class FacetIndexProperties {
+
+    // Count facets and filter options in memory; when off they come from database queries
+    private boolean enabled = true;
+
+    // How often changed opportunities are folded into the index
+    @Min(value = 100, message = "Refresh interval must be at least 100 ms")
+    private long refreshIntervalMs = 5000;
+
+    // Full rebuild, which also drops deleted opportunities
+    @NotBlank(message = "Rebuild cron is required")
+    private String rebuildCron = "0 45 3 * * *";
+
+    // Rows read from the database per keyset page
+    @Min(value = 1, message = "Batch size must be at least 1")
+    private int batchSize = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getRefreshIntervalMs() {
+        return refreshIntervalMs;
+    }
+
+    public void setRefreshIntervalMs(long refreshIntervalMs) {
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    public String getRebuildCron() {
+        return rebuildCron;
+    }
+
+    public void setRebuildCron(String rebuildCron) {
+        this.rebuildCron = rebuildCron;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
@@ -0,0 +1,38 @@
+package com.samgov.ingestor.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the PostgreSQL full-text operators as HQL/Criteria functions, so repository
+ * queries and specifications can search OpportunityText.searchVector without native SQL.
+ *
+ * Both functions take the vector, the user's keyword and a prefix query (see
+ * SearchTerms#prefixQuery). The keyword is parsed with websearch_to_tsquery, which accepts
+ * quotes, "or" and "-"; the prefix query is ORed in so partial words still match the way the
+ * old LIKE search did ("cyber" finds "cybersecurity").
+ *
+ * - opportunity_text_match(vector, keyword, prefix): true if the vector matches
+ * - opportunity_text_rank(vector, keyword, prefix): ts_rank_cd score, higher is better
+ *
+ * Loaded by Hibernate through META-INF/services/org.hibernate.boot.model.FunctionContributor.
+ */
+public class FullTextSearchFunctions implements FunctionContributor {
+
+    private static final String QUERY = "(websearch_to_tsquery('english', ?2) || to_tsquery('english', ?3))";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+            .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> doubleType = functionContributions.getTypeConfiguration()
+            .getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE);
+
+        functionContributions.getFunctionRegistry()
+            .registerPattern("opportunity_text_match", "(?1 @@ " + QUERY + ")", booleanType);
+        functionContributions.getFunctionRegistry()
+            .registerPattern("opportunity_text_rank", "ts_rank_cd(?1, " + QUERY + ")", doubleType);
+    }
+}
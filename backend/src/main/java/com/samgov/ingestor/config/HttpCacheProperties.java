@@ -0,0 +1,134 @@
+package com.samgov.ingestor.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for the on-disk HTTP response cache in front of external APIs.
+ * Binds to the 'http-cache' prefix in application.yaml.
+ *
+ * Only GET requests matching a configured endpoint are cached; everything else passes
+ * straight through to the API (and its rate limiter).
+ */
+@Validated
+@ConfigurationProperties(prefix = "http-cache")
+public class HttpCacheProperties {
+
+    private boolean enabled = true;
+
+    @NotBlank(message = "HTTP cache directory is required")
+    private String directory = System.getProperty("java.io.tmpdir") + "/insight-http-cache";
+
+    // Responses larger than this are passed through uncached
+    @Min(value = 1, message = "Max entry bytes must be at least 1")
+    private int maxEntryBytes = 5 * 1024 * 1024;
+
+    // Entries untouched for this long are deleted, even if they could still be revalidated
+    @NotNull(message = "Retention is required")
+    private Duration retention = Duration.ofDays(30);
+
+    // When entries past the retention are purged, besides once at startup
+    @NotBlank(message = "Purge cron is required")
+    private String purgeCron = "0 15 4 * * *";
+
+    @Valid
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    /**
+     * A cacheable endpoint of one API.
+     */
+    public static class Endpoint {
+
+        // API name as used by the rate limiter registry, e.g. usaspending.gov
+        @NotBlank(message = "Endpoint API is required")
+        private String api;
+
+        // Ant-style pattern matched against the request path, e.g. /**/recipient/**
+        @NotBlank(message = "Endpoint path is required")
+        private String path;
+
+        // How long a response is served without asking the API; after that it is revalidated
+        @NotNull(message = "Endpoint TTL is required")
+        private Duration ttl = Duration.ofHours(1);
+
+        public String getApi() {
+            return api;
+        }
+
+        public void setApi(String api) {
+            this.api = api;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public void setMaxEntryBytes(int maxEntryBytes) {
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public String getPurgeCron() {
+        return purgeCron;
+    }
+
+    public void setPurgeCron(String purgeCron) {
+        this.purgeCron = purgeCron;
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(List<Endpoint> endpoints) {
+        this.endpoints = endpoints;
+    }
+}
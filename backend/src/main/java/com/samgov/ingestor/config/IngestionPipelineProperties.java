@@ -0,0 +1,63 @@
+package com.samgov.ingestor.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Sizing of the staged ingestion pipeline.
+ * Binds to the 'ingestion.pipeline' prefix in application.yaml.
+ */
+@Validated
+@ConfigurationProperties(prefix = "ingestion.pipeline")
+public class IngestionPipelineProperties {
+
+    // Scopes (e.g. NAICS codes) fetched concurrently, each on its own virtual thread
+    @Min(value = 1, message = "Fetchers must be at least 1")
+    private int fetchers = 4;
+
+    // Platform threads writing pages; each holds a database connection while writing
+    @Min(value = 1, message = "Writers must be at least 1")
+    private int writers = 2;
+
+    // Pages buffered between stages before the upstream stage blocks
+    @Min(value = 1, message = "Queue capacity must be at least 1")
+    private int queueCapacity = 8;
+
+    // How long a run holds a scope's checkpoint without committing a page before another run
+    // may take the scope over; must outlast the slowest page fetch
+    @Min(value = 1000, message = "Checkpoint lease must be at least 1000 ms")
+    private long checkpointLeaseMs = 600000;
+
+    public int getFetchers() {
+        return fetchers;
+    }
+
+    public void setFetchers(int fetchers) {
+        this.fetchers = fetchers;
+    }
+
+    public int getWriters() {
+        return writers;
+    }
+
+    public void setWriters(int writers) {
+        this.writers = writers;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getCheckpointLeaseMs() {
+        return checkpointLeaseMs;
+    }
+
+    public void setCheckpointLeaseMs(long checkpointLeaseMs) {
+        this.checkpointLeaseMs = checkpointLeaseMs;
+    }
+}
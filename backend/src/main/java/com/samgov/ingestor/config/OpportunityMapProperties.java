@@ -0,0 +1,90 @@
+package com.samgov.ingestor.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration for the clustered opportunity map.
+ * Binds to the 'search.map' prefix in application.yaml.
+ */
+@Validated
+@ConfigurationProperties(prefix = "search.map")
+public class OpportunityMapProperties {
+
+    // Clusters are this many zoom levels finer than the map, so a map tile splits into 4^n cells
+    @Min(value = 0, message = "Cluster precision cannot be negative")
+    @Max(value = 5, message = "Cluster precision cannot exceed 5")
+    private int clusterPrecision = 3;
+
+    // Most clusters one viewport returns; larger viewports are clustered coarser
+    @Min(value = 1, message = "Max cells must be at least 1")
+    @Max(value = 65536, message = "Max cells cannot exceed 65536")
+    private int maxCells = 4096;
+
+    // From this zoom on, a viewport holding at most max-points opportunities returns them as points
+    @Min(value = 0, message = "Points zoom cannot be negative")
+    @Max(value = 24, message = "Points zoom cannot exceed 24")
+    private int pointsZoom = 12;
+
+    @Min(value = 1, message = "Max points must be at least 1")
+    @Max(value = 5000, message = "Max points cannot exceed 5000")
+    private int maxPoints = 500;
+
+    // How often the in-memory index checks for changed opportunities (Elasticsearch off)
+    @Min(value = 1000, message = "Refresh interval must be at least 1000 ms")
+    private long refreshIntervalMs = 30000;
+
+    // Rows read from the database per keyset page when the in-memory index loads
+    @Min(value = 1, message = "Batch size must be at least 1")
+    private int batchSize = 5000;
+
+    public int getClusterPrecision() {
+        return clusterPrecision;
+    }
+
+    public void setClusterPrecision(int clusterPrecision) {
+        this.clusterPrecision = clusterPrecision;
+    }
+
+    public int getMaxCells() {
+        return maxCells;
+    }
+
+    public void setMaxCells(int maxCells) {
+        this.maxCells = maxCells;
+    }
+
+    public int getPointsZoom() {
+        return pointsZoom;
+    }
+
+    public void setPointsZoom(int pointsZoom) {
+        this.pointsZoom = pointsZoom;
+    }
+
+    public int getMaxPoints() {
+        return maxPoints;
+    }
+
+    public void setMaxPoints(int maxPoints) {
+        this.maxPoints = maxPoints;
+    }
+
+    public long getRefreshIntervalMs() {
+        return refreshIntervalMs;
+    }
+
+    public void setRefreshIntervalMs(long refreshIntervalMs) {
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
@@ -9,6 +9,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.CompositeCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -24,6 +26,7 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -31,7 +34,7 @@ import java.util.Map;
  * Provides JSON serialization with proper type handling and per-cache TTL settings.
  *
  * Enabled when spring.data.redis.host is configured (not empty).
- * Falls back to ConcurrentMapCacheManager when Redis is not available.
+ * Falls back to the in-memory caches of CacheConfig when Redis is not available.
  */
 @Slf4j
 @Configuration
@@ -106,10 +109,12 @@ public class RedisConfig {
 
     /**
      * Configure Redis CacheManager with per-cache TTL settings.
+     * Search results stay in a local cache in front of it (see CacheConfig#searchResultsCache).
      */
     @Bean
     @Primary
-    public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                          SearchCacheProperties searchCacheProperties) {
         // Default configuration
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
             .entryTtl(Duration.ofMillis(defaultTtlMs))
@@ -141,20 +146,28 @@ public class RedisConfig {
         cacheConfigs.put(CacheConfig.PERMISSIONS_CACHE,
             defaultConfig.entryTtl(Duration.ofSeconds(CacheConfig.CacheTTL.PERMISSIONS_SECONDS)));
 
-        // Add search cache with shorter TTL (2 minutes)
-        cacheConfigs.put("searchResults",
-            defaultConfig.entryTtl(Duration.ofMinutes(2)));
-
         // Add API response cache with short TTL (1 minute)
         cacheConfigs.put("apiResponses",
             defaultConfig.entryTtl(Duration.ofMinutes(1)));
 
-        log.info("Configured Redis CacheManager with per-cache TTL settings");
-
-        return RedisCacheManager.builder(connectionFactory)
+        // Caches not configured here are never created, so a disabled search cache stays off
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
             .cacheDefaults(defaultConfig)
             .withInitialCacheConfigurations(cacheConfigs)
+            .disableCreateOnMissingCache()
+            .enableStatistics()
             .transactionAware()
             .build();
+        redisCacheManager.afterPropertiesSet();
+
+        SimpleCacheManager localCacheManager = new SimpleCacheManager();
+        localCacheManager.setCaches(searchCacheProperties.isEnabled()
+            ? List.of(CacheConfig.searchResultsCache(searchCacheProperties))
+            : List.of());
+        localCacheManager.afterPropertiesSet();
+
+        log.info("Configured Redis CacheManager with per-cache TTL settings");
+
+        return new CompositeCacheManager(localCacheManager, redisCacheManager);
     }
 }
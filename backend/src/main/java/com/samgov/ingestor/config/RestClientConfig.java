@@ -1,5 +1,7 @@
 package com.samgov.ingestor.config;
 
+import com.samgov.ingestor.client.HttpResponseCache;
+import com.samgov.ingestor.client.OutboundRateLimiterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
@@ -11,7 +13,9 @@ import java.time.Duration;
 public class RestClientConfig {
 
     @Bean
-    public RestClient samGovRestClient(RestClient.Builder builder, SamGovProperties properties) {
+    public RestClient samGovRestClient(RestClient.Builder builder, SamGovProperties properties,
+                                       OutboundRateLimiterRegistry rateLimiters,
+                                       HttpResponseCache responseCache) {
         SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
         requestFactory.setConnectTimeout(Duration.ofSeconds(10));
         requestFactory.setReadTimeout(Duration.ofSeconds(30));
@@ -20,6 +24,9 @@ public class RestClientConfig {
                 .baseUrl(properties.getBaseUrl())
                 .requestFactory(requestFactory)
                 .defaultHeader("Accept", "application/json")
+                .requestInterceptor(responseCache.interceptor("sam.gov"))
+                .requestInterceptor(rateLimiters.forApi("sam.gov", properties.getRateLimitMs(),
+                        properties.getRateLimitBurst(), properties.getDailyQuota()).interceptor())
                 .build();
     }
 }
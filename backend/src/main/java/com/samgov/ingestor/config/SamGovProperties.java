@@ -27,17 +27,40 @@ public class SamGovProperties {
     @NotEmpty(message = "At least one NAICS code is required")
     private List<String> naicsCodes;
     
+    // Records requested per page (SAM.gov caps this at 1000)
     @Min(value = 1, message = "Limit must be at least 1")
     private int limit = 1000;
+
+    // Paging: upper bound on pages walked per search and pages prefetched concurrently
+    @Min(value = 1, message = "Max pages must be at least 1")
+    private int maxPages = 100;
+
+    @Min(value = 1, message = "Max in-flight pages must be at least 1")
+    private int maxInFlightPages = 2;
     
     @Min(value = 1, message = "Posted within days must be at least 1")
     private int postedWithinDays = 30;
     
+    // Incremental ingestion: re-read this many days before the last watermark to catch late postings,
+    // and fall back to a full posted-within-days window every N days to reconcile drift
+    @Min(value = 0, message = "Watermark overlap days cannot be negative")
+    private int watermarkOverlapDays = 1;
+
+    @Min(value = 1, message = "Full reconciliation days must be at least 1")
+    private int fullReconciliationDays = 7;
+    
     private String ptype = "k,o";
     private String setAside = "";
     
     @Min(value = 0, message = "Rate limit cannot be negative")
     private long rateLimitMs = 500;
+
+    // Outbound limiter: requests allowed back-to-back, and requests per UTC day (0 = unlimited)
+    @Min(value = 1, message = "Rate limit burst must be at least 1")
+    private int rateLimitBurst = 1;
+
+    @Min(value = 0, message = "Daily quota cannot be negative")
+    private long dailyQuota = 1000;
     
     // SBIR/STTR search configuration
     private boolean sbirEnabled = true;
@@ -77,6 +100,22 @@ public class SamGovProperties {
         this.limit = limit;
     }
 
+    public int getMaxPages() {
+        return maxPages;
+    }
+
+    public void setMaxPages(int maxPages) {
+        this.maxPages = maxPages;
+    }
+
+    public int getMaxInFlightPages() {
+        return maxInFlightPages;
+    }
+
+    public void setMaxInFlightPages(int maxInFlightPages) {
+        this.maxInFlightPages = maxInFlightPages;
+    }
+
     public int getPostedWithinDays() {
         return postedWithinDays;
     }
@@ -85,6 +124,22 @@ public class SamGovProperties {
         this.postedWithinDays = postedWithinDays;
     }
 
+    public int getWatermarkOverlapDays() {
+        return watermarkOverlapDays;
+    }
+
+    public void setWatermarkOverlapDays(int watermarkOverlapDays) {
+        this.watermarkOverlapDays = watermarkOverlapDays;
+    }
+
+    public int getFullReconciliationDays() {
+        return fullReconciliationDays;
+    }
+
+    public void setFullReconciliationDays(int fullReconciliationDays) {
+        this.fullReconciliationDays = fullReconciliationDays;
+    }
+
     public String getPtype() {
         return ptype;
     }
@@ -109,6 +164,22 @@ public class SamGovProperties {
         this.rateLimitMs = rateLimitMs;
     }
 
+    public int getRateLimitBurst() {
+        return rateLimitBurst;
+    }
+
+    public void setRateLimitBurst(int rateLimitBurst) {
+        this.rateLimitBurst = rateLimitBurst;
+    }
+
+    public long getDailyQuota() {
+        return dailyQuota;
+    }
+
+    public void setDailyQuota(long dailyQuota) {
+        this.dailyQuota = dailyQuota;
+    }
+
     public boolean isSbirEnabled() {
         return sbirEnabled;
     }
@@ -85,7 +85,7 @@ public class ScheduledTasks {
         log.info("Starting SAM.gov opportunity ingestion");
         try {
             int count = opportunityService.ingestFromSamGov();
-            log.info("SAM.gov ingestion complete. Ingested {} new opportunities", count);
+            log.info("SAM.gov ingestion complete. Ingested {} new or changed opportunities", count);
         } catch (Exception e) {
             log.error("SAM.gov ingestion failed", e);
         }
@@ -0,0 +1,62 @@
+package com.samgov.ingestor.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration for the search result cache.
+ * Binds to the 'search.cache' prefix in application.yaml.
+ */
+@Validated
+@ConfigurationProperties(prefix = "search.cache")
+public class SearchCacheProperties {
+
+    // Cache search results; when off every search runs against the database or index
+    private boolean enabled = true;
+
+    // Result rows held across all cached searches; least recently used results go first
+    @Min(value = 1, message = "Max weight must be at least 1")
+    private long maxWeight = 20000;
+
+    // Upper bound on the age of a result; writes to opportunities retire results sooner
+    @Min(value = 1, message = "TTL must be at least 1 second")
+    private long ttlSeconds = CacheConfig.CacheTTL.SEARCH_RESULTS_SECONDS;
+
+    // How long an instance reuses the shared data generation before reading it again; bounds
+    // how long results cached here outlive a write made by another instance
+    @Min(value = 0, message = "Generation poll interval cannot be negative")
+    private long generationPollMs = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public void setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public long getGenerationPollMs() {
+        return generationPollMs;
+    }
+
+    public void setGenerationPollMs(long generationPollMs) {
+        this.generationPollMs = generationPollMs;
+    }
+}
@@ -0,0 +1,134 @@
+package com.samgov.ingestor.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration for keeping the Elasticsearch opportunity index fresh from the search outbox.
+ * Binds to the 'search.indexer' prefix in application.yaml.
+ */
+@Validated
+@ConfigurationProperties(prefix = "search.indexer")
+public class SearchIndexerProperties {
+
+    // Record opportunity changes in search_outbox; off when there is no index to feed
+    private boolean enabled = true;
+
+    // Outbox poll interval; whatever is pending is sent at least this often
+    @Min(value = 10, message = "Flush interval must be at least 10 ms")
+    private long flushIntervalMs = 1000;
+
+    // Documents per bulk request
+    @Min(value = 1, message = "Max actions must be at least 1")
+    private int maxActions = 1000;
+
+    // Bulk request body cap; a batch over it is split into several requests
+    @Min(value = 1024, message = "Max bytes must be at least 1024")
+    private long maxBytes = 5 * 1024 * 1024;
+
+    // Retries of a bulk request that failed as a whole (connection errors, 429, 5xx)
+    @Min(value = 0, message = "Max retries cannot be negative")
+    private int maxRetries = 3;
+
+    // First retry delay; doubles per retry and per failed attempt of an entry
+    @Min(value = 1, message = "Retry backoff must be at least 1 ms")
+    private long retryBackoffMs = 500;
+
+    // Entries that failed this many times stay in the outbox for inspection and are skipped
+    @Min(value = 1, message = "Max attempts must be at least 1")
+    private int maxAttempts = 10;
+
+    // How long claimed entries stay reserved for the node sending them; must outlast a bulk
+    // request with all its retries, or another node may send the same entries again
+    @Min(value = 1000, message = "Lease must be at least 1000 ms")
+    private long leaseMs = 300000;
+
+    // Parallel id-range slices a full reindex is loaded in
+    @Min(value = 1, message = "Reindex slices must be at least 1")
+    private int reindexSlices = 4;
+
+    // Rows read from the database per keyset page of a reindex slice
+    @Min(value = 1, message = "Reindex batch size must be at least 1")
+    private int reindexBatchSize = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public int getMaxActions() {
+        return maxActions;
+    }
+
+    public void setMaxActions(int maxActions) {
+        this.maxActions = maxActions;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public long getRetryBackoffMs() {
+        return retryBackoffMs;
+    }
+
+    public void setRetryBackoffMs(long retryBackoffMs) {
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getLeaseMs() {
+        return leaseMs;
+    }
+
+    public void setLeaseMs(long leaseMs) {
+        this.leaseMs = leaseMs;
+    }
+
+    public int getReindexSlices() {
+        return reindexSlices;
+    }
+
+    public void setReindexSlices(int reindexSlices) {
+        this.reindexSlices = reindexSlices;
+    }
+
+    public int getReindexBatchSize() {
+        return reindexBatchSize;
+    }
+
+    public void setReindexBatchSize(int reindexBatchSize) {
+        this.reindexBatchSize = reindexBatchSize;
+    }
+}
@@ -0,0 +1,88 @@
+package com.samgov.ingestor.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration for the in-memory search suggestion index.
+ * Binds to the 'search.typeahead' prefix in application.yaml.
+ */
+@Validated
+@ConfigurationProperties(prefix = "search.typeahead")
+public class TypeaheadProperties {
+
+    // Serve suggestions from memory; when off they come from a database search
+    private boolean enabled = true;
+
+    // How often changed opportunities are folded into the index
+    @Min(value = 100, message = "Refresh interval must be at least 100 ms")
+    private long refreshIntervalMs = 5000;
+
+    // Full rebuild, which also drops deleted opportunities
+    @NotBlank(message = "Rebuild cron is required")
+    private String rebuildCron = "0 30 3 * * *";
+
+    // Suggestions kept per prefix, and so the most one request can get
+    @Min(value = 1, message = "Max suggestions must be at least 1")
+    @Max(value = 100, message = "Max suggestions cannot exceed 100")
+    private int maxSuggestions = 10;
+
+    // An opportunity posted this many days later counts twice as much
+    @Min(value = 1, message = "Recency half-life must be at least 1 day")
+    private int recencyHalfLifeDays = 30;
+
+    // Rows read from the database per keyset page
+    @Min(value = 1, message = "Batch size must be at least 1")
+    private int batchSize = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getRefreshIntervalMs() {
+        return refreshIntervalMs;
+    }
+
+    public void setRefreshIntervalMs(long refreshIntervalMs) {
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    public String getRebuildCron() {
+        return rebuildCron;
+    }
+
+    public void setRebuildCron(String rebuildCron) {
+        this.rebuildCron = rebuildCron;
+    }
+
+    public int getMaxSuggestions() {
+        return maxSuggestions;
+    }
+
+    public void setMaxSuggestions(int maxSuggestions) {
+        this.maxSuggestions = maxSuggestions;
+    }
+
+    public int getRecencyHalfLifeDays() {
+        return recencyHalfLifeDays;
+    }
+
+    public void setRecencyHalfLifeDays(int recencyHalfLifeDays) {
+        this.recencyHalfLifeDays = recencyHalfLifeDays;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
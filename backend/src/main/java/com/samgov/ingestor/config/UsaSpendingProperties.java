@@ -32,6 +32,10 @@ public class UsaSpendingProperties {
     @Min(value = 1, message = "Max results must be at least 1")
     private int maxResults = 5000;
 
+    // Pages requested concurrently per search; the shared rate limiter still paces the calls
+    @Min(value = 1, message = "Max in-flight pages must be at least 1")
+    private int maxInFlightPages = 4;
+
     // Filter by award types (contracts, grants, etc.)
     private List<String> awardTypes = List.of("A", "B", "C", "D"); // A-D are contract types
 
@@ -87,6 +91,14 @@ public class UsaSpendingProperties {
         this.maxResults = maxResults;
     }
 
+    public int getMaxInFlightPages() {
+        return maxInFlightPages;
+    }
+
+    public void setMaxInFlightPages(int maxInFlightPages) {
+        this.maxInFlightPages = maxInFlightPages;
+    }
+
     public List<String> getAwardTypes() {
         return awardTypes;
     }
@@ -8,6 +8,7 @@ import com.samgov.ingestor.model.DashboardWidget;
 import com.samgov.ingestor.model.SavedReport;
 import com.samgov.ingestor.model.SavedReport.ReportType;
 import com.samgov.ingestor.config.TenantContext;
+import com.samgov.ingestor.dto.CursorPaginatedResponse;
 import com.samgov.ingestor.service.AnalyticsService;
 import com.samgov.ingestor.service.AnalyticsService.*;
 import jakarta.validation.Valid;
@@ -29,6 +30,8 @@ import java.util.UUID;
 @RequestMapping("/analytics")
 public class AnalyticsController {
 
+    private static final int MAX_EVENT_PAGE_SIZE = 200;
+
     private final AnalyticsService analyticsService;
 
     public AnalyticsController(AnalyticsService analyticsService) {
@@ -395,6 +398,19 @@ public class AnalyticsController {
         return ResponseEntity.ok(analyticsService.getRecentEvents(tenantId, pageable));
     }
 
+    /**
+     * GET /analytics/events/scroll - Recent events (keyset paginated, pass nextCursor back as cursor)
+     */
+    @GetMapping("/events/scroll")
+    @PreAuthorize("hasAnyRole('ADMIN', 'FINANCE_MANAGER', 'CONTRACT_MANAGER')")
+    public ResponseEntity<CursorPaginatedResponse<AnalyticsEvent>> scrollEvents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        UUID tenantId = TenantContext.getCurrentTenantId();
+        int safeSize = Math.max(1, Math.min(size, MAX_EVENT_PAGE_SIZE));
+        return ResponseEntity.ok(analyticsService.scrollEvents(tenantId, cursor, safeSize));
+    }
+
     // Helper method
     private UUID getUserId(UserDetails userDetails) {
         if (userDetails instanceof com.samgov.ingestor.model.User user) {
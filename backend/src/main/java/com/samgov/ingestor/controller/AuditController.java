@@ -1,6 +1,7 @@
 package com.samgov.ingestor.controller;
 
 import com.samgov.ingestor.config.TenantContext;
+import com.samgov.ingestor.dto.CursorPaginatedResponse;
 import com.samgov.ingestor.model.AuditLog;
 import com.samgov.ingestor.service.AuditService;
 import lombok.RequiredArgsConstructor;
@@ -30,6 +31,8 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class AuditController {
 
+    private static final int MAX_SCROLL_SIZE = 200;
+
     private final AuditService auditService;
 
     @GetMapping("/tenant/{tenantId}")
@@ -44,6 +47,20 @@ public class AuditController {
         return ResponseEntity.ok(logs);
     }
 
+    /**
+     * Keyset-paginated tenant audit logs, newest first; pass nextCursor back as cursor to get
+     * the next page. Stays fast however deep the client pages.
+     */
+    @GetMapping("/tenant/{tenantId}/scroll")
+    @PreAuthorize("@tenantSecurityService.isTenantAdmin(#tenantId)")
+    public ResponseEntity<CursorPaginatedResponse<AuditLog>> scrollTenantAuditLogs(
+        @PathVariable UUID tenantId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(auditService.scrollAuditLogsByTenant(tenantId, cursor, scrollSize(size)));
+    }
+
     @GetMapping("/tenant/{tenantId}/range")
     @PreAuthorize("@tenantSecurityService.isTenantAdmin(#tenantId)")
     public ResponseEntity<List<AuditLog>> getTenantAuditLogsByDateRange(
@@ -70,6 +87,16 @@ public class AuditController {
         return ResponseEntity.ok(logs);
     }
 
+    @GetMapping("/user/{userId}/scroll")
+    @PreAuthorize("hasRole('SUPER_ADMIN') or #userId == @tenantContext.currentUserId")
+    public ResponseEntity<CursorPaginatedResponse<AuditLog>> scrollUserAuditLogs(
+        @PathVariable UUID userId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(auditService.scrollAuditLogsByUser(userId, cursor, scrollSize(size)));
+    }
+
     @GetMapping("/me")
     public ResponseEntity<Page<AuditLog>> getMyAuditLogs(
         @RequestParam(defaultValue = "0") int page,
@@ -85,6 +112,19 @@ public class AuditController {
         return ResponseEntity.ok(logs);
     }
 
+    @GetMapping("/me/scroll")
+    public ResponseEntity<CursorPaginatedResponse<AuditLog>> scrollMyAuditLogs(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int size
+    ) {
+        UUID userId = TenantContext.getCurrentUserId();
+        if (userId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(auditService.scrollAuditLogsByUser(userId, cursor, scrollSize(size)));
+    }
+
     @GetMapping("/entity/{entityType}/{entityId}")
     @PreAuthorize("hasRole('SUPER_ADMIN') or @tenantSecurityService.canAccessTenant(@tenantContext.currentTenantId)")
     public ResponseEntity<List<AuditLog>> getEntityAuditLogs(
@@ -94,4 +134,8 @@ public class AuditController {
         List<AuditLog> logs = auditService.getAuditLogsForEntity(entityType, entityId);
         return ResponseEntity.ok(logs);
     }
+
+    private static int scrollSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+    }
 }
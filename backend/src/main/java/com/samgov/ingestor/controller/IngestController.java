@@ -1,24 +1,38 @@
 package com.samgov.ingestor.controller;
 
 import com.samgov.ingestor.client.SamApiClient;
+import com.samgov.ingestor.dto.IngestionJobDto;
+import com.samgov.ingestor.dto.OpportunityMapResponse;
 import com.samgov.ingestor.dto.SamOpportunityDto;
+import com.samgov.ingestor.model.IngestionJob.JobType;
 import com.samgov.ingestor.model.Opportunity;
+import com.samgov.ingestor.model.Opportunity.OpportunityStatus;
 import com.samgov.ingestor.repository.OpportunityRepository;
 import com.samgov.ingestor.service.GeocodingService;
-import com.samgov.ingestor.service.IngestionService;
-import com.samgov.ingestor.service.IngestionService.IngestionResult;
+import com.samgov.ingestor.service.IngestionJobService;
+import com.samgov.ingestor.service.IngestionJobService.Submission;
+import com.samgov.ingestor.service.OpportunityFacetIndex;
+import com.samgov.ingestor.service.OpportunityFacetIndex.Dimension;
+import com.samgov.ingestor.service.OpportunityMapService;
 import com.samgov.ingestor.service.UsaSpendingIngestionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * REST controller for manual ingestion triggers and opportunity queries.
+ * Ingestion triggers queue a job and return 202 with its id; progress is available from
+ * {@code /ingest/jobs/{id}} or streamed from {@code /ingest/jobs/{id}/events}.
  */
 @RestController
 @RequestMapping("/api")
@@ -27,52 +41,75 @@ public class IngestController {
 
     private static final Logger log = LoggerFactory.getLogger(IngestController.class);
 
-    private final IngestionService ingestionService;
+    private final IngestionJobService ingestionJobService;
     private final OpportunityRepository opportunityRepository;
     private final SamApiClient samApiClient;
     private final UsaSpendingIngestionService usaSpendingIngestionService;
     private final GeocodingService geocodingService;
+    private final OpportunityMapService opportunityMapService;
+    private final OpportunityFacetIndex facetIndex;
 
-    public IngestController(IngestionService ingestionService,
+    @Autowired
+    public IngestController(IngestionJobService ingestionJobService,
                            OpportunityRepository opportunityRepository,
                            SamApiClient samApiClient,
                            UsaSpendingIngestionService usaSpendingIngestionService,
-                           GeocodingService geocodingService) {
-        this.ingestionService = ingestionService;
+                           GeocodingService geocodingService,
+                           OpportunityMapService opportunityMapService,
+                           @Autowired(required = false) OpportunityFacetIndex facetIndex) {
+        this.ingestionJobService = ingestionJobService;
         this.opportunityRepository = opportunityRepository;
         this.samApiClient = samApiClient;
         this.usaSpendingIngestionService = usaSpendingIngestionService;
         this.geocodingService = geocodingService;
+        this.opportunityMapService = opportunityMapService;
+        this.facetIndex = facetIndex;
     }
 
     /**
      * Manually triggers the ingestion process.
      * POST /ingest
+     * POST /ingest?full=true (ignore watermarks and reconcile the full posted-within-days window)
      *
-     * @return Status message with ingestion results
+     * @param full Whether to run a full reconciliation instead of an incremental pass
+     * @return Accepted job, or the already queued/running job for the same request
      */
     @PostMapping("/ingest")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
-    public ResponseEntity<Map<String, Object>> triggerIngestion() {
-        log.info("Manual ingestion triggered via API");
+    public ResponseEntity<Map<String, Object>> triggerIngestion(
+            @RequestParam(defaultValue = "false") boolean full) {
+        log.info("Manual {} ingestion triggered via API", full ? "full" : "incremental");
+        return accepted(ingestionJobService.submit(JobType.SAM_GOV, full, null));
+    }
 
-        try {
-            IngestionResult result = ingestionService.runIngestion();
+    /**
+     * Returns status and progress of an ingestion job.
+     * GET /ingest/jobs/{jobId}
+     */
+    @GetMapping("/ingest/jobs/{jobId}")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<IngestionJobDto> getIngestionJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(ingestionJobService.getJob(jobId));
+    }
 
-            return ResponseEntity.ok(Map.of(
-                    "status", "success",
-                    "message", result.toMessage(),
-                    "newRecords", result.newRecords(),
-                    "updatedRecords", result.updatedRecords(),
-                    "durationMs", result.durationMs()
-            ));
-        } catch (Exception e) {
-            log.error("Ingestion failed", e);
-            return ResponseEntity.internalServerError().body(Map.of(
-                    "status", "error",
-                    "message", "Ingestion failed: " + e.getMessage()
-            ));
-        }
+    /**
+     * Returns the most recent ingestion jobs, newest first.
+     * GET /ingest/jobs
+     */
+    @GetMapping("/ingest/jobs")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<List<IngestionJobDto>> getRecentIngestionJobs() {
+        return ResponseEntity.ok(ingestionJobService.getRecentJobs());
+    }
+
+    /**
+     * Streams progress of an ingestion job as server-sent events.
+     * GET /ingest/jobs/{jobId}/events
+     */
+    @GetMapping(value = "/ingest/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public SseEmitter streamIngestionJob(@PathVariable UUID jobId) {
+        return ingestionJobService.subscribe(jobId);
     }
 
     // REMOVED: Duplicate endpoint - use OpportunityController#searchOpportunities instead
@@ -150,62 +187,26 @@ public class IngestController {
      * Triggers SBIR/STTR-only ingestion.
      * POST /ingest/sbir
      *
-     * @return Status message with SBIR ingestion results
+     * @return Accepted job, or the already queued/running SBIR/STTR job
      */
     @PostMapping("/ingest/sbir")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
     public ResponseEntity<Map<String, Object>> triggerSbirIngestion() {
         log.info("SBIR/STTR ingestion triggered via API");
-
-        try {
-            IngestionResult result = ingestionService.ingestSbirSttr();
-
-            return ResponseEntity.ok(Map.of(
-                    "status", "success",
-                    "type", "SBIR/STTR",
-                    "message", result.toMessage(),
-                    "newRecords", result.newRecords(),
-                    "updatedRecords", result.updatedRecords(),
-                    "durationMs", result.durationMs()
-            ));
-        } catch (Exception e) {
-            log.error("SBIR/STTR ingestion failed", e);
-            return ResponseEntity.internalServerError().body(Map.of(
-                    "status", "error",
-                    "message", "SBIR/STTR ingestion failed: " + e.getMessage()
-            ));
-        }
+        return accepted(ingestionJobService.submit(JobType.SBIR_STTR, false, null));
     }
 
     /**
      * Triggers full ingestion (regular + SBIR/STTR).
      * POST /ingest/full
      *
-     * @return Status message with full ingestion results
+     * @return Accepted job, or the already queued/running full ingestion job
      */
     @PostMapping("/ingest/full")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
     public ResponseEntity<Map<String, Object>> triggerFullIngestion() {
         log.info("Full ingestion (regular + SBIR/STTR) triggered via API");
-
-        try {
-            IngestionResult result = ingestionService.runFullIngestion();
-
-            return ResponseEntity.ok(Map.of(
-                    "status", "success",
-                    "type", "Full (Regular + SBIR/STTR)",
-                    "message", result.toMessage(),
-                    "newRecords", result.newRecords(),
-                    "updatedRecords", result.updatedRecords(),
-                    "durationMs", result.durationMs()
-            ));
-        } catch (Exception e) {
-            log.error("Full ingestion failed", e);
-            return ResponseEntity.internalServerError().body(Map.of(
-                    "status", "error",
-                    "message", "Full ingestion failed: " + e.getMessage()
-            ));
-        }
+        return accepted(ingestionJobService.submit(JobType.SAM_GOV_FULL, false, null));
     }
 
     /**
@@ -274,32 +275,13 @@ public class IngestController {
      * Triggers USAspending.gov data ingestion.
      * POST /ingest/usa-spending
      *
-     * @return Status message with ingestion results
+     * @return Accepted job, or the already queued/running USAspending job
      */
     @PostMapping("/ingest/usa-spending")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
     public ResponseEntity<Map<String, Object>> triggerUsaSpendingIngestion() {
         log.info("USAspending.gov ingestion triggered via API");
-
-        try {
-            var result = usaSpendingIngestionService.ingestRecentAwards();
-
-            return ResponseEntity.ok(Map.of(
-                    "status", "success",
-                    "type", "USAspending.gov",
-                    "message", result.toMessage(),
-                    "newRecords", result.newRecords(),
-                    "updatedRecords", result.updatedRecords(),
-                    "skippedRecords", result.skippedRecords(),
-                    "durationMs", result.durationMs()
-            ));
-        } catch (Exception e) {
-            log.error("USAspending.gov ingestion failed", e);
-            return ResponseEntity.internalServerError().body(Map.of(
-                    "status", "error",
-                    "message", "USAspending.gov ingestion failed: " + e.getMessage()
-            ));
-        }
+        return accepted(ingestionJobService.submit(JobType.USA_SPENDING, false, null));
     }
 
     /**
@@ -325,6 +307,7 @@ public class IngestController {
                     "message", result.toMessage(),
                     "newRecords", result.newRecords(),
                     "updatedRecords", result.updatedRecords(),
+                    "unchangedRecords", result.unchangedRecords(),
                     "durationMs", result.durationMs()
             ));
         } catch (Exception e) {
@@ -359,31 +342,14 @@ public class IngestController {
      * POST /ingest/geocode
      *
      * @param limit Maximum number of opportunities to geocode (default 100)
-     * @return Status message with geocoding results
+     * @return Accepted job, or the already queued/running geocoding job
      */
     @PostMapping("/ingest/geocode")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
     public ResponseEntity<Map<String, Object>> triggerGeocoding(
             @RequestParam(defaultValue = "100") int limit) {
         log.info("Geocoding triggered via API, limit: {}", limit);
-
-        try {
-            int geocoded = geocodingService.batchGeocodeOpportunities(limit);
-
-            return ResponseEntity.ok(Map.of(
-                    "status", "success",
-                    "type", "Geocoding",
-                    "message", String.format("Geocoded %d opportunities", geocoded),
-                    "geocodedCount", geocoded,
-                    "requestedLimit", limit
-            ));
-        } catch (Exception e) {
-            log.error("Geocoding failed", e);
-            return ResponseEntity.internalServerError().body(Map.of(
-                    "status", "error",
-                    "message", "Geocoding failed: " + e.getMessage()
-            ));
-        }
+        return accepted(ingestionJobService.submit(JobType.GEOCODE, false, limit));
     }
 
     /**
@@ -405,6 +371,8 @@ public class IngestController {
     /**
      * Get geocoded opportunities for map display.
      * GET /opportunities/geocoded
+     *
+     * Returns every geocoded opportunity in full; maps should use /opportunities/map instead.
      */
     @GetMapping("/opportunities/geocoded")
     public ResponseEntity<List<Opportunity>> getGeocodedOpportunities() {
@@ -414,21 +382,47 @@ public class IngestController {
         return ResponseEntity.ok(opportunities);
     }
 
+    /**
+     * Get clustered opportunities for a map viewport.
+     * GET /opportunities/map?minLat=..&minLon=..&maxLat=..&maxLon=..&zoom=..
+     *
+     * Returns per-tile counts of the active opportunities in view; zoomed in to
+     * search.map.points-zoom or beyond, a viewport holding few enough of them returns them as
+     * lightweight points instead.
+     */
+    @GetMapping("/opportunities/map")
+    public ResponseEntity<OpportunityMapResponse> getOpportunityMap(
+            @RequestParam double minLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLat,
+            @RequestParam double maxLon,
+            @RequestParam int zoom) {
+        return ResponseEntity.ok(opportunityMapService.getMap(minLat, minLon, maxLat, maxLon, zoom));
+    }
+
     /**
      * Get opportunity counts by state (FIPS code).
      * GET /opportunities/by-state
+     *
+     * Counted by the in-memory facet index once it has loaded, otherwise in the database.
      */
     @GetMapping("/opportunities/by-state")
     public ResponseEntity<Map<String, Object>> getOpportunitiesByState() {
         log.info("Fetching opportunity counts by state");
-        List<Object[]> counts = opportunityRepository.countByFipsState();
-
-        // Convert to map for easier frontend consumption
-        var stateCounts = counts.stream()
-                .collect(java.util.stream.Collectors.toMap(
-                        row -> (String) row[0],
-                        row -> (Long) row[1]
-                ));
+        Map<String, Long> stateCounts;
+        if (facetIndex != null && facetIndex.isReady()) {
+            stateCounts = facetIndex.counts(Dimension.FIPS_STATE,
+                    Map.of(Dimension.STATUS, List.of(OpportunityStatus.ACTIVE.name())), null, null);
+        } else {
+            List<Object[]> counts = opportunityRepository.countByFipsState();
+
+            // Convert to map for easier frontend consumption
+            stateCounts = counts.stream()
+                    .collect(java.util.stream.Collectors.toMap(
+                            row -> (String) row[0],
+                            row -> (Long) row[1]
+                    ));
+        }
 
         return ResponseEntity.ok(Map.of(
                 "status", "success",
@@ -436,4 +430,21 @@ public class IngestController {
                 "data", stateCounts
         ));
     }
+
+    /**
+     * 202 response for a submitted ingestion job.
+     */
+    private ResponseEntity<Map<String, Object>> accepted(Submission submission) {
+        IngestionJobDto job = submission.job();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", "accepted");
+        body.put("jobId", job.id());
+        body.put("type", job.type());
+        body.put("jobStatus", job.status());
+        body.put("coalesced", submission.coalesced());
+        body.put("message", submission.coalesced()
+                ? "An identical ingestion job is already " + job.status().name().toLowerCase()
+                : "Ingestion job queued");
+        return ResponseEntity.accepted().body(body);
+    }
 }
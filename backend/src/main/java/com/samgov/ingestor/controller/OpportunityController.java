@@ -1,5 +1,6 @@
 package com.samgov.ingestor.controller;
 
+import com.samgov.ingestor.dto.CursorPaginatedResponse;
 import com.samgov.ingestor.dto.OpportunityDto;
 import com.samgov.ingestor.model.Opportunity.OpportunityStatus;
 import com.samgov.ingestor.service.OpportunityService;
@@ -106,6 +107,46 @@ public class OpportunityController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Same filters as the search above, keyset paginated: pass nextCursor back as cursor to
+     * get the next page. Use this to walk deep result sets; offsets slow down with depth.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPaginatedResponse<OpportunityDto>> scrollOpportunities(
+        @RequestParam(required = false) @Size(max = 200) String keyword,
+        @RequestParam(required = false) @Size(max = 6) String naicsCode,
+        @RequestParam(required = false) @Size(max = 200) String agency,
+        @RequestParam(required = false) @Size(max = 50) String setAsideType,
+        @RequestParam(required = false) @Size(max = 50) String type,
+        @RequestParam(required = false) Boolean isSbir,
+        @RequestParam(required = false) Boolean isSttr,
+        @RequestParam(required = false) Boolean sbirOrSttr,
+        @RequestParam(required = false) @Size(max = 20) String phase,
+        @RequestParam(required = false) @Size(max = 50) String state,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate postedDateFrom,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate postedDateTo,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate responseDeadlineFrom,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate responseDeadlineTo,
+        @RequestParam(required = false) OpportunityStatus status,
+        @RequestParam(required = false, defaultValue = "true") Boolean activeOnly,
+        @RequestParam(required = false) @Size(max = 500) String cursor,
+        @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+        @RequestParam(defaultValue = "responseDeadLine") String sortBy,
+        @RequestParam(defaultValue = "asc") String sortDirection
+    ) {
+        OpportunitySearchRequest request = new OpportunitySearchRequest(
+            keyword, naicsCode, agency, setAsideType, type,
+            isSbir, isSttr, sbirOrSttr, phase, state,
+            postedDateFrom, postedDateTo,
+            responseDeadlineFrom, responseDeadlineTo,
+            status, activeOnly
+        );
+
+        CursorPaginatedResponse<OpportunityDto> result = opportunityService.scroll(
+            request, sortBy, Sort.Direction.fromString(sortDirection), cursor, Math.min(size, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/active")
     public ResponseEntity<Page<OpportunityDto>> getActiveOpportunities(
         @RequestParam(defaultValue = "0") int page,
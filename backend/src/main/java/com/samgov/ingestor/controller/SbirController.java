@@ -59,6 +59,7 @@ public class SbirController {
                     "message", result.toMessage(),
                     "newRecords", result.newRecords(),
                     "updatedRecords", result.updatedRecords(),
+                    "unchangedRecords", result.unchangedRecords(),
                     "durationMs", result.durationMs()
             ));
         } catch (Exception e) {
@@ -93,6 +94,7 @@ public class SbirController {
                     "message", result.toMessage(),
                     "newRecords", result.newRecords(),
                     "updatedRecords", result.updatedRecords(),
+                    "unchangedRecords", result.unchangedRecords(),
                     "durationMs", result.durationMs()
             ));
         } catch (Exception e) {
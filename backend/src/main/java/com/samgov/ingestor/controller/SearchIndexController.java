@@ -0,0 +1,54 @@
+package com.samgov.ingestor.controller;
+
+import com.samgov.ingestor.service.SearchReindexer;
+import com.samgov.ingestor.service.SearchReindexer.ReindexStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for maintaining the opportunity search index.
+ * Only available when elasticsearch.enabled=true (default).
+ */
+@RestController
+@RequestMapping("/api/search/index")
+@PreAuthorize("hasRole('SUPER_ADMIN')")
+@ConditionalOnExpression("${elasticsearch.enabled:true}")
+public class SearchIndexController {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexController.class);
+
+    private final SearchReindexer searchReindexer;
+
+    public SearchIndexController(SearchReindexer searchReindexer) {
+        this.searchReindexer = searchReindexer;
+    }
+
+    /**
+     * Starts a zero-downtime rebuild of the search index.
+     * POST /search/index/reindex
+     *
+     * @return Accepted run; 409 if a reindex is already running
+     */
+    @PostMapping("/reindex")
+    public ResponseEntity<ReindexStatus> startReindex() {
+        log.info("Search reindex triggered via API");
+        return ResponseEntity.accepted().body(searchReindexer.start());
+    }
+
+    /**
+     * Returns progress of the running or most recent reindex, including documents per second.
+     * GET /search/index/reindex
+     */
+    @GetMapping("/reindex")
+    public ResponseEntity<ReindexStatus> getReindexStatus() {
+        ReindexStatus status = searchReindexer.status();
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.samgov.ingestor.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. Pass nextCursor back to get the following page;
+ * it is null on the last page. Unlike {@link PaginatedResponse} there is no total, so no
+ * page needs a count query.
+ */
+public record CursorPaginatedResponse<T>(
+        List<T> content,
+        int size,
+        String nextCursor,
+        boolean hasNext
+) {
+    /**
+     * Builds a page from up to {@code size + 1} rows read past the previous cursor; the extra
+     * row only tells whether another page follows.
+     */
+    public static <T> CursorPaginatedResponse<T> from(List<T> rows, int size, Function<T, String> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPaginatedResponse<>(rows, size, null, false);
+        }
+        List<T> content = rows.subList(0, size);
+        return new CursorPaginatedResponse<>(List.copyOf(content), size, cursorOf.apply(content.get(size - 1)), true);
+    }
+
+    public <R> CursorPaginatedResponse<R> map(Function<T, R> mapper) {
+        return new CursorPaginatedResponse<>(content.stream().map(mapper).toList(), size, nextCursor, hasNext);
+    }
+}
@@ -31,4 +31,6 @@ public class FacetedSearchRequest {
     private String sortOrder;
     private int page;
     private int size;
+    // nextCursor of the previous response; when set, page is ignored
+    private String cursor;
 }
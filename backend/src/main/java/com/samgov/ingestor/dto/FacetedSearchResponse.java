@@ -21,6 +21,8 @@ public class FacetedSearchResponse {
     private Page<OpportunityDto> opportunities;
     private Map<String, List<FacetBucket>> facets;
     private long totalCount;
+    // Pass back as the request cursor for the next page; null on the last page
+    private String nextCursor;
     private long queryTimeMs;
 
     @Data
@@ -162,6 +162,17 @@ public class GeocodingResultDto {
             @JsonProperty("BLKGRP") String blockGroup
     ) {}
 
+    /**
+     * One row of a batch geocoding upload. The id is echoed back on the matching result row.
+     */
+    public record BatchAddress(
+            String id,
+            String street,
+            String city,
+            String state,
+            String zip
+    ) {}
+
     /**
      * Simplified geocoding result for application use.
      */
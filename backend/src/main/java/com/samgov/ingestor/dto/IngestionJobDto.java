@@ -0,0 +1,32 @@
+package com.samgov.ingestor.dto;
+
+import com.samgov.ingestor.model.IngestionJob.JobStatus;
+import com.samgov.ingestor.model.IngestionJob.JobType;
+import lombok.Builder;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Status and progress of an ingestion job.
+ * Counters are live while the job is running; {@code rowsPerSecond} is rows written over
+ * the time since the job started (or its total run time once finished).
+ */
+@Builder
+public record IngestionJobDto(
+    UUID id,
+    JobType type,
+    String source,
+    JobStatus status,
+    boolean fullReconciliation,
+    Integer recordLimit,
+    int pagesFetched,
+    int rowsWritten,
+    int rowsUnchanged,
+    double rowsPerSecond,
+    String message,
+    String error,
+    Instant createdAt,
+    Instant startedAt,
+    Instant finishedAt
+) {}
@@ -0,0 +1,48 @@
+package com.samgov.ingestor.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Active geocoded opportunities in a map viewport, either as clusters or, zoomed in far
+ * enough, as individual points.
+ *
+ * Exactly one of clusters and points is filled. Clusters are whole map tiles
+ * ("zoom/x/y"), so those on the edge of the viewport may count opportunities just outside it.
+ */
+public record OpportunityMapResponse(
+    int zoom,
+    long total,
+    List<Cluster> clusters,
+    List<Point> points
+) {
+    /**
+     * Opportunities of one tile, placed at their centroid.
+     */
+    public record Cluster(
+        String tile,
+        double latitude,
+        double longitude,
+        long count
+    ) {}
+
+    /**
+     * Just what a marker and its popup need of one opportunity.
+     */
+    public record Point(
+        String id,
+        String title,
+        String agency,
+        LocalDate responseDeadline,
+        double latitude,
+        double longitude
+    ) {}
+
+    public static OpportunityMapResponse ofClusters(int zoom, long total, List<Cluster> clusters) {
+        return new OpportunityMapResponse(zoom, total, clusters, List.of());
+    }
+
+    public static OpportunityMapResponse ofPoints(int zoom, List<Point> points) {
+        return new OpportunityMapResponse(zoom, points.size(), List.of(), points);
+    }
+}
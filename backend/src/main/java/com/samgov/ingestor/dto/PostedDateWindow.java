@@ -0,0 +1,22 @@
+package com.samgov.ingestor.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Posted-date range for a SAM.gov search.
+ *
+ * @param postedFrom         first posted date included
+ * @param postedTo           last posted date included
+ * @param fullReconciliation true when the window spans the whole configured look-back
+ *                           rather than the delta since the last watermark
+ */
+public record PostedDateWindow(LocalDate postedFrom, LocalDate postedTo, boolean fullReconciliation) {
+
+    /**
+     * The full look-back window ending today.
+     */
+    public static PostedDateWindow lastDays(int days) {
+        LocalDate today = LocalDate.now();
+        return new PostedDateWindow(today.minusDays(days), today, true);
+    }
+}
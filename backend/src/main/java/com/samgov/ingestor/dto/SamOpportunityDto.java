@@ -31,7 +31,10 @@ public record SamOpportunityDto(
         String type,
 
         @JsonProperty("uiLink")
-        String uiLink
+        String uiLink,
+
+        @JsonProperty("description")
+        String description
 ) {
     /**
      * Maps this DTO to the URL field expected by the Opportunity entity.
@@ -40,4 +43,16 @@ public record SamOpportunityDto(
     public String url() {
         return uiLink;
     }
+
+    /**
+     * The description text, or null when SAM.gov only returns a link to it. The search API
+     * normally returns a link to the notice description endpoint; fetching it would cost one
+     * more rate-limited request per notice, so only inline text is stored.
+     */
+    public String descriptionText() {
+        if (description == null || description.isBlank() || description.startsWith("http")) {
+            return null;
+        }
+        return description;
+    }
 }
@@ -13,7 +13,11 @@ import org.springframework.data.elasticsearch.annotations.DateFormat;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.GeoPointField;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
 import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -69,8 +73,11 @@ public class OpportunityDocument {
     @Field(type = FieldType.Keyword)
     private String url;
 
-    // Agency information
-    @Field(type = FieldType.Text, analyzer = "standard", fielddata = true)
+    // Agency information; agency.keyword holds the whole name for facet counts
+    @MultiField(
+        mainField = @Field(type = FieldType.Text, analyzer = "standard", fielddata = true),
+        otherFields = @InnerField(suffix = "keyword", type = FieldType.Keyword, ignoreAbove = 256)
+    )
     private String agency;
 
     @Field(type = FieldType.Keyword)
@@ -102,6 +109,10 @@ public class OpportunityDocument {
     @Field(type = FieldType.Keyword)
     private String placeOfPerformanceZip;
 
+    // Geocoded place of performance, for map clustering
+    @GeoPointField
+    private GeoPoint location;
+
     // Award information
     @Field(type = FieldType.Double)
     private BigDecimal awardAmount;
@@ -234,6 +245,9 @@ public class OpportunityDocument {
             .placeOfPerformanceState(entity.getPlaceOfPerformanceState())
             .placeOfPerformanceCountry(entity.getPlaceOfPerformanceCountry())
             .placeOfPerformanceZip(entity.getPlaceOfPerformanceZip())
+            .location(entity.getLatitude() != null && entity.getLongitude() != null
+                ? new GeoPoint(entity.getLatitude().doubleValue(), entity.getLongitude().doubleValue())
+                : null)
             .awardAmount(entity.getAwardAmount())
             .estimatedValueLow(entity.getEstimatedValueLow())
             .estimatedValueHigh(entity.getEstimatedValueHigh())
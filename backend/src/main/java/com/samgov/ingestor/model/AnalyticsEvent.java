@@ -36,7 +36,7 @@ import java.util.UUID;
     @Index(name = "idx_analytics_event_type", columnList = "event_type"),
     @Index(name = "idx_analytics_event_entity", columnList = "entity_type, entity_id"),
     @Index(name = "idx_analytics_event_timestamp", columnList = "timestamp"),
-    @Index(name = "idx_analytics_event_tenant_timestamp", columnList = "tenant_id, timestamp"),
+    @Index(name = "idx_analytics_event_tenant_timestamp_id", columnList = "tenant_id, timestamp, id"),
     @Index(name = "idx_analytics_event_tenant_type_timestamp", columnList = "tenant_id, event_type, timestamp")
 })
 public class AnalyticsEvent {
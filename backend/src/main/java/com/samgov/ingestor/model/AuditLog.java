@@ -27,7 +27,9 @@ import java.util.UUID;
     @Index(name = "idx_audit_user_id", columnList = "user_id"),
     @Index(name = "idx_audit_tenant_id", columnList = "tenant_id"),
     @Index(name = "idx_audit_action", columnList = "action"),
-    @Index(name = "idx_audit_created_at", columnList = "created_at")
+    @Index(name = "idx_audit_created_at", columnList = "created_at"),
+    @Index(name = "idx_audit_tenant_created", columnList = "tenant_id, created_at, id"),
+    @Index(name = "idx_audit_user_created", columnList = "user_id, created_at, id")
 })
 public class AuditLog {
 
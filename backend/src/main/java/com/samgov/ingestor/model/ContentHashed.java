@@ -0,0 +1,12 @@
+package com.samgov.ingestor.model;
+
+/**
+ * Entity that stores a fingerprint of the upstream record it was built from,
+ * letting ingestion skip writes when the source data has not changed.
+ */
+public interface ContentHashed {
+
+    String getContentHash();
+
+    void setContentHash(String contentHash);
+}
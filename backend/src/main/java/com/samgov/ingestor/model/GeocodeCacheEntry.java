@@ -0,0 +1,93 @@
+package com.samgov.ingestor.model;
+
+import com.samgov.ingestor.util.PlaceNames;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Census geocoder answer for one place of performance, keyed by normalized (city, state, ZIP),
+ * so a place shared by many opportunities is geocoded once. Places the geocoder could not
+ * match are cached too ({@code matched = false}) and retried after census.no-match-retry-days.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "geocode_cache", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"address_key"}, name = "uk_geocode_cache_address_key")
+})
+public class GeocodeCacheEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", nullable = false, updatable = false)
+    private UUID id;
+
+    // See addressKey(String, String, String)
+    @Column(name = "address_key", nullable = false)
+    private String addressKey;
+
+    @Column(name = "matched", nullable = false)
+    private boolean matched;
+
+    @Column(name = "latitude", precision = 10, scale = 7)
+    private BigDecimal latitude;
+
+    @Column(name = "longitude", precision = 10, scale = 7)
+    private BigDecimal longitude;
+
+    @Column(name = "fips_state_code", length = 2)
+    private String fipsStateCode;
+
+    @Column(name = "fips_county_code", length = 5)
+    private String fipsCountyCode;
+
+    @Column(name = "census_tract", length = 20)
+    private String censusTract;
+
+    @Column(name = "looked_up_at", nullable = false)
+    private Instant lookedUpAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        Instant now = Instant.now();
+        createdAt = now;
+        updatedAt = now;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now();
+    }
+
+    /**
+     * Normalized cache key for a place: upper-cased city with whitespace and punctuation
+     * collapsed, upper-cased state, and the 5-digit ZIP. Missing parts are left empty, so
+     * "Washington, dc 20001-1234" and "WASHINGTON, DC 20001" share a key.
+     */
+    public static String addressKey(String city, String state, String zip) {
+        return PlaceNames.normalize(city) + "|" + PlaceNames.normalize(state) + "|" + PlaceNames.zip5(zip);
+    }
+}
@@ -0,0 +1,116 @@
+package com.samgov.ingestor.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Progress of the current (or last) ingestion run for one search scope.
+ * Updated in the same transaction as each page's writes, so after a crash or restart
+ * the next run resumes at {@code nextPage} with the same posted-date window.
+ * A RUNNING checkpoint is leased to the node walking it; other runs leave the scope alone
+ * until the lease, renewed with every page, has expired.
+ * Scopes are keyed the same way as {@link IngestionWatermark}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "ingestion_checkpoints", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"source", "naics_code", "ptype"}, name = "uk_checkpoint_scope")
+})
+public class IngestionCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", nullable = false, updatable = false)
+    private UUID id;
+
+    @Column(name = "source", nullable = false)
+    private String source;
+
+    @Column(name = "naics_code", nullable = false)
+    private String naicsCode;
+
+    @Column(name = "ptype", nullable = false)
+    private String ptype;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private CheckpointStatus status;
+
+    // Window being walked; kept so a resumed run requests the same result set
+    @Column(name = "posted_from", nullable = false)
+    private LocalDate postedFrom;
+
+    @Column(name = "posted_to", nullable = false)
+    private LocalDate postedTo;
+
+    @Column(name = "full_reconciliation", nullable = false)
+    private boolean fullReconciliation;
+
+    // First page index not yet committed
+    @Column(name = "next_page", nullable = false)
+    private int nextPage;
+
+    @Column(name = "records_fetched", nullable = false)
+    private int recordsFetched;
+
+    @Column(name = "records_written", nullable = false)
+    private int recordsWritten;
+
+    @Column(name = "latest_posted_date")
+    private LocalDate latestPostedDate;
+
+    // Node walking the scope, and until when it holds it
+    @Column(name = "owner")
+    private String owner;
+
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        updatedAt = Instant.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now();
+    }
+
+    public enum CheckpointStatus {
+        RUNNING,
+        FAILED,
+        COMPLETED
+    }
+}
@@ -0,0 +1,141 @@
+package com.samgov.ingestor.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A manually submitted ingestion run, queued and executed by the ingestion worker pool.
+ * Jobs survive restarts: a RUNNING job whose node stopped sending heartbeats is re-queued.
+ *
+ * A running job holds one of its source's concurrency slots; a partial unique index on
+ * (source, slot) over RUNNING jobs (created by IngestionJobIndexRunner) keeps nodes from
+ * exceeding the per-source cap between them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "ingestion_jobs", indexes = {
+    @Index(name = "idx_ingestion_job_status", columnList = "status, created_at")
+})
+public class IngestionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", nullable = false, updatable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, updatable = false)
+    private JobType type;
+
+    // Upstream API the job calls; concurrency is capped per source
+    @Column(name = "source", nullable = false, updatable = false)
+    private String source;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private JobStatus status;
+
+    @Column(name = "full_reconciliation", nullable = false)
+    private boolean fullReconciliation;
+
+    @Column(name = "record_limit")
+    private Integer recordLimit;
+
+    // Node that runs (or ran) the job, the concurrency slot it holds while RUNNING, and the
+    // node's last heartbeat for it
+    @Column(name = "node")
+    private String node;
+
+    @Column(name = "slot")
+    private Integer slot;
+
+    @Column(name = "heartbeat_at")
+    private Instant heartbeatAt;
+
+    @Column(name = "pages_fetched", nullable = false)
+    private int pagesFetched;
+
+    @Column(name = "rows_written", nullable = false)
+    private int rowsWritten;
+
+    @Column(name = "rows_unchanged", nullable = false)
+    private int rowsUnchanged;
+
+    @Column(name = "message", length = 1000)
+    private String message;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        Instant now = Instant.now();
+        createdAt = now;
+        updatedAt = now;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now();
+    }
+
+    public boolean isFinished() {
+        return status == JobStatus.SUCCEEDED || status == JobStatus.FAILED;
+    }
+
+    public enum JobStatus {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    public enum JobType {
+        SAM_GOV("sam.gov"),
+        SAM_GOV_FULL("sam.gov"),
+        SBIR_STTR("sam.gov"),
+        USA_SPENDING("usaspending.gov"),
+        GEOCODE("census.geocoder");
+
+        private final String source;
+
+        JobType(String source) {
+            this.source = source;
+        }
+
+        public String getSource() {
+            return source;
+        }
+    }
+}
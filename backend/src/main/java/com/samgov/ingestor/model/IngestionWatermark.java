@@ -0,0 +1,84 @@
+package com.samgov.ingestor.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * High-water mark for incremental ingestion of one search scope.
+ * A scope is identified by (source, NAICS code, procurement type); keyword searches
+ * use the keyword in place of the NAICS code.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "ingestion_watermarks", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"source", "naics_code", "ptype"}, name = "uk_watermark_scope")
+})
+public class IngestionWatermark {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", nullable = false, updatable = false)
+    private UUID id;
+
+    @Column(name = "source", nullable = false)
+    private String source;
+
+    @Column(name = "naics_code", nullable = false)
+    private String naicsCode;
+
+    @Column(name = "ptype", nullable = false)
+    private String ptype;
+
+    // End of the posted-date window covered by the last successful run
+    @Column(name = "last_posted_to")
+    private LocalDate lastPostedTo;
+
+    // Latest posted/modified date observed on any record in the scope
+    @Column(name = "last_modified_date")
+    private LocalDate lastModifiedDate;
+
+    @Column(name = "last_full_sync_at")
+    private Instant lastFullSyncAt;
+
+    @Column(name = "last_run_at")
+    private Instant lastRunAt;
+
+    @Column(name = "last_run_records")
+    private Integer lastRunRecords;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        Instant now = Instant.now();
+        createdAt = now;
+        updatedAt = now;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now();
+    }
+}
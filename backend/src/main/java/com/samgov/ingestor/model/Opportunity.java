@@ -41,9 +41,12 @@ import java.time.LocalDate;
     @Index(name = "idx_opp_local_entity", columnList = "local_entity"),
     @Index(name = "idx_opp_fips_state", columnList = "fips_state_code"),
     @Index(name = "idx_opp_fips_county", columnList = "fips_county_code"),
-    @Index(name = "idx_opp_lat_long", columnList = "latitude, longitude")
+    @Index(name = "idx_opp_lat_long", columnList = "latitude, longitude"),
+    @Index(name = "idx_opp_updated_at", columnList = "updated_at, id"),
+    @Index(name = "idx_opp_response_deadline_id", columnList = "response_deadline, id"),
+    @Index(name = "idx_opp_posted_date_id", columnList = "posted_date, id")
 })
-public class Opportunity {
+public class Opportunity implements ContentHashed {
 
     @Id
     @Column(name = "id", nullable = false)
@@ -247,6 +250,10 @@ public class Opportunity {
     @Column(name = "last_fetched_at")
     private Instant lastFetchedAt;
 
+    // SHA-256 of the normalized source DTO; unchanged hashes skip the upsert
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @PrePersist
     protected void onCreate() {
         Instant now = Instant.now();
@@ -0,0 +1,36 @@
+package com.samgov.ingestor.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Read-only view of the weighted full-text document PostgreSQL maintains for each opportunity.
+ *
+ * The vector is a generated column on the opportunities table, so it is always in step with
+ * the row and never written by the application. It is mapped here rather than on Opportunity
+ * so loading opportunities does not drag the vector along; keyword searches join to it by id
+ * and match it with opportunity_text_match/opportunity_text_rank (see FullTextSearchFunctions).
+ *
+ * The column is created by FullTextIndexRunner, not by Hibernate, so it is mapped as a
+ * formula: schema management leaves it alone instead of adding a plain column of its own.
+ */
+@Getter
+@NoArgsConstructor
+@Immutable
+@Entity
+@Table(name = "opportunities")
+public class OpportunityText {
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private String id;
+
+    @Formula("search_vector")
+    private String searchVector;
+}
@@ -22,7 +22,7 @@ import java.time.LocalDate;
 @Table(name = "sbir_awards", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"agency_tracking_number", "agency"}, name = "uk_sbir_tracking")
 })
-public class SbirAward {
+public class SbirAward implements ContentHashed {
 
     @Id
     @Column(name = "id", nullable = false)
@@ -129,4 +129,8 @@ public class SbirAward {
 
     @Column(name = "is_sttr")
     private Boolean isSttr;
+
+    // SHA-256 of the normalized source DTO; unchanged hashes skip the upsert
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
 }
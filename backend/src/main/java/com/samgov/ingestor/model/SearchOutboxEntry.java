@@ -0,0 +1,66 @@
+package com.samgov.ingestor.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Pending search index change for one opportunity, written in the same transaction as the
+ * change itself and deleted once the search indexer has applied it. The entry carries no
+ * payload: the indexer reads the opportunity's current row, and indexes it or, if the row
+ * is gone, deletes the document.
+ *
+ * Ids come from a sequence so entries are drained in the order they were written.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "search_outbox", indexes = {
+    @Index(name = "idx_search_outbox_next_attempt", columnList = "next_attempt_at, id"),
+    @Index(name = "idx_search_outbox_opportunity_id", columnList = "opportunity_id")
+})
+public class SearchOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, updatable = false)
+    private Long id;
+
+    @Column(name = "opportunity_id", nullable = false)
+    private String opportunityId;
+
+    // Failed indexing attempts; entries reaching search.indexer.max-attempts are parked
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        Instant now = Instant.now();
+        createdAt = now;
+        if (nextAttemptAt == null) {
+            nextAttemptAt = now;
+        }
+    }
+}
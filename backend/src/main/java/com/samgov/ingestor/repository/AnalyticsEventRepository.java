@@ -19,6 +19,23 @@ public interface AnalyticsEventRepository extends JpaRepository<AnalyticsEvent,
 
     Page<AnalyticsEvent> findByTenantIdOrderByTimestampDesc(UUID tenantId, Pageable pageable);
 
+    // Keyset pages, newest first: the first page, then the events after a (timestamp, id) cursor
+
+    List<AnalyticsEvent> findByTenantIdOrderByTimestampDescIdDesc(UUID tenantId, Pageable pageable);
+
+    @Query("""
+        SELECT e FROM AnalyticsEvent e
+        WHERE e.tenant.id = :tenantId
+        AND (e.timestamp < :timestamp OR (e.timestamp = :timestamp AND e.id < :id))
+        ORDER BY e.timestamp DESC, e.id DESC
+        """)
+    List<AnalyticsEvent> findByTenantIdAfter(
+        @Param("tenantId") UUID tenantId,
+        @Param("timestamp") Instant timestamp,
+        @Param("id") UUID id,
+        Pageable pageable
+    );
+
     Page<AnalyticsEvent> findByTenantIdAndUserIdOrderByTimestampDesc(
         UUID tenantId,
         UUID userId,
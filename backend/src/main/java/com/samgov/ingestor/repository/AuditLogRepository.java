@@ -22,6 +22,38 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
 
     Page<AuditLog> findByAction(AuditAction action, Pageable pageable);
 
+    // Keyset pages, newest first: the first page, then the entries after a (createdAt, id) cursor
+
+    List<AuditLog> findByTenantIdOrderByCreatedAtDescIdDesc(UUID tenantId, Pageable pageable);
+
+    @Query("""
+        SELECT a FROM AuditLog a
+        WHERE a.tenantId = :tenantId
+        AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id))
+        ORDER BY a.createdAt DESC, a.id DESC
+        """)
+    List<AuditLog> findByTenantIdAfter(
+        @Param("tenantId") UUID tenantId,
+        @Param("createdAt") Instant createdAt,
+        @Param("id") UUID id,
+        Pageable pageable
+    );
+
+    List<AuditLog> findByUserIdOrderByCreatedAtDescIdDesc(UUID userId, Pageable pageable);
+
+    @Query("""
+        SELECT a FROM AuditLog a
+        WHERE a.userId = :userId
+        AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id))
+        ORDER BY a.createdAt DESC, a.id DESC
+        """)
+    List<AuditLog> findByUserIdAfter(
+        @Param("userId") UUID userId,
+        @Param("createdAt") Instant createdAt,
+        @Param("id") UUID id,
+        Pageable pageable
+    );
+
     @Query("""
         SELECT a FROM AuditLog a
         WHERE a.tenantId = :tenantId
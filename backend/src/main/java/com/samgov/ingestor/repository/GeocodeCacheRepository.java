@@ -0,0 +1,25 @@
+package com.samgov.ingestor.repository;
+
+import com.samgov.ingestor.model.GeocodeCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for GeocodeCacheEntry entities.
+ */
+public interface GeocodeCacheRepository extends JpaRepository<GeocodeCacheEntry, UUID> {
+
+    /**
+     * Find the cached answer for one normalized place.
+     */
+    Optional<GeocodeCacheEntry> findByAddressKey(String addressKey);
+
+    /**
+     * Find cached answers for many normalized places in one query.
+     */
+    List<GeocodeCacheEntry> findByAddressKeyIn(Collection<String> addressKeys);
+}
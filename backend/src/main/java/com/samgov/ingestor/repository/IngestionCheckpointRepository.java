@@ -0,0 +1,40 @@
+package com.samgov.ingestor.repository;
+
+import com.samgov.ingestor.model.IngestionCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for IngestionCheckpoint entities.
+ */
+public interface IngestionCheckpointRepository extends JpaRepository<IngestionCheckpoint, UUID> {
+
+    /**
+     * Find the checkpoint for a single search scope.
+     */
+    Optional<IngestionCheckpoint> findBySourceAndNaicsCodeAndPtype(String source, String naicsCode, String ptype);
+
+    /**
+     * Find and lock the checkpoint for a search scope ({@code SELECT ... FOR UPDATE}), so
+     * concurrent runs decide one after the other who walks it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM IngestionCheckpoint c "
+        + "WHERE c.source = :source AND c.naicsCode = :naicsCode AND c.ptype = :ptype")
+    Optional<IngestionCheckpoint> findScopeForUpdate(@Param("source") String source,
+                                                     @Param("naicsCode") String naicsCode,
+                                                     @Param("ptype") String ptype);
+
+    /**
+     * Find and lock a checkpoint by id.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM IngestionCheckpoint c WHERE c.id = :id")
+    Optional<IngestionCheckpoint> findByIdForUpdate(@Param("id") UUID id);
+}
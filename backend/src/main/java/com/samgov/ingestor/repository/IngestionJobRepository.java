@@ -0,0 +1,61 @@
+package com.samgov.ingestor.repository;
+
+import com.samgov.ingestor.model.IngestionJob;
+import com.samgov.ingestor.model.IngestionJob.JobStatus;
+import com.samgov.ingestor.model.IngestionJob.JobType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for IngestionJob entities.
+ */
+public interface IngestionJobRepository extends JpaRepository<IngestionJob, UUID> {
+
+    List<IngestionJob> findByStatusOrderByCreatedAtAsc(JobStatus status);
+
+    List<IngestionJob> findByTypeAndStatusInOrderByCreatedAtAsc(JobType type, Collection<JobStatus> statuses);
+
+    List<IngestionJob> findTop20ByOrderByCreatedAtDesc();
+
+    /**
+     * Persists live counters of a job and records a heartbeat without touching its status; only
+     * applies while the job is still in {@code status} on {@code node}, so it can't overwrite a
+     * job that has already finished or was re-queued and taken over elsewhere.
+     */
+    @Modifying
+    @Query("UPDATE IngestionJob j SET j.pagesFetched = :pages, j.rowsWritten = :written, "
+        + "j.rowsUnchanged = :unchanged, j.heartbeatAt = :now, j.updatedAt = :now "
+        + "WHERE j.id = :id AND j.status = :status AND j.node = :node")
+    int updateProgress(@Param("id") UUID id, @Param("status") JobStatus status, @Param("node") String node,
+                       @Param("pages") int pages, @Param("written") int written,
+                       @Param("unchanged") int unchanged, @Param("now") Instant now);
+
+    /**
+     * Starts a queued job on {@code node} in a free concurrency slot of its source. Returns 0
+     * when the job is no longer queued or the slot is taken; the unique index on running slots
+     * rejects a slot taken concurrently by another node.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE IngestionJob j SET j.status = :running, j.slot = :slot, j.node = :node, "
+        + "j.startedAt = :now, j.heartbeatAt = :now, j.updatedAt = :now "
+        + "WHERE j.id = :id AND j.status = :queued AND NOT EXISTS ("
+        + "SELECT 1 FROM IngestionJob r WHERE r.source = j.source AND r.status = :running AND r.slot = :slot)")
+    int claim(@Param("id") UUID id, @Param("slot") int slot, @Param("node") String node,
+              @Param("now") Instant now, @Param("queued") JobStatus queued, @Param("running") JobStatus running);
+
+    /**
+     * Re-queues running jobs whose node has not sent a heartbeat since {@code cutoff}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE IngestionJob j SET j.status = :queued, j.slot = NULL, j.node = NULL, j.startedAt = NULL, "
+        + "j.updatedAt = :now WHERE j.status = :running AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :cutoff)")
+    int requeueStale(@Param("cutoff") Instant cutoff, @Param("now") Instant now,
+                     @Param("queued") JobStatus queued, @Param("running") JobStatus running);
+}
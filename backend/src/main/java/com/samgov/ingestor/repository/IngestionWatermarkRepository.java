@@ -0,0 +1,18 @@
+package com.samgov.ingestor.repository;
+
+import com.samgov.ingestor.model.IngestionWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for IngestionWatermark entities.
+ */
+public interface IngestionWatermarkRepository extends JpaRepository<IngestionWatermark, UUID> {
+
+    /**
+     * Find the watermark for a single search scope.
+     */
+    Optional<IngestionWatermark> findBySourceAndNaicsCodeAndPtype(String source, String naicsCode, String ptype);
+}
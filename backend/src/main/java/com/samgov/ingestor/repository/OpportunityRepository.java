@@ -2,6 +2,8 @@ package com.samgov.ingestor.repository;
 
 import com.samgov.ingestor.model.Opportunity;
 import com.samgov.ingestor.model.Opportunity.OpportunityStatus;
+import com.samgov.ingestor.util.SearchTerms;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +12,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +24,21 @@ public interface OpportunityRepository extends JpaRepository<Opportunity, String
 
     Optional<Opportunity> findBySolicitationNumber(String solicitationNumber);
 
+    /**
+     * Batch-resolve opportunities by solicitation number (used by bulk upserts).
+     */
+    List<Opportunity> findBySolicitationNumberIn(Collection<String> solicitationNumbers);
+
+    /**
+     * Keyset page of opportunities after the given id (used by search reindexing).
+     */
+    List<Opportunity> findByIdGreaterThanOrderByIdAsc(String afterId, Limit limit);
+
+    /**
+     * Keyset page of opportunities after the given id, up to and including an upper bound.
+     */
+    List<Opportunity> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(String afterId, String upToId, Limit limit);
+
     /**
      * Find opportunities by status.
      */
@@ -103,15 +121,33 @@ public interface OpportunityRepository extends JpaRepository<Opportunity, String
     );
 
     /**
-     * Search opportunities by keyword in title or description.
+     * Ranked full-text search of active opportunities over title, solicitation number, agency,
+     * NAICS description and description, best matches first (any pageable sort applies after
+     * the rank). Words also match as prefixes unless the keyword uses web search syntax.
      */
-    @Query("""
-        SELECT o FROM Opportunity o
+    default Page<Opportunity> searchByKeyword(String keyword, Pageable pageable) {
+        return searchByText(keyword, SearchTerms.prefixQuery(keyword), pageable);
+    }
+
+    /**
+     * Full-text match against the GIN-indexed search vector; prefer searchByKeyword, which
+     * derives the prefix query from the keyword.
+     */
+    @Query(value = """
+        SELECT o FROM Opportunity o JOIN OpportunityText t ON t.id = o.id
         WHERE o.status = 'ACTIVE'
-        AND (LOWER(o.title) LIKE LOWER(CONCAT('%', :keyword, '%'))
-             OR LOWER(o.description) LIKE LOWER(CONCAT('%', :keyword, '%')))
+        AND opportunity_text_match(t.searchVector, :keyword, :prefix) = true
+        ORDER BY opportunity_text_rank(t.searchVector, :keyword, :prefix) DESC
+        """, countQuery = """
+        SELECT COUNT(o) FROM Opportunity o JOIN OpportunityText t ON t.id = o.id
+        WHERE o.status = 'ACTIVE'
+        AND opportunity_text_match(t.searchVector, :keyword, :prefix) = true
         """)
-    Page<Opportunity> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+    Page<Opportunity> searchByText(
+        @Param("keyword") String keyword,
+        @Param("prefix") String prefix,
+        Pageable pageable
+    );
 
     /**
      * Find opportunities by state (place of performance).
@@ -246,17 +282,11 @@ public interface OpportunityRepository extends JpaRepository<Opportunity, String
 
     /**
      * Full-text search across multiple fields (advanced search).
+     * Same ranked search as searchByKeyword, which now covers every text field.
      */
-    @Query("""
-        SELECT o FROM Opportunity o
-        WHERE o.status = 'ACTIVE'
-        AND (LOWER(o.title) LIKE LOWER(CONCAT('%', :keyword, '%'))
-             OR LOWER(o.description) LIKE LOWER(CONCAT('%', :keyword, '%'))
-             OR LOWER(o.agency) LIKE LOWER(CONCAT('%', :keyword, '%'))
-             OR LOWER(o.naicsDescription) LIKE LOWER(CONCAT('%', :keyword, '%'))
-             OR LOWER(o.solicitationNumber) LIKE LOWER(CONCAT('%', :keyword, '%')))
-        """)
-    Page<Opportunity> fullTextSearch(@Param("keyword") String keyword, Pageable pageable);
+    default Page<Opportunity> fullTextSearch(String keyword, Pageable pageable) {
+        return searchByKeyword(keyword, pageable);
+    }
 
     /**
      * Find opportunities by multiple NAICS codes.
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +19,12 @@ public interface SbirAwardRepository extends JpaRepository<SbirAward, String> {
      */
     Optional<SbirAward> findByAgencyTrackingNumberAndAgency(String agencyTrackingNumber, String agency);
 
+    /**
+     * Batch-resolve awards by tracking number (used by bulk upserts).
+     * Callers match on agency as well, since tracking numbers are only unique per agency.
+     */
+    List<SbirAward> findByAgencyTrackingNumberIn(Collection<String> agencyTrackingNumbers);
+
     /**
      * Find all awards by agency.
      */
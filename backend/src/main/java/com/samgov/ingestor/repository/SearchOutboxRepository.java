@@ -0,0 +1,22 @@
+package com.samgov.ingestor.repository;
+
+import com.samgov.ingestor.model.SearchOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for SearchOutboxEntry entities.
+ */
+public interface SearchOutboxRepository extends JpaRepository<SearchOutboxEntry, Long> {
+
+    /**
+     * Find pending entries for one opportunity, oldest first.
+     */
+    List<SearchOutboxEntry> findByOpportunityIdOrderById(String opportunityId);
+
+    /**
+     * Count entries that have failed at least the given number of times.
+     */
+    long countByAttemptsGreaterThanEqual(int attempts);
+}
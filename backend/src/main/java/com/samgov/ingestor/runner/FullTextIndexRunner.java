@@ -0,0 +1,99 @@
+package com.samgov.ingestor.runner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Makes sure the search_vector column and the GIN index behind opportunity keyword search
+ * exist on startup.
+ *
+ * The column is a stored generated column, which Hibernate cannot declare (OpportunityText
+ * only reads it), and Hibernate can only declare B-tree indexes, so both are created here
+ * with explicit DDL once the schema exists. Neither statement runs when the catalog already
+ * has them, so a normal boot takes no lock on opportunities.
+ *
+ * Adding the column is a one-off migration (db/search-vector.sql) that rewrites the table;
+ * with search.full-text.migrate=false it is left to be applied by hand. The index is built
+ * with CREATE INDEX CONCURRENTLY, outside any transaction, so writes carry on while it
+ * builds; an invalid index left by an interrupted build is dropped and built again. Runs
+ * before any other startup work so ingestion on boot is not searched without them.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FullTextIndexRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(FullTextIndexRunner.class);
+
+    private static final String MIGRATION = "db/search-vector.sql";
+
+    private static final String COLUMN_EXISTS_SQL = """
+            SELECT EXISTS (SELECT 1 FROM information_schema.columns
+                           WHERE table_schema = current_schema() AND table_name = 'opportunities'
+                             AND column_name = 'search_vector')
+            """;
+
+    private static final String INDEX_VALID_SQL = """
+            SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+            WHERE c.relname = 'idx_opp_search_vector' AND c.relnamespace = current_schema()::regnamespace
+            """;
+
+    private static final String CREATE_INDEX_SQL =
+        "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_opp_search_vector ON opportunities USING gin (search_vector)";
+
+    private static final String DROP_INDEX_SQL = "DROP INDEX CONCURRENTLY IF EXISTS idx_opp_search_vector";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean migrate;
+
+    public FullTextIndexRunner(JdbcTemplate jdbcTemplate,
+                               @Value("${search.full-text.migrate:true}") boolean migrate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.migrate = migrate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(COLUMN_EXISTS_SQL, Boolean.class))) {
+                if (!migrate) {
+                    log.warn("Column opportunities.search_vector is missing and search.full-text.migrate is off; "
+                            + "keyword search fails until {} is applied", MIGRATION);
+                    return;
+                }
+                log.info("Adding opportunities.search_vector ({})", MIGRATION);
+                jdbcTemplate.execute(new ClassPathResource(MIGRATION).getContentAsString(StandardCharsets.UTF_8));
+            }
+        } catch (IOException | RuntimeException e) {
+            // Keyword search fails until the column exists; the rest of the application is unaffected
+            log.error("Could not create full-text search column: {}", e.getMessage(), e);
+            return;
+        }
+        try {
+            List<Boolean> valid = jdbcTemplate.queryForList(INDEX_VALID_SQL, Boolean.class);
+            if (valid.contains(Boolean.TRUE)) {
+                return;
+            }
+            if (!valid.isEmpty()) {
+                log.warn("Rebuilding invalid full-text search index left by an interrupted build");
+                jdbcTemplate.execute(DROP_INDEX_SQL);
+            }
+            log.info("Building full-text search index concurrently");
+            jdbcTemplate.execute(CREATE_INDEX_SQL);
+        } catch (RuntimeException e) {
+            // Search still works without the index, just with sequential scans
+            log.error("Could not create full-text search index: {}", e.getMessage(), e);
+        }
+    }
+}
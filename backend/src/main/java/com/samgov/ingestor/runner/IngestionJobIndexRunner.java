@@ -0,0 +1,46 @@
+package com.samgov.ingestor.runner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the index that caps running ingestion jobs per source across all nodes.
+ *
+ * A running job holds a (source, slot) pair with slot below
+ * {@code ingestion.jobs.max-concurrent-per-source}; the partial unique index makes the
+ * database reject a second running job in the same slot, however many nodes dispatch at
+ * once. Hibernate cannot declare partial indexes, so it is created here once the schema
+ * exists, before jobs are resumed.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class IngestionJobIndexRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionJobIndexRunner.class);
+
+    private static final String CREATE_INDEX_SQL =
+        "CREATE UNIQUE INDEX IF NOT EXISTS uk_ingestion_job_running_slot "
+            + "ON ingestion_jobs (source, slot) WHERE status = 'RUNNING'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IngestionJobIndexRunner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            jdbcTemplate.execute(CREATE_INDEX_SQL);
+        } catch (Exception e) {
+            // Jobs still dispatch without it; the claim query alone keeps slots apart on one node
+            log.error("Could not create ingestion job slot index: {}", e.getMessage(), e);
+        }
+    }
+}
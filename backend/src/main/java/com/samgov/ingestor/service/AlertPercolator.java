@@ -0,0 +1,298 @@
+package com.samgov.ingestor.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.json.JsonData;
+import com.samgov.ingestor.elasticsearch.OpportunityDocument;
+import com.samgov.ingestor.model.Opportunity;
+import com.samgov.ingestor.model.OpportunityAlert;
+import com.samgov.ingestor.repository.OpportunityAlertRepository;
+import com.samgov.ingestor.service.OpportunityAlertService.AlertMatch;
+import jakarta.json.JsonArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Matches opportunities against every enabled {@link OpportunityAlert} in one Elasticsearch
+ * request instead of testing each alert in turn.
+ *
+ * Each enabled alert is stored as a percolator query in the opportunity_alerts index, whose
+ * mapping is the opportunity document's plus the query itself, so an alert's NAICS prefixes,
+ * keywords and value range are parsed once when it is saved. Percolating a batch of opportunity
+ * documents returns every alert that matches any of them, with the positions of the documents
+ * it matched.
+ *
+ * {@link OpportunityAlertService} writes an alert's query once the transaction that saved it
+ * commits; {@link #resync()} rewrites all of them from the database at startup, which also
+ * repairs any write that was lost.
+ */
+@Service
+@ConditionalOnExpression("${elasticsearch.enabled:true}")
+public class AlertPercolator {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertPercolator.class);
+
+    static final String INDEX = "opportunity_alerts";
+
+    private static final String QUERY_FIELD = "query";
+    private static final String SLOT_FIELD = "_percolator_document_slot";
+    private static final int PAGE_SIZE = 1000;
+
+    private final ElasticsearchClient client;
+    private final ElasticsearchOperations operations;
+    private final OpportunityAlertRepository alertRepository;
+
+    public AlertPercolator(ElasticsearchClient client, ElasticsearchOperations operations,
+                           OpportunityAlertRepository alertRepository) {
+        this.client = client;
+        this.operations = operations;
+        this.alertRepository = alertRepository;
+    }
+
+    /**
+     * Stored form of an alert; everything but the query is for reading matches back.
+     */
+    private record StoredAlert(String alertId, String userId, String alertName, long syncedAt) {}
+
+    /**
+     * Creates the alert index, or brings its mapping up to date with the opportunity document,
+     * and rewrites every enabled alert's query. Queries of alerts that were deleted or disabled
+     * meanwhile are removed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resync() {
+        try {
+            ensureIndex();
+            long syncedAt = System.currentTimeMillis();
+            List<OpportunityAlert> alerts = alertRepository.findByEnabledTrue();
+            for (int from = 0; from < alerts.size(); from += PAGE_SIZE) {
+                List<BulkOperation> bulk = alerts.subList(from, Math.min(from + PAGE_SIZE, alerts.size())).stream()
+                        .map(alert -> BulkOperation.of(op -> op.index(write -> write
+                                .index(INDEX).id(alert.getId().toString()).document(source(alert, syncedAt)))))
+                        .toList();
+                BulkResponse response = client.bulk(b -> b.operations(bulk));
+                if (response.errors()) {
+                    log.warn("Some alert queries could not be written to {}", INDEX);
+                }
+            }
+            // Anything not rewritten above belongs to an alert that no longer exists or is disabled
+            client.deleteByQuery(delete -> delete.index(INDEX).refresh(true)
+                    .query(q -> q.range(range -> range.field("syncedAt").lt(JsonData.of(syncedAt)))));
+            log.info("Registered {} opportunity alerts for percolation", alerts.size());
+        } catch (Exception e) {
+            log.warn("Could not sync opportunity alerts to {}: {}", INDEX, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the alert's query, or removes it if the alert is disabled. Failures are logged;
+     * the next {@link #resync()} repairs them.
+     */
+    public void register(OpportunityAlert alert) {
+        if (!Boolean.TRUE.equals(alert.getEnabled())) {
+            unregister(alert.getId());
+            return;
+        }
+        try {
+            client.index(write -> write.index(INDEX).id(alert.getId().toString())
+                    .document(source(alert, System.currentTimeMillis())).refresh(Refresh.WaitFor));
+        } catch (Exception e) {
+            log.warn("Could not register alert {} for percolation: {}", alert.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the alert's query. Failures are logged; the next {@link #resync()} repairs them.
+     */
+    public void unregister(UUID alertId) {
+        try {
+            client.delete(delete -> delete.index(INDEX).id(alertId.toString()).refresh(Refresh.WaitFor));
+        } catch (ElasticsearchException e) {
+            if (e.status() != 404) {
+                log.warn("Could not unregister alert {} from percolation: {}", alertId, e.getMessage());
+            }
+        } catch (Exception e) {
+            log.warn("Could not unregister alert {} from percolation: {}", alertId, e.getMessage());
+        }
+    }
+
+    /**
+     * Every enabled alert each opportunity matches.
+     *
+     * @return matches per opportunity id; opportunities without matches are absent
+     * @throws IOException if Elasticsearch cannot be reached
+     */
+    public Map<String, List<AlertMatch>> percolate(List<Opportunity> opportunities) throws IOException {
+        Map<String, List<AlertMatch>> matches = new LinkedHashMap<>();
+        if (opportunities.isEmpty()) {
+            return matches;
+        }
+        List<JsonData> documents = opportunities.stream()
+                .map(opportunity -> JsonData.fromJson(operations.getElasticsearchConverter()
+                        .mapObject(OpportunityDocument.fromEntity(opportunity)).toJson()))
+                .toList();
+
+        String after = null;
+        while (true) {
+            String searchAfter = after;
+            SearchResponse<StoredAlert> response = client.search(search -> {
+                search.index(INDEX)
+                        .query(q -> q.percolate(percolate -> percolate.field(QUERY_FIELD).documents(documents)))
+                        .sort(sort -> sort.field(field -> field.field("alertId").order(SortOrder.Asc)))
+                        .source(source -> source.filter(filter -> filter
+                                .includes("alertId", "userId", "alertName", "syncedAt")))
+                        .size(PAGE_SIZE);
+                if (searchAfter != null) {
+                    search.searchAfter(List.of(FieldValue.of(searchAfter)));
+                }
+                return search;
+            }, StoredAlert.class);
+
+            List<Hit<StoredAlert>> hits = response.hits().hits();
+            for (Hit<StoredAlert> hit : hits) {
+                StoredAlert alert = hit.source();
+                AlertMatch match = new AlertMatch(UUID.fromString(alert.userId()), UUID.fromString(alert.alertId()),
+                        alert.alertName());
+                // A single document is not numbered
+                JsonData slots = hit.fields().get(SLOT_FIELD);
+                if (slots == null) {
+                    matches.computeIfAbsent(opportunities.get(0).getId(), id -> new ArrayList<>()).add(match);
+                    continue;
+                }
+                JsonArray slotArray = slots.toJson().asJsonArray();
+                for (int i = 0; i < slotArray.size(); i++) {
+                    String opportunityId = opportunities.get(slotArray.getInt(i)).getId();
+                    matches.computeIfAbsent(opportunityId, id -> new ArrayList<>()).add(match);
+                }
+            }
+            if (hits.size() < PAGE_SIZE) {
+                return matches;
+            }
+            after = hits.get(hits.size() - 1).source().alertId();
+        }
+    }
+
+    private void ensureIndex() throws IOException {
+        Document opportunityMapping = operations.indexOps(OpportunityDocument.class).createMapping();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> properties = new LinkedHashMap<>((Map<String, Object>) opportunityMapping.get("properties"));
+        properties.put(QUERY_FIELD, Map.of("type", "percolator"));
+        properties.put("alertId", Map.of("type", "keyword"));
+        properties.put("userId", Map.of("type", "keyword", "index", false));
+        properties.put("alertName", Map.of("type", "keyword", "index", false));
+        properties.put("syncedAt", Map.of("type", "long"));
+        String mapping = Document.from(Map.of("properties", properties)).toJson();
+
+        if (client.indices().exists(exists -> exists.index(INDEX)).value()) {
+            client.indices().putMapping(put -> put.index(INDEX).withJson(new StringReader(mapping)));
+        } else {
+            client.indices().create(create -> create.index(INDEX)
+                    .settings(settings -> settings.numberOfShards("1").numberOfReplicas("0"))
+                    .mappings(mappings -> mappings.withJson(new StringReader(mapping))));
+            log.info("Created percolator index {}", INDEX);
+        }
+    }
+
+    private static Map<String, Object> source(OpportunityAlert alert, long syncedAt) {
+        Map<String, Object> source = new LinkedHashMap<>();
+        source.put(QUERY_FIELD, query(alert));
+        source.put("alertId", alert.getId().toString());
+        source.put("userId", alert.getUser().getId().toString());
+        source.put("alertName", alert.getName());
+        source.put("syncedAt", syncedAt);
+        return source;
+    }
+
+    /**
+     * The alert's criteria as a query, with the semantics of
+     * {@link OpportunityAlertService#matchesAlert}: every given criterion must hold, and within
+     * one criterion any listed value may match.
+     *
+     * Keywords are matched as phrases of whole words in the title or description, the last one
+     * also as a prefix, where matchesAlert looks for any substring.
+     */
+    static Map<String, Object> query(OpportunityAlert alert) {
+        List<Object> filters = new ArrayList<>();
+
+        List<String> naicsCodes = nonBlank(alert.getNaicsCodes());
+        if (!naicsCodes.isEmpty()) {
+            filters.add(anyOf(naicsCodes.stream()
+                    .map(code -> Map.of("prefix", Map.of("naicsCode", code)))
+                    .toList()));
+        }
+
+        List<String> keywords = nonBlank(alert.getKeywords());
+        if (!keywords.isEmpty()) {
+            filters.add(anyOf(keywords.stream()
+                    .map(keyword -> Map.of("multi_match", Map.of(
+                            "query", keyword,
+                            "type", "phrase_prefix",
+                            "fields", List.of("title", "description"))))
+                    .toList()));
+        }
+
+        if (alert.getMinValue() != null || alert.getMaxValue() != null) {
+            filters.add(valueBetween(alert.getMinValue(), alert.getMaxValue()));
+        }
+
+        return filters.isEmpty()
+                ? Map.of("match_all", Map.of())
+                : Map.of("bool", Map.of("filter", filters));
+    }
+
+    /**
+     * The value of an opportunity is its award amount, else its high estimate, else its low one;
+     * an opportunity with none of them never matches a value range.
+     */
+    private static Map<String, Object> valueBetween(BigDecimal min, BigDecimal max) {
+        Map<String, Object> bounds = new LinkedHashMap<>();
+        if (min != null) {
+            bounds.put("gte", min);
+        }
+        if (max != null) {
+            bounds.put("lte", max);
+        }
+        return anyOf(List.of(
+                Map.of("range", Map.of("awardAmount", bounds)),
+                Map.of("bool", Map.of(
+                        "filter", List.of(Map.of("range", Map.of("estimatedValueHigh", bounds))),
+                        "must_not", List.of(exists("awardAmount")))),
+                Map.of("bool", Map.of(
+                        "filter", List.of(Map.of("range", Map.of("estimatedValueLow", bounds))),
+                        "must_not", List.of(exists("awardAmount"), exists("estimatedValueHigh"))))));
+    }
+
+    private static Map<String, Object> anyOf(List<?> queries) {
+        return Map.of("bool", Map.of("should", queries, "minimum_should_match", 1));
+    }
+
+    private static Map<String, Object> exists(String field) {
+        return Map.of("exists", Map.of("field", field));
+    }
+
+    private static List<String> nonBlank(List<String> values) {
+        return values == null ? List.of() : values.stream().filter(value -> value != null && !value.isBlank()).toList();
+    }
+}
@@ -1,5 +1,6 @@
 package com.samgov.ingestor.service;
 
+import com.samgov.ingestor.dto.CursorPaginatedResponse;
 import com.samgov.ingestor.model.*;
 import com.samgov.ingestor.model.AnalyticsAggregate.MetricName;
 import com.samgov.ingestor.model.AnalyticsAggregate.Period;
@@ -14,6 +15,8 @@ import com.samgov.ingestor.model.SavedReport.ReportFormat;
 import com.samgov.ingestor.model.SavedReport.ReportType;
 import com.samgov.ingestor.model.SavedReport.ScheduleFrequency;
 import com.samgov.ingestor.repository.*;
+import com.samgov.ingestor.util.PageCursor;
+import com.samgov.ingestor.util.PageCursor.TimeKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -842,6 +845,24 @@ public class AnalyticsService {
         return analyticsEventRepository.findByTenantIdOrderByTimestampDesc(tenantId, pageable);
     }
 
+    /**
+     * Get a tenant's events newest first, one keyset page at a time.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public CursorPaginatedResponse<AnalyticsEvent> scrollEvents(UUID tenantId, String cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<AnalyticsEvent> rows;
+        if (cursor == null) {
+            rows = analyticsEventRepository.findByTenantIdOrderByTimestampDescIdDesc(tenantId, limit);
+        } else {
+            TimeKey after = PageCursor.timeKey(cursor);
+            rows = analyticsEventRepository.findByTenantIdAfter(tenantId, after.timestamp(), after.id(), limit);
+        }
+        return CursorPaginatedResponse.from(rows, size, event -> PageCursor.of(event.getTimestamp(), event.getId()));
+    }
+
     /**
      * Get events by type within a date range.
      */
@@ -3,13 +3,17 @@ package com.samgov.ingestor.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.samgov.ingestor.config.TenantContext;
+import com.samgov.ingestor.dto.CursorPaginatedResponse;
 import com.samgov.ingestor.model.AuditLog;
 import com.samgov.ingestor.model.AuditLog.AuditAction;
 import com.samgov.ingestor.repository.AuditLogRepository;
+import com.samgov.ingestor.util.PageCursor;
+import com.samgov.ingestor.util.PageCursor.TimeKey;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -143,6 +147,42 @@ public class AuditService {
         return auditLogRepository.findByUserId(userId, pageable);
     }
 
+    /**
+     * Get a tenant's audit logs newest first, one keyset page at a time.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public CursorPaginatedResponse<AuditLog> scrollAuditLogsByTenant(UUID tenantId, String cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<AuditLog> rows;
+        if (cursor == null) {
+            rows = auditLogRepository.findByTenantIdOrderByCreatedAtDescIdDesc(tenantId, limit);
+        } else {
+            TimeKey after = PageCursor.timeKey(cursor);
+            rows = auditLogRepository.findByTenantIdAfter(tenantId, after.timestamp(), after.id(), limit);
+        }
+        return CursorPaginatedResponse.from(rows, size, entry -> PageCursor.of(entry.getCreatedAt(), entry.getId()));
+    }
+
+    /**
+     * Get a user's audit logs newest first, one keyset page at a time.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public CursorPaginatedResponse<AuditLog> scrollAuditLogsByUser(UUID userId, String cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<AuditLog> rows;
+        if (cursor == null) {
+            rows = auditLogRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, limit);
+        } else {
+            TimeKey after = PageCursor.timeKey(cursor);
+            rows = auditLogRepository.findByUserIdAfter(userId, after.timestamp(), after.id(), limit);
+        }
+        return CursorPaginatedResponse.from(rows, size, entry -> PageCursor.of(entry.getCreatedAt(), entry.getId()));
+    }
+
     /**
      * Get audit logs for a specific entity.
      */
@@ -0,0 +1,441 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.model.ContentHashed;
+import com.samgov.ingestor.model.Opportunity;
+import com.samgov.ingestor.model.SbirAward;
+import com.samgov.ingestor.util.ContentHash;
+import com.samgov.ingestor.util.IngestionProgress;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Set-based upsert engine shared by the ingestion services.
+ *
+ * Records are processed in chunks: existing rows for a chunk are resolved with a single
+ * {@code IN} query, merged with the incoming DTOs in memory, and written back with one
+ * batched PostgreSQL {@code INSERT ... ON CONFLICT ... DO UPDATE} statement. This replaces
+ * the previous lookup-then-save round trip per record.
+ *
+ * Each row stores a content hash of the DTO it was built from. When an incoming record hashes
+ * the same as the stored row it is counted as unchanged and not written at all, so no-op
+ * refreshes don't dirty rows, generate WAL, or trigger downstream work.
+ *
+ * The upsert resolves conflicts on the natural key only. A record with a new key but the id of
+ * an existing row (e.g. a notice re-issued under a corrected solicitation number) would violate
+ * the primary key and fail the whole chunk, so such rows are rewritten by id instead.
+ *
+ * Rows are written through JDBC, so entities loaded for merging are detached afterwards to
+ * keep Hibernate from flushing them a second time. Tables mirrored into the search index
+ * record every written row in the {@link SearchOutbox} within the same chunk transaction.
+ *
+ * Each chunk commits in its own transaction unless the caller already has one open, in which
+ * case chunks join it (e.g. a page written together with its ingestion checkpoint).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkUpsertService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final SearchOutbox searchOutbox;
+
+    @Value("${ingestion.upsert.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Upserts the given records in chunks.
+     * Records sharing a key within a chunk are collapsed; the last one wins. So are new keys
+     * sharing an id, with a warning, since only one of them can hold the row.
+     *
+     * @param records incoming records, already validated by the caller
+     * @param mapping how records map to rows of the target table
+     * @return counts of inserted, updated and unchanged rows
+     */
+    public <D extends Record, E extends ContentHashed> UpsertResult upsert(List<D> records,
+                                                                          UpsertMapping<D, E> mapping) {
+        UpsertResult total = UpsertResult.EMPTY;
+        for (int from = 0; from < records.size(); from += chunkSize) {
+            List<D> chunk = records.subList(from, Math.min(records.size(), from + chunkSize));
+            UpsertResult result = transactionTemplate.execute(status -> upsertChunk(chunk, mapping));
+            IngestionProgress.recordRows(result.written(), result.unchanged());
+            total = total.plus(result);
+        }
+        return total;
+    }
+
+    private <D extends Record, E extends ContentHashed> UpsertResult upsertChunk(List<D> chunk,
+                                                                                UpsertMapping<D, E> mapping) {
+        Map<String, D> latestByKey = new LinkedHashMap<>();
+        for (D record : chunk) {
+            latestByKey.put(mapping.recordKey(record), record);
+        }
+
+        // Push pending ORM writes so the lookup and the JDBC batch see them
+        entityManager.flush();
+
+        List<E> loaded = mapping.findExisting(latestByKey.keySet());
+        Map<String, E> existingByKey = new HashMap<>();
+        for (E entity : loaded) {
+            existingByKey.putIfAbsent(mapping.entityKey(entity), entity);
+        }
+
+        UpsertTable<E> table = mapping.table();
+        List<E> rows = new ArrayList<>(latestByKey.size());
+        Map<Object, E> createdById = new LinkedHashMap<>();
+        int updated = 0;
+        int unchanged = 0;
+        for (Map.Entry<String, D> entry : latestByKey.entrySet()) {
+            D record = entry.getValue();
+            String hash = mapping.contentHash(record);
+            E existing = existingByKey.get(entry.getKey());
+            if (existing == null) {
+                E created = mapping.create(record);
+                created.setContentHash(hash);
+                // Two new keys carrying the same id would collide in one batch; the last one wins
+                // and the dropped record is not counted
+                E dropped = createdById.remove(table.id(created));
+                if (dropped != null) {
+                    log.warn("Dropping {} record with key {}: key {} in the same chunk carries its id {}",
+                            table.name(), mapping.entityKey(dropped), entry.getKey(), table.id(created));
+                }
+                createdById.put(table.id(created), created);
+            } else if (hash.equals(existing.getContentHash())) {
+                unchanged++;
+            } else {
+                mapping.update(existing, record);
+                existing.setContentHash(hash);
+                rows.add(existing);
+                updated++;
+            }
+        }
+
+        // A new key can still carry the id of an existing row (e.g. a notice whose solicitation
+        // number changed); inserting it would violate the primary key, so that row is rewritten
+        // by id instead, taking the new key
+        List<E> inserts = new ArrayList<>(createdById.size());
+        List<E> moves = new ArrayList<>();
+        Set<Object> takenIds = existingIds(table, createdById.keySet());
+        for (E created : createdById.values()) {
+            (takenIds.contains(table.id(created)) ? moves : inserts).add(created);
+        }
+        rows.addAll(inserts);
+        int inserted = inserts.size();
+        updated += moves.size();
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(table.sql(), rows.stream().map(table::bind).toList());
+        }
+        if (!moves.isEmpty()) {
+            jdbcTemplate.batchUpdate(table.updateByIdSql(), moves.stream().map(table::bindUpdateById).toList());
+            rows.addAll(moves);
+        }
+        if (table.searchId() != null && !rows.isEmpty()) {
+            searchOutbox.enqueue(rows.stream().map(table.searchId()).toList());
+        }
+        loaded.forEach(entityManager::detach);
+
+        log.debug("Upserted chunk into {}: {} inserted, {} updated, {} unchanged",
+                table.name(), inserted, updated, unchanged);
+        return new UpsertResult(inserted, updated, unchanged);
+    }
+
+    private <E> Set<Object> existingIds(UpsertTable<E> table, Collection<Object> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        String placeholders = ids.stream().map(id -> "?").collect(Collectors.joining(", "));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT " + UpsertTable.ID_COLUMN + " FROM " + table.name()
+                        + " WHERE " + UpsertTable.ID_COLUMN + " IN (" + placeholders + ")",
+                Object.class, ids.toArray()));
+    }
+
+    /**
+     * Describes how incoming records of type {@code D} become rows of entity type {@code E}.
+     */
+    public interface UpsertMapping<D extends Record, E extends ContentHashed> {
+
+        UpsertTable<E> table();
+
+        /**
+         * Natural key of an incoming record; must match {@link #entityKey} for the same row.
+         */
+        String recordKey(D record);
+
+        String entityKey(E entity);
+
+        /**
+         * Loads existing rows for the given keys with a single query.
+         */
+        List<E> findExisting(Collection<String> keys);
+
+        E create(D record);
+
+        void update(E entity, D record);
+
+        /**
+         * Fingerprint of an incoming record, compared with the stored {@code content_hash}.
+         */
+        default String contentHash(D record) {
+            return ContentHash.of(record);
+        }
+    }
+
+    /**
+     * A single column binding for an upsert table.
+     */
+    public record UpsertColumn<E>(String name, Function<E, Object> value) {}
+
+    /**
+     * Target table for an upsert: columns in bind order, the conflict target, the columns
+     * that are written on insert but left untouched on update, and - for tables mirrored
+     * into the search index - the id that written rows are queued under in the search outbox.
+     *
+     * Every table has an {@code id} primary key column. Besides the upsert on the conflict
+     * target, {@code updateByIdSql} rewrites a row by id, including its conflict columns, for
+     * new keys that arrive with the id of an existing row.
+     */
+    public record UpsertTable<E>(
+            String name,
+            List<UpsertColumn<E>> columns,
+            List<String> conflictColumns,
+            Set<String> insertOnlyColumns,
+            String sql,
+            String updateByIdSql,
+            Function<E, String> searchId
+    ) {
+        static final String ID_COLUMN = "id";
+
+        public static <E> UpsertTable<E> of(String name, List<UpsertColumn<E>> columns,
+                                            List<String> conflictColumns, Set<String> insertOnlyColumns) {
+            if (columns.stream().noneMatch(c -> c.name().equals(ID_COLUMN))) {
+                throw new IllegalArgumentException("Upsert table " + name + " has no " + ID_COLUMN + " column");
+            }
+            String columnList = columns.stream().map(UpsertColumn::name).collect(Collectors.joining(", "));
+            String placeholders = columns.stream().map(c -> "?").collect(Collectors.joining(", "));
+            String updates = columns.stream()
+                    .map(UpsertColumn::name)
+                    .filter(c -> !conflictColumns.contains(c) && !insertOnlyColumns.contains(c))
+                    .map(c -> c + " = EXCLUDED." + c)
+                    .collect(Collectors.joining(", "));
+            String sql = "INSERT INTO " + name + " (" + columnList + ") VALUES (" + placeholders + ")"
+                    + " ON CONFLICT (" + String.join(", ", conflictColumns) + ") DO UPDATE SET " + updates;
+            String assignments = updatableById(columns, insertOnlyColumns).stream()
+                    .map(c -> c.name() + " = ?")
+                    .collect(Collectors.joining(", "));
+            String updateByIdSql = "UPDATE " + name + " SET " + assignments + " WHERE " + ID_COLUMN + " = ?";
+            return new UpsertTable<>(name, columns, conflictColumns, insertOnlyColumns, sql, updateByIdSql, null);
+        }
+
+        /**
+         * Queues every written row in the search outbox under the given id.
+         */
+        public UpsertTable<E> withSearchOutbox(Function<E, String> searchId) {
+            return new UpsertTable<>(name, columns, conflictColumns, insertOnlyColumns, sql, updateByIdSql, searchId);
+        }
+
+        public Object[] bind(E entity) {
+            Object[] values = new Object[columns.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = columns.get(i).value().apply(entity);
+            }
+            return values;
+        }
+
+        /**
+         * Binds {@link #updateByIdSql}: the updatable columns in order, then the id.
+         */
+        public Object[] bindUpdateById(E entity) {
+            List<UpsertColumn<E>> updatable = updatableById(columns, insertOnlyColumns);
+            Object[] values = new Object[updatable.size() + 1];
+            for (int i = 0; i < updatable.size(); i++) {
+                values[i] = updatable.get(i).value().apply(entity);
+            }
+            values[updatable.size()] = id(entity);
+            return values;
+        }
+
+        public Object id(E entity) {
+            return columns.stream()
+                    .filter(c -> c.name().equals(ID_COLUMN))
+                    .findFirst()
+                    .orElseThrow()
+                    .value()
+                    .apply(entity);
+        }
+
+        private static <E> List<UpsertColumn<E>> updatableById(List<UpsertColumn<E>> columns,
+                                                              Set<String> insertOnlyColumns) {
+            return columns.stream().filter(c -> !insertOnlyColumns.contains(c.name())).toList();
+        }
+    }
+
+    /**
+     * Row counts from an upsert. Unchanged rows matched an existing row's content hash and were not written.
+     */
+    public record UpsertResult(int inserted, int updated, int unchanged) {
+        public static final UpsertResult EMPTY = new UpsertResult(0, 0, 0);
+
+        public UpsertResult plus(UpsertResult other) {
+            return new UpsertResult(inserted + other.inserted, updated + other.updated,
+                    unchanged + other.unchanged);
+        }
+
+        /**
+         * Rows actually written (inserted or changed).
+         */
+        public int written() {
+            return inserted + updated;
+        }
+    }
+
+    // ============================================
+    // TABLE DEFINITIONS
+    // ============================================
+
+    /**
+     * The {@code opportunities} table, keyed by solicitation number.
+     */
+    public static final UpsertTable<Opportunity> OPPORTUNITIES = UpsertTable.<Opportunity>of(
+            "opportunities",
+            List.of(
+                    new UpsertColumn<>("id", Opportunity::getId),
+                    new UpsertColumn<>("title", Opportunity::getTitle),
+                    new UpsertColumn<>("solicitation_number", Opportunity::getSolicitationNumber),
+                    new UpsertColumn<>("description", Opportunity::getDescription),
+                    new UpsertColumn<>("posted_date", Opportunity::getPostedDate),
+                    new UpsertColumn<>("response_deadline", Opportunity::getResponseDeadLine),
+                    new UpsertColumn<>("archive_date", Opportunity::getArchiveDate),
+                    new UpsertColumn<>("naics_code", Opportunity::getNaicsCode),
+                    new UpsertColumn<>("naics_description", Opportunity::getNaicsDescription),
+                    new UpsertColumn<>("psc_code", Opportunity::getPscCode),
+                    new UpsertColumn<>("type", Opportunity::getType),
+                    new UpsertColumn<>("type_description", Opportunity::getTypeDescription),
+                    new UpsertColumn<>("url", Opportunity::getUrl),
+                    new UpsertColumn<>("agency", Opportunity::getAgency),
+                    new UpsertColumn<>("agency_code", Opportunity::getAgencyCode),
+                    new UpsertColumn<>("sub_agency", Opportunity::getSubAgency),
+                    new UpsertColumn<>("office", Opportunity::getOffice),
+                    new UpsertColumn<>("set_aside_type", Opportunity::getSetAsideType),
+                    new UpsertColumn<>("set_aside_description", Opportunity::getSetAsideDescription),
+                    new UpsertColumn<>("pop_city", Opportunity::getPlaceOfPerformanceCity),
+                    new UpsertColumn<>("pop_state", Opportunity::getPlaceOfPerformanceState),
+                    new UpsertColumn<>("pop_country", Opportunity::getPlaceOfPerformanceCountry),
+                    new UpsertColumn<>("pop_zip", Opportunity::getPlaceOfPerformanceZip),
+                    new UpsertColumn<>("latitude", Opportunity::getLatitude),
+                    new UpsertColumn<>("longitude", Opportunity::getLongitude),
+                    new UpsertColumn<>("fips_state_code", Opportunity::getFipsStateCode),
+                    new UpsertColumn<>("fips_county_code", Opportunity::getFipsCountyCode),
+                    new UpsertColumn<>("census_tract", Opportunity::getCensusTract),
+                    new UpsertColumn<>("geocoded_at", o -> timestamp(o.getGeocodedAt())),
+                    new UpsertColumn<>("award_amount", Opportunity::getAwardAmount),
+                    new UpsertColumn<>("estimated_value_low", Opportunity::getEstimatedValueLow),
+                    new UpsertColumn<>("estimated_value_high", Opportunity::getEstimatedValueHigh),
+                    new UpsertColumn<>("contract_type", Opportunity::getContractType),
+                    new UpsertColumn<>("contract_number", Opportunity::getContractNumber),
+                    new UpsertColumn<>("incumbent_contractor", Opportunity::getIncumbentContractor),
+                    new UpsertColumn<>("is_recovery_act", Opportunity::getIsRecoveryAct),
+                    new UpsertColumn<>("sbir_phase", Opportunity::getSbirPhase),
+                    new UpsertColumn<>("is_sbir", Opportunity::getIsSbir),
+                    new UpsertColumn<>("is_sttr", Opportunity::getIsSttr),
+                    new UpsertColumn<>("primary_contact_name", Opportunity::getPrimaryContactName),
+                    new UpsertColumn<>("primary_contact_email", Opportunity::getPrimaryContactEmail),
+                    new UpsertColumn<>("primary_contact_phone", Opportunity::getPrimaryContactPhone),
+                    new UpsertColumn<>("secondary_contact_name", Opportunity::getSecondaryContactName),
+                    new UpsertColumn<>("secondary_contact_email", Opportunity::getSecondaryContactEmail),
+                    new UpsertColumn<>("source", Opportunity::getSource),
+                    new UpsertColumn<>("data_source", o -> enumName(o.getDataSource())),
+                    new UpsertColumn<>("contract_level", o -> enumName(o.getContractLevel())),
+                    new UpsertColumn<>("status", o -> enumName(o.getStatus())),
+                    new UpsertColumn<>("state_agency", Opportunity::getStateAgency),
+                    new UpsertColumn<>("local_entity", Opportunity::getLocalEntity),
+                    new UpsertColumn<>("procurement_portal_url", Opportunity::getProcurementPortalUrl),
+                    new UpsertColumn<>("bid_number", Opportunity::getBidNumber),
+                    new UpsertColumn<>("is_dod", Opportunity::getIsDod),
+                    new UpsertColumn<>("clearance_required", Opportunity::getClearanceRequired),
+                    new UpsertColumn<>("itar_controlled", Opportunity::getItarControlled),
+                    new UpsertColumn<>("cui_required", Opportunity::getCuiRequired),
+                    new UpsertColumn<>("created_at", o -> timestamp(o.getCreatedAt() != null ? o.getCreatedAt() : Instant.now())),
+                    new UpsertColumn<>("updated_at", o -> timestamp(Instant.now())),
+                    new UpsertColumn<>("last_fetched_at", o -> timestamp(Instant.now())),
+                    new UpsertColumn<>("content_hash", Opportunity::getContentHash)
+            ),
+            List.of("solicitation_number"),
+            Set.of("id", "created_at")
+    ).withSearchOutbox(Opportunity::getId);
+
+    /**
+     * The {@code sbir_awards} table, keyed by (agency tracking number, agency).
+     */
+    public static final UpsertTable<SbirAward> SBIR_AWARDS = UpsertTable.<SbirAward>of(
+            "sbir_awards",
+            List.of(
+                    new UpsertColumn<>("id", SbirAward::getId),
+                    new UpsertColumn<>("firm", SbirAward::getFirm),
+                    new UpsertColumn<>("award_title", SbirAward::getAwardTitle),
+                    new UpsertColumn<>("agency", SbirAward::getAgency),
+                    new UpsertColumn<>("branch", SbirAward::getBranch),
+                    new UpsertColumn<>("phase", SbirAward::getPhase),
+                    new UpsertColumn<>("program", SbirAward::getProgram),
+                    new UpsertColumn<>("agency_tracking_number", SbirAward::getAgencyTrackingNumber),
+                    new UpsertColumn<>("contract", SbirAward::getContract),
+                    new UpsertColumn<>("proposal_award_date", SbirAward::getProposalAwardDate),
+                    new UpsertColumn<>("contract_end_date", SbirAward::getContractEndDate),
+                    new UpsertColumn<>("solicitation_number", SbirAward::getSolicitationNumber),
+                    new UpsertColumn<>("solicitation_year", SbirAward::getSolicitationYear),
+                    new UpsertColumn<>("topic_code", SbirAward::getTopicCode),
+                    new UpsertColumn<>("award_year", SbirAward::getAwardYear),
+                    new UpsertColumn<>("award_amount", SbirAward::getAwardAmount),
+                    new UpsertColumn<>("uei", SbirAward::getUei),
+                    new UpsertColumn<>("hubzone_owned", SbirAward::getHubzoneOwned),
+                    new UpsertColumn<>("socially_economically_disadvantaged", SbirAward::getSociallyEconomicallyDisadvantaged),
+                    new UpsertColumn<>("women_owned", SbirAward::getWomenOwned),
+                    new UpsertColumn<>("number_employees", SbirAward::getNumberEmployees),
+                    new UpsertColumn<>("company_url", SbirAward::getCompanyUrl),
+                    new UpsertColumn<>("city", SbirAward::getCity),
+                    new UpsertColumn<>("state", SbirAward::getState),
+                    new UpsertColumn<>("zip", SbirAward::getZip),
+                    new UpsertColumn<>("poc_name", SbirAward::getPocName),
+                    new UpsertColumn<>("poc_email", SbirAward::getPocEmail),
+                    new UpsertColumn<>("poc_phone", SbirAward::getPocPhone),
+                    new UpsertColumn<>("pi_name", SbirAward::getPiName),
+                    new UpsertColumn<>("pi_email", SbirAward::getPiEmail),
+                    new UpsertColumn<>("research_keywords", SbirAward::getResearchKeywords),
+                    new UpsertColumn<>("abstract_text", SbirAward::getAbstractText),
+                    new UpsertColumn<>("award_link", SbirAward::getAwardLink),
+                    new UpsertColumn<>("is_sbir", SbirAward::getIsSbir),
+                    new UpsertColumn<>("is_sttr", SbirAward::getIsSttr),
+                    new UpsertColumn<>("content_hash", SbirAward::getContentHash)
+            ),
+            List.of("agency_tracking_number", "agency"),
+            Set.of("id")
+    );
+
+    private static Timestamp timestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+
+    private static String enumName(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+}
@@ -12,8 +12,10 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.HexFormat;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Service for managing application caching with multi-tenant isolation.
@@ -32,6 +34,7 @@ public class CacheService {
     private static final String API_RESPONSE_TYPE = "api";
 
     private final CacheManager cacheManager;
+    private final OpportunityDataGeneration dataGeneration;
 
     // ============================================
     // CACHE KEY GENERATION
@@ -46,18 +49,38 @@ public class CacheService {
      * @return the generated cache key
      */
     public String generateCacheKey(UUID tenantId, String entityType, String entityId) {
-        return String.join(CACHE_KEY_SEPARATOR, TENANT_PREFIX, tenantId.toString(), entityType, entityId);
+        return String.join(CACHE_KEY_SEPARATOR, TENANT_PREFIX, String.valueOf(tenantId), entityType, entityId);
     }
 
     /**
      * Generate a cache key for search results.
+     * The key carries the current opportunity data generation, so results cached before the
+     * last write to opportunities are no longer found.
      *
      * @param tenantId the tenant ID
      * @param queryHash hash of the search query parameters
      * @return the generated cache key
      */
     public String generateSearchCacheKey(UUID tenantId, String queryHash) {
-        return generateCacheKey(tenantId, SEARCH_TYPE, queryHash);
+        return searchCacheKey(tenantId, dataGeneration.current(), queryHash);
+    }
+
+    private String searchCacheKey(UUID tenantId, long generation, String queryHash) {
+        return generateCacheKey(tenantId, SEARCH_TYPE, "g" + generation + CACHE_KEY_SEPARATOR + queryHash);
+    }
+
+    /**
+     * Normalize free-text search input so equivalent queries share a cache entry:
+     * trimmed, lower-cased, and with runs of whitespace collapsed.
+     *
+     * @param query the query as entered, may be null
+     * @return the normalized query, or null if blank
+     */
+    public static String normalizeQuery(String query) {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
     }
 
     /**
@@ -156,6 +179,35 @@ public class CacheService {
     // SEARCH RESULTS CACHING
     // ============================================
 
+    /**
+     * Get search results from cache, or run the search and cache what it returns.
+     * Concurrent misses on the same key run the search once.
+     *
+     * The generation is read before the search runs: if opportunities are written meanwhile,
+     * the results land under the generation they were read at, which is already stale.
+     *
+     * @param tenantId the tenant ID
+     * @param fingerprint canonical form of the search parameters; equal searches must have equal fingerprints
+     * @param search runs the search
+     * @param <T> the type of results
+     * @return the cached or freshly computed results
+     */
+    public <T> T getOrComputeSearchResults(UUID tenantId, String fingerprint, Supplier<T> search) {
+        Cache cache = cacheManager.getCache(CacheConfig.SEARCH_RESULTS_CACHE);
+        if (cache == null) {
+            return search.get();
+        }
+        String cacheKey = searchCacheKey(tenantId, dataGeneration.current(), generateQueryHash(fingerprint));
+        try {
+            return cache.get(cacheKey, search::get);
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Cache search results.
      *
@@ -165,7 +217,7 @@ public class CacheService {
      */
     public void cacheSearchResults(UUID tenantId, String queryHash, Object results) {
         String cacheKey = generateSearchCacheKey(tenantId, queryHash);
-        Cache cache = cacheManager.getCache(CacheConfig.OPPORTUNITIES_CACHE);
+        Cache cache = cacheManager.getCache(CacheConfig.SEARCH_RESULTS_CACHE);
         if (cache != null) {
             cache.put(cacheKey, results);
             log.debug("Cached search results for query {} tenant {}", queryHash, tenantId);
@@ -183,7 +235,7 @@ public class CacheService {
     @SuppressWarnings("unchecked")
     public <T> Optional<T> getCachedSearchResults(UUID tenantId, String queryHash) {
         String cacheKey = generateSearchCacheKey(tenantId, queryHash);
-        Cache cache = cacheManager.getCache(CacheConfig.OPPORTUNITIES_CACHE);
+        Cache cache = cacheManager.getCache(CacheConfig.SEARCH_RESULTS_CACHE);
         if (cache != null) {
             Cache.ValueWrapper wrapper = cache.get(cacheKey);
             if (wrapper != null) {
@@ -203,7 +255,7 @@ public class CacheService {
      */
     public void evictSearchResults(UUID tenantId, String queryHash) {
         String cacheKey = generateSearchCacheKey(tenantId, queryHash);
-        Cache cache = cacheManager.getCache(CacheConfig.OPPORTUNITIES_CACHE);
+        Cache cache = cacheManager.getCache(CacheConfig.SEARCH_RESULTS_CACHE);
         if (cache != null) {
             cache.evict(cacheKey);
             log.debug("Evicted search results {} for tenant {}", queryHash, tenantId);
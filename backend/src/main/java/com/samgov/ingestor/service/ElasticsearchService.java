@@ -38,6 +38,7 @@ public class ElasticsearchService {
 
     private final OpportunitySearchRepository searchRepository;
     private final OpportunityRepository opportunityRepository;
+    private final SearchReindexer searchReindexer;
 
     // ============================================
     // INDEX OPERATIONS
@@ -121,44 +122,19 @@ public class ElasticsearchService {
 
     /**
      * Reindex all opportunities from the database to Elasticsearch.
-     * This is an async operation that runs in the background.
+     * This is an async operation that runs in the background; the index is rebuilt
+     * side by side and swapped in behind its alias, so search stays available throughout.
      *
      * @return a CompletableFuture with the count of indexed documents
+     * @see SearchReindexer
      */
     @Async
-    @Transactional(readOnly = true)
     public CompletableFuture<Long> reindexAll() {
-        log.info("Starting full reindex of all opportunities");
-
-        // Clear existing index
-        searchRepository.deleteAll();
-        log.info("Cleared existing Elasticsearch index");
-
-        // Fetch all opportunities from database and index in batches
-        long totalIndexed = 0;
-        int batchSize = 500;
-        int page = 0;
-
-        Page<Opportunity> opportunityPage;
-        do {
-            opportunityPage = opportunityRepository.findAll(
-                org.springframework.data.domain.PageRequest.of(page, batchSize));
-
-            List<OpportunityDocument> documents = opportunityPage.getContent().stream()
-                .map(OpportunityDocument::fromEntity)
-                .toList();
-
-            searchRepository.saveAll(documents);
-            totalIndexed += documents.size();
-
-            log.info("Indexed batch {} ({} documents, {} total)",
-                page + 1, documents.size(), totalIndexed);
-
-            page++;
-        } while (opportunityPage.hasNext());
-
-        log.info("Completed full reindex: {} opportunities indexed", totalIndexed);
-        return CompletableFuture.completedFuture(totalIndexed);
+        SearchReindexer.ReindexStatus status = searchReindexer.reindex();
+        if (status.state() != SearchReindexer.State.COMPLETED) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Reindex failed: " + status.error()));
+        }
+        return CompletableFuture.completedFuture(status.indexed());
     }
 
     /**
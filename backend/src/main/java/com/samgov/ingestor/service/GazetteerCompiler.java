@@ -0,0 +1,348 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.util.PlaceNames;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Compiles the Census Gazetteer files into the binary file {@link PlaceGazetteer} maps.
+ *
+ * Inputs, found by name in the source directory (any vintage):
+ * <ul>
+ *   <li>*_Gaz_zcta_national.txt - ZCTA (ZIP) internal points</li>
+ *   <li>*zcta*county*.txt - ZCTA-to-county relationship; each ZIP gets the county holding most of its land</li>
+ *   <li>*_Gaz_place_national.txt - incorporated places and CDPs; each place gets the county of its nearest ZIP</li>
+ * </ul>
+ *
+ * Layout: a 16-byte header (magic, ZIP count, place count, reserved), ZIP records sorted by
+ * ZIP, place records sorted by key, then the place keys. Both record kinds are 16 bytes:
+ * ZIP or key offset (int), latitude and longitude (float), state and county FIPS (short, -1
+ * when unknown). Keys are "STATE|CITY" in {@link PlaceNames#normalize} form, stored as a
+ * length-prefixed ASCII string table.
+ */
+final class GazetteerCompiler {
+
+    private static final Logger log = LoggerFactory.getLogger(GazetteerCompiler.class);
+
+    static final int MAGIC = 0x47415A31; // "GAZ1"
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 16;
+
+    // Legal/statistical area suffixes the place gazetteer appends to names ("Dayton city", "Arlington CDP")
+    private static final Pattern PLACE_SUFFIX = Pattern.compile(
+            "\\s+(city and borough|consolidated government|metropolitan government|unified government|"
+                    + "urban county|metro township|city|town|village|borough|CDP|municipality|comunidad|"
+                    + "zona urbana|plantation|corporation)$",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern BALANCE = Pattern.compile("\\s*\\(balance\\)", Pattern.CASE_INSENSITIVE);
+
+    private GazetteerCompiler() {}
+
+    /**
+     * The Census Gazetteer files present in a directory.
+     */
+    record Sources(Path zcta, Path zctaCounty, Path places) {
+
+        /**
+         * Finds the input files, or returns null if there is nothing to compile.
+         */
+        static Sources find(Path directory) throws IOException {
+            if (!Files.isDirectory(directory)) {
+                return null;
+            }
+            Path zcta = null;
+            Path zctaCounty = null;
+            Path places = null;
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.sorted().toList()) {
+                    String name = file.getFileName().toString().toLowerCase();
+                    if (!name.endsWith(".txt")) {
+                        continue;
+                    }
+                    if (name.contains("gaz_zcta")) {
+                        zcta = file;
+                    } else if (name.contains("gaz_place")) {
+                        places = file;
+                    } else if (name.contains("zcta") && name.contains("county")) {
+                        zctaCounty = file;
+                    }
+                }
+            }
+            return zcta == null && places == null ? null : new Sources(zcta, zctaCounty, places);
+        }
+
+        /**
+         * Whether the compiled file is missing or older than any input.
+         */
+        boolean isNewerThan(Path compiled) throws IOException {
+            if (!Files.isRegularFile(compiled)) {
+                return true;
+            }
+            FileTime built = Files.getLastModifiedTime(compiled);
+            for (Path source : new Path[] {zcta, zctaCounty, places}) {
+                if (source != null && Files.getLastModifiedTime(source).compareTo(built) > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Build step (compileGazetteer in build.gradle): compiles the sources in the directory
+     * given as the first argument into the file given as the second.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: GazetteerCompiler <source-dir> <target-file>");
+        }
+        Sources sources = Sources.find(Path.of(args[0]));
+        if (sources == null) {
+            throw new IOException("No Census Gazetteer files in " + args[0]);
+        }
+        compile(sources, Path.of(args[1]));
+    }
+
+    /**
+     * Normalized place key, or null without both a state and a city.
+     */
+    static String placeKey(String state, String city) {
+        String normalizedState = PlaceNames.normalize(state);
+        String normalizedCity = PlaceNames.normalize(city);
+        if (normalizedState.isEmpty() || normalizedCity.isEmpty()) {
+            return null;
+        }
+        return normalizedState + "|" + normalizedCity;
+    }
+
+    private record Point(float latitude, float longitude, short state, short county) {}
+
+    private record Place(String key, Point point, long landArea) {}
+
+    /**
+     * Compiles the sources and atomically replaces the target file.
+     */
+    static void compile(Sources sources, Path target) throws IOException {
+        long started = System.nanoTime();
+
+        Map<Integer, String> countyByZip = sources.zctaCounty() != null ? readZipCounties(sources.zctaCounty()) : Map.of();
+        TreeMap<Integer, Point> zips = sources.zcta() != null ? readZips(sources.zcta(), countyByZip) : new TreeMap<>();
+        TreeMap<String, Place> places = sources.places() != null ? readPlaces(sources.places(), zips) : new TreeMap<>();
+
+        List<byte[]> keys = new ArrayList<>(places.size());
+        int stringBytes = 0;
+        for (String key : places.keySet()) {
+            byte[] bytes = key.getBytes(StandardCharsets.US_ASCII);
+            keys.add(bytes);
+            stringBytes += 2 + bytes.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(
+                HEADER_BYTES + (zips.size() + places.size()) * RECORD_BYTES + stringBytes);
+        buffer.putInt(MAGIC).putInt(zips.size()).putInt(places.size()).putInt(0);
+        for (Map.Entry<Integer, Point> zip : zips.entrySet()) {
+            buffer.putInt(zip.getKey());
+            putPoint(buffer, zip.getValue());
+        }
+        int stringOffset = 0;
+        int index = 0;
+        for (Place place : places.values()) {
+            buffer.putInt(stringOffset);
+            putPoint(buffer, place.point());
+            stringOffset += 2 + keys.get(index++).length;
+        }
+        for (byte[] key : keys) {
+            buffer.putShort((short) key.length).put(key);
+        }
+        buffer.flip();
+
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "gazetteer", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        log.info("Compiled gazetteer {} from {} ZIPs and {} places in {} ms", target, zips.size(), places.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static void putPoint(ByteBuffer buffer, Point point) {
+        buffer.putFloat(point.latitude()).putFloat(point.longitude()).putShort(point.state()).putShort(point.county());
+    }
+
+    /**
+     * Five-digit county GEOID per ZIP, choosing the county with the largest land overlap.
+     */
+    private static Map<Integer, String> readZipCounties(Path file) throws IOException {
+        Map<Integer, String> counties = new HashMap<>();
+        Map<Integer, Long> overlap = new HashMap<>();
+        try (BufferedReader reader = open(file)) {
+            Map<String, Integer> columns = header(reader.readLine(), "\\|");
+            int zipColumn = column(columns, "GEOID_ZCTA5_20", "GEOID_ZCTA5");
+            int countyColumn = column(columns, "GEOID_COUNTY_20", "GEOID_COUNTY");
+            int areaColumn = column(columns, "AREALAND_PART");
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\\|", -1);
+                String zip = fields[zipColumn].trim();
+                String county = fields[countyColumn].trim();
+                if (zip.length() != 5 || county.length() != 5) {
+                    continue;
+                }
+                int zipCode = Integer.parseInt(zip);
+                long area = parseLong(fields[areaColumn]);
+                if (area > overlap.getOrDefault(zipCode, -1L)) {
+                    overlap.put(zipCode, area);
+                    counties.put(zipCode, county);
+                }
+            }
+        }
+        return counties;
+    }
+
+    private static TreeMap<Integer, Point> readZips(Path file, Map<Integer, String> countyByZip) throws IOException {
+        TreeMap<Integer, Point> zips = new TreeMap<>();
+        try (BufferedReader reader = open(file)) {
+            Map<String, Integer> columns = header(reader.readLine(), "\t");
+            int geoidColumn = column(columns, "GEOID");
+            int latitudeColumn = column(columns, "INTPTLAT");
+            int longitudeColumn = column(columns, "INTPTLONG");
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                String zip = fields[geoidColumn].trim();
+                if (zip.length() != 5) {
+                    continue;
+                }
+                int zipCode = Integer.parseInt(zip);
+                String county = countyByZip.get(zipCode);
+                zips.put(zipCode, new Point(
+                        Float.parseFloat(fields[latitudeColumn].trim()),
+                        Float.parseFloat(fields[longitudeColumn].trim()),
+                        county != null ? Short.parseShort(county.substring(0, 2)) : -1,
+                        county != null ? Short.parseShort(county.substring(2)) : -1));
+            }
+        }
+        return zips;
+    }
+
+    private static TreeMap<String, Place> readPlaces(Path file, TreeMap<Integer, Point> zips) throws IOException {
+        // Nearest-ZIP county assignment only searches ZIPs in the place's own state
+        Map<Short, List<Point>> zipsByState = new HashMap<>();
+        for (Point zip : zips.values()) {
+            if (zip.state() >= 0 && zip.county() >= 0) {
+                zipsByState.computeIfAbsent(zip.state(), state -> new ArrayList<>()).add(zip);
+            }
+        }
+
+        TreeMap<String, Place> places = new TreeMap<>();
+        try (BufferedReader reader = open(file)) {
+            Map<String, Integer> columns = header(reader.readLine(), "\t");
+            int uspsColumn = column(columns, "USPS");
+            int geoidColumn = column(columns, "GEOID");
+            int nameColumn = column(columns, "NAME");
+            int landColumn = column(columns, "ALAND");
+            int latitudeColumn = column(columns, "INTPTLAT");
+            int longitudeColumn = column(columns, "INTPTLONG");
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                String name = BALANCE.matcher(fields[nameColumn].trim()).replaceAll("");
+                String key = placeKey(fields[uspsColumn], PLACE_SUFFIX.matcher(name).replaceAll(""));
+                String geoid = fields[geoidColumn].trim();
+                if (key == null || geoid.length() < 2) {
+                    continue;
+                }
+                long landArea = parseLong(fields[landColumn]);
+                Place existing = places.get(key);
+                if (existing != null && existing.landArea() >= landArea) {
+                    // Same name twice in a state (e.g. a city and a CDP): keep the larger
+                    continue;
+                }
+                float latitude = Float.parseFloat(fields[latitudeColumn].trim());
+                float longitude = Float.parseFloat(fields[longitudeColumn].trim());
+                short state = Short.parseShort(geoid.substring(0, 2));
+                Point nearest = nearest(zipsByState.getOrDefault(state, List.of()), latitude, longitude);
+                places.put(key, new Place(key,
+                        new Point(latitude, longitude, state, nearest != null ? nearest.county() : -1), landArea));
+            }
+        }
+        return places;
+    }
+
+    private static Point nearest(List<Point> candidates, float latitude, float longitude) {
+        Point nearest = null;
+        double best = Double.MAX_VALUE;
+        double scale = Math.cos(Math.toRadians(latitude));
+        for (Point candidate : candidates) {
+            double dLat = candidate.latitude() - latitude;
+            double dLon = (candidate.longitude() - longitude) * scale;
+            double distance = dLat * dLat + dLon * dLon;
+            if (distance < best) {
+                best = distance;
+                nearest = candidate;
+            }
+        }
+        return nearest;
+    }
+
+    private static BufferedReader open(Path file) throws IOException {
+        // Older vintages are Latin-1; non-ASCII letters are dropped by normalization either way
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(file), StandardCharsets.ISO_8859_1));
+    }
+
+    private static Map<String, Integer> header(String line, String separator) throws IOException {
+        if (line == null) {
+            throw new IOException("Empty gazetteer source file");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        String[] names = line.split(separator, -1);
+        for (int i = 0; i < names.length; i++) {
+            // Strip a UTF-8 byte order mark read as Latin-1
+            columns.put(names[i].replace("\u00EF\u00BB\u00BF", "").trim().toUpperCase(), i);
+        }
+        return columns;
+    }
+
+    private static int column(Map<String, Integer> columns, String... names) throws IOException {
+        for (String name : names) {
+            Integer index = columns.get(name);
+            if (index != null) {
+                return index;
+            }
+        }
+        throw new IOException("Gazetteer source file has no " + Arrays.toString(names) + " column");
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
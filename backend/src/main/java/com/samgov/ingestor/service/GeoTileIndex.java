@@ -0,0 +1,227 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.OpportunityMapProperties;
+import com.samgov.ingestor.dto.OpportunityMapResponse;
+import com.samgov.ingestor.dto.OpportunityMapResponse.Cluster;
+import com.samgov.ingestor.dto.OpportunityMapResponse.Point;
+import com.samgov.ingestor.service.OpportunityMapService.Viewport;
+import com.samgov.ingestor.util.GeoTiles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * In-memory tile index behind the opportunity map when Elasticsearch is off, so clustering a
+ * viewport never reads the database.
+ *
+ * Active geocoded opportunities are held as a Morton-ordered array: each point's key is its
+ * tile at {@link GeoTiles#MAX_ZOOM}, and since tiles nest, every tile at any zoom is one
+ * contiguous run of the array. A cluster is two binary searches for the ends of its run, and
+ * prefix sums of latitude and longitude give the run's centroid without visiting its points;
+ * only a zoomed-in viewport with few enough opportunities is read point by point.
+ *
+ * The index loads on the first map request, then every search.map.refresh-interval-ms it is
+ * rebuilt if opportunities were written since, on any node: either the shared
+ * {@link OpportunityDataGeneration} advanced, or the newest updated_at in the table moved
+ * (which also catches writers that do not advance the generation). Requests keep using the
+ * old index until the new one is swapped in.
+ */
+@Service
+@ConditionalOnExpression("!${elasticsearch.enabled:true}")
+public class GeoTileIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(GeoTileIndex.class);
+
+    private static final String POINTS_SQL = """
+            SELECT id, title, agency, response_deadline, latitude, longitude
+            FROM opportunities
+            WHERE id > ? AND status = 'ACTIVE' AND latitude IS NOT NULL AND longitude IS NOT NULL
+            ORDER BY id
+            LIMIT ?
+            """;
+    private static final String LATEST_CHANGE_SQL = "SELECT max(updated_at) FROM opportunities";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OpportunityMapProperties properties;
+    private final OpportunityDataGeneration dataGeneration;
+
+    // Null until the first request loads it
+    private volatile Snapshot snapshot;
+
+    public GeoTileIndex(JdbcTemplate jdbcTemplate, OpportunityMapProperties properties,
+                        OpportunityDataGeneration dataGeneration) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.dataGeneration = dataGeneration;
+    }
+
+    /**
+     * Points sorted by key, with running sums of their coordinates; sums[i] covers points before i.
+     */
+    private record Snapshot(long generation, Timestamp latestChange, long[] keys, Point[] points,
+                            double[] latitudeSums, double[] longitudeSums) {}
+
+    /**
+     * Clusters of the tiles the viewport touches, or its points when zoomed in far enough.
+     * Clusters are whole tiles, so those on the edge may count points just outside the viewport;
+     * points are exactly those inside it.
+     */
+    public OpportunityMapResponse query(Viewport viewport, int zoom) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild();
+            current = snapshot;
+        }
+
+        int clusterZoom = viewport.clusterZoom(zoom, properties.getClusterPrecision(), properties.getMaxCells());
+        int shift = 2 * (GeoTiles.MAX_ZOOM - clusterZoom);
+        int minX = GeoTiles.x(viewport.minLongitude(), clusterZoom);
+        int maxX = GeoTiles.x(viewport.maxLongitude(), clusterZoom);
+        int minY = GeoTiles.y(viewport.maxLatitude(), clusterZoom);
+        int maxY = GeoTiles.y(viewport.minLatitude(), clusterZoom);
+
+        List<Cluster> clusters = new ArrayList<>();
+        List<int[]> runs = new ArrayList<>();
+        long total = 0;
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                long tile = GeoTiles.morton(x, y);
+                int from = lowerBound(current.keys(), tile << shift);
+                int to = lowerBound(current.keys(), (tile + 1) << shift);
+                if (to == from) {
+                    continue;
+                }
+                int count = to - from;
+                clusters.add(new Cluster(GeoTiles.key(clusterZoom, x, y),
+                        (current.latitudeSums()[to] - current.latitudeSums()[from]) / count,
+                        (current.longitudeSums()[to] - current.longitudeSums()[from]) / count,
+                        count));
+                runs.add(new int[] {from, to});
+                total += count;
+            }
+        }
+
+        if (zoom >= properties.getPointsZoom() && total <= properties.getMaxPoints()) {
+            List<Point> points = new ArrayList<>();
+            for (int[] run : runs) {
+                for (int i = run[0]; i < run[1]; i++) {
+                    Point point = current.points()[i];
+                    if (viewport.contains(point.latitude(), point.longitude())) {
+                        points.add(point);
+                    }
+                }
+            }
+            return OpportunityMapResponse.ofPoints(zoom, points);
+        }
+        return OpportunityMapResponse.ofClusters(zoom, total, clusters);
+    }
+
+    /**
+     * Rebuilds the index if opportunities were written since it was loaded; an index that has
+     * not been requested yet is left unloaded.
+     */
+    @Scheduled(fixedDelayString = "${search.map.refresh-interval-ms:30000}")
+    public void refresh() {
+        Snapshot current = snapshot;
+        if (current != null && (current.generation() != dataGeneration.current()
+                || !Objects.equals(current.latestChange(), latestChange()))) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Loads a fresh index from the database and swaps it in.
+     *
+     * @return number of opportunities indexed
+     */
+    public synchronized int rebuild() {
+        long start = System.currentTimeMillis();
+        // Read before loading, so writes made during the load trigger another rebuild
+        long generation = dataGeneration.current();
+        Timestamp latestChange = latestChange();
+        List<Point> loaded = new ArrayList<>();
+        String afterId = "";
+        while (true) {
+            List<Point> page = jdbcTemplate.query(POINTS_SQL, GeoTileIndex::mapPoint,
+                    afterId, properties.getBatchSize());
+            loaded.addAll(page);
+            if (page.size() < properties.getBatchSize()) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).id();
+        }
+        snapshot = of(generation, latestChange, loaded);
+        log.info("Built map tile index of {} opportunities in {}ms",
+                loaded.size(), System.currentTimeMillis() - start);
+        return loaded.size();
+    }
+
+    private Timestamp latestChange() {
+        return jdbcTemplate.queryForObject(LATEST_CHANGE_SQL, Timestamp.class);
+    }
+
+    private static Point mapPoint(ResultSet rs, int row) throws SQLException {
+        Date deadline = rs.getDate("response_deadline");
+        return new Point(
+                rs.getString("id"),
+                rs.getString("title"),
+                rs.getString("agency"),
+                deadline != null ? deadline.toLocalDate() : null,
+                rs.getDouble("latitude"),
+                rs.getDouble("longitude"));
+    }
+
+    private static Snapshot of(long generation, Timestamp latestChange, List<Point> loaded) {
+        int size = loaded.size();
+        long[] pointKeys = new long[size];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            Point point = loaded.get(i);
+            pointKeys[i] = GeoTiles.morton(point.latitude(), point.longitude());
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> pointKeys[i]));
+
+        long[] keys = new long[size];
+        Point[] points = new Point[size];
+        double[] latitudeSums = new double[size + 1];
+        double[] longitudeSums = new double[size + 1];
+        for (int i = 0; i < size; i++) {
+            keys[i] = pointKeys[order[i]];
+            points[i] = loaded.get(order[i]);
+            latitudeSums[i + 1] = latitudeSums[i] + points[i].latitude();
+            longitudeSums[i + 1] = longitudeSums[i] + points[i].longitude();
+        }
+        return new Snapshot(generation, latestChange, keys, points, latitudeSums, longitudeSums);
+    }
+
+    /**
+     * Index of the first key not below the given one.
+     */
+    private static int lowerBound(long[] keys, long key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -2,39 +2,90 @@ package com.samgov.ingestor.service;
 
 import com.samgov.ingestor.client.CensusGeocoderClient;
 import com.samgov.ingestor.config.CensusProperties;
+import com.samgov.ingestor.dto.GeocodingResultDto.BatchAddress;
 import com.samgov.ingestor.dto.GeocodingResultDto.SimpleGeocodingResult;
+import com.samgov.ingestor.model.GeocodeCacheEntry;
 import com.samgov.ingestor.model.Opportunity;
+import com.samgov.ingestor.repository.GeocodeCacheRepository;
 import com.samgov.ingestor.repository.OpportunityRepository;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for geocoding opportunities using Census Bureau Geocoder.
  * Batch processes opportunities that have address data but no coordinates.
+ *
+ * Results are cached per normalized place of performance (city, state, ZIP) in
+ * {@link GeocodeCacheEntry}, so a place shared by many opportunities, or seen again in a
+ * later run, is never sent to the geocoder twice. In batch mode (census.batch-enabled) the
+ * places still missing from the cache are uploaded to the Census batch endpoint, up to
+ * census.max-batch-addresses per request, and coordinates are written back with one batched
+ * UPDATE instead of one save per opportunity.
+ *
+ * Before any of that, places are resolved offline by {@link PlaceGazetteer} when possible:
+ * a ZIP or city/state centroid from the Census Gazetteer is what the geocoder would return
+ * for an address without a street anyway, so only places the gazetteer does not know reach
+ * the cache or the network.
  */
 @Service
 public class GeocodingService {
 
     private static final Logger log = LoggerFactory.getLogger(GeocodingService.class);
 
+    // Cache keys resolved per IN query
+    private static final int KEY_LOOKUP_CHUNK = 1000;
+
+    private static final String UPDATE_COORDINATES_SQL = """
+            UPDATE opportunities
+            SET latitude = ?, longitude = ?, fips_state_code = ?, fips_county_code = ?, census_tract = ?, geocoded_at = ?,
+                updated_at = ?
+            WHERE id = ?
+            """;
+
     private final CensusGeocoderClient geocoderClient;
     private final OpportunityRepository opportunityRepository;
+    private final GeocodeCacheRepository geocodeCacheRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
     private final CensusProperties properties;
+    private final PlaceGazetteer gazetteer;
+    private final SearchOutbox searchOutbox;
+    private final OpportunityDataGeneration dataGeneration;
 
     public GeocodingService(
             CensusGeocoderClient geocoderClient,
             OpportunityRepository opportunityRepository,
-            CensusProperties properties) {
+            GeocodeCacheRepository geocodeCacheRepository,
+            JdbcTemplate jdbcTemplate,
+            EntityManager entityManager,
+            CensusProperties properties,
+            PlaceGazetteer gazetteer,
+            SearchOutbox searchOutbox,
+            OpportunityDataGeneration dataGeneration) {
         this.geocoderClient = geocoderClient;
         this.opportunityRepository = opportunityRepository;
+        this.geocodeCacheRepository = geocodeCacheRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
         this.properties = properties;
+        this.gazetteer = gazetteer;
+        this.searchOutbox = searchOutbox;
+        this.dataGeneration = dataGeneration;
     }
 
     /**
@@ -56,40 +107,49 @@ public class GeocodingService {
         }
 
         // Skip non-US opportunities
-        String country = opportunity.getPlaceOfPerformanceCountry();
-        if (country != null && !country.equalsIgnoreCase("USA") &&
-            !country.equalsIgnoreCase("US") && !country.equalsIgnoreCase("United States")) {
-            log.debug("Skipping non-US opportunity {}: {}", opportunity.getId(), country);
+        if (!isUsPlace(opportunity)) {
+            log.debug("Skipping non-US opportunity {}: {}", opportunity.getId(),
+                    opportunity.getPlaceOfPerformanceCountry());
             return false;
         }
 
-        // Build address for geocoding
-        String city = opportunity.getPlaceOfPerformanceCity();
-        String state = opportunity.getPlaceOfPerformanceState();
-        String zip = opportunity.getPlaceOfPerformanceZip();
-
         // Need at least one address component
-        if ((city == null || city.isBlank()) &&
-            (state == null || state.isBlank()) &&
-            (zip == null || zip.isBlank())) {
+        if (!hasAddress(opportunity)) {
             log.debug("No address data for opportunity {}", opportunity.getId());
             return false;
         }
 
-        // Try geocoding with components (more accurate)
-        SimpleGeocodingResult result = geocoderClient.geocodeAddressComponents(
-                null, // no street address typically available
-                city,
-                state,
-                zip
-        );
-
-        // Fallback: try single-line address if components failed
-        if (result == null || !result.isValid()) {
-            String addressLine = buildAddressLine(city, state, zip);
-            if (!addressLine.isBlank()) {
-                result = geocoderClient.geocodeAddress(addressLine);
+        String city = opportunity.getPlaceOfPerformanceCity();
+        String state = opportunity.getPlaceOfPerformanceState();
+        String zip = opportunity.getPlaceOfPerformanceZip();
+        String addressKey = GeocodeCacheEntry.addressKey(city, state, zip);
+
+        SimpleGeocodingResult result = gazetteer.lookup(city, state, zip);
+        GeocodeCacheEntry cached = result != null ? null
+                : geocodeCacheRepository.findByAddressKey(addressKey).orElse(null);
+        if (result != null) {
+            log.debug("Gazetteer hit for opportunity {}: {}", opportunity.getId(), result.matchedAddress());
+        } else if (cached != null && isUsable(cached, Instant.now())) {
+            log.debug("Geocode cache hit for opportunity {}: {}", opportunity.getId(), addressKey);
+            result = cached.isMatched() ? toResult(cached) : null;
+        } else {
+            // Try geocoding with components (more accurate)
+            result = geocoderClient.geocodeAddressComponents(
+                    null, // no street address typically available
+                    city,
+                    state,
+                    zip
+            );
+
+            // Fallback: try single-line address if components failed
+            if (result == null || !result.isValid()) {
+                String addressLine = buildAddressLine(city, state, zip);
+                if (!addressLine.isBlank()) {
+                    result = geocoderClient.geocodeAddress(addressLine);
+                }
             }
+
+            geocodeCacheRepository.save(toCacheEntry(cached, addressKey, result, Instant.now()));
         }
 
         if (result != null && result.isValid()) {
@@ -101,6 +161,8 @@ public class GeocodingService {
             opportunity.setGeocodedAt(Instant.now());
 
             opportunityRepository.save(opportunity);
+            searchOutbox.enqueue(List.of(opportunity.getId()));
+            dataGeneration.advance();
 
             log.info("Geocoded opportunity {}: ({}, {}) FIPS: {}-{}",
                     opportunity.getId(),
@@ -129,6 +191,96 @@ public class GeocodingService {
             return 0;
         }
 
+        if (!properties.isBatchEnabled()) {
+            return geocodeIndividually(maxRecords);
+        }
+
+        List<Opportunity> toGeocode = opportunityRepository.findOpportunitiesNeedingGeocoding(
+                PageRequest.of(0, Math.max(1, maxRecords)));
+
+        if (toGeocode.isEmpty()) {
+            log.info("No opportunities needing geocoding found");
+            return 0;
+        }
+
+        // Group by normalized place so each distinct place is looked up once
+        Map<String, List<Opportunity>> byPlace = new LinkedHashMap<>();
+        for (Opportunity opp : toGeocode) {
+            if (isUsPlace(opp) && hasAddress(opp)) {
+                String key = GeocodeCacheEntry.addressKey(opp.getPlaceOfPerformanceCity(),
+                        opp.getPlaceOfPerformanceState(), opp.getPlaceOfPerformanceZip());
+                byPlace.computeIfAbsent(key, k -> new ArrayList<>()).add(opp);
+            }
+        }
+
+        // Offline gazetteer first; only the places it does not know go to the cache and geocoder
+        Map<String, SimpleGeocodingResult> offline = new HashMap<>();
+        List<String> remaining = new ArrayList<>();
+        for (Map.Entry<String, List<Opportunity>> place : byPlace.entrySet()) {
+            Opportunity sample = place.getValue().get(0);
+            SimpleGeocodingResult result = gazetteer.lookup(sample.getPlaceOfPerformanceCity(),
+                    sample.getPlaceOfPerformanceState(), sample.getPlaceOfPerformanceZip());
+            if (result != null) {
+                offline.put(place.getKey(), result);
+            } else {
+                remaining.add(place.getKey());
+            }
+        }
+
+        Instant now = Instant.now();
+        Map<String, GeocodeCacheEntry> cache = loadCacheEntries(remaining);
+        List<String> toLookUp = remaining.stream()
+                .filter(key -> !cache.containsKey(key) || !isUsable(cache.get(key), now))
+                .toList();
+
+        log.info("Starting batch geocoding of {} opportunities: {} distinct places, {} from gazetteer, "
+                        + "{} from cache, {} to look up",
+                toGeocode.size(), byPlace.size(), offline.size(), remaining.size() - toLookUp.size(),
+                toLookUp.size());
+
+        for (int from = 0; from < toLookUp.size(); from += properties.getMaxBatchAddresses()) {
+            List<String> chunk = toLookUp.subList(from, Math.min(toLookUp.size(), from + properties.getMaxBatchAddresses()));
+            lookUpPlaces(chunk, byPlace, cache, now);
+        }
+
+        // Write coordinates back in one batched UPDATE
+        Timestamp geocodedAt = Timestamp.from(now);
+        List<Object[]> updates = new ArrayList<>();
+        List<String> geocodedIds = new ArrayList<>();
+        for (Map.Entry<String, List<Opportunity>> place : byPlace.entrySet()) {
+            SimpleGeocodingResult result = offline.get(place.getKey());
+            if (result == null) {
+                GeocodeCacheEntry entry = cache.get(place.getKey());
+                if (entry == null || !entry.isMatched()) {
+                    continue;
+                }
+                result = toResult(entry);
+            }
+            for (Opportunity opp : place.getValue()) {
+                updates.add(new Object[] {result.latitude(), result.longitude(), result.stateFips(),
+                        result.countyFips(), result.censusTract(), geocodedAt, geocodedAt, opp.getId()});
+                geocodedIds.add(opp.getId());
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_COORDINATES_SQL, updates);
+            searchOutbox.enqueue(geocodedIds);
+            dataGeneration.advance();
+        }
+
+        // Rows were written through JDBC; drop the stale entities so later reads see the update
+        toGeocode.forEach(entityManager::detach);
+
+        log.info("Batch geocoding complete: {} success, {} failed",
+                updates.size(), toGeocode.size() - updates.size());
+
+        return updates.size();
+    }
+
+    /**
+     * Geocodes opportunities one request at a time (census.batch-enabled = false).
+     */
+    private int geocodeIndividually(int maxRecords) {
         int batchSize = Math.min(properties.getBatchSize(), maxRecords);
         PageRequest pageRequest = PageRequest.of(0, batchSize);
 
@@ -163,6 +315,90 @@ public class GeocodingService {
         return successCount.get();
     }
 
+    /**
+     * Uploads one batch of places and caches the answers, misses included.
+     * A failed upload caches nothing, so its places are retried on the next run.
+     */
+    private void lookUpPlaces(List<String> keys, Map<String, List<Opportunity>> byPlace,
+                              Map<String, GeocodeCacheEntry> cache, Instant now) {
+        List<BatchAddress> addresses = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Opportunity sample = byPlace.get(keys.get(i)).get(0);
+            addresses.add(new BatchAddress(String.valueOf(i), null, sample.getPlaceOfPerformanceCity(),
+                    sample.getPlaceOfPerformanceState(), sample.getPlaceOfPerformanceZip()));
+        }
+
+        Map<String, SimpleGeocodingResult> results = geocoderClient.batchGeocode(addresses);
+        if (results == null) {
+            log.warn("Batch geocoding request for {} places failed; they will be retried", keys.size());
+            return;
+        }
+
+        List<GeocodeCacheEntry> entries = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            GeocodeCacheEntry entry = toCacheEntry(cache.get(key), key, results.get(String.valueOf(i)), now);
+            entries.add(entry);
+            cache.put(key, entry);
+        }
+        geocodeCacheRepository.saveAll(entries);
+    }
+
+    private Map<String, GeocodeCacheEntry> loadCacheEntries(List<String> keys) {
+        Map<String, GeocodeCacheEntry> cache = new HashMap<>();
+        for (int from = 0; from < keys.size(); from += KEY_LOOKUP_CHUNK) {
+            List<String> chunk = keys.subList(from, Math.min(keys.size(), from + KEY_LOOKUP_CHUNK));
+            for (GeocodeCacheEntry entry : geocodeCacheRepository.findByAddressKeyIn(chunk)) {
+                cache.put(entry.getAddressKey(), entry);
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Matches are reused forever; misses only until census.no-match-retry-days has passed.
+     */
+    private boolean isUsable(GeocodeCacheEntry entry, Instant now) {
+        return entry.isMatched()
+                || entry.getLookedUpAt().plus(Duration.ofDays(properties.getNoMatchRetryDays())).isAfter(now);
+    }
+
+    private static GeocodeCacheEntry toCacheEntry(GeocodeCacheEntry existing, String addressKey,
+                                                  SimpleGeocodingResult result, Instant now) {
+        GeocodeCacheEntry entry = existing != null ? existing
+                : GeocodeCacheEntry.builder().addressKey(addressKey).build();
+        boolean matched = result != null && result.isValid();
+        entry.setMatched(matched);
+        entry.setLatitude(matched ? result.latitude() : null);
+        entry.setLongitude(matched ? result.longitude() : null);
+        entry.setFipsStateCode(matched ? result.stateFips() : null);
+        entry.setFipsCountyCode(matched ? result.countyFips() : null);
+        entry.setCensusTract(matched ? result.censusTract() : null);
+        entry.setLookedUpAt(now);
+        return entry;
+    }
+
+    private static SimpleGeocodingResult toResult(GeocodeCacheEntry entry) {
+        return new SimpleGeocodingResult(null, entry.getLatitude(), entry.getLongitude(),
+                entry.getFipsStateCode(), entry.getFipsCountyCode(), entry.getCensusTract(), null, null, null);
+    }
+
+    private static boolean isUsPlace(Opportunity opportunity) {
+        String country = opportunity.getPlaceOfPerformanceCountry();
+        return country == null || country.equalsIgnoreCase("USA")
+                || country.equalsIgnoreCase("US") || country.equalsIgnoreCase("United States");
+    }
+
+    private static boolean hasAddress(Opportunity opportunity) {
+        return !isBlank(opportunity.getPlaceOfPerformanceCity())
+                || !isBlank(opportunity.getPlaceOfPerformanceState())
+                || !isBlank(opportunity.getPlaceOfPerformanceZip());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
     /**
      * Get geocoding statistics.
      *
@@ -0,0 +1,195 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.IngestionPipelineProperties;
+import com.samgov.ingestor.dto.PostedDateWindow;
+import com.samgov.ingestor.model.IngestionCheckpoint;
+import com.samgov.ingestor.model.IngestionCheckpoint.CheckpointStatus;
+import com.samgov.ingestor.repository.IngestionCheckpointRepository;
+import com.samgov.ingestor.util.NodeId;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Persists per-scope ingestion progress so an interrupted run resumes where it stopped.
+ *
+ * A run opens a checkpoint, records each page in the same transaction that writes the page,
+ * and completes it only after the whole window was walked. Completing a checkpoint is what
+ * advances the scope's watermark; a checkpoint left RUNNING (crash) or FAILED is picked up by
+ * the next run at its {@code nextPage} with the original window.
+ *
+ * Scheduled runs, manual jobs and other nodes may start the same scope at once. Opening a
+ * checkpoint locks its row and leases it to this node for
+ * {@code ingestion.pipeline.checkpoint-lease-ms}, renewed by every recorded page; a RUNNING
+ * checkpoint is only resumed once its lease has expired. A run whose scope was taken over
+ * can no longer record pages or close the checkpoint.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IngestionCheckpointService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final IngestionCheckpointRepository checkpointRepository;
+    private final IngestionWatermarkService watermarkService;
+    private final IngestionPipelineProperties pipelineProperties;
+
+    /**
+     * Opens the checkpoint for a scope, resuming an unfinished run when there is one.
+     *
+     * @param forceFull discard any unfinished run and start a full window from page 0
+     * @return the checkpoint, leased to this node; empty while another run holds the scope
+     */
+    @Transactional
+    public Optional<IngestionCheckpoint> start(String source, String naicsCode, String ptype, boolean forceFull) {
+        IngestionCheckpoint checkpoint = checkpointRepository
+                .findScopeForUpdate(source, naicsCode, ptype)
+                .orElse(null);
+        Instant now = Instant.now();
+
+        if (checkpoint != null && checkpoint.getStatus() == CheckpointStatus.RUNNING
+                && checkpoint.getLeaseUntil() != null && checkpoint.getLeaseUntil().isAfter(now)) {
+            log.info("Skipping {} {}/{}: {} holds it until {}", source, naicsCode, ptype,
+                    checkpoint.getOwner(), checkpoint.getLeaseUntil());
+            return Optional.empty();
+        }
+
+        if (checkpoint != null && !forceFull && checkpoint.getStatus() != CheckpointStatus.COMPLETED) {
+            log.info("Resuming {} {}/{} at page {} ({} records already fetched, last status {})",
+                    source, naicsCode, ptype, checkpoint.getNextPage(), checkpoint.getRecordsFetched(),
+                    checkpoint.getStatus());
+            checkpoint.setStatus(CheckpointStatus.RUNNING);
+            lease(checkpoint, now);
+            return Optional.of(checkpointRepository.save(checkpoint));
+        }
+
+        if (checkpoint == null) {
+            checkpoint = IngestionCheckpoint.builder()
+                    .source(source)
+                    .naicsCode(naicsCode)
+                    .ptype(ptype)
+                    .build();
+        }
+        PostedDateWindow window = watermarkService.nextWindow(source, naicsCode, ptype, forceFull);
+        checkpoint.setStatus(CheckpointStatus.RUNNING);
+        checkpoint.setPostedFrom(window.postedFrom());
+        checkpoint.setPostedTo(window.postedTo());
+        checkpoint.setFullReconciliation(window.fullReconciliation());
+        checkpoint.setNextPage(0);
+        checkpoint.setRecordsFetched(0);
+        checkpoint.setRecordsWritten(0);
+        checkpoint.setLatestPostedDate(null);
+        checkpoint.setLastError(null);
+        checkpoint.setStartedAt(now);
+        checkpoint.setCompletedAt(null);
+        lease(checkpoint, now);
+        return Optional.of(checkpointRepository.save(checkpoint));
+    }
+
+    /**
+     * Records a committed page. Call inside the transaction that wrote the page so the
+     * checkpoint and the rows commit or roll back together. Renews this node's lease.
+     *
+     * @param pageIndex index of the page just written
+     * @param fetched   records on the page
+     * @param written   rows inserted or updated from the page
+     */
+    @Transactional
+    public void recordPage(UUID checkpointId, int pageIndex, int fetched, int written, LocalDate latestPostedDate) {
+        IngestionCheckpoint checkpoint = owned(checkpointId)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Ingestion checkpoint " + checkpointId + " is no longer held by this node"));
+        lease(checkpoint, Instant.now());
+        checkpoint.setNextPage(pageIndex + 1);
+        checkpoint.setRecordsFetched(checkpoint.getRecordsFetched() + fetched);
+        checkpoint.setRecordsWritten(checkpoint.getRecordsWritten() + written);
+        if (latestPostedDate != null && (checkpoint.getLatestPostedDate() == null
+                || latestPostedDate.isAfter(checkpoint.getLatestPostedDate()))) {
+            checkpoint.setLatestPostedDate(latestPostedDate);
+        }
+        checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * Marks the run complete and advances the scope's watermark over its window.
+     */
+    @Transactional
+    public void complete(UUID checkpointId) {
+        IngestionCheckpoint checkpoint = owned(checkpointId).orElse(null);
+        if (checkpoint == null) {
+            log.warn("Not completing ingestion checkpoint {}: another node has taken it over", checkpointId);
+            return;
+        }
+        checkpoint.setStatus(CheckpointStatus.COMPLETED);
+        checkpoint.setCompletedAt(Instant.now());
+        checkpoint.setLastError(null);
+        checkpoint.setLeaseUntil(null);
+        checkpointRepository.save(checkpoint);
+
+        watermarkService.advance(checkpoint.getSource(), checkpoint.getNaicsCode(), checkpoint.getPtype(),
+                windowOf(checkpoint), checkpoint.getLatestPostedDate(), checkpoint.getRecordsFetched());
+    }
+
+    /**
+     * Closes a run whose walk stopped short of the whole window (e.g. at {@code max-pages})
+     * without advancing the watermark, so the next run starts a fresh window instead of
+     * resuming past the limit.
+     */
+    @Transactional
+    public void abandon(UUID checkpointId, String reason) {
+        owned(checkpointId).ifPresent(checkpoint -> {
+            checkpoint.setStatus(CheckpointStatus.COMPLETED);
+            checkpoint.setCompletedAt(Instant.now());
+            checkpoint.setLastError(truncate(reason));
+            checkpoint.setLeaseUntil(null);
+            checkpointRepository.save(checkpoint);
+        });
+    }
+
+    /**
+     * Marks the run failed; the next run resumes from the last committed page.
+     */
+    @Transactional
+    public void fail(UUID checkpointId, String reason) {
+        owned(checkpointId).ifPresent(checkpoint -> {
+            checkpoint.setStatus(CheckpointStatus.FAILED);
+            checkpoint.setLastError(truncate(reason));
+            checkpoint.setLeaseUntil(null);
+            checkpointRepository.save(checkpoint);
+            log.warn("{} {}/{} stopped at page {}: {}", checkpoint.getSource(), checkpoint.getNaicsCode(),
+                    checkpoint.getPtype(), checkpoint.getNextPage(), reason);
+        });
+    }
+
+    /**
+     * Posted-date window the checkpoint is walking.
+     */
+    public PostedDateWindow windowOf(IngestionCheckpoint checkpoint) {
+        return new PostedDateWindow(checkpoint.getPostedFrom(), checkpoint.getPostedTo(),
+                checkpoint.isFullReconciliation());
+    }
+
+    /**
+     * Locks the checkpoint if this node still holds it.
+     */
+    private Optional<IngestionCheckpoint> owned(UUID checkpointId) {
+        return checkpointRepository.findByIdForUpdate(checkpointId)
+                .filter(checkpoint -> NodeId.current().equals(checkpoint.getOwner()));
+    }
+
+    private void lease(IngestionCheckpoint checkpoint, Instant now) {
+        checkpoint.setOwner(NodeId.current());
+        checkpoint.setLeaseUntil(now.plusMillis(pipelineProperties.getCheckpointLeaseMs()));
+    }
+
+    private String truncate(String reason) {
+        return reason != null && reason.length() > MAX_ERROR_LENGTH ? reason.substring(0, MAX_ERROR_LENGTH) : reason;
+    }
+}
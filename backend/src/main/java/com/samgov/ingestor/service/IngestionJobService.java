@@ -0,0 +1,383 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.dto.IngestionJobDto;
+import com.samgov.ingestor.exception.ResourceNotFoundException;
+import com.samgov.ingestor.model.IngestionJob;
+import com.samgov.ingestor.model.IngestionJob.JobStatus;
+import com.samgov.ingestor.model.IngestionJob.JobType;
+import com.samgov.ingestor.repository.IngestionJobRepository;
+import com.samgov.ingestor.util.IngestionProgress;
+import com.samgov.ingestor.util.NodeId;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Persistent queue for manually triggered ingestion runs.
+ *
+ * Submitting returns immediately with a job id. Jobs are stored as QUEUED and dispatched to
+ * the {@code ingestionExecutor} pool, at most {@code ingestion.jobs.max-concurrent-per-source}
+ * at a time per upstream API across all nodes; the rest wait in the queue until a slot frees
+ * up. A job starts by claiming one of its source's slots in the database (see
+ * {@link IngestionJob}), so the cap holds however many nodes dispatch. Submitting a job while
+ * an identical one is queued or running returns the existing job instead.
+ *
+ * While a job runs, pages and rows are counted through {@link IngestionProgress}; counters are
+ * flushed to the job row, together with the node's heartbeat, and pushed to SSE subscribers
+ * every {@code ingestion.jobs.progress-interval-ms}. A RUNNING job whose heartbeat is older than
+ * {@code ingestion.jobs.stale-after-ms} belongs to a stopped node and is re-queued; SAM.gov jobs
+ * then resume from their ingestion checkpoints. Jobs running on live nodes are left alone.
+ */
+@Slf4j
+@Service
+public class IngestionJobService {
+
+    private static final Set<JobStatus> ACTIVE = EnumSet.of(JobStatus.QUEUED, JobStatus.RUNNING);
+    private static final long SSE_TIMEOUT_MS = Duration.ofMinutes(30).toMillis();
+    private static final int MAX_TEXT_LENGTH = 1000;
+
+    private final IngestionJobRepository jobRepository;
+    private final IngestionService ingestionService;
+    private final UsaSpendingIngestionService usaSpendingIngestionService;
+    private final GeocodingService geocodingService;
+    private final Executor ingestionExecutor;
+    private final TransactionTemplate transactionTemplate;
+    // Claims roll back to a savepoint when the slot index rejects them inside a caller's transaction
+    private final TransactionTemplate claimTransaction;
+    private final int maxConcurrentPerSource;
+    private final long staleAfterMs;
+
+    private final Map<UUID, IngestionProgress> runningJobs = new ConcurrentHashMap<>();
+    private final Map<UUID, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    public IngestionJobService(IngestionJobRepository jobRepository,
+                               IngestionService ingestionService,
+                               UsaSpendingIngestionService usaSpendingIngestionService,
+                               GeocodingService geocodingService,
+                               @Qualifier("ingestionExecutor") Executor ingestionExecutor,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${ingestion.jobs.max-concurrent-per-source:1}") int maxConcurrentPerSource,
+                               @Value("${ingestion.jobs.stale-after-ms:60000}") long staleAfterMs) {
+        this.jobRepository = jobRepository;
+        this.ingestionService = ingestionService;
+        this.usaSpendingIngestionService = usaSpendingIngestionService;
+        this.geocodingService = geocodingService;
+        this.ingestionExecutor = ingestionExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.claimTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.maxConcurrentPerSource = Math.max(1, maxConcurrentPerSource);
+        this.staleAfterMs = staleAfterMs;
+    }
+
+    /**
+     * Queues a job, or returns the queued/running job with the same type and parameters.
+     *
+     * @param fullReconciliation only meaningful for {@link JobType#SAM_GOV}
+     * @param recordLimit        only meaningful for {@link JobType#GEOCODE}
+     */
+    public synchronized Submission submit(JobType type, boolean fullReconciliation, Integer recordLimit) {
+        Optional<IngestionJob> existing = jobRepository.findByTypeAndStatusInOrderByCreatedAtAsc(type, ACTIVE)
+                .stream()
+                .filter(job -> job.isFullReconciliation() == fullReconciliation
+                        && Objects.equals(job.getRecordLimit(), recordLimit))
+                .findFirst();
+        if (existing.isPresent()) {
+            log.info("Coalescing {} submission onto {} job {}", type, existing.get().getStatus(),
+                    existing.get().getId());
+            return new Submission(toDto(existing.get()), true);
+        }
+
+        IngestionJob job = jobRepository.save(IngestionJob.builder()
+                .type(type)
+                .source(type.getSource())
+                .status(JobStatus.QUEUED)
+                .fullReconciliation(fullReconciliation)
+                .recordLimit(recordLimit)
+                .build());
+        log.info("Queued {} ingestion job {}", type, job.getId());
+        dispatch();
+        return new Submission(toDto(jobRepository.findById(job.getId()).orElse(job)), false);
+    }
+
+    public IngestionJobDto getJob(UUID jobId) {
+        return toDto(findJob(jobId));
+    }
+
+    public List<IngestionJobDto> getRecentJobs() {
+        return jobRepository.findTop20ByOrderByCreatedAtDesc().stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    /**
+     * Opens an SSE stream of {@code progress} events for a job, ending with a {@code done}
+     * event once it finishes. Finished jobs get the final snapshot straight away.
+     */
+    public SseEmitter subscribe(UUID jobId) {
+        IngestionJob job = findJob(jobId);
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        if (job.isFinished()) {
+            sendAndComplete(emitter, toDto(job));
+            return emitter;
+        }
+
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+
+        // The job may have finished between the lookup and registering the emitter
+        IngestionJob current = findJob(jobId);
+        if (current.isFinished()) {
+            emitters.remove(emitter);
+            sendAndComplete(emitter, toDto(current));
+        } else {
+            send(emitter, "progress", toDto(current));
+        }
+        return emitter;
+    }
+
+    /**
+     * Re-queues jobs whose node stopped sending heartbeats (shutdown or crash) and starts
+     * whatever queued jobs have a free slot, including ones other nodes could not start.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${ingestion.jobs.stale-check-interval-ms:30000}")
+    public void resumeInterruptedJobs() {
+        Instant now = Instant.now();
+        Integer requeued = transactionTemplate.execute(status -> jobRepository.requeueStale(
+                now.minusMillis(staleAfterMs), now, JobStatus.QUEUED, JobStatus.RUNNING));
+        if (requeued != null && requeued > 0) {
+            log.info("Re-queued {} ingestion jobs whose node stopped sending heartbeats", requeued);
+        }
+        dispatch();
+    }
+
+    /**
+     * Flushes live counters of running jobs and pushes them to subscribers.
+     */
+    @Scheduled(fixedDelayString = "${ingestion.jobs.progress-interval-ms:1000}")
+    public void publishProgress() {
+        runningJobs.forEach((jobId, progress) -> {
+            transactionTemplate.executeWithoutResult(status -> jobRepository.updateProgress(jobId,
+                    JobStatus.RUNNING, NodeId.current(), progress.getPagesFetched(), progress.getRowsWritten(),
+                    progress.getRowsUnchanged(), Instant.now()));
+
+            List<SseEmitter> emitters = subscribers.get(jobId);
+            if (emitters != null && !emitters.isEmpty()) {
+                jobRepository.findById(jobId).map(this::toDto)
+                        .ifPresent(dto -> emitters.forEach(emitter -> send(emitter, "progress", dto)));
+            }
+        });
+    }
+
+    /**
+     * Starts queued jobs, oldest first, while their source has a free slot.
+     */
+    private synchronized void dispatch() {
+        for (IngestionJob job : jobRepository.findByStatusOrderByCreatedAtAsc(JobStatus.QUEUED)) {
+            if (!claim(job.getId())) {
+                continue;
+            }
+
+            IngestionJob started = findJob(job.getId());
+            IngestionProgress progress = new IngestionProgress();
+            runningJobs.put(started.getId(), progress);
+
+            try {
+                ingestionExecutor.execute(() -> execute(started, progress));
+            } catch (RejectedExecutionException e) {
+                log.warn("Ingestion pool is full; job {} stays queued", started.getId());
+                release(started);
+                started.setStatus(JobStatus.QUEUED);
+                started.setSlot(null);
+                started.setNode(null);
+                started.setStartedAt(null);
+                jobRepository.save(started);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves a queued job to RUNNING on this node in the first free slot of its source.
+     *
+     * @return false when every slot is taken or another node started the job first
+     */
+    private boolean claim(UUID jobId) {
+        for (int slot = 0; slot < maxConcurrentPerSource; slot++) {
+            int candidate = slot;
+            try {
+                Integer claimed = claimTransaction.execute(status -> jobRepository.claim(jobId, candidate,
+                        NodeId.current(), Instant.now(), JobStatus.QUEUED, JobStatus.RUNNING));
+                if (claimed != null && claimed > 0) {
+                    return true;
+                }
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Slot {} was taken concurrently for job {}", candidate, jobId);
+            }
+        }
+        return false;
+    }
+
+    private void execute(IngestionJob job, IngestionProgress progress) {
+        log.info("Running {} ingestion job {}", job.getType(), job.getId());
+        IngestionProgress.bind(progress);
+        try {
+            JobOutcome outcome = run(job);
+            finish(job.getId(), JobStatus.SUCCEEDED, progress.getPagesFetched(), outcome.rowsWritten(),
+                    outcome.rowsUnchanged(), outcome.message(), null);
+        } catch (Exception e) {
+            log.error("{} ingestion job {} failed", job.getType(), job.getId(), e);
+            finish(job.getId(), JobStatus.FAILED, progress.getPagesFetched(), progress.getRowsWritten(),
+                    progress.getRowsUnchanged(), null, e.getMessage());
+        } finally {
+            IngestionProgress.clear();
+            release(job);
+            dispatch();
+        }
+    }
+
+    private JobOutcome run(IngestionJob job) {
+        return switch (job.getType()) {
+            case SAM_GOV -> JobOutcome.of(ingestionService.runIngestion(job.isFullReconciliation()));
+            case SAM_GOV_FULL -> JobOutcome.of(ingestionService.runFullIngestion());
+            case SBIR_STTR -> JobOutcome.of(ingestionService.ingestSbirSttr());
+            case USA_SPENDING -> {
+                UsaSpendingIngestionService.IngestionResult result =
+                        usaSpendingIngestionService.ingestRecentAwards();
+                yield new JobOutcome(result.newRecords() + result.updatedRecords(), result.unchangedRecords(),
+                        result.toMessage());
+            }
+            case GEOCODE -> {
+                int limit = job.getRecordLimit() != null ? job.getRecordLimit() : 100;
+                int geocoded = geocodingService.batchGeocodeOpportunities(limit);
+                yield new JobOutcome(geocoded, 0, String.format("Geocoded %d opportunities", geocoded));
+            }
+        };
+    }
+
+    private void finish(UUID jobId, JobStatus status, int pages, int written, int unchanged,
+                        String message, String error) {
+        IngestionJob job = findJob(jobId);
+        if (job.getStatus() != JobStatus.RUNNING || !NodeId.current().equals(job.getNode())) {
+            log.warn("Not recording {} for ingestion job {}: it was re-queued while running", status, jobId);
+            return;
+        }
+        job.setStatus(status);
+        job.setPagesFetched(pages);
+        job.setRowsWritten(written);
+        job.setRowsUnchanged(unchanged);
+        job.setMessage(truncate(message));
+        job.setError(truncate(error));
+        job.setFinishedAt(Instant.now());
+        IngestionJob finished = jobRepository.save(job);
+        log.info("{} ingestion job {} {}", finished.getType(), jobId, status);
+
+        List<SseEmitter> emitters = subscribers.remove(jobId);
+        if (emitters != null) {
+            IngestionJobDto dto = toDto(finished);
+            emitters.forEach(emitter -> sendAndComplete(emitter, dto));
+        }
+    }
+
+    private void release(IngestionJob job) {
+        runningJobs.remove(job.getId());
+    }
+
+    private IngestionJob findJob(UUID jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("IngestionJob", jobId));
+    }
+
+    /**
+     * Maps a job to its DTO, overlaying live counters while it is running.
+     */
+    private IngestionJobDto toDto(IngestionJob job) {
+        IngestionProgress progress = job.getStatus() == JobStatus.RUNNING ? runningJobs.get(job.getId()) : null;
+        int pages = progress != null ? progress.getPagesFetched() : job.getPagesFetched();
+        int written = progress != null ? progress.getRowsWritten() : job.getRowsWritten();
+        int unchanged = progress != null ? progress.getRowsUnchanged() : job.getRowsUnchanged();
+
+        double rowsPerSecond = 0.0;
+        if (job.getStartedAt() != null) {
+            Instant end = job.getFinishedAt() != null ? job.getFinishedAt() : Instant.now();
+            long elapsedMs = Duration.between(job.getStartedAt(), end).toMillis();
+            rowsPerSecond = elapsedMs > 0 ? written * 1000.0 / elapsedMs : 0.0;
+        }
+
+        return IngestionJobDto.builder()
+                .id(job.getId())
+                .type(job.getType())
+                .source(job.getSource())
+                .status(job.getStatus())
+                .fullReconciliation(job.isFullReconciliation())
+                .recordLimit(job.getRecordLimit())
+                .pagesFetched(pages)
+                .rowsWritten(written)
+                .rowsUnchanged(unchanged)
+                .rowsPerSecond(rowsPerSecond)
+                .message(job.getMessage())
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+    private void send(SseEmitter emitter, String event, IngestionJobDto dto) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(dto));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping ingestion job subscriber for {}: {}", dto.id(), e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void sendAndComplete(SseEmitter emitter, IngestionJobDto dto) {
+        send(emitter, "done", dto);
+        emitter.complete();
+    }
+
+    private static String truncate(String text) {
+        return text != null && text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH) : text;
+    }
+
+    /**
+     * Result of a submission; {@code coalesced} is true when an existing job was returned.
+     */
+    public record Submission(IngestionJobDto job, boolean coalesced) {}
+
+    private record JobOutcome(int rowsWritten, int rowsUnchanged, String message) {
+
+        static JobOutcome of(IngestionService.IngestionResult result) {
+            return new JobOutcome(result.newRecords() + result.updatedRecords(), result.unchangedRecords(),
+                    result.toMessage());
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.IngestionPipelineProperties;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertResult;
+import com.samgov.ingestor.service.IngestionPipelineMetrics.StageMetrics;
+import com.samgov.ingestor.util.IngestionProgress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Staged ingestion pipeline for one run over a set of scopes (e.g. one NAICS code each).
+ *
+ * <pre>
+ *   fetch + decode  ->  normalize  ->  batch write  ->  post-commit
+ *   (virtual thread     (1 thread)     (N writer       (calling thread)
+ *    per scope)                         threads)
+ * </pre>
+ *
+ * Stages are joined by bounded queues, so a slow database blocks the normalizer, which
+ * blocks the fetchers, instead of pages piling up in memory. Decoding happens inside the
+ * fetch stage because the API clients stream-decode straight off the response body.
+ *
+ * Each scope is pinned to one writer thread, so a scope's pages commit in fetch order and a
+ * checkpoint written alongside a page never moves past an uncommitted page. After the first
+ * failure in a scope its fetcher stops and its remaining queued pages are skipped; other
+ * scopes carry on. Writers hold a pooled connection only while committing a page.
+ *
+ * Queue depth, queue wait and per-item latency of every stage are exported through
+ * {@link IngestionPipelineMetrics}; the fetch stage's queue is the scopes waiting for a fetcher. A pipeline instance runs once; create one per run.
+ *
+ * @param <S> scope descriptor
+ * @param <D> decoded upstream record
+ * @param <P> normalized page handed to the writer
+ */
+public class IngestionPipeline<S, D, P> {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionPipeline.class);
+
+    private final String name;
+    private final IngestionPipelineProperties properties;
+    private final Handler<S, D, P> handler;
+    private final StageMetrics fetchMetrics;
+    private final StageMetrics normalizeMetrics;
+    private final StageMetrics writeMetrics;
+    private final StageMetrics commitMetrics;
+
+    public IngestionPipeline(String name, IngestionPipelineProperties properties,
+                             IngestionPipelineMetrics metrics, Handler<S, D, P> handler) {
+        this.name = name;
+        this.properties = properties;
+        this.handler = handler;
+        this.fetchMetrics = metrics.stage(name, "fetch");
+        this.normalizeMetrics = metrics.stage(name, "normalize");
+        this.writeMetrics = metrics.stage(name, "write");
+        this.commitMetrics = metrics.stage(name, "commit");
+    }
+
+    /**
+     * Runs every scope through the pipeline and returns once each scope has been reported to
+     * {@link Handler#scopeFinished}. Post-commit callbacks run on the calling thread.
+     * If the calling thread is interrupted, stage threads are interrupted and unfinished
+     * scopes are not reported.
+     */
+    public void run(List<ScopeSource<S, D>> sources) {
+        if (sources.isEmpty()) {
+            return;
+        }
+        int writerCount = Math.min(properties.getWriters(), sources.size());
+        int capacity = properties.getQueueCapacity();
+        IngestionProgress progress = IngestionProgress.current();
+
+        BlockingQueue<Item> normalizeQueue = new ArrayBlockingQueue<>(capacity);
+        List<BlockingQueue<Item>> writeQueues = new ArrayList<>(writerCount);
+        int[] scopesPerWriter = new int[writerCount];
+        for (int i = 0; i < writerCount; i++) {
+            writeQueues.add(new ArrayBlockingQueue<>(capacity));
+        }
+        BlockingQueue<Item> commitQueue = new ArrayBlockingQueue<>(capacity);
+
+        List<ScopeRun> runs = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            ScopeRun scopeRun = new ScopeRun(sources.get(i), i % writerCount);
+            scopesPerWriter[scopeRun.writer]++;
+            runs.add(scopeRun);
+        }
+
+        List<Thread> threads = new ArrayList<>();
+        threads.add(Thread.ofPlatform().name(name + "-normalize").daemon(true)
+                .start(bound(progress, () -> normalizeStage(normalizeQueue, writeQueues, runs.size()))));
+        for (int i = 0; i < writerCount; i++) {
+            BlockingQueue<Item> writeQueue = writeQueues.get(i);
+            int scopes = scopesPerWriter[i];
+            threads.add(Thread.ofPlatform().name(name + "-write-" + i).daemon(true)
+                    .start(bound(progress, () -> writeStage(writeQueue, commitQueue, scopes))));
+        }
+        Semaphore fetchPermits = new Semaphore(properties.getFetchers());
+        Thread.Builder fetchThreads = Thread.ofVirtual().name(name + "-fetch-", 0);
+        for (ScopeRun scopeRun : runs) {
+            threads.add(fetchThreads.start(
+                    bound(progress, () -> fetchStage(scopeRun, fetchPermits, normalizeQueue))));
+        }
+
+        try {
+            commitStage(commitQueue, runs.size());
+        } catch (InterruptedException e) {
+            log.warn("{} pipeline interrupted; stopping stage threads", name);
+            threads.forEach(Thread::interrupt);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fetchStage(ScopeRun scopeRun, Semaphore permits, BlockingQueue<Item> out) {
+        try {
+            // The fetch stage's queue is the scopes waiting for one of the fetcher permits
+            long queued = System.nanoTime();
+            fetchMetrics.depth().incrementAndGet();
+            try {
+                permits.acquire();
+            } finally {
+                fetchMetrics.depth().decrementAndGet();
+            }
+            fetchMetrics.queueWait().record(System.nanoTime() - queued, TimeUnit.NANOSECONDS);
+            try (Stream<List<D>> pages = scopeRun.source.pages().get()) {
+                Iterator<List<D>> iterator = pages.iterator();
+                int pageIndex = scopeRun.source.startPage();
+                while (!scopeRun.failed) {
+                    long started = System.nanoTime();
+                    if (!iterator.hasNext()) {
+                        break;
+                    }
+                    List<D> page = iterator.next();
+                    fetchMetrics.latency().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                    put(out, normalizeMetrics, new Item(scopeRun, pageIndex++, page, null, null));
+                }
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                scopeRun.failed = true;
+                log.error("{} fetch failed for {}", name, scopeRun.source.scope(), e);
+            } finally {
+                permits.release();
+            }
+            put(out, normalizeMetrics, new Item(scopeRun, -1, null, null, null));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void normalizeStage(BlockingQueue<Item> in, List<BlockingQueue<Item>> out, int scopes) {
+        try {
+            int ended = 0;
+            while (ended < scopes) {
+                Item item = take(in, normalizeMetrics);
+                BlockingQueue<Item> next = out.get(item.scopeRun.writer);
+                if (item.isEnd()) {
+                    ended++;
+                    put(next, writeMetrics, item);
+                    continue;
+                }
+                if (item.scopeRun.failed) {
+                    continue;
+                }
+                long started = System.nanoTime();
+                P normalized;
+                try {
+                    normalized = handler.normalize(item.scopeRun.source.scope(), item.pageIndex, item.raw);
+                } catch (Exception e) {
+                    item.scopeRun.failed = true;
+                    log.error("{} failed to normalize page {} for {}", name, item.pageIndex,
+                            item.scopeRun.source.scope(), e);
+                    continue;
+                } finally {
+                    normalizeMetrics.latency().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+                put(next, writeMetrics, new Item(item.scopeRun, item.pageIndex, item.raw, normalized, null));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeStage(BlockingQueue<Item> in, BlockingQueue<Item> out, int scopes) {
+        try {
+            int ended = 0;
+            while (ended < scopes) {
+                Item item = take(in, writeMetrics);
+                if (item.isEnd()) {
+                    ended++;
+                    put(out, commitMetrics, item);
+                    continue;
+                }
+                if (item.scopeRun.failed) {
+                    continue;
+                }
+                long started = System.nanoTime();
+                UpsertResult result;
+                try {
+                    result = handler.write(item.scopeRun.source.scope(), item.pageIndex, item.normalized);
+                } catch (Exception e) {
+                    item.scopeRun.failed = true;
+                    log.error("{} failed to write page {} ({} records) for {}", name, item.pageIndex,
+                            item.raw.size(), item.scopeRun.source.scope(), e);
+                    continue;
+                } finally {
+                    writeMetrics.latency().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+                put(out, commitMetrics, new Item(item.scopeRun, item.pageIndex, item.raw, item.normalized, result));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void commitStage(BlockingQueue<Item> in, int scopes) throws InterruptedException {
+        int ended = 0;
+        while (ended < scopes) {
+            Item item = take(in, commitMetrics);
+            ScopeRun scopeRun = item.scopeRun;
+            long started = System.nanoTime();
+            try {
+                if (item.isEnd()) {
+                    ended++;
+                    handler.scopeFinished(scopeRun.source.scope(),
+                            new ScopeSummary(scopeRun.pages, scopeRun.fetched, scopeRun.failed));
+                } else {
+                    scopeRun.pages++;
+                    scopeRun.fetched += item.raw.size();
+                    handler.pageCommitted(scopeRun.source.scope(), item.pageIndex, item.normalized, item.result);
+                }
+            } catch (Exception e) {
+                log.error("{} post-commit hook failed for {}", name, scopeRun.source.scope(), e);
+            } finally {
+                commitMetrics.latency().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void put(BlockingQueue<Item> queue, StageMetrics stage, Item item) throws InterruptedException {
+        item.enqueuedAt = System.nanoTime();
+        stage.depth().incrementAndGet();
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            stage.depth().decrementAndGet();
+            throw e;
+        }
+    }
+
+    private Item take(BlockingQueue<Item> queue, StageMetrics stage) throws InterruptedException {
+        Item item = queue.take();
+        stage.depth().decrementAndGet();
+        stage.queueWait().record(System.nanoTime() - item.enqueuedAt, TimeUnit.NANOSECONDS);
+        return item;
+    }
+
+    /**
+     * Carries the caller's job progress onto a stage thread, so page and row counters keep
+     * reporting to the job that started the run.
+     */
+    private static Runnable bound(IngestionProgress progress, Runnable task) {
+        return () -> {
+            IngestionProgress.bind(progress);
+            try {
+                task.run();
+            } finally {
+                IngestionProgress.clear();
+            }
+        };
+    }
+
+    /**
+     * Per-scope state shared by the stages. {@code failed} is written by whichever stage
+     * fails first; the counters are only touched by the post-commit stage.
+     */
+    private final class ScopeRun {
+        private final ScopeSource<S, D> source;
+        private final int writer;
+        private volatile boolean failed;
+        private int pages;
+        private int fetched;
+
+        private ScopeRun(ScopeSource<S, D> source, int writer) {
+            this.source = source;
+            this.writer = writer;
+        }
+    }
+
+    /**
+     * One page moving between stages, or the end-of-scope marker that follows a scope's
+     * last page through the same queues.
+     */
+    private final class Item {
+        private final ScopeRun scopeRun;
+        private final int pageIndex;
+        private final List<D> raw;
+        private final P normalized;
+        private final UpsertResult result;
+        private long enqueuedAt;
+
+        private Item(ScopeRun scopeRun, int pageIndex, List<D> raw, P normalized, UpsertResult result) {
+            this.scopeRun = scopeRun;
+            this.pageIndex = pageIndex;
+            this.raw = raw;
+            this.normalized = normalized;
+            this.result = result;
+        }
+
+        private boolean isEnd() {
+            return raw == null;
+        }
+    }
+
+    /**
+     * One scope to ingest: its descriptor, the absolute index of its first page (non-zero
+     * when resuming from a checkpoint) and a supplier that opens its page stream on the
+     * fetcher thread.
+     */
+    public record ScopeSource<S, D>(S scope, int startPage, Supplier<Stream<List<D>>> pages) {}
+
+    /**
+     * Outcome of one scope: pages and records that were committed, and whether any stage
+     * failed (in which case later pages were skipped).
+     */
+    public record ScopeSummary(int pages, int fetched, boolean failed) {}
+
+    /**
+     * Source-specific logic plugged into the stages.
+     */
+    public interface Handler<S, D, P> {
+
+        /**
+         * Validates, enriches and maps a decoded page. Runs on the single normalizer thread.
+         */
+        P normalize(S scope, int pageIndex, List<D> page);
+
+        /**
+         * Writes a normalized page, typically in its own transaction together with the
+         * scope's checkpoint. Runs on the scope's writer thread.
+         */
+        UpsertResult write(S scope, int pageIndex, P page);
+
+        /**
+         * Called on the calling thread after a page has committed, in commit order per scope.
+         */
+        default void pageCommitted(S scope, int pageIndex, P page, UpsertResult result) {
+        }
+
+        /**
+         * Called on the calling thread once a scope's last page has passed every stage.
+         */
+        void scopeFinished(S scope, ScopeSummary summary);
+    }
+}
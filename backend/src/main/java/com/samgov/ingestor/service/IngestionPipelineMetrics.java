@@ -0,0 +1,77 @@
+package com.samgov.ingestor.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-stage meters for {@link IngestionPipeline} runs, shared across runs so gauges stay bound.
+ *
+ * <ul>
+ *   <li>samgov.ingestion.pipeline.queue.depth - items waiting in front of a stage; for the
+ *       fetch stage, scopes waiting for a fetcher</li>
+ *   <li>samgov.ingestion.pipeline.queue.wait - time an item (or scope) waited before the stage took it</li>
+ *   <li>samgov.ingestion.pipeline.stage.latency - time the stage spent on an item</li>
+ * </ul>
+ * All are tagged with {@code pipeline} (e.g. sam.gov) and {@code stage}. A stage whose queue
+ * stays full is downstream of the bottleneck; one whose queue stays empty is upstream of it.
+ */
+@Component
+public class IngestionPipelineMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<String, StageMetrics> stages = new ConcurrentHashMap<>();
+
+    public IngestionPipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public StageMetrics stage(String pipeline, String stage) {
+        return stages.computeIfAbsent(pipeline + "|" + stage, key -> new StageMetrics(pipeline, stage));
+    }
+
+    /**
+     * Meters for one stage of one pipeline.
+     */
+    public final class StageMetrics {
+
+        private final AtomicInteger depth = new AtomicInteger();
+        private final Timer queueWait;
+        private final Timer latency;
+
+        private StageMetrics(String pipeline, String stage) {
+            Gauge.builder("samgov.ingestion.pipeline.queue.depth", depth, AtomicInteger::get)
+                    .description("Items queued in front of an ingestion pipeline stage")
+                    .tag("pipeline", pipeline)
+                    .tag("stage", stage)
+                    .register(registry);
+            this.queueWait = Timer.builder("samgov.ingestion.pipeline.queue.wait")
+                    .description("Time items waited in front of an ingestion pipeline stage")
+                    .tag("pipeline", pipeline)
+                    .tag("stage", stage)
+                    .register(registry);
+            this.latency = Timer.builder("samgov.ingestion.pipeline.stage.latency")
+                    .description("Time an ingestion pipeline stage spent per item")
+                    .tag("pipeline", pipeline)
+                    .tag("stage", stage)
+                    .register(registry);
+        }
+
+        AtomicInteger depth() {
+            return depth;
+        }
+
+        Timer queueWait() {
+            return queueWait;
+        }
+
+        Timer latency() {
+            return latency;
+        }
+    }
+}
@@ -1,29 +1,56 @@
 package com.samgov.ingestor.service;
 
 import com.samgov.ingestor.client.SamApiClient;
+import com.samgov.ingestor.config.IngestionPipelineProperties;
+import com.samgov.ingestor.dto.PostedDateWindow;
 import com.samgov.ingestor.dto.SamOpportunityDto;
+import com.samgov.ingestor.model.IngestionCheckpoint;
 import com.samgov.ingestor.model.Opportunity;
 import com.samgov.ingestor.repository.OpportunityRepository;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertMapping;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertResult;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertTable;
+import com.samgov.ingestor.service.IngestionPipeline.ScopeSource;
+import com.samgov.ingestor.service.IngestionPipeline.ScopeSummary;
+import com.samgov.ingestor.service.OpportunityClassifier.Rules;
+import com.samgov.ingestor.util.ContentHash;
+import com.samgov.ingestor.util.IngestionProgress;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 /**
  * Service responsible for orchestrating the ingestion of opportunities from SAM.gov.
- * Uses virtual threads for concurrent fetching across multiple NAICS codes.
+ * Each run feeds its scopes through an {@link IngestionPipeline}: scopes are fetched
+ * concurrently on virtual threads (each prefetching its own upcoming pages), validated on a
+ * normalizer thread and written by a small pool of writer threads.
  * NAICS codes are configured via application.yaml.
+ *
+ * Each (NAICS, ptype) and keyword search is incremental: only notices posted since the
+ * scope's watermark are requested, with a periodic full reconciliation pass
+ * (see {@link IngestionWatermarkService}).
+ *
+ * Runs are not wrapped in one transaction. Each page is written together with its
+ * {@link IngestionCheckpoint} update in its own short transaction, so memory and lock time
+ * stay flat regardless of run size, and a crashed or restarted node resumes a scope at the
+ * first uncommitted page (see {@link IngestionCheckpointService}).
+ *
+ * Classification fields (SBIR/STTR, phase, DoD, ITAR, CUI, clearance) are derived by
+ * {@link OpportunityClassifier}, whose keyword rules are compiled once per run.
  */
 @Service
 public class IngestionService {
@@ -33,100 +60,287 @@ public class IngestionService {
 
     private final SamApiClient samApiClient;
     private final OpportunityRepository opportunityRepository;
-
-    public IngestionService(SamApiClient samApiClient, OpportunityRepository opportunityRepository) {
+    private final BulkUpsertService bulkUpsertService;
+    private final IngestionCheckpointService checkpointService;
+    private final TransactionTemplate pageTransaction;
+    private final IngestionPipelineProperties pipelineProperties;
+    private final IngestionPipelineMetrics pipelineMetrics;
+    private final OpportunityClassifier classifier;
+    private final OpportunityDataGeneration dataGeneration;
+
+    public IngestionService(SamApiClient samApiClient, OpportunityRepository opportunityRepository,
+                            BulkUpsertService bulkUpsertService, IngestionCheckpointService checkpointService,
+                            TransactionTemplate pageTransaction, IngestionPipelineProperties pipelineProperties,
+                            IngestionPipelineMetrics pipelineMetrics, OpportunityClassifier classifier,
+                            OpportunityDataGeneration dataGeneration) {
         this.samApiClient = samApiClient;
         this.opportunityRepository = opportunityRepository;
+        this.bulkUpsertService = bulkUpsertService;
+        this.checkpointService = checkpointService;
+        this.pageTransaction = pageTransaction;
+        this.pipelineProperties = pipelineProperties;
+        this.pipelineMetrics = pipelineMetrics;
+        this.classifier = classifier;
+        this.dataGeneration = dataGeneration;
     }
 
     /**
      * Runs the ingestion process for all configured NAICS codes.
-     * Spawns a virtual thread for each NAICS code to fetch opportunities concurrently.
+     * Pages are streamed from SAM.gov and processed as they arrive, so only the
+     * pages currently in flight are held in memory.
      * Scheduled to run daily at 8 AM.
      *
      * @return IngestionResult containing counts of new and updated records
      */
     @Scheduled(cron = "0 0 8 * * ?")
-    @Transactional
     public IngestionResult runIngestion() {
+        return runIngestion(false);
+    }
+
+    /**
+     * Runs the ingestion process for all configured NAICS codes.
+     *
+     * @param fullReconciliation ignore watermarks and re-fetch the whole posted-within-days window
+     * @return IngestionResult containing counts of new and updated records
+     */
+    public IngestionResult runIngestion(boolean fullReconciliation) {
         List<String> naicsCodes = samApiClient.getConfiguredNaicsCodes();
-        log.info("Starting ingestion for NAICS codes: {}", naicsCodes);
+        String ptype = samApiClient.getConfiguredPtype();
+        log.info("Starting {} ingestion for NAICS codes: {}",
+                fullReconciliation ? "full" : "incremental", naicsCodes);
         long startTime = System.currentTimeMillis();
 
-        AtomicInteger newCount = new AtomicInteger(0);
-        AtomicInteger updatedCount = new AtomicInteger(0);
+        List<ScopeSource<SamScope, SamOpportunityDto>> scopes = new ArrayList<>();
+        for (String naicsCode : naicsCodes) {
+            openScope(naicsCode, ptype, "NAICS " + naicsCode, fullReconciliation,
+                    (window, startPage, failed) ->
+                            samApiClient.streamOpportunityPages(naicsCode, ptype, window, startPage, failed))
+                    .ifPresent(scopes::add);
+        }
+        RunTotals totals = runPipeline(scopes);
 
-        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
-            // Spawn a virtual thread for each NAICS code
-            List<CompletableFuture<List<SamOpportunityDto>>> futures = naicsCodes.stream()
-                    .map(naicsCode -> CompletableFuture.supplyAsync(
-                            () -> fetchForNaicsCode(naicsCode), executor))
-                    .toList();
+        long duration = System.currentTimeMillis() - startTime;
+        log.info("Ingestion completed in {}ms. New: {}, Updated: {}, Unchanged: {}",
+                duration, totals.inserted, totals.updated, totals.unchanged);
 
-            // Wait for all fetches to complete and collect results
-            List<SamOpportunityDto> allOpportunities = futures.stream()
-                    .map(CompletableFuture::join)
-                    .flatMap(List::stream)
-                    .toList();
+        return totals.toResult(duration);
+    }
 
-            log.info("Fetched {} total opportunities from SAM.gov", allOpportunities.size());
+    /**
+     * Opens (or resumes) the checkpoint of one watermarked scope and describes the page
+     * stream that walks its window from the checkpoint's next page. Empty when another run
+     * (a scheduled run, a manual job or another node) is walking the scope.
+     */
+    private Optional<ScopeSource<SamScope, SamOpportunityDto>> openScope(String scope, String ptype, String label,
+                                                                          boolean forceFull, ScopeSearch search) {
+        IngestionCheckpoint checkpoint;
+        try {
+            checkpoint = checkpointService.start(IngestionWatermarkService.SOURCE_SAM_GOV, scope, ptype, forceFull)
+                    .orElse(null);
+        } catch (DataIntegrityViolationException e) {
+            // Another run created the scope's first checkpoint at the same time
+            checkpoint = null;
+        }
+        if (checkpoint == null) {
+            log.info("{}: another run is fetching this scope, skipping it", label);
+            return Optional.empty();
+        }
+        PostedDateWindow window = checkpointService.windowOf(checkpoint);
+        int startPage = checkpoint.getNextPage();
+        log.info("{}: fetching {} window {} to {} from page {}", label,
+                window.fullReconciliation() ? "full" : "incremental", window.postedFrom(), window.postedTo(),
+                startPage);
+
+        SamScope samScope = new SamScope(label, checkpoint.getId(), startPage, new AtomicBoolean(false));
+        return Optional.of(new ScopeSource<>(samScope, startPage,
+                () -> search.open(window, startPage, samScope.fetchFailed())));
+    }
 
-            // Process each opportunity with upsert logic
-            for (SamOpportunityDto dto : allOpportunities) {
-                try {
-                    processOpportunity(dto, newCount, updatedCount);
-                } catch (Exception e) {
-                    log.error("Failed to process opportunity: {}", dto.solicitationNumber(), e);
-                }
-            }
+    /**
+     * Runs the given scopes through one staged pipeline: scopes are fetched concurrently,
+     * while each scope's pages are written in order together with its checkpoint.
+     */
+    private RunTotals runPipeline(List<ScopeSource<SamScope, SamOpportunityDto>> scopes) {
+        RunTotals totals = new RunTotals();
+        SamOpportunityMapping mapping = new SamOpportunityMapping(classifier.compile());
+        new IngestionPipeline<>(IngestionWatermarkService.SOURCE_SAM_GOV, pipelineProperties, pipelineMetrics,
+                new SamPageHandler(totals, mapping)).run(scopes);
+        return totals;
+    }
+
+    /**
+     * Opens the page stream for one scope's window, starting at a given page.
+     */
+    @FunctionalInterface
+    private interface ScopeSearch {
+        Stream<List<SamOpportunityDto>> open(PostedDateWindow window, int startPage, AtomicBoolean fetchFailed);
+    }
+
+    /**
+     * One NAICS/ptype or keyword search within a run, bound to its checkpoint.
+     */
+    private record SamScope(String label, UUID checkpointId, int startPage, AtomicBoolean fetchFailed) {
+        @Override
+        public String toString() {
+            return label;
         }
+    }
 
-        long duration = System.currentTimeMillis() - startTime;
-        log.info("Ingestion completed in {}ms. New: {}, Updated: {}", duration, newCount.get(), updatedCount.get());
+    /**
+     * A page after validation: the rows to upsert plus what the checkpoint needs to know.
+     */
+    private record SamPage(List<SamOpportunityDto> valid, int fetched, LocalDate latestPosted) {}
 
-        return new IngestionResult(newCount.get(), updatedCount.get(), duration);
+    /**
+     * Counts accumulated by the post-commit stage, which runs on the calling thread.
+     */
+    private static final class RunTotals {
+        private int inserted;
+        private int updated;
+        private int unchanged;
+        private int fetched;
+
+        private IngestionResult toResult(long durationMs) {
+            return new IngestionResult(inserted, updated, unchanged, durationMs);
+        }
     }
 
     /**
-     * Fetches opportunities for a single NAICS code with error handling.
+     * SAM.gov stages: drops notices without a solicitation number, writes each page with its
+     * checkpoint update in one transaction, and completes - advancing the watermark - only
+     * scopes whose every page was fetched and written.
      */
-    private List<SamOpportunityDto> fetchForNaicsCode(String naicsCode) {
-        log.info("Fetching opportunities for NAICS code: {}", naicsCode);
-        try {
-            List<SamOpportunityDto> results = samApiClient.fetchOpportunities(naicsCode);
-            log.info("Fetched {} opportunities for NAICS code: {}", results.size(), naicsCode);
-            return results;
-        } catch (Exception e) {
-            log.error("Error fetching opportunities for NAICS code: {}", naicsCode, e);
-            return List.of();
+    private class SamPageHandler implements IngestionPipeline.Handler<SamScope, SamOpportunityDto, SamPage> {
+
+        private final RunTotals totals;
+        private final SamOpportunityMapping mapping;
+
+        SamPageHandler(RunTotals totals, SamOpportunityMapping mapping) {
+            this.totals = totals;
+            this.mapping = mapping;
+        }
+
+        @Override
+        public SamPage normalize(SamScope scope, int pageIndex, List<SamOpportunityDto> page) {
+            IngestionProgress.recordPage();
+            List<SamOpportunityDto> valid = page.stream()
+                    .filter(dto -> {
+                        if (dto.solicitationNumber() == null || dto.solicitationNumber().isBlank()) {
+                            log.warn("Skipping opportunity with null/blank solicitation number: {}", dto.noticeId());
+                            return false;
+                        }
+                        return true;
+                    })
+                    .toList();
+            return new SamPage(valid, page.size(), latest(page));
+        }
+
+        /**
+         * Upserts one page through the bulk upsert engine and records it on the checkpoint.
+         * Existing solicitation numbers are resolved with one query per chunk and the
+         * chunk is written with a single batched INSERT ... ON CONFLICT.
+         */
+        @Override
+        public UpsertResult write(SamScope scope, int pageIndex, SamPage page) {
+            return pageTransaction.execute(status -> {
+                UpsertResult result = bulkUpsertService.upsert(page.valid(), mapping);
+                checkpointService.recordPage(scope.checkpointId(), pageIndex, page.fetched(), result.written(),
+                        page.latestPosted());
+                log.debug("Upserted page {} for {}: {} new, {} updated, {} unchanged", pageIndex, scope,
+                        result.inserted(), result.updated(), result.unchanged());
+                return result;
+            });
+        }
+
+        @Override
+        public void pageCommitted(SamScope scope, int pageIndex, SamPage page, UpsertResult result) {
+            totals.inserted += result.inserted();
+            totals.updated += result.updated();
+            totals.unchanged += result.unchanged();
+            if (result.written() > 0) {
+                // Retire cached searches as soon as the page is visible, not at the end of the run
+                dataGeneration.advance();
+            }
         }
+
+        @Override
+        public void scopeFinished(SamScope scope, ScopeSummary summary) {
+            totals.fetched += summary.fetched();
+            log.info("Processed {} opportunities across {} pages for {}", summary.fetched(), summary.pages(), scope);
+            if (scope.fetchFailed().get() || summary.failed()) {
+                checkpointService.fail(scope.checkpointId(),
+                        scope.fetchFailed().get() ? "Page fetch failed" : "Page fetch or write failed");
+            } else if (scope.startPage() + summary.pages() >= samApiClient.getMaxPages()) {
+                log.warn("{}: reached max-pages ({}), watermark not advanced", scope, samApiClient.getMaxPages());
+                checkpointService.abandon(scope.checkpointId(), "Reached max-pages");
+            } else {
+                checkpointService.complete(scope.checkpointId());
+            }
+        }
+    }
+
+    private LocalDate latest(List<SamOpportunityDto> page) {
+        LocalDate latest = null;
+        for (SamOpportunityDto dto : page) {
+            LocalDate posted = parseDate(dto.postedDate());
+            if (posted != null && (latest == null || posted.isAfter(latest))) {
+                latest = posted;
+            }
+        }
+        return latest;
     }
 
     /**
-     * Processes a single opportunity DTO, performing upsert logic.
-     * If solicitation number exists, updates the record; otherwise creates new.
+     * Maps SAM.gov DTOs onto the opportunities table, keyed by solicitation number.
      */
-    private void processOpportunity(SamOpportunityDto dto, AtomicInteger newCount, AtomicInteger updatedCount) {
-        if (dto.solicitationNumber() == null || dto.solicitationNumber().isBlank()) {
-            log.warn("Skipping opportunity with null/blank solicitation number: {}", dto.noticeId());
-            return;
+    private class SamOpportunityMapping implements UpsertMapping<SamOpportunityDto, Opportunity> {
+
+        private final Rules rules;
+
+        SamOpportunityMapping(Rules rules) {
+            this.rules = rules;
+        }
+
+        @Override
+        public UpsertTable<Opportunity> table() {
+            return BulkUpsertService.OPPORTUNITIES;
         }
 
-        Optional<Opportunity> existing = opportunityRepository.findBySolicitationNumber(dto.solicitationNumber());
+        @Override
+        public String recordKey(SamOpportunityDto dto) {
+            return dto.solicitationNumber();
+        }
 
-        if (existing.isPresent()) {
-            // Update existing record
-            Opportunity opportunity = existing.get();
-            updateOpportunityFromDto(opportunity, dto);
-            opportunityRepository.save(opportunity);
-            updatedCount.incrementAndGet();
-            log.debug("Updated opportunity: {}", dto.solicitationNumber());
-        } else {
-            // Create new record
+        @Override
+        public String entityKey(Opportunity opportunity) {
+            return opportunity.getSolicitationNumber();
+        }
+
+        @Override
+        public List<Opportunity> findExisting(Collection<String> solicitationNumbers) {
+            return opportunityRepository.findBySolicitationNumberIn(solicitationNumbers);
+        }
+
+        /**
+         * Includes the rule-set version: the classification fields are derived from the DTO by
+         * the rules, so a rule change must rewrite rows whose DTO did not change.
+         */
+        @Override
+        public String contentHash(SamOpportunityDto dto) {
+            return ContentHash.of(dto, rules.version());
+        }
+
+        @Override
+        public Opportunity create(SamOpportunityDto dto) {
             Opportunity opportunity = convertDtoToEntity(dto);
-            opportunityRepository.save(opportunity);
-            newCount.incrementAndGet();
-            log.debug("Created new opportunity: {}", dto.solicitationNumber());
+            rules.classify(opportunity.getTitle(), opportunity.getDescription()).applyTo(opportunity);
+            return opportunity;
+        }
+
+        @Override
+        public void update(Opportunity opportunity, SamOpportunityDto dto) {
+            updateOpportunityFromDto(opportunity, dto);
+            rules.classify(opportunity.getTitle(), opportunity.getDescription()).applyTo(opportunity);
         }
     }
 
@@ -135,8 +349,9 @@ public class IngestionService {
      */
     private Opportunity convertDtoToEntity(SamOpportunityDto dto) {
         Opportunity opportunity = new Opportunity();
-        opportunity.setId(dto.noticeId());
+        opportunity.setId(dto.noticeId() != null ? dto.noticeId() : UUID.randomUUID().toString());
         opportunity.setTitle(dto.title());
+        opportunity.setDescription(dto.descriptionText());
         opportunity.setSolicitationNumber(dto.solicitationNumber());
         opportunity.setPostedDate(parseDate(dto.postedDate()));
         opportunity.setResponseDeadLine(parseDate(dto.responseDeadLine()));
@@ -144,58 +359,20 @@ public class IngestionService {
         opportunity.setType(dto.type());
         opportunity.setUrl(dto.uiLink());
         opportunity.setSource("SAM.gov");
-        
-        // Detect SBIR/STTR from title
-        String title = dto.title() != null ? dto.title().toUpperCase() : "";
-        opportunity.setIsSbir(title.contains("SBIR"));
-        opportunity.setIsSttr(title.contains("STTR"));
-        opportunity.setSbirPhase(detectSbirPhase(title));
-        
         return opportunity;
     }
     
-    /**
-     * Detects SBIR/STTR phase from opportunity title.
-     * Looks for patterns like "Phase I", "Phase II", "Phase III", "Phase 1", etc.
-     */
-    private String detectSbirPhase(String title) {
-        if (title == null) return null;
-        String upperTitle = title.toUpperCase();
-        
-        // Check for Phase III / Phase 3
-        if (upperTitle.contains("PHASE III") || upperTitle.contains("PHASE 3")) {
-            return "III";
-        }
-        // Check for Phase II / Phase 2
-        if (upperTitle.contains("PHASE II") || upperTitle.contains("PHASE 2")) {
-            return "II";
-        }
-        // Check for Phase I / Phase 1 (check after II/III to avoid false matches)
-        if (upperTitle.contains("PHASE I") || upperTitle.contains("PHASE 1")) {
-            // Make sure it's not Phase II or III
-            if (!upperTitle.contains("PHASE II") && !upperTitle.contains("PHASE III")) {
-                return "I";
-            }
-        }
-        return null;
-    }
-
     /**
      * Updates an existing Opportunity entity from a DTO.
      */
     private void updateOpportunityFromDto(Opportunity opportunity, SamOpportunityDto dto) {
         opportunity.setTitle(dto.title());
+        opportunity.setDescription(dto.descriptionText());
         opportunity.setPostedDate(parseDate(dto.postedDate()));
         opportunity.setResponseDeadLine(parseDate(dto.responseDeadLine()));
         opportunity.setNaicsCode(dto.naicsCode());
         opportunity.setType(dto.type());
         opportunity.setUrl(dto.uiLink());
-        
-        // Update SBIR/STTR flags
-        String title = dto.title() != null ? dto.title().toUpperCase() : "";
-        opportunity.setIsSbir(title.contains("SBIR"));
-        opportunity.setIsSttr(title.contains("STTR"));
-        opportunity.setSbirPhase(detectSbirPhase(title));
     }
 
     /**
@@ -232,44 +409,24 @@ public class IngestionService {
      *
      * @return Total count of saved opportunities
      */
-    @Transactional
     public int ingestSourcesSought() {
         List<String> naicsCodes = samApiClient.getConfiguredNaicsCodes();
         log.info("Starting Sources Sought ingestion for {} NAICS codes", naicsCodes.size());
         long startTime = System.currentTimeMillis();
 
-        AtomicInteger newCount = new AtomicInteger(0);
-        AtomicInteger updatedCount = new AtomicInteger(0);
-
-        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
-            // Spawn a virtual thread for each NAICS code - fetching Sources Sought only
-            List<CompletableFuture<List<SamOpportunityDto>>> futures = naicsCodes.stream()
-                    .map(naicsCode -> CompletableFuture.supplyAsync(
-                            () -> samApiClient.fetchSourcesSought(naicsCode), executor))
-                    .toList();
-
-            // Wait for all fetches to complete and collect results
-            List<SamOpportunityDto> allOpportunities = futures.stream()
-                    .map(CompletableFuture::join)
-                    .flatMap(List::stream)
-                    .toList();
-
-            log.info("Fetched {} Sources Sought opportunities from SAM.gov", allOpportunities.size());
-
-            // Process each opportunity with upsert logic
-            for (SamOpportunityDto dto : allOpportunities) {
-                try {
-                    processOpportunity(dto, newCount, updatedCount);
-                } catch (Exception e) {
-                    log.error("Failed to process opportunity: {}", dto.solicitationNumber(), e);
-                }
-            }
+        List<ScopeSource<SamScope, SamOpportunityDto>> scopes = new ArrayList<>();
+        for (String naicsCode : naicsCodes) {
+            openScope(naicsCode, "r", "Sources Sought NAICS " + naicsCode, false,
+                    (window, startPage, failed) ->
+                            samApiClient.streamOpportunityPages(naicsCode, "r", window, startPage, failed))
+                    .ifPresent(scopes::add);
         }
+        RunTotals totals = runPipeline(scopes);
 
         long duration = System.currentTimeMillis() - startTime;
-        int totalSaved = newCount.get() + updatedCount.get();
-        log.info("Sources Sought ingestion completed in {}ms. New: {}, Updated: {}, Total: {}",
-                duration, newCount.get(), updatedCount.get(), totalSaved);
+        int totalSaved = totals.inserted + totals.updated;
+        log.info("Sources Sought ingestion completed in {}ms. New: {}, Updated: {}, Unchanged: {}, Total: {}",
+                duration, totals.inserted, totals.updated, totals.unchanged, totalSaved);
 
         return totalSaved;
     }
@@ -280,39 +437,29 @@ public class IngestionService {
      *
      * @return IngestionResult with counts
      */
-    @Transactional
     public IngestionResult ingestSbirSttr() {
         if (!samApiClient.isSbirEnabled()) {
             log.info("SBIR/STTR ingestion is disabled");
-            return new IngestionResult(0, 0, 0);
+            return new IngestionResult(0, 0, 0, 0);
         }
 
         log.info("Starting SBIR/STTR ingestion");
         long startTime = System.currentTimeMillis();
 
-        AtomicInteger newCount = new AtomicInteger(0);
-        AtomicInteger updatedCount = new AtomicInteger(0);
-
-        try {
-            List<SamOpportunityDto> sbirOpportunities = samApiClient.fetchAllSbirSttr();
-            log.info("Fetched {} SBIR/STTR opportunities from SAM.gov", sbirOpportunities.size());
-
-            for (SamOpportunityDto dto : sbirOpportunities) {
-                try {
-                    processOpportunity(dto, newCount, updatedCount);
-                } catch (Exception e) {
-                    log.error("Failed to process SBIR opportunity: {}", dto.solicitationNumber(), e);
-                }
-            }
-        } catch (Exception e) {
-            log.error("Error during SBIR/STTR ingestion", e);
+        List<ScopeSource<SamScope, SamOpportunityDto>> scopes = new ArrayList<>();
+        for (String keyword : samApiClient.getSbirKeywords()) {
+            openScope(keyword, "title", "keyword " + keyword, false,
+                    (window, startPage, failed) -> samApiClient.streamSbirPages(keyword, window, startPage, failed))
+                    .ifPresent(scopes::add);
         }
+        RunTotals totals = runPipeline(scopes);
+        log.info("Fetched {} SBIR/STTR opportunities from SAM.gov", totals.fetched);
 
         long duration = System.currentTimeMillis() - startTime;
-        log.info("SBIR/STTR ingestion completed in {}ms. New: {}, Updated: {}",
-                duration, newCount.get(), updatedCount.get());
+        log.info("SBIR/STTR ingestion completed in {}ms. New: {}, Updated: {}, Unchanged: {}",
+                duration, totals.inserted, totals.updated, totals.unchanged);
 
-        return new IngestionResult(newCount.get(), updatedCount.get(), duration);
+        return totals.toResult(duration);
     }
 
     /**
@@ -320,7 +467,6 @@ public class IngestionService {
      *
      * @return Combined IngestionResult
      */
-    @Transactional
     public IngestionResult runFullIngestion() {
         log.info("Starting full ingestion (regular + SBIR/STTR)");
         long startTime = System.currentTimeMillis();
@@ -334,20 +480,37 @@ public class IngestionService {
         long totalDuration = System.currentTimeMillis() - startTime;
         int totalNew = regularResult.newRecords() + sbirResult.newRecords();
         int totalUpdated = regularResult.updatedRecords() + sbirResult.updatedRecords();
+        int totalUnchanged = regularResult.unchangedRecords() + sbirResult.unchangedRecords();
 
-        log.info("Full ingestion completed in {}ms. Total New: {}, Total Updated: {}",
-                totalDuration, totalNew, totalUpdated);
+        log.info("Full ingestion completed in {}ms. Total New: {}, Total Updated: {}, Total Unchanged: {}",
+                totalDuration, totalNew, totalUpdated, totalUnchanged);
 
-        return new IngestionResult(totalNew, totalUpdated, totalDuration);
+        return new IngestionResult(totalNew, totalUpdated, totalUnchanged, totalDuration);
     }
 
     /**
      * Record to hold ingestion results.
+     * Unchanged records matched their stored content hash and were not rewritten.
      */
-    public record IngestionResult(int newRecords, int updatedRecords, long durationMs) {
+    public record IngestionResult(int newRecords, int updatedRecords, int unchangedRecords, long durationMs) {
+        /**
+         * Rows written per second over the whole run.
+         */
+        public double rowsPerSecond() {
+            return durationMs > 0 ? (newRecords + updatedRecords) * 1000.0 / durationMs : 0.0;
+        }
+
+        /**
+         * Whether any row was inserted or changed, i.e. whether caches and indexes are stale.
+         */
+        public boolean hasChanges() {
+            return newRecords + updatedRecords > 0;
+        }
+
         public String toMessage() {
-            return String.format("Ingestion completed in %dms. New records: %d, Updated records: %d",
-                    durationMs, newRecords, updatedRecords);
+            return String.format("Ingestion completed in %dms. New records: %d, Updated records: %d, "
+                            + "Unchanged records: %d (%.1f rows/sec)",
+                    durationMs, newRecords, updatedRecords, unchangedRecords, rowsPerSecond());
         }
     }
 }
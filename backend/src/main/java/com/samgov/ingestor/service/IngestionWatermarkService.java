@@ -0,0 +1,105 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.SamGovProperties;
+import com.samgov.ingestor.dto.PostedDateWindow;
+import com.samgov.ingestor.model.IngestionWatermark;
+import com.samgov.ingestor.repository.IngestionWatermarkRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Tracks per-scope high-water marks so scheduled ingestion only fetches the delta
+ * since the last successful run.
+ *
+ * A scope is (source, NAICS code, ptype). The next window starts at the last covered
+ * {@code postedTo} minus a small overlap; every {@code sam.gov.full-reconciliation-days}
+ * the scope falls back to the full {@code posted-within-days} window to pick up anything
+ * an incremental pass missed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IngestionWatermarkService {
+
+    public static final String SOURCE_SAM_GOV = "SAM.gov";
+
+    private final IngestionWatermarkRepository watermarkRepository;
+    private final SamGovProperties samGovProperties;
+
+    /**
+     * Determines the posted-date window to fetch for a scope.
+     *
+     * @param forceFull ignore the watermark and fetch the full look-back window
+     */
+    public PostedDateWindow nextWindow(String source, String naicsCode, String ptype, boolean forceFull) {
+        PostedDateWindow full = PostedDateWindow.lastDays(samGovProperties.getPostedWithinDays());
+        if (forceFull) {
+            return full;
+        }
+
+        Optional<IngestionWatermark> existing =
+                watermarkRepository.findBySourceAndNaicsCodeAndPtype(source, naicsCode, ptype);
+        if (existing.isEmpty()) {
+            return full;
+        }
+
+        IngestionWatermark watermark = existing.get();
+        if (watermark.getLastPostedTo() == null || isReconciliationDue(watermark)) {
+            return full;
+        }
+
+        LocalDate from = watermark.getLastPostedTo().minusDays(samGovProperties.getWatermarkOverlapDays());
+        if (!from.isAfter(full.postedFrom())) {
+            return full;
+        }
+        return new PostedDateWindow(from, full.postedTo(), false);
+    }
+
+    /**
+     * Records that a window was fetched and persisted completely.
+     * Only call this after a clean run; a failed or truncated walk must leave the watermark in place.
+     *
+     * @param latestPostedDate newest posted date seen in the window, or null if none
+     * @param records          number of records fetched in the window
+     */
+    @Transactional
+    public void advance(String source, String naicsCode, String ptype, PostedDateWindow window,
+                        LocalDate latestPostedDate, int records) {
+        IngestionWatermark watermark = watermarkRepository
+                .findBySourceAndNaicsCodeAndPtype(source, naicsCode, ptype)
+                .orElseGet(() -> IngestionWatermark.builder()
+                        .source(source)
+                        .naicsCode(naicsCode)
+                        .ptype(ptype)
+                        .build());
+
+        Instant now = Instant.now();
+        watermark.setLastPostedTo(window.postedTo());
+        if (latestPostedDate != null && (watermark.getLastModifiedDate() == null
+                || latestPostedDate.isAfter(watermark.getLastModifiedDate()))) {
+            watermark.setLastModifiedDate(latestPostedDate);
+        }
+        if (window.fullReconciliation()) {
+            watermark.setLastFullSyncAt(now);
+        }
+        watermark.setLastRunAt(now);
+        watermark.setLastRunRecords(records);
+        watermarkRepository.save(watermark);
+
+        log.debug("Advanced {} watermark for {}/{} to {} ({} records, full={})",
+                source, naicsCode, ptype, window.postedTo(), records, window.fullReconciliation());
+    }
+
+    private boolean isReconciliationDue(IngestionWatermark watermark) {
+        Instant lastFull = watermark.getLastFullSyncAt();
+        Duration interval = Duration.ofDays(samGovProperties.getFullReconciliationDays());
+        return lastFull == null || lastFull.plus(interval).isBefore(Instant.now());
+    }
+}
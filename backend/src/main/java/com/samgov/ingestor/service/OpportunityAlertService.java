@@ -4,6 +4,8 @@ import com.samgov.ingestor.config.TenantContext;
 import com.samgov.ingestor.exception.BadRequestException;
 import com.samgov.ingestor.exception.ForbiddenException;
 import com.samgov.ingestor.exception.ResourceNotFoundException;
+import com.samgov.ingestor.model.Alert.AlertPriority;
+import com.samgov.ingestor.model.Alert.AlertType;
 import com.samgov.ingestor.model.Opportunity;
 import com.samgov.ingestor.model.OpportunityAlert;
 import com.samgov.ingestor.model.Tenant;
@@ -11,29 +13,54 @@ import com.samgov.ingestor.model.User;
 import com.samgov.ingestor.repository.OpportunityAlertRepository;
 import com.samgov.ingestor.repository.TenantRepository;
 import com.samgov.ingestor.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Service for opportunity alerts: saved NAICS, keyword and value criteria that new
+ * opportunities are matched against.
+ * Matching uses the Elasticsearch percolator ({@link AlertPercolator}) when it is enabled and
+ * tests each alert in Java otherwise.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class OpportunityAlertService {
 
     private final OpportunityAlertRepository opportunityAlertRepository;
     private final UserRepository userRepository;
     private final TenantRepository tenantRepository;
+    private final AlertService alertService;
+    private final AlertPercolator percolator;
+
+    @Autowired
+    public OpportunityAlertService(
+            OpportunityAlertRepository opportunityAlertRepository,
+            UserRepository userRepository,
+            TenantRepository tenantRepository,
+            AlertService alertService,
+            @Autowired(required = false) AlertPercolator percolator) {
+        this.opportunityAlertRepository = opportunityAlertRepository;
+        this.userRepository = userRepository;
+        this.tenantRepository = tenantRepository;
+        this.alertService = alertService;
+        this.percolator = percolator;
+    }
 
     /**
      * Get all opportunity alerts for the current user.
@@ -90,6 +117,7 @@ public class OpportunityAlertService {
             .build();
 
         alert = opportunityAlertRepository.save(alert);
+        syncPercolator(alert);
         log.info("Created opportunity alert {} for user {}", alert.getId(), userId);
 
         return OpportunityAlertDto.fromEntity(alert);
@@ -138,6 +166,7 @@ public class OpportunityAlertService {
         }
 
         alert = opportunityAlertRepository.save(alert);
+        syncPercolator(alert);
         log.info("Updated opportunity alert {} for user {}", alert.getId(), userId);
 
         return OpportunityAlertDto.fromEntity(alert);
@@ -154,6 +183,9 @@ public class OpportunityAlertService {
             .orElseThrow(() -> new ResourceNotFoundException("Alert not found"));
 
         opportunityAlertRepository.delete(alert);
+        if (percolator != null) {
+            afterCommit(() -> percolator.unregister(alertId));
+        }
         log.info("Deleted opportunity alert {} for user {}", alertId, userId);
     }
 
@@ -169,6 +201,7 @@ public class OpportunityAlertService {
 
         alert.setEnabled(!alert.getEnabled());
         alert = opportunityAlertRepository.save(alert);
+        syncPercolator(alert);
 
         log.info("Toggled opportunity alert {} to enabled={} for user {}", alertId, alert.getEnabled(), userId);
         return OpportunityAlertDto.fromEntity(alert);
@@ -198,22 +231,87 @@ public class OpportunityAlertService {
      */
     @Transactional(readOnly = true)
     public List<AlertMatch> evaluateOpportunity(Opportunity opportunity) {
-        List<OpportunityAlert> enabledAlerts = opportunityAlertRepository.findByEnabledTrue();
-        List<AlertMatch> matches = new ArrayList<>();
+        return evaluateOpportunities(List.of(opportunity)).getOrDefault(opportunity.getId(), List.of());
+    }
 
-        for (OpportunityAlert alert : enabledAlerts) {
-            if (matchesAlert(opportunity, alert)) {
-                matches.add(new AlertMatch(
-                    alert.getUser().getId(),
-                    alert.getId(),
-                    alert.getName()
-                ));
+    /**
+     * Evaluate a batch of opportunities against all enabled alerts.
+     * With the percolator this is one Elasticsearch request for the whole batch; without it,
+     * or if Elasticsearch cannot be reached, every alert is tested against every opportunity.
+     *
+     * @return matching alerts per opportunity id; opportunities without matches are absent
+     */
+    @Transactional(readOnly = true)
+    public Map<String, List<AlertMatch>> evaluateOpportunities(List<Opportunity> opportunities) {
+        if (percolator != null) {
+            try {
+                return percolator.percolate(opportunities);
+            } catch (Exception e) {
+                log.warn("Alert percolation failed, matching {} opportunities in memory: {}",
+                    opportunities.size(), e.getMessage());
             }
         }
 
+        List<OpportunityAlert> enabledAlerts = opportunityAlertRepository.findByEnabledTrue();
+        Map<String, List<AlertMatch>> matches = new LinkedHashMap<>();
+        for (Opportunity opportunity : opportunities) {
+            for (OpportunityAlert alert : enabledAlerts) {
+                if (matchesAlert(opportunity, alert)) {
+                    matches.computeIfAbsent(opportunity.getId(), id -> new ArrayList<>()).add(new AlertMatch(
+                        alert.getUser().getId(),
+                        alert.getId(),
+                        alert.getName()
+                    ));
+                }
+            }
+        }
         return matches;
     }
 
+    /**
+     * Match newly indexed opportunities against all enabled alerts and raise one
+     * NEW_OPPORTUNITY_MATCH alert per matching opportunity alert.
+     *
+     * @return number of alerts raised
+     */
+    @Transactional
+    public int notifyNewOpportunities(List<Opportunity> opportunities) {
+        if (opportunities.isEmpty()) {
+            return 0;
+        }
+        Map<UUID, List<Opportunity>> byAlert = new LinkedHashMap<>();
+        Map<String, Opportunity> byId = new LinkedHashMap<>();
+        opportunities.forEach(opportunity -> byId.put(opportunity.getId(), opportunity));
+        evaluateOpportunities(opportunities).forEach((opportunityId, matches) -> matches.forEach(match ->
+            byAlert.computeIfAbsent(match.alertId(), id -> new ArrayList<>()).add(byId.get(opportunityId))));
+
+        Instant now = Instant.now();
+        int raised = 0;
+        for (OpportunityAlert alert : opportunityAlertRepository.findAllById(byAlert.keySet())) {
+            List<Opportunity> matched = byAlert.get(alert.getId());
+            Opportunity first = matched.get(0);
+            alertService.createAlert(new AlertService.CreateAlertRequest(
+                alert.getUser().getId(),
+                alert.getTenant() != null ? alert.getTenant().getId() : null,
+                matched.size() == 1
+                    ? "New opportunity matches " + alert.getName()
+                    : matched.size() + " new opportunities match " + alert.getName(),
+                first.getTitle(),
+                AlertType.NEW_OPPORTUNITY_MATCH,
+                AlertPriority.NORMAL,
+                "/opportunities/" + first.getId(),
+                String.join(",", matched.stream().map(Opportunity::getId).toList()),
+                matched.size(),
+                null
+            ));
+            alert.setLastCheckedAt(now);
+            alert.setLastMatchCount(matched.size());
+            raised++;
+        }
+        log.debug("Raised {} opportunity alerts for {} new opportunities", raised, opportunities.size());
+        return raised;
+    }
+
     /**
      * Check if an opportunity matches an alert's criteria.
      */
@@ -287,6 +385,29 @@ public class OpportunityAlertService {
         return null;
     }
 
+    /**
+     * Writes the alert's percolator query once the alert is committed, so a rolled-back change
+     * never reaches the index.
+     */
+    private void syncPercolator(OpportunityAlert alert) {
+        if (percolator != null) {
+            afterCommit(() -> percolator.register(alert));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private UUID requireCurrentUserId() {
         UUID userId = TenantContext.getCurrentUserId();
         if (userId == null) {
@@ -0,0 +1,152 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.EnrichmentProperties;
+import com.samgov.ingestor.config.EnrichmentProperties.Field;
+import com.samgov.ingestor.config.EnrichmentProperties.Rule;
+import com.samgov.ingestor.model.Opportunity;
+import com.samgov.ingestor.util.ContentHash;
+import com.samgov.ingestor.util.KeywordAutomaton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Derives classification fields of an opportunity from its title and description using the
+ * keyword rules in ingestion.enrichment.
+ *
+ * All keywords of all rules are compiled into one {@link KeywordAutomaton}, so each text is
+ * scanned once no matter how many rules there are. Ingestion runs call {@link #compile()}
+ * once at the start and share the result between their writer threads; rule changes take
+ * effect with the next run.
+ */
+@Component
+public class OpportunityClassifier {
+
+    private static final Logger log = LoggerFactory.getLogger(OpportunityClassifier.class);
+
+    private final EnrichmentProperties properties;
+
+    public OpportunityClassifier(EnrichmentProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Compiles the configured rules.
+     */
+    public Rules compile() {
+        Rules rules = new Rules(properties.getRules());
+        log.debug("Compiled {} enrichment rules", properties.getRules().size());
+        return rules;
+    }
+
+    /**
+     * Compiled rules; immutable and safe to share between threads.
+     */
+    public static final class Rules {
+
+        private final KeywordAutomaton automaton;
+        // Rule index per keyword id
+        private final int[] ruleOfKeyword;
+        private final Field[] fieldOfRule;
+        private final String[] valueOfRule;
+        private final String version;
+
+        Rules(List<Rule> rules) {
+            List<String> keywords = new ArrayList<>();
+            List<Integer> ruleOfKeyword = new ArrayList<>();
+            StringBuilder definition = new StringBuilder();
+            fieldOfRule = new Field[rules.size()];
+            valueOfRule = new String[rules.size()];
+            for (int index = 0; index < rules.size(); index++) {
+                Rule rule = rules.get(index);
+                fieldOfRule[index] = rule.getField();
+                valueOfRule[index] = rule.getValue();
+                definition.append(rule.getField()).append('=').append(rule.getValue()).append(':');
+                for (String keyword : rule.getKeywords()) {
+                    keywords.add(keyword);
+                    ruleOfKeyword.add(index);
+                    definition.append(keyword).append('\u001F');
+                }
+                definition.append('\n');
+            }
+            this.automaton = KeywordAutomaton.compile(keywords);
+            this.ruleOfKeyword = ruleOfKeyword.stream().mapToInt(Integer::intValue).toArray();
+            this.version = ContentHash.sha256(definition.toString());
+        }
+
+        /**
+         * Fingerprint of the rule set; it changes whenever a rule, value or keyword does.
+         * Mixed into the content hash of classified rows so a rule change reclassifies them
+         * on the next run instead of leaving them unchanged.
+         */
+        public String version() {
+            return version;
+        }
+
+        /**
+         * Classifies one opportunity; either text may be null.
+         */
+        public Classification classify(String title, String description) {
+            Matches matches = new Matches();
+            automaton.scan(title, keyword -> matches.add(ruleOfKeyword[keyword]));
+            automaton.scan(description, keyword -> matches.add(ruleOfKeyword[keyword]));
+            return new Classification(matches.sbir, matches.sttr, value(matches.sbirPhaseRule), matches.dod,
+                    matches.itar, matches.cui, value(matches.clearanceRule));
+        }
+
+        private String value(int rule) {
+            return rule < Integer.MAX_VALUE ? valueOfRule[rule] : null;
+        }
+
+        /**
+         * What one record's texts matched; valued fields keep the earliest matching rule.
+         */
+        private final class Matches {
+            private boolean sbir;
+            private boolean sttr;
+            private boolean dod;
+            private boolean itar;
+            private boolean cui;
+            private int sbirPhaseRule = Integer.MAX_VALUE;
+            private int clearanceRule = Integer.MAX_VALUE;
+
+            private void add(int rule) {
+                switch (fieldOfRule[rule]) {
+                    case SBIR -> sbir = true;
+                    case STTR -> sttr = true;
+                    case DOD -> dod = true;
+                    case ITAR -> itar = true;
+                    case CUI -> cui = true;
+                    case SBIR_PHASE -> sbirPhaseRule = Math.min(sbirPhaseRule, rule);
+                    case CLEARANCE -> clearanceRule = Math.min(clearanceRule, rule);
+                }
+            }
+        }
+    }
+
+    /**
+     * Classification fields derived for one opportunity.
+     */
+    public record Classification(
+            boolean sbir,
+            boolean sttr,
+            String sbirPhase,
+            boolean dod,
+            boolean itarControlled,
+            boolean cuiRequired,
+            String clearanceRequired
+    ) {
+        public void applyTo(Opportunity opportunity) {
+            opportunity.setIsSbir(sbir);
+            opportunity.setIsSttr(sttr);
+            opportunity.setSbirPhase(sbirPhase);
+            opportunity.setIsDod(dod);
+            opportunity.setItarControlled(itarControlled);
+            opportunity.setCuiRequired(cuiRequired);
+            opportunity.setClearanceRequired(clearanceRequired);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.SearchCacheProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the opportunity data, advanced whenever opportunities are written.
+ *
+ * Caches of anything derived from opportunities put the current generation in their keys
+ * (see {@link CacheService#generateSearchCacheKey}), so advancing it makes every older entry
+ * unreachable at once; those entries then age out on their own instead of being cleared.
+ *
+ * The generation is a database sequence, so a write on one instance retires what every other
+ * instance cached. Sequence increments are not rolled back, so it only ever moves forward; it
+ * starts from the clock so a fresh database never reuses a generation that a shared cache may
+ * still hold entries for. Each instance re-reads it at most every
+ * {@code search.cache.generation-poll-ms} and sees its own advances immediately.
+ */
+@Component
+public class OpportunityDataGeneration {
+
+    static final String SEQUENCE = "opportunity_data_generation";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long pollNanos;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long readAt;
+
+    public OpportunityDataGeneration(JdbcTemplate jdbcTemplate, SearchCacheProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pollNanos = TimeUnit.MILLISECONDS.toNanos(properties.getGenerationPollMs());
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE
+                + " START WITH " + System.currentTimeMillis());
+        read();
+    }
+
+    public long current() {
+        if (System.nanoTime() - readAt >= pollNanos) {
+            return read();
+        }
+        return generation.get();
+    }
+
+    /**
+     * Advances the generation now and, inside a transaction, again once it commits. The second
+     * step retires anything a concurrent reader cached from the data as it was before the
+     * commit but under the generation the first step started.
+     */
+    public void advance() {
+        next();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    next();
+                }
+            });
+        }
+    }
+
+    private long read() {
+        Long value = jdbcTemplate.queryForObject("SELECT last_value FROM " + SEQUENCE, Long.class);
+        readAt = System.nanoTime();
+        return generation.accumulateAndGet(value, Math::max);
+    }
+
+    private void next() {
+        Long value = jdbcTemplate.queryForObject("SELECT nextval('" + SEQUENCE + "')", Long.class);
+        generation.accumulateAndGet(value, Math::max);
+    }
+}
@@ -0,0 +1,463 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.FacetIndexProperties;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory attribute index behind facet counts, filter options and dashboard statistics, so
+ * counting never scans the opportunities table.
+ *
+ * Every opportunity gets a dense ordinal, and every value of an indexed attribute (status,
+ * NAICS code, agency, set-aside, type, state, FIPS state, SBIR/STTR program, SBIR phase and
+ * the week its response is due) keeps a compressed {@link RoaringBitmap} of the ordinals that
+ * carry it. A count for any combination of filters is the cardinality of an intersection: the
+ * values selected within one attribute are OR-ed, the attributes are AND-ed.
+ *
+ * Deadlines are bucketed by week (starting Monday); a date range takes the weeks it covers
+ * whole from their bitmaps and checks the deadline of each opportunity in the two weeks it
+ * cuts through.
+ *
+ * The index starts from a full load and then follows ingestion deltas: every
+ * search.facets.refresh-interval-ms it reads opportunities whose updated_at moved past its
+ * watermark (keyset pages on updated_at and id) and moves their ordinals between bitmaps.
+ * Deleted rows leave no delta, so the index is also rebuilt on search.facets.rebuild-cron;
+ * counts keep coming from the old index until the new one is swapped in.
+ */
+@Service
+@ConditionalOnProperty(name = "search.facets.enabled", havingValue = "true", matchIfMissing = true)
+public class OpportunityFacetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(OpportunityFacetIndex.class);
+
+    private static final String CHANGES_SQL = """
+            SELECT id, status, naics_code, agency, set_aside_type, type, pop_state, fips_state_code,
+                   is_sbir, is_sttr, sbir_phase, response_deadline, updated_at
+            FROM opportunities
+            WHERE (updated_at, id) > (?, ?)
+            ORDER BY updated_at, id
+            LIMIT ?
+            """;
+
+    // Deltas are re-read this far behind the watermark to catch rows whose transaction
+    // committed after one with a later updated_at; rows already applied are skipped
+    private static final Duration COMMIT_LAG = Duration.ofSeconds(30);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FacetIndexProperties properties;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Null until the first load completes; guarded by lock
+    private Snapshot snapshot;
+
+    public OpportunityFacetIndex(JdbcTemplate jdbcTemplate, FacetIndexProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Indexed attributes. PROGRAM holds "SBIR" and/or "STTR"; DEADLINE_WEEK holds the ISO date
+     * of the Monday of the response deadline's week.
+     */
+    public enum Dimension {
+        STATUS,
+        NAICS,
+        AGENCY,
+        SET_ASIDE,
+        TYPE,
+        STATE,
+        FIPS_STATE,
+        PROGRAM,
+        SBIR_PHASE,
+        DEADLINE_WEEK
+    }
+
+    /**
+     * Indexed attributes of one opportunity row.
+     */
+    record Change(
+            String id,
+            String status,
+            String naicsCode,
+            String agency,
+            String setAsideType,
+            String type,
+            String state,
+            String fipsStateCode,
+            boolean sbir,
+            boolean sttr,
+            String sbirPhase,
+            LocalDate responseDeadline,
+            Instant updatedAt
+    ) {}
+
+    /**
+     * Whether the first load has completed; until then callers count in the database.
+     */
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return snapshot != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of opportunities matching the filters and, if given, due between the two dates
+     * (inclusive; either may be null).
+     *
+     * @param filters selected values per attribute; an opportunity matches an attribute if it
+     *                carries any of its values, and attributes without values do not filter
+     */
+    public long count(Map<Dimension, ? extends Collection<String>> filters,
+                      LocalDate deadlineFrom, LocalDate deadlineTo) {
+        lock.readLock().lock();
+        try {
+            if (snapshot == null) {
+                return 0;
+            }
+            RoaringBitmap matching = snapshot.matching(filters, null);
+            if (deadlineFrom != null || deadlineTo != null) {
+                matching.and(snapshot.dueBetween(deadlineFrom, deadlineTo));
+            }
+            return matching.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of opportunities per value of an attribute, most first, among those matching the
+     * filters of every other attribute and the deadline range; the attribute's own selection is
+     * ignored so that the other values stay selectable. Values no matching opportunity carries
+     * are left out.
+     */
+    public Map<String, Long> counts(Dimension dimension, Map<Dimension, ? extends Collection<String>> filters,
+                                    LocalDate deadlineFrom, LocalDate deadlineTo) {
+        lock.readLock().lock();
+        try {
+            if (snapshot == null) {
+                return Map.of();
+            }
+            RoaringBitmap matching = snapshot.matching(filters, dimension);
+            if (deadlineFrom != null || deadlineTo != null) {
+                matching.and(snapshot.dueBetween(deadlineFrom, deadlineTo));
+            }
+            List<Map.Entry<String, Long>> counts = new ArrayList<>();
+            snapshot.postings.get(dimension).forEach((value, ordinals) -> {
+                long count = RoaringBitmap.andCardinality(matching, ordinals);
+                if (count > 0) {
+                    counts.add(Map.entry(value, count));
+                }
+            });
+            counts.sort(Map.Entry.<String, Long>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Long> sorted = new LinkedHashMap<>();
+            counts.forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+            return sorted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every value of an attribute that at least one opportunity carries, in natural order.
+     */
+    public List<String> values(Dimension dimension) {
+        lock.readLock().lock();
+        try {
+            if (snapshot == null) {
+                return List.of();
+            }
+            return snapshot.postings.get(dimension).keySet().stream().sorted().toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies opportunities changed since the last refresh, or loads everything the first time.
+     *
+     * @return number of opportunities whose attributes changed
+     */
+    @Scheduled(fixedDelayString = "${search.facets.refresh-interval-ms:5000}")
+    public synchronized int refresh() {
+        Snapshot current;
+        lock.readLock().lock();
+        try {
+            current = snapshot;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (current == null) {
+            return rebuild();
+        }
+        int applied = load(current, true);
+        if (applied > 0) {
+            log.debug("Applied {} opportunity changes to the facet index", applied);
+        }
+        return applied;
+    }
+
+    /**
+     * Loads a fresh index from the database and swaps it in.
+     *
+     * @return number of opportunities indexed
+     */
+    @Scheduled(cron = "${search.facets.rebuild-cron:0 45 3 * * *}")
+    public synchronized int rebuild() {
+        long start = System.currentTimeMillis();
+        Snapshot fresh = new Snapshot();
+        load(fresh, false);
+        fresh.optimize();
+        lock.writeLock().lock();
+        try {
+            snapshot = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built facet index: {} opportunities, {} bitmaps in {}ms",
+                fresh.rows.size(), fresh.postings.values().stream().mapToInt(Map::size).sum(),
+                System.currentTimeMillis() - start);
+        return fresh.rows.size();
+    }
+
+    /**
+     * Reads rows past the snapshot's watermark in keyset pages and applies them; a live
+     * snapshot is only locked while a page is applied, never during a query.
+     */
+    private int load(Snapshot target, boolean live) {
+        Instant after = live ? target.watermark.minus(COMMIT_LAG) : target.watermark;
+        String afterId = "";
+        int applied = 0;
+        while (true) {
+            List<Change> page = jdbcTemplate.query(CHANGES_SQL, OpportunityFacetIndex::mapChange,
+                    Timestamp.from(after), afterId, properties.getBatchSize());
+            if (page.isEmpty()) {
+                return applied;
+            }
+            if (live) {
+                lock.writeLock().lock();
+            }
+            try {
+                applied += target.apply(page);
+            } finally {
+                if (live) {
+                    lock.writeLock().unlock();
+                }
+            }
+            Change last = page.get(page.size() - 1);
+            after = last.updatedAt();
+            afterId = last.id();
+            if (page.size() < properties.getBatchSize()) {
+                return applied;
+            }
+        }
+    }
+
+    private static Change mapChange(ResultSet rs, int row) throws SQLException {
+        Date deadline = rs.getDate("response_deadline");
+        return new Change(
+                rs.getString("id"),
+                rs.getString("status"),
+                rs.getString("naics_code"),
+                rs.getString("agency"),
+                rs.getString("set_aside_type"),
+                rs.getString("type"),
+                rs.getString("pop_state"),
+                rs.getString("fips_state_code"),
+                rs.getBoolean("is_sbir"),
+                rs.getBoolean("is_sttr"),
+                rs.getString("sbir_phase"),
+                deadline != null ? deadline.toLocalDate() : null,
+                rs.getTimestamp("updated_at").toInstant());
+    }
+
+    /**
+     * Applies rows to a standalone index, bypassing the database (benchmarks).
+     */
+    static OpportunityFacetIndex of(List<Change> rows, FacetIndexProperties properties) {
+        OpportunityFacetIndex index = new OpportunityFacetIndex(null, properties);
+        Snapshot built = new Snapshot();
+        built.apply(rows);
+        built.optimize();
+        index.snapshot = built;
+        return index;
+    }
+
+    /**
+     * Monday of the week a date falls in; the key of its DEADLINE_WEEK bitmap.
+     */
+    static LocalDate weekOf(LocalDate date) {
+        return date.with(DayOfWeek.MONDAY);
+    }
+
+    /**
+     * Attribute values of one opportunity, indexed by dimension, so an update can take its
+     * ordinal back out of the bitmaps it was in.
+     */
+    private record Row(String[][] values, LocalDate responseDeadline, Instant updatedAt) {
+
+        private static Row of(Change change) {
+            String[][] values = new String[Dimension.values().length][];
+            values[Dimension.STATUS.ordinal()] = present(change.status());
+            values[Dimension.NAICS.ordinal()] = present(change.naicsCode());
+            values[Dimension.AGENCY.ordinal()] = present(change.agency());
+            values[Dimension.SET_ASIDE.ordinal()] = present(change.setAsideType());
+            values[Dimension.TYPE.ordinal()] = present(change.type());
+            values[Dimension.STATE.ordinal()] = present(change.state());
+            values[Dimension.FIPS_STATE.ordinal()] = present(change.fipsStateCode());
+            values[Dimension.PROGRAM.ordinal()] = change.sbir() && change.sttr()
+                    ? new String[] {"SBIR", "STTR"}
+                    : present(change.sbir() ? "SBIR" : change.sttr() ? "STTR" : null);
+            values[Dimension.SBIR_PHASE.ordinal()] = present(change.sbirPhase());
+            values[Dimension.DEADLINE_WEEK.ordinal()] = present(change.responseDeadline() != null
+                    ? weekOf(change.responseDeadline()).toString()
+                    : null);
+            return new Row(values, change.responseDeadline(), change.updatedAt());
+        }
+
+        private static String[] present(String value) {
+            return value == null || value.isBlank() ? new String[0] : new String[] {value};
+        }
+    }
+
+    /**
+     * One generation of the index.
+     */
+    private static final class Snapshot {
+
+        private final Map<Dimension, Map<String, RoaringBitmap>> postings = new EnumMap<>(Dimension.class);
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<Row> rows = new ArrayList<>();
+        private final RoaringBitmap all = new RoaringBitmap();
+        private Instant watermark = Instant.EPOCH;
+
+        private Snapshot() {
+            for (Dimension dimension : Dimension.values()) {
+                postings.put(dimension, new HashMap<>());
+            }
+        }
+
+        private int apply(List<Change> changes) {
+            int applied = 0;
+            for (Change change : changes) {
+                if (apply(change)) {
+                    applied++;
+                }
+                if (change.updatedAt().isAfter(watermark)) {
+                    watermark = change.updatedAt();
+                }
+            }
+            return applied;
+        }
+
+        private boolean apply(Change change) {
+            Integer ordinal = ordinals.get(change.id());
+            if (ordinal == null) {
+                ordinal = rows.size();
+                ordinals.put(change.id(), ordinal);
+                rows.add(null);
+                all.add(ordinal);
+            }
+            Row previous = rows.get(ordinal);
+            if (previous != null && previous.updatedAt().equals(change.updatedAt())) {
+                return false;
+            }
+            if (previous != null) {
+                for (Dimension dimension : Dimension.values()) {
+                    Map<String, RoaringBitmap> values = postings.get(dimension);
+                    for (String value : previous.values()[dimension.ordinal()]) {
+                        RoaringBitmap bitmap = values.get(value);
+                        bitmap.remove(ordinal);
+                        if (bitmap.isEmpty()) {
+                            values.remove(value);
+                        }
+                    }
+                }
+            }
+            Row row = Row.of(change);
+            for (Dimension dimension : Dimension.values()) {
+                Map<String, RoaringBitmap> values = postings.get(dimension);
+                for (String value : row.values()[dimension.ordinal()]) {
+                    values.computeIfAbsent(value, v -> new RoaringBitmap()).add(ordinal);
+                }
+            }
+            rows.set(ordinal, row);
+            return true;
+        }
+
+        private void optimize() {
+            all.runOptimize();
+            postings.values().forEach(values -> values.values().forEach(RoaringBitmap::runOptimize));
+        }
+
+        /**
+         * Ordinals matching every filtered attribute but the excluded one; a new bitmap the
+         * caller may modify.
+         */
+        private RoaringBitmap matching(Map<Dimension, ? extends Collection<String>> filters, Dimension except) {
+            RoaringBitmap matching = all.clone();
+            for (Map.Entry<Dimension, ? extends Collection<String>> filter : filters.entrySet()) {
+                if (filter.getKey() == except || filter.getValue() == null || filter.getValue().isEmpty()) {
+                    continue;
+                }
+                Map<String, RoaringBitmap> values = postings.get(filter.getKey());
+                matching.and(FastAggregation.or(filter.getValue().stream()
+                        .map(values::get)
+                        .filter(Objects::nonNull)
+                        .iterator()));
+            }
+            return matching;
+        }
+
+        private RoaringBitmap dueBetween(LocalDate from, LocalDate to) {
+            RoaringBitmap due = new RoaringBitmap();
+            List<RoaringBitmap> wholeWeeks = new ArrayList<>();
+            for (Map.Entry<String, RoaringBitmap> week : postings.get(Dimension.DEADLINE_WEEK).entrySet()) {
+                LocalDate monday = LocalDate.parse(week.getKey());
+                LocalDate sunday = monday.plusDays(6);
+                if ((from != null && sunday.isBefore(from)) || (to != null && monday.isAfter(to))) {
+                    continue;
+                }
+                if ((from == null || !monday.isBefore(from)) && (to == null || !sunday.isAfter(to))) {
+                    wholeWeeks.add(week.getValue());
+                    continue;
+                }
+                week.getValue().forEach((int ordinal) -> {
+                    LocalDate deadline = rows.get(ordinal).responseDeadline();
+                    if ((from == null || !deadline.isBefore(from)) && (to == null || !deadline.isAfter(to))) {
+                        due.add(ordinal);
+                    }
+                });
+            }
+            due.or(FastAggregation.or(wholeWeeks.iterator()));
+            return due;
+        }
+    }
+}
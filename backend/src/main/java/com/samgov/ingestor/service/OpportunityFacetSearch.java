@@ -0,0 +1,379 @@
+package com.samgov.ingestor.service;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.FiltersBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
+import co.elastic.clients.json.JsonData;
+import com.samgov.ingestor.dto.FacetedSearchRequest;
+import com.samgov.ingestor.dto.FacetedSearchResponse;
+import com.samgov.ingestor.dto.FacetedSearchResponse.FacetBucket;
+import com.samgov.ingestor.dto.OpportunityDto;
+import com.samgov.ingestor.elasticsearch.OpportunityDocument;
+import com.samgov.ingestor.model.Opportunity;
+import com.samgov.ingestor.model.Opportunity.OpportunityStatus;
+import com.samgov.ingestor.repository.OpportunityRepository;
+import com.samgov.ingestor.util.PageCursor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.Query.PointInTime;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Faceted opportunity search served by Elasticsearch in a single request.
+ *
+ * Text, deadline, value and active filters narrow the query; facet selections (agency, NAICS,
+ * set-aside, type) are applied as a post filter, and each facet's counts are computed with
+ * every selection except its own, so a user can see how many results picking another value
+ * of the same facet would add. Value bands use estimatedValueHigh; deadline buckets are
+ * relative to today.
+ *
+ * Hits are read as ids only and loaded from PostgreSQL by primary key, so results carry the
+ * same fields as every other opportunity endpoint.
+ *
+ * Only available when elasticsearch.enabled=true (default); otherwise
+ * {@link SearchEnhancementService} answers from PostgreSQL.
+ */
+@Service
+@ConditionalOnExpression("${elasticsearch.enabled:true}")
+public class OpportunityFacetSearch {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final Duration SCROLL_KEEP_ALIVE = Duration.ofMinutes(1);
+    private static final String BUCKETS = "buckets";
+
+    private static final String[] TEXT_FIELDS = {"title^3", "description^2", "agency", "naicsDescription", "office"};
+
+    // Request sort names (entity or document spelling) to sortable document fields
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "responseDeadLine", "responseDeadline",
+            "responseDeadline", "responseDeadline",
+            "postedDate", "postedDate",
+            "awardAmount", "awardAmount",
+            "estimatedValueHigh", "estimatedValueHigh",
+            "updatedAt", "updatedAt");
+
+    /**
+     * Facets counted with a terms aggregation; the selectable ones read their selection from the request.
+     */
+    private enum TermsFacet {
+        AGENCY("agency", "agency.keyword", 20, FacetedSearchRequest::getAgencies),
+        NAICS("naics", "naicsCode", 20, FacetedSearchRequest::getNaicsCodes),
+        SET_ASIDE("setAside", "setAsideType", 20, FacetedSearchRequest::getSetAsideCodes),
+        TYPE("type", "type", 20, FacetedSearchRequest::getTypes),
+        STATE("state", "placeOfPerformanceState", 60, request -> null),
+        STATUS("status", "status", 10, request -> null);
+
+        private final String key;
+        private final String field;
+        private final int size;
+        private final Function<FacetedSearchRequest, List<String>> selection;
+
+        TermsFacet(String key, String field, int size, Function<FacetedSearchRequest, List<String>> selection) {
+            this.key = key;
+            this.field = field;
+            this.size = size;
+            this.selection = selection;
+        }
+    }
+
+    /**
+     * One range bucket; bounds are inclusive from, exclusive to, and may use date math.
+     */
+    private record Band(String key, String label, String from, String to) {}
+
+    private static final List<Band> VALUE_BANDS = List.of(
+            new Band("UNDER_250K", "Under $250K", null, "250000"),
+            new Band("250K_1M", "$250K - $1M", "250000", "1000000"),
+            new Band("1M_10M", "$1M - $10M", "1000000", "10000000"),
+            new Band("10M_100M", "$10M - $100M", "10000000", "100000000"),
+            new Band("OVER_100M", "Over $100M", "100000000", null));
+
+    private static final List<Band> DEADLINE_BANDS = List.of(
+            new Band("PAST", "Past deadline", null, "now/d"),
+            new Band("NEXT_7_DAYS", "Next 7 days", "now/d", "now+7d/d"),
+            new Band("NEXT_30_DAYS", "8 - 30 days", "now+7d/d", "now+30d/d"),
+            new Band("NEXT_90_DAYS", "31 - 90 days", "now+30d/d", "now+90d/d"),
+            new Band("LATER", "More than 90 days", "now+90d/d", null));
+
+    private final ElasticsearchOperations operations;
+    private final OpportunityRepository opportunityRepository;
+
+    public OpportunityFacetSearch(ElasticsearchOperations operations, OpportunityRepository opportunityRepository) {
+        this.operations = operations;
+        this.opportunityRepository = opportunityRepository;
+    }
+
+    /**
+     * Runs the search and returns one page of results with all facets.
+     *
+     * A request carrying the previous response's nextCursor gets the page after it instead of
+     * request.page: the search resumes with search_after from the last hit's sort values. The
+     * first page's cursor holds only those values; the first request that follows it opens a
+     * point in time, carried by later cursors, so the pages after it agree with each other.
+     * First pages are rarely paged past and may be cached, so they never pin one. Facets do
+     * not change between those pages and are only computed for the first.
+     */
+    public FacetedSearchResponse search(FacetedSearchRequest request) {
+        long startTime = System.currentTimeMillis();
+        Scroll scroll = request.getCursor() != null ? Scroll.decode(request.getCursor()) : null;
+
+        Map<TermsFacet, Query> selected = new EnumMap<>(TermsFacet.class);
+        for (TermsFacet facet : TermsFacet.values()) {
+            List<String> values = facet.selection.apply(request);
+            if (values != null && !values.isEmpty()) {
+                selected.put(facet, terms(facet.field, values));
+            }
+        }
+
+        int size = request.getSize() > 0 ? request.getSize() : DEFAULT_PAGE_SIZE;
+        Pageable pageable = scroll != null
+                ? PageRequest.of(0, size, sort(request))
+                : PageRequest.of(Math.max(request.getPage(), 0), size, sort(request));
+        NativeQueryBuilder query = NativeQuery.builder()
+                .withQuery(mainQuery(request))
+                .withPageable(pageable)
+                .withTrackTotalHits(true)
+                .withSourceFilter(new FetchSourceFilter(new String[] {"id"}, null));
+        if (!selected.isEmpty()) {
+            // Post filter: narrows the hits but not the aggregations
+            query.withFilter(allOf(selected.values()));
+        }
+        String pointInTimeId = null;
+        if (scroll != null) {
+            pointInTimeId = scroll.pointInTimeId() != null
+                    ? scroll.pointInTimeId()
+                    : operations.openPointInTime(operations.getIndexCoordinatesFor(OpportunityDocument.class),
+                            SCROLL_KEEP_ALIVE);
+            query.withPointInTime(new PointInTime(pointInTimeId, SCROLL_KEEP_ALIVE))
+                    .withSearchAfter(scroll.searchAfter());
+        } else {
+            for (TermsFacet facet : TermsFacet.values()) {
+                List<Query> others = selected.entrySet().stream()
+                        .filter(entry -> entry.getKey() != facet)
+                        .map(Map.Entry::getValue)
+                        .toList();
+                query.withAggregation(facet.key, Aggregation.of(agg -> agg
+                        .filter(allOf(others))
+                        .aggregations(BUCKETS, Aggregation.of(terms -> terms
+                                .terms(t -> t.field(facet.field).size(facet.size))))));
+            }
+            query.withAggregation("value", bands("estimatedValueHigh", VALUE_BANDS, selected.values()));
+            query.withAggregation("deadline", bands("responseDeadline", DEADLINE_BANDS, selected.values()));
+        }
+
+        SearchHits<OpportunityDocument> hits = operations.search(query.build(), OpportunityDocument.class);
+
+        Map<String, Aggregate> aggregates = new LinkedHashMap<>();
+        if (hits.getAggregations() instanceof ElasticsearchAggregations aggregations) {
+            aggregations.aggregationsAsMap().forEach((name, aggregation) ->
+                    aggregates.put(name, aggregation.aggregation().getAggregate().filter().aggregations().get(BUCKETS)));
+        }
+        Map<String, List<FacetBucket>> facets = new LinkedHashMap<>();
+        if (scroll == null) {
+            for (TermsFacet facet : TermsFacet.values()) {
+                facets.put(facet.key, termsBuckets(aggregates.get(facet.key)));
+            }
+            facets.put("value", bandBuckets(aggregates.get("value"), VALUE_BANDS));
+            facets.put("deadline", bandBuckets(aggregates.get("deadline"), DEADLINE_BANDS));
+        }
+
+        List<SearchHit<OpportunityDocument>> page = hits.getSearchHits();
+        List<String> ids = page.stream().map(SearchHit::getId).toList();
+        Map<String, Opportunity> rows = opportunityRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Opportunity::getId, Function.identity()));
+        List<OpportunityDto> opportunities = ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .map(OpportunityDto::fromEntity)
+                .toList();
+
+        long seen = (scroll != null ? scroll.seen() : pageable.getOffset()) + page.size();
+        if (pointInTimeId != null) {
+            pointInTimeId = Objects.requireNonNullElse(hits.getPointInTimeId(), pointInTimeId);
+        }
+        String nextCursor = null;
+        if (!page.isEmpty() && seen < hits.getTotalHits()) {
+            nextCursor = new Scroll(pointInTimeId, page.get(page.size() - 1).getSortValues(), seen).encode();
+        } else if (pointInTimeId != null) {
+            operations.closePointInTime(pointInTimeId);
+        }
+
+        return FacetedSearchResponse.builder()
+                .opportunities(new PageImpl<>(opportunities, scroll != null
+                        ? PageRequest.of((int) (scroll.seen() / size), size, pageable.getSort())
+                        : pageable, hits.getTotalHits()))
+                .facets(facets)
+                .totalCount(hits.getTotalHits())
+                .nextCursor(nextCursor)
+                .queryTimeMs(System.currentTimeMillis() - startTime)
+                .build();
+    }
+
+    /**
+     * Text match plus the filters that are not facets.
+     */
+    private static Query mainQuery(FacetedSearchRequest request) {
+        List<Query> filters = new ArrayList<>();
+        if (request.getResponseDateFrom() != null || request.getResponseDateTo() != null) {
+            filters.add(range("responseDeadline",
+                    request.getResponseDateFrom() != null ? request.getResponseDateFrom().toString() : null,
+                    request.getResponseDateTo() != null ? request.getResponseDateTo().plusDays(1).toString() : null));
+        }
+        if (request.getValueMin() != null || request.getValueMax() != null) {
+            Query value = Query.of(q -> q.range(r -> {
+                r.field("estimatedValueHigh");
+                if (request.getValueMin() != null) {
+                    r.gte(JsonData.of(request.getValueMin()));
+                }
+                if (request.getValueMax() != null) {
+                    r.lte(JsonData.of(request.getValueMax()));
+                }
+                return r;
+            }));
+            filters.add(value);
+        }
+        Query active = Query.of(q -> q.term(t -> t.field("status").value(OpportunityStatus.ACTIVE.name())));
+
+        String text = request.getQuery();
+        return Query.of(q -> q.bool(b -> {
+            if (text != null && !text.isBlank()) {
+                b.must(m -> m.multiMatch(mm -> mm
+                        .query(text)
+                        .fields(List.of(TEXT_FIELDS))
+                        .type(TextQueryType.BestFields)
+                        .fuzziness("AUTO")));
+            }
+            b.filter(filters);
+            if (Boolean.TRUE.equals(request.getActive())) {
+                b.filter(active);
+            } else if (Boolean.FALSE.equals(request.getActive())) {
+                b.mustNot(active);
+            }
+            return b;
+        }));
+    }
+
+    /**
+     * Relevance when there is text and no explicit sort, otherwise the requested field
+     * (default: response deadline ascending); ties are broken by id so search_after resumes
+     * exactly where a page ended.
+     */
+    private static Sort sort(FacetedSearchRequest request) {
+        boolean hasText = request.getQuery() != null && !request.getQuery().isBlank();
+        if ((request.getSortBy() == null && hasText) || "relevance".equalsIgnoreCase(request.getSortBy())) {
+            return Sort.by(Sort.Direction.DESC, "_score").and(Sort.by("id"));
+        }
+        String field = SORT_FIELDS.getOrDefault(request.getSortBy() != null ? request.getSortBy() : "",
+                "responseDeadline");
+        return Sort.by("desc".equalsIgnoreCase(request.getSortOrder()) ? Sort.Direction.DESC : Sort.Direction.ASC,
+                field).and(Sort.by("id"));
+    }
+
+    private static Aggregation bands(String field, List<Band> bands, Iterable<Query> selected) {
+        Map<String, Query> keyed = new LinkedHashMap<>();
+        for (Band band : bands) {
+            keyed.put(band.key(), range(field, band.from(), band.to()));
+        }
+        return Aggregation.of(agg -> agg
+                .filter(allOf(selected))
+                .aggregations(BUCKETS, Aggregation.of(filters -> filters
+                        .filters(f -> f.filters(buckets -> buckets.keyed(keyed))))));
+    }
+
+    /**
+     * Where a cursor resumes: the point in time (null after the first page), the last hit's
+     * sort values, and how many hits the pages so far returned.
+     */
+    private record Scroll(String pointInTimeId, List<Object> searchAfter, long seen) {
+
+        String encode() {
+            return PageCursor.encode(Arrays.asList(pointInTimeId, searchAfter, seen));
+        }
+
+        @SuppressWarnings("unchecked")
+        static Scroll decode(String cursor) {
+            List<Object> values = PageCursor.decode(cursor, 3);
+            if ((values.get(0) != null && !(values.get(0) instanceof String))
+                    || !(values.get(1) instanceof List<?> searchAfter)
+                    || !(values.get(2) instanceof Number seen)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new Scroll((String) values.get(0), (List<Object>) searchAfter, seen.longValue());
+        }
+    }
+
+    private static List<FacetBucket> termsBuckets(Aggregate aggregate) {
+        if (aggregate == null || !aggregate.isSterms()) {
+            return List.of();
+        }
+        List<FacetBucket> buckets = new ArrayList<>();
+        for (StringTermsBucket bucket : aggregate.sterms().buckets().array()) {
+            String key = bucket.key().stringValue();
+            buckets.add(new FacetBucket(key, key, bucket.docCount()));
+        }
+        return buckets;
+    }
+
+    private static List<FacetBucket> bandBuckets(Aggregate aggregate, List<Band> bands) {
+        Map<String, FiltersBucket> counts = aggregate != null && aggregate.isFilters() && aggregate.filters().buckets().isKeyed()
+                ? aggregate.filters().buckets().keyed()
+                : Map.of();
+        List<FacetBucket> buckets = new ArrayList<>(bands.size());
+        for (Band band : bands) {
+            FiltersBucket bucket = counts.get(band.key());
+            buckets.add(new FacetBucket(band.key(), band.label(), bucket != null ? bucket.docCount() : 0));
+        }
+        return buckets;
+    }
+
+    private static Query terms(String field, List<String> values) {
+        List<FieldValue> fieldValues = values.stream().map(FieldValue::of).toList();
+        return Query.of(q -> q.terms(t -> t.field(field).terms(v -> v.value(fieldValues))));
+    }
+
+    private static Query range(String field, String from, String to) {
+        return Query.of(q -> q.range(r -> {
+            r.field(field);
+            if (from != null) {
+                r.gte(JsonData.of(from));
+            }
+            if (to != null) {
+                r.lt(JsonData.of(to));
+            }
+            return r;
+        }));
+    }
+
+    private static Query allOf(Iterable<Query> filters) {
+        List<Query> all = new ArrayList<>();
+        filters.forEach(all::add);
+        return all.isEmpty()
+                ? Query.of(q -> q.matchAll(m -> m))
+                : Query.of(q -> q.bool(b -> b.filter(all)));
+    }
+}
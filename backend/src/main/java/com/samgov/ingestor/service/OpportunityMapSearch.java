@@ -0,0 +1,112 @@
+package com.samgov.ingestor.service;
+
+import co.elastic.clients.elasticsearch._types.LatLonGeoLocation;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.GeoTileGridBucket;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.samgov.ingestor.config.OpportunityMapProperties;
+import com.samgov.ingestor.dto.OpportunityMapResponse;
+import com.samgov.ingestor.dto.OpportunityMapResponse.Cluster;
+import com.samgov.ingestor.dto.OpportunityMapResponse.Point;
+import com.samgov.ingestor.elasticsearch.OpportunityDocument;
+import com.samgov.ingestor.model.Opportunity.OpportunityStatus;
+import com.samgov.ingestor.service.OpportunityMapService.Viewport;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clusters the opportunity map in Elasticsearch: active opportunities inside the viewport are
+ * counted per map tile with a geotile_grid aggregation on the document's geo_point location,
+ * and a geo_centroid of each tile places its cluster.
+ *
+ * From search.map.points-zoom on, the same request also fetches up to search.map.max-points
+ * hits with only the fields a marker needs; they are returned instead of the clusters when they
+ * are all the viewport holds.
+ */
+@Service
+@ConditionalOnExpression("${elasticsearch.enabled:true}")
+public class OpportunityMapSearch {
+
+    private static final String LOCATION = "location";
+    private static final String TILES = "tiles";
+    private static final String CENTROID = "centroid";
+    private static final String[] POINT_FIELDS = {"id", "title", "agency", "responseDeadline", LOCATION};
+
+    private final ElasticsearchOperations operations;
+    private final OpportunityMapProperties properties;
+
+    public OpportunityMapSearch(ElasticsearchOperations operations, OpportunityMapProperties properties) {
+        this.operations = operations;
+        this.properties = properties;
+    }
+
+    public OpportunityMapResponse search(Viewport viewport, int zoom) {
+        int clusterZoom = viewport.clusterZoom(zoom, properties.getClusterPrecision(), properties.getMaxCells());
+        boolean pointsZoom = zoom >= properties.getPointsZoom();
+
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(inViewport(viewport))
+                .withTrackTotalHits(true)
+                // Below points zoom no hit is used, but a page cannot be empty
+                .withPageable(PageRequest.of(0, pointsZoom ? properties.getMaxPoints() : 1))
+                .withSourceFilter(new FetchSourceFilter(POINT_FIELDS, null))
+                .withAggregation(TILES, Aggregation.of(agg -> agg
+                        .geotileGrid(grid -> grid.field(LOCATION).precision(clusterZoom).size(properties.getMaxCells()))
+                        .aggregations(CENTROID, Aggregation.of(centroid -> centroid
+                                .geoCentroid(c -> c.field(LOCATION))))))
+                .build();
+
+        SearchHits<OpportunityDocument> hits = operations.search(query, OpportunityDocument.class);
+
+        if (pointsZoom && hits.getTotalHits() <= properties.getMaxPoints()) {
+            List<Point> points = new ArrayList<>();
+            for (SearchHit<OpportunityDocument> hit : hits.getSearchHits()) {
+                OpportunityDocument document = hit.getContent();
+                GeoPoint location = document.getLocation();
+                if (location != null) {
+                    points.add(new Point(hit.getId(), document.getTitle(), document.getAgency(),
+                            document.getResponseDeadline(), location.getLat(), location.getLon()));
+                }
+            }
+            return OpportunityMapResponse.ofPoints(zoom, points);
+        }
+
+        List<Cluster> clusters = new ArrayList<>();
+        if (hits.getAggregations() instanceof ElasticsearchAggregations aggregations
+                && aggregations.aggregationsAsMap().containsKey(TILES)) {
+            Aggregate tiles = aggregations.aggregationsAsMap().get(TILES).aggregation().getAggregate();
+            for (GeoTileGridBucket bucket : tiles.geotileGrid().buckets().array()) {
+                Aggregate centroid = bucket.aggregations().get(CENTROID);
+                if (centroid == null || centroid.geoCentroid().location() == null) {
+                    continue;
+                }
+                LatLonGeoLocation center = centroid.geoCentroid().location().latlon();
+                clusters.add(new Cluster(bucket.key(), center.lat(), center.lon(), bucket.docCount()));
+            }
+        }
+        return OpportunityMapResponse.ofClusters(zoom, hits.getTotalHits(), clusters);
+    }
+
+    private static Query inViewport(Viewport viewport) {
+        return Query.of(q -> q.bool(b -> b
+                .filter(f -> f.term(t -> t.field("status").value(OpportunityStatus.ACTIVE.name())))
+                .filter(f -> f.geoBoundingBox(box -> box.field(LOCATION).boundingBox(bounds -> bounds
+                        .tlbr(corners -> corners
+                                .topLeft(corner -> corner.latlon(point -> point
+                                        .lat(viewport.maxLatitude()).lon(viewport.minLongitude())))
+                                .bottomRight(corner -> corner.latlon(point -> point
+                                        .lat(viewport.minLatitude()).lon(viewport.maxLongitude())))))))));
+    }
+}
@@ -0,0 +1,87 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.dto.OpportunityMapResponse;
+import com.samgov.ingestor.util.GeoTiles;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Clustered map of active geocoded opportunities.
+ *
+ * A viewport is answered with per-tile counts, so the map never has to receive every
+ * opportunity; from search.map.points-zoom on, a viewport holding few enough opportunities
+ * gets them as lightweight points instead. Elasticsearch clusters them with a geotile_grid
+ * aggregation ({@link OpportunityMapSearch}); when elasticsearch.enabled=false they come from
+ * the in-memory {@link GeoTileIndex}.
+ */
+@Service
+public class OpportunityMapService {
+
+    private final OpportunityMapSearch mapSearch;
+    private final GeoTileIndex tileIndex;
+
+    @Autowired
+    public OpportunityMapService(
+            @Autowired(required = false) OpportunityMapSearch mapSearch,
+            @Autowired(required = false) GeoTileIndex tileIndex) {
+        this.mapSearch = mapSearch;
+        this.tileIndex = tileIndex;
+    }
+
+    /**
+     * Corners of the visible map. Longitudes outside -180..180, which map clients report once
+     * the map is panned past the antimeridian, are clamped.
+     */
+    public record Viewport(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+
+        /**
+         * Zoom of the tiles a map at this zoom is clustered into: precision levels finer than
+         * the map, then coarser again until the viewport spans at most maxCells tiles.
+         */
+        public int clusterZoom(int zoom, int precision, int maxCells) {
+            int clusterZoom = Math.min(zoom + precision, GeoTiles.MAX_ZOOM);
+            while (clusterZoom > 0 && cells(clusterZoom) > maxCells) {
+                clusterZoom--;
+            }
+            return clusterZoom;
+        }
+
+        private long cells(int zoom) {
+            long columns = GeoTiles.x(maxLongitude, zoom) - GeoTiles.x(minLongitude, zoom) + 1L;
+            long rows = GeoTiles.y(minLatitude, zoom) - GeoTiles.y(maxLatitude, zoom) + 1L;
+            return columns * rows;
+        }
+
+        public boolean contains(double latitude, double longitude) {
+            return latitude >= minLatitude && latitude <= maxLatitude
+                    && longitude >= minLongitude && longitude <= maxLongitude;
+        }
+    }
+
+    /**
+     * Clusters, or points when zoomed in far enough, of the opportunities in a viewport.
+     *
+     * @throws IllegalArgumentException if the corners are not numbers, a minimum exceeds its
+     *                                  maximum, or the zoom is outside 0..24
+     */
+    public OpportunityMapResponse getMap(double minLatitude, double minLongitude,
+                                         double maxLatitude, double maxLongitude, int zoom) {
+        if (Double.isNaN(minLatitude) || Double.isNaN(minLongitude)
+                || Double.isNaN(maxLatitude) || Double.isNaN(maxLongitude)) {
+            throw new IllegalArgumentException("Viewport corners must be numbers");
+        }
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            throw new IllegalArgumentException("Viewport minimum must not exceed its maximum");
+        }
+        if (zoom < 0 || zoom > GeoTiles.MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + GeoTiles.MAX_ZOOM);
+        }
+        Viewport viewport = new Viewport(
+                clamp(minLatitude, 90), clamp(minLongitude, 180), clamp(maxLatitude, 90), clamp(maxLongitude, 180));
+        return mapSearch != null ? mapSearch.search(viewport, zoom) : tileIndex.query(viewport, zoom);
+    }
+
+    private static double clamp(double value, double limit) {
+        return Math.max(-limit, Math.min(limit, value));
+    }
+}
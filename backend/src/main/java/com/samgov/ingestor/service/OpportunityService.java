@@ -2,13 +2,19 @@ package com.samgov.ingestor.service;
 
 import com.samgov.ingestor.config.CacheConfig;
 import com.samgov.ingestor.config.TenantContext;
+import com.samgov.ingestor.dto.CursorPaginatedResponse;
 import com.samgov.ingestor.dto.OpportunityDto;
 import com.samgov.ingestor.model.Opportunity;
 import com.samgov.ingestor.model.Opportunity.OpportunityStatus;
+import com.samgov.ingestor.model.OpportunityText;
 import com.samgov.ingestor.repository.OpportunityRepository;
-import lombok.RequiredArgsConstructor;
+import com.samgov.ingestor.service.OpportunityFacetIndex.Dimension;
+import com.samgov.ingestor.util.PageCursor;
+import com.samgov.ingestor.util.SearchTerms;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -19,25 +25,57 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class OpportunityService {
 
+    // Sort fields the keyset search accepts
+    private static final Map<String, ScrollField> SCROLL_FIELDS = Map.of(
+        "responseDeadLine", new ScrollField(Opportunity::getResponseDeadLine, LocalDate::parse),
+        "postedDate", new ScrollField(Opportunity::getPostedDate, LocalDate::parse),
+        "title", new ScrollField(Opportunity::getTitle, text -> text),
+        "agency", new ScrollField(Opportunity::getAgency, text -> text)
+    );
+
     private final OpportunityRepository opportunityRepository;
+    private final IngestionService ingestionService;
+    private final SearchOutbox searchOutbox;
+    private final CacheService cacheService;
+    private final OpportunityDataGeneration dataGeneration;
+    private final OpportunityFacetIndex facetIndex;
+
+    @Autowired
+    public OpportunityService(
+            OpportunityRepository opportunityRepository,
+            IngestionService ingestionService,
+            SearchOutbox searchOutbox,
+            CacheService cacheService,
+            OpportunityDataGeneration dataGeneration,
+            @Autowired(required = false) OpportunityFacetIndex facetIndex) {
+        this.opportunityRepository = opportunityRepository;
+        this.ingestionService = ingestionService;
+        this.searchOutbox = searchOutbox;
+        this.cacheService = cacheService;
+        this.dataGeneration = dataGeneration;
+        this.facetIndex = facetIndex;
+    }
 
     /**
      * Get opportunity by ID.
-     * Results are cached per tenant for 5 minutes (default).
+     * Results are cached per tenant and data generation for 5 minutes (default).
      */
     @Transactional(readOnly = true)
     @Cacheable(
         value = CacheConfig.OPPORTUNITIES_CACHE,
-        key = "'tenant:' + T(com.samgov.ingestor.config.TenantContext).getCurrentTenantId() + ':opportunity:' + #id",
+        key = "'tenant:' + T(com.samgov.ingestor.config.TenantContext).getCurrentTenantId() + ':g' + @opportunityDataGeneration.current() + ':opportunity:' + #id",
         unless = "#result == null"
     )
     public Optional<OpportunityDto> getById(String id) {
@@ -57,21 +95,59 @@ public class OpportunityService {
 
     /**
      * Search opportunities with filters.
+     * Results are cached per tenant and data generation (see {@link CacheService#getOrComputeSearchResults}).
      */
     @Transactional(readOnly = true)
     public Page<OpportunityDto> search(OpportunitySearchRequest request, Pageable pageable) {
+        return cacheService.getOrComputeSearchResults(TenantContext.getCurrentTenantId(),
+            "filter:" + request.normalized() + ":" + pageable,
+            () -> opportunityRepository.findAll(buildSpecification(request), pageable)
+                .map(OpportunityDto::fromEntity));
+    }
+
+    /**
+     * Search opportunities with filters, one keyset page at a time.
+     *
+     * Rows are ordered by the sort field and then id, and each page seeks past the (value, id)
+     * of the previous page's last row, so deep pages cost the same as the first and rows
+     * inserted meanwhile never shift a page. Null sort values come last ascending and first
+     * descending, as PostgreSQL orders them.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public CursorPaginatedResponse<OpportunityDto> scroll(OpportunitySearchRequest request, String sortBy,
+                                                          Sort.Direction direction, String cursor, int size) {
+        ScrollField field = SCROLL_FIELDS.get(sortBy);
+        if (field == null) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+        }
         Specification<Opportunity> spec = buildSpecification(request);
-        return opportunityRepository.findAll(spec, pageable)
+        if (cursor != null) {
+            List<Object> key = PageCursor.decode(cursor, 2);
+            if (!(key.get(1) instanceof String id)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            spec = spec.and(after(sortBy, direction.isAscending(), field.parse(key.get(0)), id));
+        }
+        Sort sort = Sort.by(direction, sortBy, "id");
+        List<Opportunity> rows = opportunityRepository.findBy(spec, query -> query.sortBy(sort).limit(size + 1).all());
+        return CursorPaginatedResponse.from(rows, size, row -> PageCursor.encode(Arrays.asList(
+                field.format(row), row.getId())))
             .map(OpportunityDto::fromEntity);
     }
 
     /**
      * Search opportunities by keyword.
+     * Results are cached per tenant and data generation; the search ignores case and spacing,
+     * so the cache key does too.
      */
     @Transactional(readOnly = true)
     public Page<OpportunityDto> searchByKeyword(String keyword, Pageable pageable) {
-        return opportunityRepository.searchByKeyword(keyword, pageable)
-            .map(OpportunityDto::fromEntity);
+        return cacheService.getOrComputeSearchResults(TenantContext.getCurrentTenantId(),
+            "keyword:" + CacheService.normalizeQuery(keyword) + ":" + pageable,
+            () -> opportunityRepository.searchByKeyword(keyword, pageable)
+                .map(OpportunityDto::fromEntity));
     }
 
     /**
@@ -162,18 +238,28 @@ public class OpportunityService {
 
     /**
      * Get dashboard statistics.
-     * Results are cached per tenant for 2 minutes (short TTL for frequently updated data).
+     * Counted by the {@link OpportunityFacetIndex} once it has loaded, otherwise in the database.
+     * Results are cached per tenant and data generation for 5 minutes.
      */
     @Transactional(readOnly = true)
     @Cacheable(
         value = CacheConfig.OPPORTUNITIES_CACHE,
-        key = "'tenant:' + T(com.samgov.ingestor.config.TenantContext).getCurrentTenantId() + ':dashboard:stats'"
+        key = "'tenant:' + T(com.samgov.ingestor.config.TenantContext).getCurrentTenantId() + ':g' + @opportunityDataGeneration.current() + ':dashboard:stats'"
     )
     public DashboardStats getDashboardStats() {
         log.debug("Cache miss for dashboard stats");
         LocalDate today = LocalDate.now();
         LocalDate sevenDaysFromNow = today.plusDays(7);
 
+        if (facetIndex != null && facetIndex.isReady()) {
+            Map<Dimension, List<String>> active = Map.of(Dimension.STATUS, List.of(OpportunityStatus.ACTIVE.name()));
+            return new DashboardStats(
+                facetIndex.count(active, today, null),
+                facetIndex.count(Map.of(Dimension.PROGRAM, List.of("SBIR")), null, null),
+                facetIndex.count(Map.of(Dimension.PROGRAM, List.of("STTR")), null, null),
+                facetIndex.count(active, today, sevenDaysFromNow));
+        }
+
         long activeCount = opportunityRepository.countActiveOpportunities(today);
         long sbirCount = opportunityRepository.countByIsSbirTrue();
         long sttrCount = opportunityRepository.countByIsSttrTrue();
@@ -184,15 +270,22 @@ public class OpportunityService {
 
     /**
      * Get distinct filter options.
-     * Results are cached for 10 minutes since filter options change infrequently.
+     * Read from the {@link OpportunityFacetIndex} once it has loaded, otherwise from the database.
+     * Results are cached per tenant and data generation for 5 minutes.
      */
     @Transactional(readOnly = true)
     @Cacheable(
         value = CacheConfig.OPPORTUNITIES_CACHE,
-        key = "'tenant:' + T(com.samgov.ingestor.config.TenantContext).getCurrentTenantId() + ':filter:options'"
+        key = "'tenant:' + T(com.samgov.ingestor.config.TenantContext).getCurrentTenantId() + ':g' + @opportunityDataGeneration.current() + ':filter:options'"
     )
     public FilterOptions getFilterOptions() {
         log.debug("Cache miss for filter options");
+        if (facetIndex != null && facetIndex.isReady()) {
+            return new FilterOptions(
+                facetIndex.values(Dimension.AGENCY),
+                facetIndex.values(Dimension.SET_ASIDE),
+                facetIndex.values(Dimension.NAICS));
+        }
         List<String> agencies = opportunityRepository.findDistinctAgencies();
         List<String> setAsideTypes = opportunityRepository.findDistinctSetAsideTypes();
         List<String> naicsCodes = opportunityRepository.findDistinctNaicsCodes();
@@ -211,13 +304,14 @@ public class OpportunityService {
                 predicates.add(cb.equal(root.get("status"), OpportunityStatus.ACTIVE));
             }
 
-            // Keyword search
+            // Keyword search against the GIN-indexed search vector
             if (request.keyword() != null && !request.keyword().isBlank()) {
-                String keyword = "%" + request.keyword().toLowerCase() + "%";
-                predicates.add(cb.or(
-                    cb.like(cb.lower(root.get("title")), keyword),
-                    cb.like(cb.lower(root.get("description")), keyword)
-                ));
+                var matches = query.subquery(String.class);
+                var text = matches.from(OpportunityText.class);
+                matches.select(text.get("id")).where(cb.isTrue(cb.function("opportunity_text_match",
+                    Boolean.class, text.get("searchVector"), cb.literal(request.keyword()),
+                    cb.literal(SearchTerms.prefixQuery(request.keyword())))));
+                predicates.add(root.get("id").in(matches));
             }
 
             // NAICS code filter
@@ -294,6 +388,48 @@ public class OpportunityService {
         };
     }
 
+    /**
+     * Rows after (value, id) in the scroll order, where null sorts above every value.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Specification<Opportunity> after(String field, boolean ascending, Comparable value, String id) {
+        return (root, query, cb) -> {
+            Expression<Comparable> column = root.get(field);
+            Expression<String> rowId = root.get("id");
+            Predicate laterId = ascending ? cb.greaterThan(rowId, id) : cb.lessThan(rowId, id);
+            if (value == null) {
+                Predicate laterNull = cb.and(cb.isNull(column), laterId);
+                return ascending ? laterNull : cb.or(cb.isNotNull(column), laterNull);
+            }
+            Predicate beyond = ascending ? cb.greaterThan(column, value) : cb.lessThan(column, value);
+            Predicate tie = cb.and(cb.equal(column, value), laterId);
+            return ascending ? cb.or(beyond, tie, cb.isNull(column)) : cb.or(beyond, tie);
+        };
+    }
+
+    /**
+     * A sort field the keyset search accepts: how its value is read from a row and written to
+     * and read back from a cursor.
+     */
+    private record ScrollField(Function<Opportunity, Object> value, Function<String, Comparable<?>> parser) {
+
+        String format(Opportunity row) {
+            Object v = value.apply(row);
+            return v != null ? v.toString() : null;
+        }
+
+        Comparable<?> parse(Object cursorValue) {
+            if (cursorValue == null) {
+                return null;
+            }
+            try {
+                return parser.apply((String) cursorValue);
+            } catch (ClassCastException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+
     public record OpportunitySearchRequest(
         String keyword,
         String naicsCode,
@@ -311,7 +447,17 @@ public class OpportunityService {
         LocalDate responseDeadlineTo,
         OpportunityStatus status,
         Boolean activeOnly
-    ) {}
+    ) {
+
+        /**
+         * The same search with its keyword normalized, for use as a cache key.
+         */
+        public OpportunitySearchRequest normalized() {
+            return new OpportunitySearchRequest(CacheService.normalizeQuery(keyword), naicsCode, agency,
+                setAsideType, type, isSbir, isSttr, sbirOrSttr, phase, state, postedDateFrom, postedDateTo,
+                responseDeadlineFrom, responseDeadlineTo, status, activeOnly);
+        }
+    }
 
     public record DashboardStats(
         long activeOpportunities,
@@ -331,28 +477,28 @@ public class OpportunityService {
     // ============================================
 
     /**
-     * Ingest opportunities from SAM.gov API.
-     * Evicts the opportunities cache after ingestion completes.
+     * Ingest opportunities from SAM.gov API via {@link IngestionService}.
+     * Each committed page that inserted or changed rows advances the opportunity data
+     * generation, retiring cached results; records whose content hash is unchanged are
+     * not rewritten and retire nothing.
      *
-     * @return number of new opportunities ingested
+     * @return number of new or changed opportunities
      */
-    @Transactional
-    @CacheEvict(value = CacheConfig.OPPORTUNITIES_CACHE, allEntries = true)
     public int ingestFromSamGov() {
         log.info("Starting SAM.gov opportunity ingestion");
-        // Implementation would call SAM.gov API
-        // For now, return 0 as placeholder
-        return 0;
+        // Incremental: only notices posted since each NAICS/ptype watermark are fetched
+        IngestionService.IngestionResult result = ingestionService.runIngestion();
+        return result.newRecords() + result.updatedRecords();
     }
 
     /**
      * Ingest opportunities from SBIR.gov API.
-     * Evicts the opportunities cache after ingestion completes.
+     * Not implemented yet and writes nothing; once it writes opportunities it must advance
+     * the opportunity data generation like the other ingestion paths.
      *
      * @return number of new opportunities ingested
      */
     @Transactional
-    @CacheEvict(value = CacheConfig.OPPORTUNITIES_CACHE, allEntries = true)
     public int ingestFromSbirGov() {
         log.info("Starting SBIR.gov opportunity ingestion");
         // Implementation would call SBIR.gov API
@@ -361,13 +507,13 @@ public class OpportunityService {
 
     /**
      * Ingest opportunities from state procurement portal.
-     * Evicts the opportunities cache after ingestion completes.
+     * Not implemented yet and writes nothing; once it writes opportunities it must advance
+     * the opportunity data generation like the other ingestion paths.
      *
      * @param stateCode the two-letter state code
      * @return number of new opportunities ingested
      */
     @Transactional
-    @CacheEvict(value = CacheConfig.OPPORTUNITIES_CACHE, allEntries = true)
     public int ingestFromStatePortal(String stateCode) {
         log.info("Starting state portal ingestion for: {}", stateCode);
         // Implementation would call state-specific API
@@ -376,13 +522,13 @@ public class OpportunityService {
 
     /**
      * Ingest opportunities from local government portal.
-     * Evicts the opportunities cache after ingestion completes.
+     * Not implemented yet and writes nothing; once it writes opportunities it must advance
+     * the opportunity data generation like the other ingestion paths.
      *
      * @param localEntityId the local entity identifier
      * @return number of new opportunities ingested
      */
     @Transactional
-    @CacheEvict(value = CacheConfig.OPPORTUNITIES_CACHE, allEntries = true)
     public int ingestFromLocalPortal(String localEntityId) {
         log.info("Starting local portal ingestion for: {}", localEntityId);
         // Implementation would call local-specific API
@@ -395,13 +541,12 @@ public class OpportunityService {
 
     /**
      * Archive opportunities older than specified days.
-     * Evicts the opportunities cache to ensure fresh data after modification.
+     * Advances the opportunity data generation so cached results are no longer served.
      *
      * @param daysOld opportunities closed more than this many days ago
      * @return number of opportunities archived
      */
     @Transactional
-    @CacheEvict(value = CacheConfig.OPPORTUNITIES_CACHE, allEntries = true)
     public int archiveOldOpportunities(int daysOld) {
         LocalDate cutoffDate = LocalDate.now().minusDays(daysOld);
         List<Opportunity> toArchive = opportunityRepository.findByStatusAndResponseDeadLineBefore(
@@ -409,19 +554,22 @@ public class OpportunityService {
 
         toArchive.forEach(opp -> opp.setStatus(OpportunityStatus.ARCHIVED));
         opportunityRepository.saveAll(toArchive);
+        searchOutbox.enqueue(toArchive.stream().map(Opportunity::getId).toList());
+        if (!toArchive.isEmpty()) {
+            dataGeneration.advance();
+        }
 
-        log.info("Archived {} opportunities older than {} days, cache evicted", toArchive.size(), daysOld);
+        log.info("Archived {} opportunities older than {} days", toArchive.size(), daysOld);
         return toArchive.size();
     }
 
     /**
      * Update opportunities that are past their deadline to CLOSED status.
-     * Evicts the opportunities cache to ensure fresh data after modification.
+     * Advances the opportunity data generation so cached results are no longer served.
      *
      * @return number of opportunities updated
      */
     @Transactional
-    @CacheEvict(value = CacheConfig.OPPORTUNITIES_CACHE, allEntries = true)
     public int updateExpiredOpportunities() {
         LocalDate today = LocalDate.now();
         List<Opportunity> expired = opportunityRepository.findByStatusAndResponseDeadLineBefore(
@@ -429,8 +577,12 @@ public class OpportunityService {
 
         expired.forEach(opp -> opp.setStatus(OpportunityStatus.CLOSED));
         opportunityRepository.saveAll(expired);
+        searchOutbox.enqueue(expired.stream().map(Opportunity::getId).toList());
+        if (!expired.isEmpty()) {
+            dataGeneration.advance();
+        }
 
-        log.info("Updated {} expired opportunities to CLOSED status, cache evicted", expired.size());
+        log.info("Updated {} expired opportunities to CLOSED status", expired.size());
         return expired.size();
     }
 
@@ -0,0 +1,231 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.CensusProperties;
+import com.samgov.ingestor.dto.GeocodingResultDto.SimpleGeocodingResult;
+import com.samgov.ingestor.util.PlaceNames;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Offline lookup of ZIP (ZCTA) and place centroids with FIPS state and county codes.
+ *
+ * Most opportunities carry only a ZIP or a city and state, which the Census geocoder
+ * resolves no better than a centroid anyway, so {@link GeocodingService} asks the gazetteer
+ * first and only goes to the network for misses. Lookups are binary searches over a
+ * read-only memory map of the compiled file (see {@link GazetteerCompiler} for the layout):
+ * no heap copy of the data, no I/O after the first page faults, and no network at all.
+ *
+ * The build compiles the Census Gazetteer files into the jar (census.gazetteer-resource, see
+ * compileGazetteer in build.gradle); it is copied to a temporary file on startup so it can be
+ * mapped. census.gazetteer-file and census.gazetteer-source-dir override it with a newer
+ * vintage: the file is used instead, recompiled from the source directory when missing or
+ * older than the sources. Without any of them the gazetteer is unavailable and every lookup
+ * misses.
+ */
+@Component
+public class PlaceGazetteer {
+
+    private static final Logger log = LoggerFactory.getLogger(PlaceGazetteer.class);
+
+    private final ByteBuffer data;
+    private final int zipCount;
+    private final int placeCount;
+    private final int placesStart;
+    private final int stringsStart;
+
+    public PlaceGazetteer(CensusProperties properties) {
+        this(properties.isGazetteerEnabled() ? load(properties) : null);
+    }
+
+    PlaceGazetteer(ByteBuffer data) {
+        this.data = data;
+        if (data == null) {
+            zipCount = 0;
+            placeCount = 0;
+            placesStart = 0;
+            stringsStart = 0;
+            return;
+        }
+        zipCount = data.getInt(4);
+        placeCount = data.getInt(8);
+        placesStart = GazetteerCompiler.HEADER_BYTES + zipCount * GazetteerCompiler.RECORD_BYTES;
+        stringsStart = placesStart + placeCount * GazetteerCompiler.RECORD_BYTES;
+    }
+
+    /**
+     * Whether a compiled gazetteer is loaded.
+     */
+    public boolean isAvailable() {
+        return data != null;
+    }
+
+    public int getZipCount() {
+        return zipCount;
+    }
+
+    public int getPlaceCount() {
+        return placeCount;
+    }
+
+    /**
+     * Resolves a place by ZIP first, then by city and state.
+     *
+     * @param city  City name, any case or punctuation
+     * @param state USPS state code (e.g., "DC")
+     * @param zip   ZIP or ZIP+4
+     * @return Centroid with FIPS codes, or null if the gazetteer does not know the place
+     */
+    public SimpleGeocodingResult lookup(String city, String state, String zip) {
+        if (data == null) {
+            return null;
+        }
+        String zip5 = PlaceNames.zip5(zip);
+        if (zip5.length() == 5) {
+            int index = findZip(Integer.parseInt(zip5));
+            if (index >= 0) {
+                return result("ZIP " + zip5, GazetteerCompiler.HEADER_BYTES + index * GazetteerCompiler.RECORD_BYTES);
+            }
+        }
+        String placeKey = GazetteerCompiler.placeKey(state, city);
+        if (placeKey != null) {
+            int index = findPlace(placeKey.getBytes(StandardCharsets.US_ASCII));
+            if (index >= 0) {
+                return result(PlaceNames.normalize(city) + ", " + PlaceNames.normalize(state), placesStart + index * GazetteerCompiler.RECORD_BYTES);
+            }
+        }
+        return null;
+    }
+
+    private int findZip(int zip) {
+        int low = 0;
+        int high = zipCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int candidate = data.getInt(GazetteerCompiler.HEADER_BYTES + mid * GazetteerCompiler.RECORD_BYTES);
+            if (candidate < zip) {
+                low = mid + 1;
+            } else if (candidate > zip) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int findPlace(byte[] key) {
+        int low = 0;
+        int high = placeCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = compareKey(data.getInt(placesStart + mid * GazetteerCompiler.RECORD_BYTES), key);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int compareKey(int stringOffset, byte[] key) {
+        int position = stringsStart + stringOffset;
+        int length = data.getShort(position) & 0xFFFF;
+        position += 2;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int difference = (data.get(position + i) & 0xFF) - (key[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - key.length;
+    }
+
+    private SimpleGeocodingResult result(String matched, int record) {
+        BigDecimal latitude = coordinate(data.getFloat(record + 4));
+        BigDecimal longitude = coordinate(data.getFloat(record + 8));
+        short state = data.getShort(record + 12);
+        short county = data.getShort(record + 14);
+        String stateFips = state >= 0 ? String.format("%02d", state) : null;
+        String countyFips = state >= 0 && county >= 0 ? stateFips + String.format("%03d", county) : null;
+        return new SimpleGeocodingResult(matched, latitude, longitude, stateFips, countyFips, null, null, null, null);
+    }
+
+    private static BigDecimal coordinate(float value) {
+        return new BigDecimal(Float.toString(value)).setScale(6, RoundingMode.HALF_UP);
+    }
+
+    private static ByteBuffer load(CensusProperties properties) {
+        try {
+            Path file = locate(properties);
+            if (file == null) {
+                log.info("No gazetteer at {} and none configured; all places go to the geocoder",
+                        properties.getGazetteerResource());
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (mapped.capacity() < GazetteerCompiler.HEADER_BYTES || mapped.getInt(0) != GazetteerCompiler.MAGIC) {
+                    log.warn("{} is not a compiled gazetteer; all places go to the geocoder", file);
+                    return null;
+                }
+                log.info("Loaded gazetteer {}: {} ZIPs, {} places", file, mapped.getInt(4), mapped.getInt(8));
+                return mapped;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Gazetteer unavailable, all places go to the geocoder: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The compiled file to map: the configured file (recompiled from the configured sources
+     * when they are newer), else the bundled gazetteer copied out of the classpath, else null.
+     */
+    private static Path locate(CensusProperties properties) throws IOException {
+        Path file = StringUtils.hasText(properties.getGazetteerFile()) ? Path.of(properties.getGazetteerFile()) : null;
+        if (StringUtils.hasText(properties.getGazetteerSourceDir())) {
+            GazetteerCompiler.Sources sources = GazetteerCompiler.Sources.find(Path.of(properties.getGazetteerSourceDir()));
+            if (sources != null) {
+                Path target = file != null ? file : Path.of(System.getProperty("java.io.tmpdir"), "insight-gazetteer.bin");
+                if (sources.isNewerThan(target)) {
+                    GazetteerCompiler.compile(sources, target);
+                }
+                return target;
+            }
+        }
+        if (file != null && Files.isRegularFile(file)) {
+            return file;
+        }
+        Resource bundled = new DefaultResourceLoader().getResource(properties.getGazetteerResource());
+        if (!bundled.exists()) {
+            return null;
+        }
+        // A resource inside the jar cannot be memory-mapped, so map a private copy
+        Path extracted = Files.createTempFile("gazetteer", ".bin");
+        extracted.toFile().deleteOnExit();
+        try (InputStream in = bundled.getInputStream()) {
+            Files.copy(in, extracted, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return extracted;
+    }
+}
@@ -4,36 +4,47 @@ import com.samgov.ingestor.client.SbirGovApiClient;
 import com.samgov.ingestor.dto.SbirAwardDto;
 import com.samgov.ingestor.model.SbirAward;
 import com.samgov.ingestor.repository.SbirAwardRepository;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertMapping;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertResult;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertTable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.Year;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Service for ingesting SBIR/STTR awards from SBIR.gov.
+ * Awards are written in batches as the client decodes them, so a run never holds more than
+ * one batch of DTOs regardless of how many awards SBIR.gov returns.
  */
 @Service
 public class SbirIngestionService {
 
     private static final Logger log = LoggerFactory.getLogger(SbirIngestionService.class);
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int BATCH_SIZE = 500;
 
     private final SbirGovApiClient sbirApiClient;
     private final SbirAwardRepository sbirAwardRepository;
+    private final BulkUpsertService bulkUpsertService;
+    private final AwardMapping awardMapping = new AwardMapping();
 
-    public SbirIngestionService(SbirGovApiClient sbirApiClient, SbirAwardRepository sbirAwardRepository) {
+    public SbirIngestionService(SbirGovApiClient sbirApiClient, SbirAwardRepository sbirAwardRepository,
+                                BulkUpsertService bulkUpsertService) {
         this.sbirApiClient = sbirApiClient;
         this.sbirAwardRepository = sbirAwardRepository;
+        this.bulkUpsertService = bulkUpsertService;
     }
 
     /**
@@ -42,11 +53,10 @@ public class SbirIngestionService {
      *
      * @return IngestionResult with counts
      */
-    @Transactional
     public IngestionResult ingestRecentAwards() {
         if (!sbirApiClient.isEnabled()) {
             log.info("SBIR.gov integration is disabled");
-            return new IngestionResult(0, 0, 0);
+            return new IngestionResult(0, 0, 0, 0);
         }
 
         log.info("Starting SBIR.gov award ingestion");
@@ -54,36 +64,28 @@ public class SbirIngestionService {
 
         AtomicInteger newCount = new AtomicInteger(0);
         AtomicInteger updatedCount = new AtomicInteger(0);
+        AtomicInteger unchangedCount = new AtomicInteger(0);
 
-        try {
-            List<SbirAwardDto> awards = sbirApiClient.fetchRecentAwards();
-            log.info("Fetched {} awards from SBIR.gov", awards.size());
-
-            for (SbirAwardDto dto : awards) {
-                try {
-                    processAward(dto, newCount, updatedCount);
-                } catch (Exception e) {
-                    log.error("Failed to process SBIR award: {}", dto.agencyTrackingNumber(), e);
-                }
-            }
+        try (AwardBatcher batcher = new AwardBatcher(newCount, updatedCount, unchangedCount)) {
+            int fetched = sbirApiClient.forEachRecentAward(batcher);
+            log.info("Fetched {} awards from SBIR.gov", fetched);
         } catch (Exception e) {
             log.error("Error during SBIR.gov ingestion", e);
         }
 
         long duration = System.currentTimeMillis() - startTime;
-        log.info("SBIR.gov ingestion completed in {}ms. New: {}, Updated: {}",
-                duration, newCount.get(), updatedCount.get());
+        log.info("SBIR.gov ingestion completed in {}ms. New: {}, Updated: {}, Unchanged: {}",
+                duration, newCount.get(), updatedCount.get(), unchangedCount.get());
 
-        return new IngestionResult(newCount.get(), updatedCount.get(), duration);
+        return new IngestionResult(newCount.get(), updatedCount.get(), unchangedCount.get(), duration);
     }
 
     /**
      * Ingest awards for a specific agency and year.
      */
-    @Transactional
     public IngestionResult ingestByAgencyAndYear(String agency, Integer year) {
         if (!sbirApiClient.isEnabled()) {
-            return new IngestionResult(0, 0, 0);
+            return new IngestionResult(0, 0, 0, 0);
         }
 
         log.info("Ingesting SBIR.gov awards for agency: {}, year: {}", agency, year);
@@ -91,49 +93,119 @@ public class SbirIngestionService {
 
         AtomicInteger newCount = new AtomicInteger(0);
         AtomicInteger updatedCount = new AtomicInteger(0);
+        AtomicInteger unchangedCount = new AtomicInteger(0);
 
-        try {
-            List<SbirAwardDto> awards = sbirApiClient.fetchAwards(agency, year);
-            log.info("Fetched {} awards for {} ({})", awards.size(), agency, year);
-
-            for (SbirAwardDto dto : awards) {
-                try {
-                    processAward(dto, newCount, updatedCount);
-                } catch (Exception e) {
-                    log.error("Failed to process award: {}", dto.agencyTrackingNumber(), e);
-                }
-            }
+        try (AwardBatcher batcher = new AwardBatcher(newCount, updatedCount, unchangedCount)) {
+            int fetched = sbirApiClient.forEachAward(agency, year, batcher);
+            log.info("Fetched {} awards for {} ({})", fetched, agency, year);
         } catch (Exception e) {
             log.error("Error ingesting awards for {}/{}", agency, year, e);
         }
 
         long duration = System.currentTimeMillis() - startTime;
-        return new IngestionResult(newCount.get(), updatedCount.get(), duration);
+        return new IngestionResult(newCount.get(), updatedCount.get(), unchangedCount.get(), duration);
+    }
+
+    /**
+     * Upserts a batch of award DTOs through the bulk upsert engine.
+     */
+    private void processAwards(List<SbirAwardDto> awards, AtomicInteger newCount, AtomicInteger updatedCount,
+                               AtomicInteger unchangedCount) {
+        List<SbirAwardDto> valid = awards.stream()
+                .filter(dto -> {
+                    if (dto.agencyTrackingNumber() == null || dto.agency() == null) {
+                        log.warn("Skipping award with null tracking number or agency");
+                        return false;
+                    }
+                    return true;
+                })
+                .toList();
+
+        UpsertResult result = bulkUpsertService.upsert(valid, awardMapping);
+        newCount.addAndGet(result.inserted());
+        updatedCount.addAndGet(result.updated());
+        unchangedCount.addAndGet(result.unchanged());
+    }
+
+    /**
+     * Collects streamed awards and upserts them every {@link #BATCH_SIZE} records;
+     * closing it writes the remainder.
+     */
+    private class AwardBatcher implements Consumer<SbirAwardDto>, AutoCloseable {
+
+        private final List<SbirAwardDto> batch = new ArrayList<>(BATCH_SIZE);
+        private final AtomicInteger newCount;
+        private final AtomicInteger updatedCount;
+        private final AtomicInteger unchangedCount;
+
+        AwardBatcher(AtomicInteger newCount, AtomicInteger updatedCount, AtomicInteger unchangedCount) {
+            this.newCount = newCount;
+            this.updatedCount = updatedCount;
+            this.unchangedCount = unchangedCount;
+        }
+
+        @Override
+        public void accept(SbirAwardDto award) {
+            batch.add(award);
+            if (batch.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+
+        private void flush() {
+            if (!batch.isEmpty()) {
+                processAwards(List.copyOf(batch), newCount, updatedCount, unchangedCount);
+                batch.clear();
+            }
+        }
+    }
+
+    private static String awardKey(String agency, String agencyTrackingNumber) {
+        return agency + "|" + agencyTrackingNumber;
     }
 
     /**
-     * Process a single award DTO - insert or update.
+     * Maps SBIR.gov awards onto the sbir_awards table, keyed by (agency, tracking number).
      */
-    private void processAward(SbirAwardDto dto, AtomicInteger newCount, AtomicInteger updatedCount) {
-        if (dto.agencyTrackingNumber() == null || dto.agency() == null) {
-            log.warn("Skipping award with null tracking number or agency");
-            return;
+    private class AwardMapping implements UpsertMapping<SbirAwardDto, SbirAward> {
+
+        @Override
+        public UpsertTable<SbirAward> table() {
+            return BulkUpsertService.SBIR_AWARDS;
+        }
+
+        @Override
+        public String recordKey(SbirAwardDto dto) {
+            return awardKey(dto.agency(), dto.agencyTrackingNumber());
+        }
+
+        @Override
+        public String entityKey(SbirAward award) {
+            return awardKey(award.getAgency(), award.getAgencyTrackingNumber());
         }
 
-        Optional<SbirAward> existing = sbirAwardRepository
-                .findByAgencyTrackingNumberAndAgency(dto.agencyTrackingNumber(), dto.agency());
+        @Override
+        public List<SbirAward> findExisting(Collection<String> keys) {
+            List<String> trackingNumbers = keys.stream()
+                    .map(key -> key.substring(key.indexOf('|') + 1))
+                    .distinct()
+                    .toList();
+            return sbirAwardRepository.findByAgencyTrackingNumberIn(trackingNumbers);
+        }
+
+        @Override
+        public SbirAward create(SbirAwardDto dto) {
+            return convertDtoToEntity(dto);
+        }
 
-        if (existing.isPresent()) {
-            SbirAward award = existing.get();
+        @Override
+        public void update(SbirAward award, SbirAwardDto dto) {
             updateAwardFromDto(award, dto);
-            sbirAwardRepository.save(award);
-            updatedCount.incrementAndGet();
-            log.debug("Updated SBIR award: {}", dto.agencyTrackingNumber());
-        } else {
-            SbirAward award = convertDtoToEntity(dto);
-            sbirAwardRepository.save(award);
-            newCount.incrementAndGet();
-            log.debug("Created new SBIR award: {}", dto.agencyTrackingNumber());
         }
     }
 
@@ -246,10 +318,17 @@ public class SbirIngestionService {
         return new SbirStats(total, sbir, sttr, agencies, phases);
     }
 
-    public record IngestionResult(int newRecords, int updatedRecords, long durationMs) {
+    public record IngestionResult(int newRecords, int updatedRecords, int unchangedRecords, long durationMs) {
+        /**
+         * Rows written per second over the whole run.
+         */
+        public double rowsPerSecond() {
+            return durationMs > 0 ? (newRecords + updatedRecords) * 1000.0 / durationMs : 0.0;
+        }
+
         public String toMessage() {
-            return String.format("SBIR.gov ingestion completed in %dms. New: %d, Updated: %d",
-                    durationMs, newRecords, updatedRecords);
+            return String.format("SBIR.gov ingestion completed in %dms. New: %d, Updated: %d, Unchanged: %d (%.1f rows/sec)",
+                    durationMs, newRecords, updatedRecords, unchangedRecords, rowsPerSecond());
         }
     }
 
@@ -8,9 +8,11 @@ import com.samgov.ingestor.dto.OpportunityDto;
 import com.samgov.ingestor.dto.SearchSuggestionDTO;
 import com.samgov.ingestor.dto.SearchSuggestionDTO.Suggestion;
 import com.samgov.ingestor.model.Opportunity;
+import com.samgov.ingestor.model.Opportunity.OpportunityStatus;
 import com.samgov.ingestor.repository.OpportunityRepository;
-import lombok.RequiredArgsConstructor;
+import com.samgov.ingestor.service.OpportunityFacetIndex.Dimension;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -19,30 +21,69 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * Service for enhanced search functionality.
- * Note: In production, this would integrate with Elasticsearch.
- * This implementation uses PostgreSQL full-text search as a foundation.
+ * Faceted search is answered by Elasticsearch ({@link OpportunityFacetSearch}) when it is
+ * enabled; PostgreSQL serves as the fallback when elasticsearch.enabled=false, with facet
+ * counts from the in-memory {@link OpportunityFacetIndex}.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class SearchEnhancementService {
 
     private final OpportunityRepository opportunityRepository;
+    private final OpportunityFacetSearch facetSearch;
+    private final TypeaheadIndex typeaheadIndex;
+    private final OpportunityFacetIndex facetIndex;
+    private final CacheService cacheService;
+
+    @Autowired
+    public SearchEnhancementService(
+            OpportunityRepository opportunityRepository,
+            @Autowired(required = false) OpportunityFacetSearch facetSearch,
+            @Autowired(required = false) TypeaheadIndex typeaheadIndex,
+            @Autowired(required = false) OpportunityFacetIndex facetIndex,
+            CacheService cacheService) {
+        this.opportunityRepository = opportunityRepository;
+        this.facetSearch = facetSearch;
+        this.typeaheadIndex = typeaheadIndex;
+        this.facetIndex = facetIndex;
+        this.cacheService = cacheService;
+    }
 
     /**
      * Get search suggestions for autocomplete.
+     * Served from the in-memory {@link TypeaheadIndex} once it has loaded; until then, or when
+     * search.typeahead.enabled=false, opportunity titles are searched in the database.
      */
-    @Transactional(readOnly = true)
     public SearchSuggestionDTO getSuggestions(String query, int limit) {
-        UUID tenantId = TenantContext.getCurrentTenantId();
-        
+        if (typeaheadIndex != null && typeaheadIndex.isReady()) {
+            if (limit < 1) {
+                throw new IllegalArgumentException("Suggestion limit must be at least 1");
+            }
+            List<Suggestion> suggestions = typeaheadIndex.suggest(query, limit).stream()
+                .map(completion -> Suggestion.builder()
+                    .text(completion.text())
+                    .type(completion.type())
+                    .matchCount(completion.count())
+                    .highlight(highlightMatch(completion.text(), query))
+                    .build())
+                .toList();
+            return SearchSuggestionDTO.builder()
+                .query(query)
+                .suggestions(suggestions)
+                .recentSearches(List.of())
+                .build();
+        }
+
         List<Suggestion> suggestions = new ArrayList<>();
         
         // Search in opportunity titles
@@ -68,10 +109,52 @@ public class SearchEnhancementService {
 
     /**
      * Perform faceted search with aggregations.
+     * Offset pages are cached per tenant and data generation; cursor pages are not, since
+     * each one is read once and holds a point in time of its own. A cached page's nextCursor
+     * carries only sort values, never a point in time, so it stays usable for as long as the
+     * page is cached rather than only for the point in time's keep-alive.
      */
     @Transactional(readOnly = true)
     public FacetedSearchResponse facetedSearch(FacetedSearchRequest request) {
-        UUID tenantId = TenantContext.getCurrentTenantId();
+        if (request.getCursor() != null) {
+            return search(request);
+        }
+        return cacheService.getOrComputeSearchResults(TenantContext.getCurrentTenantId(),
+            fingerprint(request), () -> search(request));
+    }
+
+    /**
+     * Cache key text for a faceted search: the query normalized and each selection sorted,
+     * since neither the case of the query nor the order of selected values changes the results.
+     */
+    private static String fingerprint(FacetedSearchRequest request) {
+        return "facets:" + new FacetedSearchRequest(
+            CacheService.normalizeQuery(request.getQuery()),
+            sorted(request.getNaicsCodes()),
+            sorted(request.getSetAsideCodes()),
+            sorted(request.getTypes()),
+            sorted(request.getAgencies()),
+            request.getResponseDateFrom(),
+            request.getResponseDateTo(),
+            request.getValueMin(),
+            request.getValueMax(),
+            request.getActive(),
+            request.getSortBy(),
+            request.getSortOrder(),
+            request.getPage(),
+            request.getSize(),
+            null);
+    }
+
+    private static List<String> sorted(List<String> values) {
+        return values == null ? null : values.stream().sorted(Comparator.nullsFirst(Comparator.naturalOrder())).toList();
+    }
+
+    private FacetedSearchResponse search(FacetedSearchRequest request) {
+        if (facetSearch != null) {
+            return facetSearch.search(request);
+        }
+
         long startTime = System.currentTimeMillis();
 
         // Build sort
@@ -88,7 +171,7 @@ public class SearchEnhancementService {
             sort
         );
 
-        // Execute search (simplified - in production would use Elasticsearch)
+        // PostgreSQL fallback: keyword match only, filters are not applied
         Page<Opportunity> results;
         if (request.getQuery() != null && !request.getQuery().isBlank()) {
             results = opportunityRepository.searchByKeyword(request.getQuery(), pageable);
@@ -100,7 +183,7 @@ public class SearchEnhancementService {
         Page<OpportunityDto> dtoPage = results.map(OpportunityDto::fromEntity);
 
         // Build facets
-        Map<String, List<FacetBucket>> facets = buildFacets(tenantId);
+        Map<String, List<FacetBucket>> facets = buildFacets(request);
 
         long queryTimeMs = System.currentTimeMillis() - startTime;
 
@@ -112,7 +195,11 @@ public class SearchEnhancementService {
             .build();
     }
 
-    private Map<String, List<FacetBucket>> buildFacets(UUID tenantId) {
+    private Map<String, List<FacetBucket>> buildFacets(FacetedSearchRequest request) {
+        if (facetIndex != null && facetIndex.isReady()) {
+            return indexedFacets(request);
+        }
+
         Map<String, List<FacetBucket>> facets = new HashMap<>();
 
         // Type facet - simplified implementation
@@ -133,6 +220,49 @@ public class SearchEnhancementService {
         return facets;
     }
 
+    /**
+     * Facet counts from the {@link OpportunityFacetIndex}, under the request's selections,
+     * deadline range and active flag; like the results, they ignore the keyword and value range.
+     * Each facet ignores its own selection, as the Elasticsearch facets do.
+     */
+    private Map<String, List<FacetBucket>> indexedFacets(FacetedSearchRequest request) {
+        Map<Dimension, List<String>> filters = new EnumMap<>(Dimension.class);
+        putSelection(filters, Dimension.NAICS, request.getNaicsCodes());
+        putSelection(filters, Dimension.SET_ASIDE, request.getSetAsideCodes());
+        putSelection(filters, Dimension.TYPE, request.getTypes());
+        putSelection(filters, Dimension.AGENCY, request.getAgencies());
+        if (request.getActive() != null) {
+            filters.put(Dimension.STATUS, Arrays.stream(OpportunityStatus.values())
+                .filter(status -> (status == OpportunityStatus.ACTIVE) == request.getActive())
+                .map(OpportunityStatus::name)
+                .toList());
+        }
+
+        Map<String, List<FacetBucket>> facets = new LinkedHashMap<>();
+        facets.put("agency", indexedBuckets(Dimension.AGENCY, filters, request, 20));
+        facets.put("naics", indexedBuckets(Dimension.NAICS, filters, request, 20));
+        facets.put("setAside", indexedBuckets(Dimension.SET_ASIDE, filters, request, 20));
+        facets.put("type", indexedBuckets(Dimension.TYPE, filters, request, 20));
+        facets.put("state", indexedBuckets(Dimension.STATE, filters, request, 60));
+        facets.put("status", indexedBuckets(Dimension.STATUS, filters, request, 10));
+        return facets;
+    }
+
+    private static void putSelection(Map<Dimension, List<String>> filters, Dimension dimension, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            filters.put(dimension, values);
+        }
+    }
+
+    private List<FacetBucket> indexedBuckets(Dimension dimension, Map<Dimension, List<String>> filters,
+                                             FacetedSearchRequest request, int size) {
+        return facetIndex.counts(dimension, filters, request.getResponseDateFrom(), request.getResponseDateTo())
+            .entrySet().stream()
+            .limit(size)
+            .map(entry -> new FacetBucket(entry.getKey(), entry.getKey(), entry.getValue()))
+            .toList();
+    }
+
     private String highlightMatch(String text, String query) {
         if (text == null || query == null) {
             return text;
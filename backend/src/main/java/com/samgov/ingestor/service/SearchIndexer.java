@@ -0,0 +1,484 @@
+package com.samgov.ingestor.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.json.JsonData;
+import com.samgov.ingestor.config.MetricsConfig.BusinessMetrics;
+import com.samgov.ingestor.config.SearchIndexerProperties;
+import com.samgov.ingestor.elasticsearch.OpportunityDocument;
+import com.samgov.ingestor.model.Opportunity;
+import com.samgov.ingestor.repository.OpportunityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the search outbox into Elasticsearch with the bulk API, keeping the opportunity
+ * index seconds behind the database without full reindexes.
+ *
+ * Every search.indexer.flush-interval-ms the indexer claims up to search.indexer.max-actions
+ * due entries ({@code FOR UPDATE SKIP LOCKED}, so several nodes can drain concurrently),
+ * collapses them per opportunity, and sends the opportunities' current rows as one bulk
+ * request - split further when the body would exceed search.indexer.max-bytes. A full batch
+ * means there is a backlog, so the next batch is claimed right away.
+ *
+ * Claiming leases the entries rather than holding their row locks: a short transaction moves
+ * their next_attempt_at search.indexer.lease-ms ahead, the bulk requests (and their retry
+ * backoff) run outside any transaction, and a second short transaction deletes the applied
+ * entries and reschedules the failed ones. Entries of a node that dies mid-batch become due
+ * again once their lease runs out.
+ *
+ * Writes use external versioning with the row's updated_at (in microseconds) as the
+ * version, so replays and races between nodes are idempotent: Elasticsearch rejects a
+ * version it has already seen, and that conflict counts as success. A bulk request that
+ * fails as a whole is retried with exponential backoff; entries whose documents still fail
+ * are rescheduled with backoff and parked after search.indexer.max-attempts.
+ *
+ * A full rebuild ({@link SearchReindexer}) pauses draining on every node while it loads the
+ * new index, so changes made meanwhile stay in the outbox and are applied once the alias
+ * points at it. The pause is a Postgres advisory lock the rebuild holds exclusively on its own
+ * connection; batches are claimed under a shared hold of it, and a node that dies mid-rebuild
+ * releases it with its session.
+ *
+ * Opportunities a batch added to the index are then matched against the opportunity alerts
+ * ({@link OpportunityAlertService#notifyNewOpportunities}), percolating the whole batch at once.
+ */
+@Service
+@ConditionalOnExpression("${elasticsearch.enabled:true}")
+public class SearchIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexer.class);
+
+    private static final String CLAIM_SQL = """
+            UPDATE search_outbox SET next_attempt_at = ?
+            WHERE id IN (
+                SELECT id FROM search_outbox
+                WHERE next_attempt_at <= ? AND attempts < ?
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING id, opportunity_id, attempts
+            """;
+    // Advisory lock key of the cluster-wide pause
+    static final long PAUSE_LOCK = 0x5EA4C0_0001L;
+    // Claims nothing while a pause holds the lock; released with the claim transaction
+    private static final String NOT_PAUSED_SQL = "SELECT pg_try_advisory_xact_lock_shared(?)";
+    private static final String DELETE_SQL = "DELETE FROM search_outbox WHERE id = ?";
+    // Leaves alone entries whose lease ran out and that another node has claimed since
+    private static final String RESCHEDULE_SQL = """
+            UPDATE search_outbox SET attempts = attempts + 1, next_attempt_at = ?, last_error = ?
+            WHERE id = ? AND next_attempt_at = ?
+            """;
+
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OpportunityRepository opportunityRepository;
+    private final ElasticsearchClient client;
+    private final ElasticsearchOperations operations;
+    private final SearchIndexerProperties properties;
+    private final BusinessMetrics businessMetrics;
+    private final OpportunityDataGeneration dataGeneration;
+    private final OpportunityAlertService alertService;
+    private final Counter indexed;
+    private final Counter deleted;
+    private final Counter stale;
+    private final Counter failed;
+    private final Timer bulkTimer;
+    // Held while a batch is claimed and applied; pause() waits on it
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private volatile boolean paused;
+
+    public SearchIndexer(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                         OpportunityRepository opportunityRepository, ElasticsearchClient client,
+                         ElasticsearchOperations operations, SearchIndexerProperties properties,
+                         BusinessMetrics businessMetrics, OpportunityDataGeneration dataGeneration,
+                         OpportunityAlertService alertService, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.opportunityRepository = opportunityRepository;
+        this.client = client;
+        this.operations = operations;
+        this.properties = properties;
+        this.businessMetrics = businessMetrics;
+        this.dataGeneration = dataGeneration;
+        this.alertService = alertService;
+        this.indexed = documents(registry, "indexed");
+        this.deleted = documents(registry, "deleted");
+        this.stale = documents(registry, "stale");
+        this.failed = documents(registry, "failed");
+        this.bulkTimer = Timer.builder("samgov.search.indexer.bulk")
+                .description("Elasticsearch bulk request latency")
+                .register(registry);
+    }
+
+    private static Counter documents(MeterRegistry registry, String result) {
+        return Counter.builder("samgov.search.indexer.documents")
+                .description("Outbox documents applied to the search index, by result")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Drains every due outbox entry.
+     *
+     * @return number of opportunities applied to the index
+     */
+    @Scheduled(fixedDelayString = "${search.indexer.flush-interval-ms:1000}")
+    public int drain() {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        int applied = 0;
+        while (!paused) {
+            BatchResult result;
+            drainLock.lock();
+            try {
+                if (paused) {
+                    break;
+                }
+                result = drainBatch();
+            } catch (RuntimeException e) {
+                log.warn("Search outbox drain failed, will retry: {}", e.getMessage());
+                return applied;
+            } finally {
+                drainLock.unlock();
+            }
+            applied += result.applied();
+            notifyAlerts(result.created());
+            if (result.claimed() < properties.getMaxActions() || result.applied() == 0) {
+                return applied;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Raises alerts for opportunities new to the index. Runs after the batch has committed, so
+     * a failure here costs alerts but never index updates.
+     */
+    private void notifyAlerts(List<Opportunity> created) {
+        if (created.isEmpty()) {
+            return;
+        }
+        try {
+            alertService.notifyNewOpportunities(created);
+        } catch (RuntimeException e) {
+            log.warn("Matching {} new opportunities against alerts failed: {}", created.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Held cluster-wide pause; closing it resumes draining.
+     */
+    interface Pause extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Stops draining on every node until the returned pause is closed, waiting for claims in
+     * progress elsewhere and for a batch in flight on this node to finish.
+     *
+     * @throws IllegalStateException if the pause lock cannot be taken
+     */
+    Pause pause() {
+        paused = true;
+        Connection connection = null;
+        try {
+            connection = jdbcTemplate.getDataSource().getConnection();
+            try (PreparedStatement lock = connection.prepareStatement("SELECT pg_advisory_lock(?)")) {
+                lock.setLong(1, PAUSE_LOCK);
+                lock.execute();
+            }
+        } catch (SQLException e) {
+            paused = false;
+            closeQuietly(connection);
+            throw new IllegalStateException("Could not pause the search indexer: " + e.getMessage(), e);
+        }
+        drainLock.lock();
+        drainLock.unlock();
+
+        Connection held = connection;
+        return () -> {
+            try (PreparedStatement unlock = held.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                unlock.setLong(1, PAUSE_LOCK);
+                unlock.execute();
+            } catch (SQLException e) {
+                // Don't hand a connection that may still hold the lock back to the pool
+                log.warn("Could not release the search indexer pause, dropping its connection: {}", e.getMessage());
+                try {
+                    held.abort(Runnable::run);
+                } catch (SQLException ignored) {
+                    // closed below either way
+                }
+            } finally {
+                closeQuietly(held);
+                paused = false;
+            }
+        };
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.warn("Could not close the search indexer pause connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the given rows into an index with the same bulk requests, versions and retries
+     * as the outbox drain.
+     *
+     * @return number of rows that could not be written
+     */
+    int indexRows(String index, List<Opportunity> rows) {
+        Instant now = Instant.now();
+        List<Action> actions = new ArrayList<>(rows.size());
+        for (Opportunity row : rows) {
+            actions.add(toAction(index, row.getId(), List.of(), row, now));
+        }
+        int failures = 0;
+        for (List<Action> request : splitByBytes(actions)) {
+            Map<String, String> errors = send(request).errors();
+            if (!errors.isEmpty()) {
+                failures += errors.size();
+                log.warn("{} documents could not be written to {}, first error: {}", errors.size(), index,
+                        errors.values().iterator().next());
+            }
+        }
+        return failures;
+    }
+
+    private record Claimed(long id, String opportunityId, int attempts) {}
+
+    private record BatchResult(int claimed, int applied, List<Opportunity> created) {}
+
+    /**
+     * Outcome of one bulk request: errors per opportunity id, and the ids whose documents
+     * were created rather than replaced.
+     */
+    private record Sent(Map<String, String> errors, Set<String> created) {}
+
+    /**
+     * One pending document: the newest state of an opportunity, or its deletion.
+     */
+    private record Action(String opportunityId, List<Claimed> entries, BulkOperation operation, int bytes) {}
+
+    private BatchResult drainBatch() {
+        Instant now = Instant.now();
+        // Compared for equality when the batch is released, so kept at a precision the column holds
+        Timestamp lease = Timestamp.from(now.plusMillis(properties.getLeaseMs()).truncatedTo(ChronoUnit.MILLIS));
+        List<Claimed> claimed = transactionTemplate.execute(status -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(NOT_PAUSED_SQL, Boolean.class, PAUSE_LOCK))) {
+                // A reindex somewhere holds the pause
+                return List.of();
+            }
+            return jdbcTemplate.query(CLAIM_SQL,
+                    (rs, rowNum) -> new Claimed(rs.getLong("id"), rs.getString("opportunity_id"), rs.getInt("attempts")),
+                    lease, Timestamp.from(now), properties.getMaxAttempts(), properties.getMaxActions());
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return new BatchResult(0, 0, List.of());
+        }
+        claimed = claimed.stream().sorted(Comparator.comparingLong(Claimed::id)).toList();
+
+        Map<String, List<Claimed>> byOpportunity = new LinkedHashMap<>();
+        for (Claimed entry : claimed) {
+            byOpportunity.computeIfAbsent(entry.opportunityId(), id -> new ArrayList<>()).add(entry);
+        }
+        Map<String, Opportunity> rows = opportunityRepository.findAllById(byOpportunity.keySet()).stream()
+                .collect(Collectors.toMap(Opportunity::getId, Function.identity()));
+
+        String index = operations.getIndexCoordinatesFor(OpportunityDocument.class).getIndexName();
+        List<Action> actions = new ArrayList<>(byOpportunity.size());
+        for (Map.Entry<String, List<Claimed>> pending : byOpportunity.entrySet()) {
+            actions.add(toAction(index, pending.getKey(), pending.getValue(), rows.get(pending.getKey()), now));
+        }
+
+        List<Object[]> done = new ArrayList<>();
+        List<Object[]> retry = new ArrayList<>();
+        List<Opportunity> created = new ArrayList<>();
+        int applied = 0;
+        for (List<Action> request : splitByBytes(actions)) {
+            Sent sent = send(request);
+            Map<String, String> errors = sent.errors();
+            for (Action action : request) {
+                String error = errors.get(action.opportunityId());
+                if (error == null) {
+                    applied++;
+                    action.entries().forEach(entry -> done.add(new Object[] {entry.id()}));
+                    if (sent.created().contains(action.opportunityId())) {
+                        created.add(rows.get(action.opportunityId()));
+                    }
+                } else {
+                    action.entries().forEach(entry -> retry.add(new Object[] {
+                            Timestamp.from(now.plus(backoff(entry.attempts() + 1))), truncate(error), entry.id(),
+                            lease}));
+                }
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!done.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_SQL, done);
+            }
+            if (!retry.isEmpty()) {
+                jdbcTemplate.batchUpdate(RESCHEDULE_SQL, retry);
+            }
+        });
+        if (!retry.isEmpty()) {
+            failed.increment(actions.size() - applied);
+            log.warn("{} of {} search index updates failed and were rescheduled", actions.size() - applied,
+                    actions.size());
+        }
+        businessMetrics.recordOpportunitiesIndexed(applied);
+        if (applied > 0) {
+            // Faceted searches are answered from the index, so they change only now
+            dataGeneration.advance();
+        }
+        log.debug("Applied {} search index updates from {} outbox entries", applied, claimed.size());
+        return new BatchResult(claimed.size(), applied, created);
+    }
+
+    private Action toAction(String index, String opportunityId, List<Claimed> entries, Opportunity row, Instant now) {
+        if (row == null) {
+            long version = micros(now);
+            return new Action(opportunityId, entries, BulkOperation.of(op -> op.delete(delete -> delete
+                    .index(index).id(opportunityId).version(version).versionType(VersionType.External))), 64);
+        }
+        String json = operations.getElasticsearchConverter().mapObject(OpportunityDocument.fromEntity(row)).toJson();
+        long version = micros(row.getUpdatedAt() != null ? row.getUpdatedAt() : now);
+        return new Action(opportunityId, entries, BulkOperation.of(op -> op.index(write -> write
+                .index(index).id(opportunityId).version(version).versionType(VersionType.External)
+                .document(JsonData.fromJson(json)))), json.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    private List<List<Action>> splitByBytes(List<Action> actions) {
+        List<List<Action>> requests = new ArrayList<>();
+        List<Action> current = new ArrayList<>();
+        long bytes = 0;
+        for (Action action : actions) {
+            if (!current.isEmpty() && bytes + action.bytes() > properties.getMaxBytes()) {
+                requests.add(current);
+                current = new ArrayList<>();
+                bytes = 0;
+            }
+            current.add(action);
+            bytes += action.bytes();
+        }
+        if (!current.isEmpty()) {
+            requests.add(current);
+        }
+        return requests;
+    }
+
+    /**
+     * Sends one bulk request, retrying it as a whole on connection errors, 429 and 5xx.
+     *
+     * @return error per opportunity id for documents that were not applied, and the ids of
+     *         documents that were new to the index
+     */
+    private Sent send(List<Action> request) {
+        List<BulkOperation> bulk = request.stream().map(Action::operation).toList();
+        String lastError = null;
+        for (int attempt = 0; attempt <= properties.getMaxRetries(); attempt++) {
+            if (attempt > 0 && !sleep(backoff(attempt))) {
+                break;
+            }
+            try {
+                BulkResponse response = bulkTimer.recordCallable(() -> client.bulk(b -> b.operations(bulk)));
+                return sent(response);
+            } catch (ElasticsearchException e) {
+                lastError = e.getMessage();
+                if (e.status() != 429 && e.status() < 500) {
+                    break;
+                }
+            } catch (Exception e) {
+                lastError = e.getMessage();
+            }
+            log.warn("Bulk request of {} documents failed (attempt {}): {}", bulk.size(), attempt + 1, lastError);
+        }
+        String error = lastError != null ? lastError : "Bulk request failed";
+        return new Sent(request.stream().collect(Collectors.toMap(Action::opportunityId, action -> error)), Set.of());
+    }
+
+    private Sent sent(BulkResponse response) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        Set<String> created = new HashSet<>();
+        for (BulkResponseItem item : response.items()) {
+            int status = item.status();
+            if (status == 409) {
+                // A newer (or the same) version is already indexed
+                stale.increment();
+            } else if (item.error() == null && (status < 300 || status == 404)) {
+                (status == 404 || "deleted".equals(item.result()) ? deleted : indexed).increment();
+                if ("created".equals(item.result())) {
+                    created.add(item.id());
+                }
+            } else {
+                errors.put(item.id(), item.error() != null ? item.error().reason() : "HTTP " + status);
+            }
+        }
+        return new Sent(errors, created);
+    }
+
+    private Duration backoff(int attempt) {
+        long millis = properties.getRetryBackoffMs() << Math.min(attempt - 1, 20);
+        return millis > MAX_BACKOFF.toMillis() || millis <= 0 ? MAX_BACKOFF : Duration.ofMillis(millis);
+    }
+
+    private static boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static long micros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
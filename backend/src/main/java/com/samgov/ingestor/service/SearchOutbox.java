@@ -0,0 +1,49 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.SearchIndexerProperties;
+import com.samgov.ingestor.model.SearchOutboxEntry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records opportunity changes for the search indexer (see {@link SearchOutboxEntry}).
+ *
+ * Writes go through the caller's JDBC connection, so they commit or roll back together with
+ * the change they describe: the index can lag behind the database, but never miss a change
+ * or see one that did not commit. {@link SearchIndexer} drains the entries.
+ */
+@Service
+public class SearchOutbox {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO search_outbox (opportunity_id, attempts, next_attempt_at, created_at) VALUES (?, 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SearchIndexerProperties properties;
+
+    public SearchOutbox(JdbcTemplate jdbcTemplate, SearchIndexerProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Records that the given opportunities were inserted, changed or deleted.
+     * Call inside the transaction that makes the change.
+     */
+    public void enqueue(Collection<String> opportunityIds) {
+        if (!properties.isEnabled() || opportunityIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = opportunityIds.stream()
+                .distinct()
+                .map(id -> new Object[] {id, now, now})
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+}
@@ -0,0 +1,326 @@
+package com.samgov.ingestor.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import com.samgov.ingestor.config.SearchIndexerProperties;
+import com.samgov.ingestor.elasticsearch.OpportunityDocument;
+import com.samgov.ingestor.model.Opportunity;
+import com.samgov.ingestor.repository.OpportunityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rebuilds the opportunity index without taking search offline.
+ *
+ * The opportunity index name ("opportunities") is served through an alias. A reindex creates
+ * a new versioned index (opportunities_yyyyMMddHHmmssSSS) with refresh and replicas turned off,
+ * loads it from search.indexer.reindex-slices id ranges in parallel - each read in keyset
+ * pages, never with offsets - then restores the settings, refreshes, and moves the alias to
+ * the new index in one atomic alias update before deleting the old one. Searches keep hitting
+ * the old index until the swap.
+ *
+ * The outbox indexer is paused on every node for the duration, so changes committed while the
+ * new index loads stay queued and are applied to it right after the swap; external versions
+ * make the overlap with the loaded rows harmless. A reindex that fails (or could not write
+ * every row) deletes its index and leaves the alias untouched.
+ */
+@Service
+@ConditionalOnExpression("${elasticsearch.enabled:true}")
+public class SearchReindexer {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchReindexer.class);
+
+    private static final DateTimeFormatter INDEX_SUFFIX =
+            DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS").withZone(ZoneOffset.UTC);
+
+    // Last id of each of n equally sized id ranges
+    private static final String SLICE_BOUNDS_SQL = """
+            SELECT max(id) FROM (SELECT id, ntile(?) OVER (ORDER BY id) AS slice FROM opportunities) ranked
+            GROUP BY slice
+            ORDER BY 1
+            """;
+
+    private final OpportunityRepository opportunityRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ElasticsearchClient client;
+    private final ElasticsearchOperations operations;
+    private final SearchIndexer indexer;
+    private final SearchIndexerProperties properties;
+    private final Executor executor;
+
+    // Latest run; kept after it finishes so its outcome can be queried
+    private Progress current;
+
+    public SearchReindexer(OpportunityRepository opportunityRepository, JdbcTemplate jdbcTemplate,
+                           ElasticsearchClient client, ElasticsearchOperations operations, SearchIndexer indexer,
+                           SearchIndexerProperties properties, @Qualifier("taskExecutor") Executor executor) {
+        this.opportunityRepository = opportunityRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.client = client;
+        this.operations = operations;
+        this.indexer = indexer;
+        this.properties = properties;
+        this.executor = executor;
+    }
+
+    public enum State { RUNNING, COMPLETED, FAILED }
+
+    /**
+     * Snapshot of a reindex run.
+     */
+    public record ReindexStatus(
+            String index,
+            State state,
+            long total,
+            long indexed,
+            long failed,
+            Instant startedAt,
+            Instant finishedAt,
+            double docsPerSecond,
+            String error
+    ) {}
+
+    /**
+     * Starts a reindex in the background.
+     *
+     * @return status of the new run
+     * @throws IllegalStateException if a reindex is already running
+     */
+    public ReindexStatus start() {
+        Progress progress = claim();
+        executor.execute(() -> run(progress));
+        return progress.status();
+    }
+
+    /**
+     * Runs a reindex on the calling thread.
+     *
+     * @return final status of the run
+     * @throws IllegalStateException if a reindex is already running
+     */
+    public ReindexStatus reindex() {
+        Progress progress = claim();
+        run(progress);
+        return progress.status();
+    }
+
+    /**
+     * Status of the running or most recent reindex, or null if there has been none.
+     */
+    public synchronized ReindexStatus status() {
+        return current != null ? current.status() : null;
+    }
+
+    private synchronized Progress claim() {
+        if (current != null && current.state == State.RUNNING) {
+            throw new IllegalStateException("A search reindex into " + current.index + " is already running");
+        }
+        current = new Progress(alias() + "_" + INDEX_SUFFIX.format(Instant.now()));
+        return current;
+    }
+
+    private void run(Progress progress) {
+        String alias = alias();
+        log.info("Starting search reindex into {}", progress.index);
+        SearchIndexer.Pause pause = null;
+        boolean created = false;
+        try {
+            pause = indexer.pause();
+            createIndex(progress.index);
+            created = true;
+            progress.total = opportunityRepository.count();
+            load(progress, sliceBounds());
+            if (progress.failed.get() > 0) {
+                throw new IllegalStateException(progress.failed.get() + " documents could not be indexed");
+            }
+            Setting setting = OpportunityDocument.class.getAnnotation(Setting.class);
+            client.indices().putSettings(put -> put.index(progress.index).settings(settings -> settings
+                    .refreshInterval(time -> time.time("1s"))
+                    .numberOfReplicas(String.valueOf(setting.replicas()))));
+            client.indices().refresh(refresh -> refresh.index(progress.index));
+            swapAlias(alias, progress.index);
+            progress.finish(State.COMPLETED, null);
+            ReindexStatus status = progress.status();
+            log.info("Search reindex into {} completed: {} documents in {}s ({} docs/s)", progress.index,
+                    status.indexed(), Duration.between(status.startedAt(), status.finishedAt()).toSeconds(),
+                    Math.round(status.docsPerSecond()));
+        } catch (Exception e) {
+            log.error("Search reindex into {} failed", progress.index, e);
+            progress.finish(State.FAILED, e.getMessage());
+            if (created) {
+                deleteQuietly(progress.index);
+            }
+        } finally {
+            if (pause != null) {
+                pause.close();
+            }
+        }
+    }
+
+    private String alias() {
+        return operations.getIndexCoordinatesFor(OpportunityDocument.class).getIndexName();
+    }
+
+    /**
+     * Creates the target index with the document's mapping and load-friendly settings.
+     */
+    private void createIndex(String index) throws IOException {
+        Setting setting = OpportunityDocument.class.getAnnotation(Setting.class);
+        String mapping = operations.indexOps(OpportunityDocument.class).createMapping().toJson();
+        client.indices().create(create -> create
+                .index(index)
+                .settings(settings -> settings
+                        .numberOfShards(String.valueOf(setting.shards()))
+                        .numberOfReplicas("0")
+                        .refreshInterval(time -> time.time("-1")))
+                .mappings(mappings -> mappings.withJson(new StringReader(mapping))));
+    }
+
+    /**
+     * Upper id bounds of the slices; the last slice is open-ended.
+     */
+    private List<String> sliceBounds() {
+        List<String> bounds = jdbcTemplate.queryForList(SLICE_BOUNDS_SQL, String.class,
+                properties.getReindexSlices());
+        return bounds.isEmpty() ? List.of() : bounds.subList(0, bounds.size() - 1);
+    }
+
+    private void load(Progress progress, List<String> bounds) {
+        int slices = bounds.size() + 1;
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(slices, runnable -> {
+            Thread thread = new Thread(runnable, "search-reindex-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<Void>> loads = new ArrayList<>(slices);
+            for (int slice = 0; slice < slices; slice++) {
+                String after = slice == 0 ? "" : bounds.get(slice - 1);
+                String upTo = slice < bounds.size() ? bounds.get(slice) : null;
+                loads.add(CompletableFuture.runAsync(() -> loadSlice(progress, after, upTo), pool));
+            }
+            CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Loads ids in (after, upTo], or everything after {@code after} when upTo is null.
+     */
+    private void loadSlice(Progress progress, String after, String upTo) {
+        Limit page = Limit.of(properties.getReindexBatchSize());
+        String last = after;
+        while (true) {
+            List<Opportunity> rows = upTo != null
+                    ? opportunityRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(last, upTo, page)
+                    : opportunityRepository.findByIdGreaterThanOrderByIdAsc(last, page);
+            if (rows.isEmpty()) {
+                return;
+            }
+            int failures = indexer.indexRows(progress.index, rows);
+            progress.indexed.addAndGet(rows.size() - failures);
+            progress.failed.addAndGet(failures);
+            last = rows.get(rows.size() - 1).getId();
+            if (rows.size() < page.max()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Points the alias at the new index and drops the indices it pointed at before, in one
+     * alias update. An index that carries the alias name itself (created before aliases were
+     * used) is removed by the same update.
+     */
+    private void swapAlias(String alias, String index) throws IOException {
+        List<String> previous = new ArrayList<>();
+        try {
+            previous.addAll(client.indices().getAlias(get -> get.name(alias)).result().keySet());
+        } catch (ElasticsearchException e) {
+            if (e.status() != 404) {
+                throw e;
+            }
+        }
+        boolean concrete = previous.isEmpty() && client.indices().exists(exists -> exists.index(alias)).value();
+
+        client.indices().updateAliases(update -> {
+            update.actions(action -> action.add(add -> add.index(index).alias(alias).isWriteIndex(true)));
+            for (String old : previous) {
+                update.actions(action -> action.remove(remove -> remove.index(old).alias(alias)));
+            }
+            if (concrete) {
+                update.actions(action -> action.removeIndex(remove -> remove.index(alias)));
+            }
+            return update;
+        });
+        log.info("Moved search alias {} to {}", alias, index);
+
+        for (String old : previous) {
+            deleteQuietly(old);
+        }
+    }
+
+    private void deleteQuietly(String index) {
+        try {
+            client.indices().delete(delete -> delete.index(index).ignoreUnavailable(true));
+        } catch (Exception e) {
+            log.warn("Could not delete search index {}: {}", index, e.getMessage());
+        }
+    }
+
+    /**
+     * Mutable progress of one run; counters are updated by the slice threads.
+     */
+    private static final class Progress {
+        private final String index;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong indexed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile long total;
+        private volatile State state = State.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private Progress(String index) {
+            this.index = index;
+        }
+
+        private void finish(State state, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.state = state;
+        }
+
+        private ReindexStatus status() {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double seconds = Math.max(Duration.between(startedAt, end).toMillis(), 1) / 1000.0;
+            long done = indexed.get();
+            return new ReindexStatus(index, state, total, done, failed.get(), startedAt, finishedAt,
+                    done / seconds, error);
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.TypeaheadProperties;
+import com.samgov.ingestor.util.CompletionTrie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index behind search suggestions, so typeahead never queries the database.
+ *
+ * Suggestions are opportunity titles, agencies and sub-agencies, NAICS codes with their
+ * descriptions, and solicitation numbers of active opportunities. Each is stored in a
+ * {@link CompletionTrie} under its full text and under every word after the first, so "cyber"
+ * finds "Navy Cybersecurity Support"; a lookup returns the cached best matches of the prefix.
+ *
+ * Suggestions rank by popularity and recency: every active opportunity contributes a weight
+ * that doubles per search.typeahead.recency-half-life-days of posted date, and a suggestion's
+ * weight is the sum over the opportunities carrying it (an agency with many recent postings
+ * outranks one with a single old one).
+ *
+ * The index starts from a full load and then follows ingestion deltas: every
+ * search.typeahead.refresh-interval-ms it reads opportunities whose updated_at moved past its
+ * watermark (keyset pages on updated_at and id) and replaces their contributions. Deleted rows
+ * leave no delta, so the index is also rebuilt on search.typeahead.rebuild-cron; lookups keep
+ * using the old index until the new one is swapped in.
+ */
+@Service
+@ConditionalOnProperty(name = "search.typeahead.enabled", havingValue = "true", matchIfMissing = true)
+public class TypeaheadIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TypeaheadIndex.class);
+
+    private static final String CHANGES_SQL = """
+            SELECT id, title, agency, sub_agency, naics_code, naics_description, solicitation_number,
+                   status, posted_date, updated_at
+            FROM opportunities
+            WHERE (updated_at, id) > (?, ?)
+            ORDER BY updated_at, id
+            LIMIT ?
+            """;
+
+    // Deltas are re-read this far behind the watermark to catch rows whose transaction
+    // committed after one with a later updated_at; rows already applied are skipped
+    private static final Duration COMMIT_LAG = Duration.ofSeconds(30);
+
+    // Words of a suggestion it can be found by, and words that never start a key
+    private static final int MAX_WORDS = 12;
+    private static final Set<String> STOP_WORDS =
+            Set.of("a", "an", "and", "at", "by", "for", "in", "of", "on", "or", "the", "to", "with");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TypeaheadProperties properties;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Null until the first load completes; guarded by lock
+    private Snapshot snapshot;
+
+    public TypeaheadIndex(JdbcTemplate jdbcTemplate, TypeaheadProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * One suggestion: its text, what it is (opportunity, agency, naics, solicitation) and the
+     * number of active opportunities it matches.
+     */
+    public record Completion(String text, String type, int count) {}
+
+    /**
+     * Searchable fields of one opportunity row.
+     */
+    record Change(
+            String id,
+            String title,
+            String agency,
+            String subAgency,
+            String naicsCode,
+            String naicsDescription,
+            String solicitationNumber,
+            boolean active,
+            LocalDate postedDate,
+            Instant updatedAt
+    ) {}
+
+    /**
+     * Whether the first load has completed; until then every lookup is empty.
+     */
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return snapshot != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best suggestions whose text, or a word of it, starts with the query.
+     * Case and punctuation are ignored.
+     *
+     * @param limit at most search.typeahead.max-suggestions are returned
+     */
+    public List<Completion> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (snapshot == null) {
+                return List.of();
+            }
+            return snapshot.trie.top(prefix, limit).stream()
+                    .map(term -> new Completion(term.text, term.type, term.count))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies opportunities changed since the last refresh, or loads everything the first time.
+     *
+     * @return number of opportunities whose suggestions changed
+     */
+    @Scheduled(fixedDelayString = "${search.typeahead.refresh-interval-ms:5000}")
+    public synchronized int refresh() {
+        Snapshot current;
+        lock.readLock().lock();
+        try {
+            current = snapshot;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (current == null) {
+            return rebuild();
+        }
+        int applied = load(current, true);
+        if (applied > 0) {
+            log.debug("Applied {} opportunity changes to the typeahead index", applied);
+        }
+        return applied;
+    }
+
+    /**
+     * Loads a fresh index from the database and swaps it in.
+     *
+     * @return number of active opportunities indexed
+     */
+    @Scheduled(cron = "${search.typeahead.rebuild-cron:0 30 3 * * *}")
+    public synchronized int rebuild() {
+        long start = System.currentTimeMillis();
+        Snapshot fresh = new Snapshot(LocalDate.now(ZoneOffset.UTC));
+        load(fresh, false);
+        fresh.index();
+        lock.writeLock().lock();
+        try {
+            snapshot = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built typeahead index: {} suggestions under {} keys from {} opportunities in {}ms",
+                fresh.terms.size(), fresh.trie.size(), fresh.contributions.size(),
+                System.currentTimeMillis() - start);
+        return fresh.contributions.size();
+    }
+
+    /**
+     * Reads rows past the snapshot's watermark in keyset pages and applies them; a live
+     * snapshot is only locked while a page is applied, never during a query.
+     */
+    private int load(Snapshot target, boolean live) {
+        Instant after = live ? target.watermark.minus(COMMIT_LAG) : target.watermark;
+        String afterId = "";
+        int applied = 0;
+        while (true) {
+            List<Change> page = jdbcTemplate.query(CHANGES_SQL, TypeaheadIndex::mapChange,
+                    Timestamp.from(after), afterId, properties.getBatchSize());
+            if (page.isEmpty()) {
+                return applied;
+            }
+            if (live) {
+                lock.writeLock().lock();
+            }
+            try {
+                applied += target.apply(page);
+            } finally {
+                if (live) {
+                    lock.writeLock().unlock();
+                }
+            }
+            Change last = page.get(page.size() - 1);
+            after = last.updatedAt();
+            afterId = last.id();
+            if (page.size() < properties.getBatchSize()) {
+                return applied;
+            }
+        }
+    }
+
+    private static Change mapChange(ResultSet rs, int row) throws SQLException {
+        Date posted = rs.getDate("posted_date");
+        return new Change(
+                rs.getString("id"),
+                rs.getString("title"),
+                rs.getString("agency"),
+                rs.getString("sub_agency"),
+                rs.getString("naics_code"),
+                rs.getString("naics_description"),
+                rs.getString("solicitation_number"),
+                "ACTIVE".equals(rs.getString("status")),
+                posted != null ? posted.toLocalDate() : null,
+                rs.getTimestamp("updated_at").toInstant());
+    }
+
+    /**
+     * Applies rows to a standalone index, bypassing the database (benchmarks).
+     */
+    static TypeaheadIndex of(List<Change> rows, TypeaheadProperties properties) {
+        TypeaheadIndex index = new TypeaheadIndex(null, properties);
+        Snapshot built = index.new Snapshot(LocalDate.now(ZoneOffset.UTC));
+        built.apply(rows);
+        built.index();
+        index.snapshot = built;
+        return index;
+    }
+
+    /**
+     * Lower-cases and collapses everything but letters and digits to single spaces, so
+     * "W912DY-24-R-0001" and "w912dy 24" compare as prefixes.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return NON_WORD.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * The normalized text, then the rest of it from each later word that is not a stop word.
+     */
+    private static List<String> wordKeys(String normalized) {
+        List<String> keys = new ArrayList<>();
+        keys.add(normalized);
+        int words = 1;
+        for (int i = normalized.indexOf(' '); i >= 0 && words < MAX_WORDS; i = normalized.indexOf(' ', i + 1)) {
+            String rest = normalized.substring(i + 1);
+            int end = rest.indexOf(' ');
+            if (!STOP_WORDS.contains(end < 0 ? rest : rest.substring(0, end))) {
+                keys.add(rest);
+            }
+            words++;
+        }
+        return keys;
+    }
+
+    /**
+     * A suggestion and the keys it is stored under. Weight and count only change while it is
+     * out of the trie.
+     */
+    private static final class Term {
+
+        private static final Comparator<Term> BEST_FIRST = Comparator
+                .comparingDouble((Term term) -> -term.weight)
+                .thenComparingInt(term -> -term.count)
+                .thenComparing(term -> term.text)
+                .thenComparing(term -> term.type);
+
+        private final String id;
+        private final String type;
+        private final String text;
+        private final List<String> keys;
+        private double weight;
+        private int count;
+
+        private Term(String id, String type, String text, List<String> keys) {
+            this.id = id;
+            this.type = type;
+            this.text = text;
+            this.keys = keys;
+        }
+    }
+
+    /**
+     * What one opportunity added to the index, so an update can take it back out.
+     */
+    private record Contribution(List<Term> terms, double weight, Instant updatedAt) {}
+
+    /**
+     * One generation of the index.
+     */
+    private final class Snapshot {
+
+        private final CompletionTrie<Term> trie =
+                new CompletionTrie<>(Term.BEST_FIRST, properties.getMaxSuggestions());
+        private final Map<String, Term> terms = new HashMap<>();
+        private final Map<String, Contribution> contributions = new HashMap<>();
+        // Recency weights are relative to this day, so they never need rescaling
+        private final long anchorDay;
+        private Instant watermark = Instant.EPOCH;
+        // While a fresh snapshot loads, only weights are summed; index() then stores each
+        // suggestion once instead of re-storing it for every opportunity that carries it
+        private boolean loading = true;
+
+        private Snapshot(LocalDate anchor) {
+            this.anchorDay = anchor.toEpochDay();
+        }
+
+        private int apply(List<Change> changes) {
+            int applied = 0;
+            for (Change change : changes) {
+                if (apply(change)) {
+                    applied++;
+                }
+                if (change.updatedAt().isAfter(watermark)) {
+                    watermark = change.updatedAt();
+                }
+            }
+            return applied;
+        }
+
+        private boolean apply(Change change) {
+            Contribution previous = contributions.get(change.id());
+            if (previous != null && previous.updatedAt().equals(change.updatedAt())) {
+                return false;
+            }
+            if (previous != null) {
+                contributions.remove(change.id());
+                previous.terms().forEach(term -> withdraw(term, previous.weight()));
+            }
+            if (!change.active()) {
+                return previous != null;
+            }
+
+            double weight = weight(change);
+            List<Term> added = new ArrayList<>();
+            addTerm(added, "opportunity", change.title(), change.title(), true);
+            addTerm(added, "agency", change.agency(), change.agency(), true);
+            addTerm(added, "agency", change.subAgency(), change.subAgency(), true);
+            addTerm(added, "naics", change.naicsCode(), naicsText(change), true);
+            addTerm(added, "solicitation", change.solicitationNumber(), change.solicitationNumber(), false);
+            added.forEach(term -> contribute(term, weight));
+            contributions.put(change.id(), new Contribution(List.copyOf(added), weight, change.updatedAt()));
+            return true;
+        }
+
+        private void addTerm(List<Term> added, String type, String identity, String text, boolean byWord) {
+            String normalizedIdentity = normalize(identity);
+            if (normalizedIdentity.isEmpty()) {
+                return;
+            }
+            Term term = terms.computeIfAbsent(type + '|' + normalizedIdentity, id -> {
+                String normalizedText = normalize(text);
+                List<String> keys = byWord ? new ArrayList<>(wordKeys(normalizedText)) : new ArrayList<>();
+                if (!byWord) {
+                    keys.add(normalizedText);
+                }
+                if (!normalizedText.startsWith(normalizedIdentity)) {
+                    keys.add(normalizedIdentity);
+                }
+                return new Term(id, type, text.trim(), List.copyOf(keys));
+            });
+            if (!added.contains(term)) {
+                added.add(term);
+            }
+        }
+
+        private static String naicsText(Change change) {
+            String description = change.naicsDescription();
+            return description == null || description.isBlank()
+                    ? change.naicsCode()
+                    : change.naicsCode() + " - " + description.trim();
+        }
+
+        /**
+         * Doubles per half-life of posted date (updated date when unknown), relative to the
+         * anchor; clamped so bad dates cannot overflow or drown out everything else.
+         */
+        private double weight(Change change) {
+            long day = change.postedDate() != null
+                    ? change.postedDate().toEpochDay()
+                    : LocalDate.ofInstant(change.updatedAt(), ZoneOffset.UTC).toEpochDay();
+            long age = Math.max(-3650, Math.min(365, day - anchorDay));
+            return Math.pow(2, age / (double) properties.getRecencyHalfLifeDays());
+        }
+
+        private void index() {
+            terms.values().forEach(term -> term.keys.forEach(key -> trie.put(key, term)));
+            loading = false;
+        }
+
+        private void contribute(Term term, double weight) {
+            if (!loading && term.count > 0) {
+                term.keys.forEach(key -> trie.remove(key, term));
+            }
+            term.weight += weight;
+            term.count++;
+            if (!loading) {
+                term.keys.forEach(key -> trie.put(key, term));
+            }
+        }
+
+        private void withdraw(Term term, double weight) {
+            if (!loading) {
+                term.keys.forEach(key -> trie.remove(key, term));
+            }
+            term.weight -= weight;
+            term.count--;
+            if (term.count == 0) {
+                terms.remove(term.id);
+            } else if (!loading) {
+                term.keys.forEach(key -> trie.put(key, term));
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.samgov.ingestor.service;
 
 import com.samgov.ingestor.client.UsaSpendingApiClient;
+import com.samgov.ingestor.config.IngestionPipelineProperties;
 import com.samgov.ingestor.config.UsaSpendingProperties;
 import com.samgov.ingestor.dto.UsaSpendingAwardDto;
 import com.samgov.ingestor.model.Opportunity;
@@ -8,19 +9,26 @@ import com.samgov.ingestor.model.Opportunity.DataSource;
 import com.samgov.ingestor.model.Opportunity.OpportunityStatus;
 import com.samgov.ingestor.model.Opportunity.ContractLevel;
 import com.samgov.ingestor.repository.OpportunityRepository;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertMapping;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertResult;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertTable;
+import com.samgov.ingestor.service.IngestionPipeline.ScopeSource;
+import com.samgov.ingestor.service.IngestionPipeline.ScopeSummary;
+import com.samgov.ingestor.util.IngestionProgress;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Service for ingesting federal spending/award data from USAspending.gov.
@@ -35,159 +43,245 @@ public class UsaSpendingIngestionService {
     private final UsaSpendingApiClient usaSpendingClient;
     private final OpportunityRepository opportunityRepository;
     private final UsaSpendingProperties properties;
+    private final BulkUpsertService bulkUpsertService;
+    private final IngestionPipelineProperties pipelineProperties;
+    private final IngestionPipelineMetrics pipelineMetrics;
+    private final OpportunityDataGeneration dataGeneration;
+    private final AwardMapping awardMapping = new AwardMapping();
 
     public UsaSpendingIngestionService(
             UsaSpendingApiClient usaSpendingClient,
             OpportunityRepository opportunityRepository,
-            UsaSpendingProperties properties) {
+            UsaSpendingProperties properties,
+            BulkUpsertService bulkUpsertService,
+            IngestionPipelineProperties pipelineProperties,
+            IngestionPipelineMetrics pipelineMetrics,
+            OpportunityDataGeneration dataGeneration) {
         this.usaSpendingClient = usaSpendingClient;
         this.opportunityRepository = opportunityRepository;
         this.properties = properties;
+        this.bulkUpsertService = bulkUpsertService;
+        this.pipelineProperties = pipelineProperties;
+        this.pipelineMetrics = pipelineMetrics;
+        this.dataGeneration = dataGeneration;
     }
 
     /**
      * Ingest recent awards from USAspending.gov.
-     * Uses configured NAICS codes and agencies as filters.
+     * Uses configured NAICS codes and agencies as filters; when both are configured every
+     * (NAICS, agency) combination is searched. Combinations are fetched concurrently and their
+     * pages streamed straight into batch writes. Each page that inserted or changed rows
+     * advances the opportunity data generation.
      *
      * @return IngestionResult with counts
      */
-    @Transactional
     public IngestionResult ingestRecentAwards() {
         if (!usaSpendingClient.isEnabled()) {
             log.info("USAspending integration is disabled");
-            return new IngestionResult(0, 0, 0, 0);
+            return new IngestionResult(0, 0, 0, 0, 0);
         }
 
         log.info("Starting USAspending.gov ingestion");
         long startTime = System.currentTimeMillis();
 
-        AtomicInteger newCount = new AtomicInteger(0);
-        AtomicInteger updatedCount = new AtomicInteger(0);
-        AtomicInteger skippedCount = new AtomicInteger(0);
-
+        RunTotals totals = new RunTotals();
         try {
             List<String> naicsCodes = properties.getNaicsCodes();
             List<String> agencies = properties.getAgencies();
 
-            if (naicsCodes.isEmpty() && agencies.isEmpty()) {
-                // No filters - fetch all recent awards
-                ingestAwards(null, null, newCount, updatedCount, skippedCount);
-            } else if (!naicsCodes.isEmpty()) {
-                // Fetch by NAICS codes
-                for (String naicsCode : naicsCodes) {
-                    ingestAwards(naicsCode, null, newCount, updatedCount, skippedCount);
-                }
-            } else {
-                // Fetch by agencies
-                for (String agency : agencies) {
-                    ingestAwards(null, agency, newCount, updatedCount, skippedCount);
+            // An empty filter list means "no filter" for that dimension
+            List<String> naicsFilters = naicsCodes.isEmpty() ? Collections.singletonList(null) : naicsCodes;
+            List<String> agencyFilters = agencies.isEmpty() ? Collections.singletonList(null) : agencies;
+            List<AwardScope> scopes = new ArrayList<>();
+            for (String naicsCode : naicsFilters) {
+                for (String agency : agencyFilters) {
+                    scopes.add(new AwardScope(naicsCode, agency, new AtomicBoolean(false)));
                 }
             }
+            runPipeline(scopes, totals);
         } catch (Exception e) {
             log.error("Error during USAspending ingestion", e);
         }
 
         long duration = System.currentTimeMillis() - startTime;
-        log.info("USAspending ingestion completed in {}ms. New: {}, Updated: {}, Skipped: {}",
-                duration, newCount.get(), updatedCount.get(), skippedCount.get());
+        log.info("USAspending ingestion completed in {}ms. New: {}, Updated: {}, Unchanged: {}, Skipped: {}",
+                duration, totals.inserted, totals.updated, totals.unchanged, totals.skipped);
 
-        return new IngestionResult(newCount.get(), updatedCount.get(), skippedCount.get(), duration);
+        return totals.toResult(duration);
     }
 
     /**
      * Ingest awards by NAICS code.
      */
-    @Transactional
     public IngestionResult ingestByNaics(String naicsCode) {
         if (!usaSpendingClient.isEnabled()) {
-            return new IngestionResult(0, 0, 0, 0);
+            return new IngestionResult(0, 0, 0, 0, 0);
         }
 
         log.info("Ingesting USAspending awards for NAICS: {}", naicsCode);
         long startTime = System.currentTimeMillis();
 
-        AtomicInteger newCount = new AtomicInteger(0);
-        AtomicInteger updatedCount = new AtomicInteger(0);
-        AtomicInteger skippedCount = new AtomicInteger(0);
+        RunTotals totals = new RunTotals();
+        runPipeline(List.of(new AwardScope(naicsCode, null, new AtomicBoolean(false))), totals);
 
-        ingestAwards(naicsCode, null, newCount, updatedCount, skippedCount);
-
-        long duration = System.currentTimeMillis() - startTime;
-        return new IngestionResult(newCount.get(), updatedCount.get(), skippedCount.get(), duration);
+        return totals.toResult(System.currentTimeMillis() - startTime);
     }
 
     /**
      * Ingest awards by agency.
      */
-    @Transactional
     public IngestionResult ingestByAgency(String agency) {
         if (!usaSpendingClient.isEnabled()) {
-            return new IngestionResult(0, 0, 0, 0);
+            return new IngestionResult(0, 0, 0, 0, 0);
         }
 
         log.info("Ingesting USAspending awards for agency: {}", agency);
         long startTime = System.currentTimeMillis();
 
-        AtomicInteger newCount = new AtomicInteger(0);
-        AtomicInteger updatedCount = new AtomicInteger(0);
-        AtomicInteger skippedCount = new AtomicInteger(0);
+        RunTotals totals = new RunTotals();
+        runPipeline(List.of(new AwardScope(null, agency, new AtomicBoolean(false))), totals);
 
-        ingestAwards(null, agency, newCount, updatedCount, skippedCount);
+        return totals.toResult(System.currentTimeMillis() - startTime);
+    }
 
-        long duration = System.currentTimeMillis() - startTime;
-        return new IngestionResult(newCount.get(), updatedCount.get(), skippedCount.get(), duration);
+    /**
+     * Fetches and writes the given filter combinations through one staged pipeline. Each
+     * combination's pages are prefetched concurrently by the client; combinations run on
+     * separate fetchers, and valid awards are written through the bulk upsert engine page by
+     * page as they arrive.
+     */
+    private void runPipeline(List<AwardScope> scopes, RunTotals totals) {
+        List<ScopeSource<AwardScope, UsaSpendingAwardDto>> sources = scopes.stream()
+                .map(scope -> new ScopeSource<AwardScope, UsaSpendingAwardDto>(scope, 0,
+                        () -> usaSpendingClient.streamAwardPages(scope.naicsCode(), scope.agency(),
+                                scope.fetchFailed())))
+                .toList();
+        new IngestionPipeline<>("usaspending.gov", pipelineProperties, pipelineMetrics, new AwardPageHandler(totals))
+                .run(sources);
     }
 
     /**
-     * Fetch and process awards with optional filters.
+     * One (NAICS, agency) filter combination; null means unfiltered.
      */
-    private void ingestAwards(String naicsCode, String agency,
-                              AtomicInteger newCount, AtomicInteger updatedCount, AtomicInteger skippedCount) {
-        try {
-            List<UsaSpendingAwardDto> awards = usaSpendingClient.fetchAllAwards(naicsCode, agency);
-            log.info("Fetched {} awards from USAspending (NAICS: {}, Agency: {})",
-                    awards.size(), naicsCode, agency);
+    private record AwardScope(String naicsCode, String agency, AtomicBoolean fetchFailed) {
+        @Override
+        public String toString() {
+            return "NAICS: " + naicsCode + ", Agency: " + agency;
+        }
+    }
 
-            for (UsaSpendingAwardDto dto : awards) {
-                try {
-                    processAward(dto, newCount, updatedCount, skippedCount);
-                } catch (Exception e) {
-                    log.error("Failed to process USAspending award: {}", dto.awardId(), e);
-                    skippedCount.incrementAndGet();
-                }
+    /**
+     * A page after validation: awards to upsert and how many were dropped.
+     */
+    private record AwardPage(List<UsaSpendingAwardDto> valid, int skipped) {}
+
+    /**
+     * Counts accumulated by the post-commit stage, which runs on the calling thread.
+     */
+    private static final class RunTotals {
+        private int inserted;
+        private int updated;
+        private int unchanged;
+        private int skipped;
+
+        private IngestionResult toResult(long durationMs) {
+            return new IngestionResult(inserted, updated, unchanged, skipped, durationMs);
+        }
+    }
+
+    /**
+     * USAspending stages: drops awards without an ID and upserts the rest page by page.
+     */
+    private class AwardPageHandler implements IngestionPipeline.Handler<AwardScope, UsaSpendingAwardDto, AwardPage> {
+
+        private final RunTotals totals;
+
+        AwardPageHandler(RunTotals totals) {
+            this.totals = totals;
+        }
+
+        @Override
+        public AwardPage normalize(AwardScope scope, int pageIndex, List<UsaSpendingAwardDto> page) {
+            IngestionProgress.recordPage();
+            List<UsaSpendingAwardDto> valid = page.stream()
+                    .filter(dto -> {
+                        if (dto.awardId() == null || dto.awardId().isBlank()) {
+                            log.debug("Skipping award with null ID");
+                            return false;
+                        }
+                        return true;
+                    })
+                    .toList();
+            return new AwardPage(valid, page.size() - valid.size());
+        }
+
+        @Override
+        public UpsertResult write(AwardScope scope, int pageIndex, AwardPage page) {
+            return bulkUpsertService.upsert(page.valid(), awardMapping);
+        }
+
+        @Override
+        public void pageCommitted(AwardScope scope, int pageIndex, AwardPage page, UpsertResult result) {
+            totals.inserted += result.inserted();
+            totals.updated += result.updated();
+            totals.unchanged += result.unchanged();
+            totals.skipped += page.skipped();
+            if (result.written() > 0) {
+                // Retire cached searches as soon as the page is visible, not at the end of the run
+                dataGeneration.advance();
             }
-        } catch (Exception e) {
-            log.error("Error fetching awards (NAICS: {}, Agency: {})", naicsCode, agency, e);
         }
+
+        @Override
+        public void scopeFinished(AwardScope scope, ScopeSummary summary) {
+            log.info("Fetched {} awards across {} pages from USAspending ({})",
+                    summary.fetched(), summary.pages(), scope);
+            if (summary.failed() || scope.fetchFailed().get()) {
+                log.error("Error ingesting awards ({}); later pages were not ingested", scope);
+            }
+        }
+    }
+
+    /**
+     * Use award ID as solicitation number for USAspending records.
+     */
+    private static String solicitationNumberFor(UsaSpendingAwardDto dto) {
+        return "USASPEND-" + dto.awardId().replaceAll("[^a-zA-Z0-9-]", "");
     }
 
     /**
-     * Process a single award DTO - insert or update as Opportunity.
+     * Maps USAspending awards onto the opportunities table, keyed by derived solicitation number.
      */
-    private void processAward(UsaSpendingAwardDto dto,
-                              AtomicInteger newCount, AtomicInteger updatedCount, AtomicInteger skippedCount) {
-        if (dto.awardId() == null || dto.awardId().isBlank()) {
-            log.debug("Skipping award with null ID");
-            skippedCount.incrementAndGet();
-            return;
-        }
-
-        // Use award ID as solicitation number for USAspending records
-        String solicitationNumber = "USASPEND-" + dto.awardId().replaceAll("[^a-zA-Z0-9-]", "");
-
-        Optional<Opportunity> existing = opportunityRepository.findBySolicitationNumber(solicitationNumber);
-
-        if (existing.isPresent()) {
-            Opportunity opp = existing.get();
-            updateOpportunityFromDto(opp, dto);
-            opportunityRepository.save(opp);
-            updatedCount.incrementAndGet();
-            log.debug("Updated USAspending opportunity: {}", solicitationNumber);
-        } else {
-            Opportunity opp = createOpportunityFromDto(dto, solicitationNumber);
-            opportunityRepository.save(opp);
-            newCount.incrementAndGet();
-            log.debug("Created new USAspending opportunity: {}", solicitationNumber);
+    private class AwardMapping implements UpsertMapping<UsaSpendingAwardDto, Opportunity> {
+
+        @Override
+        public UpsertTable<Opportunity> table() {
+            return BulkUpsertService.OPPORTUNITIES;
+        }
+
+        @Override
+        public String recordKey(UsaSpendingAwardDto dto) {
+            return solicitationNumberFor(dto);
+        }
+
+        @Override
+        public String entityKey(Opportunity opportunity) {
+            return opportunity.getSolicitationNumber();
+        }
+
+        @Override
+        public List<Opportunity> findExisting(Collection<String> solicitationNumbers) {
+            return opportunityRepository.findBySolicitationNumberIn(solicitationNumbers);
+        }
+
+        @Override
+        public Opportunity create(UsaSpendingAwardDto dto) {
+            return createOpportunityFromDto(dto, solicitationNumberFor(dto));
+        }
+
+        @Override
+        public void update(Opportunity opportunity, UsaSpendingAwardDto dto) {
+            updateOpportunityFromDto(opportunity, dto);
         }
     }
 
@@ -395,10 +489,19 @@ public class UsaSpendingIngestionService {
     /**
      * Ingestion result record.
      */
-    public record IngestionResult(int newRecords, int updatedRecords, int skippedRecords, long durationMs) {
+    public record IngestionResult(int newRecords, int updatedRecords, int unchangedRecords,
+                                  int skippedRecords, long durationMs) {
+        /**
+         * Rows written per second over the whole run.
+         */
+        public double rowsPerSecond() {
+            return durationMs > 0 ? (newRecords + updatedRecords) * 1000.0 / durationMs : 0.0;
+        }
+
         public String toMessage() {
-            return String.format("USAspending ingestion completed in %dms. New: %d, Updated: %d, Skipped: %d",
-                    durationMs, newRecords, updatedRecords, skippedRecords);
+            return String.format("USAspending ingestion completed in %dms. New: %d, Updated: %d, Unchanged: %d, "
+                            + "Skipped: %d (%.1f rows/sec)",
+                    durationMs, newRecords, updatedRecords, unchangedRecords, skippedRecords, rowsPerSecond());
         }
     }
 
@@ -0,0 +1,21 @@
+package com.samgov.ingestor.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Starts the API stub server in-process under the 'stub' profile.
+ * application-stub.yaml points every upstream client at it, so the application runs
+ * end to end with no network access or API keys.
+ */
+@Configuration
+@Profile("stub")
+public class ApiStubConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ApiStubServer apiStubServer(ApiStubProperties properties, ObjectMapper objectMapper) {
+        return new ApiStubServer(properties, objectMapper);
+    }
+}
@@ -0,0 +1,221 @@
+package com.samgov.ingestor.stub;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration for the offline API stub server.
+ * Binds to the 'stub' prefix (see application-stub.yaml).
+ *
+ * Volumes are per search: a SAM.gov search is one (NAICS, ptype) or keyword scope, a
+ * USAspending search one (NAICS, agency) combination, so a 10k/100k/1M-notice benchmark
+ * divides the target by the number of configured scopes.
+ */
+@Validated
+@ConfigurationProperties(prefix = "stub")
+public class ApiStubProperties {
+
+    /**
+     * How the stub answers a request.
+     */
+    public enum Mode {
+        /** Generate deterministic responses from the configured volumes */
+        SYNTHETIC,
+        /** Serve recorded responses, falling back to synthetic ones when none was recorded */
+        REPLAY,
+        /** Proxy to the real API and save every successful response for later replay */
+        RECORD
+    }
+
+    private Mode mode = Mode.SYNTHETIC;
+
+    // 0 picks a free port (tests); the stub profile pins it so base URLs can reference it
+    @Min(value = 0, message = "Port cannot be negative")
+    private int port = 8089;
+
+    @NotBlank(message = "Recordings directory is required")
+    private String recordingsDir = "stub-recordings";
+
+    // Seed for synthetic data; the same seed and volumes always produce the same responses
+    private long seed = 42;
+
+    @Min(value = 0, message = "Latency cannot be negative")
+    private long latencyMs = 0;
+
+    // Extra uniformly distributed latency added on top of latencyMs
+    @Min(value = 0, message = "Latency jitter cannot be negative")
+    private long latencyJitterMs = 0;
+
+    // Fraction of requests answered with 500
+    @DecimalMin(value = "0.0", message = "Error rate must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Error rate must be between 0 and 1")
+    private double errorRate = 0.0;
+
+    // Fraction of requests answered with 429 and Retry-After
+    @DecimalMin(value = "0.0", message = "Throttle rate must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Throttle rate must be between 0 and 1")
+    private double throttleRate = 0.0;
+
+    @Min(value = 0, message = "Retry-After cannot be negative")
+    private int retryAfterSeconds = 1;
+
+    @Min(value = 0, message = "SAM.gov records cannot be negative")
+    private int samRecords = 10_000;
+
+    @Min(value = 0, message = "USAspending records cannot be negative")
+    private int usaSpendingRecords = 5_000;
+
+    @Min(value = 0, message = "SBIR.gov records cannot be negative")
+    private int sbirRecords = 2_000;
+
+    // Fraction of addresses the geocoder stub matches
+    @DecimalMin(value = "0.0", message = "Geocode match rate must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Geocode match rate must be between 0 and 1")
+    private double geocodeMatchRate = 0.9;
+
+    // Real endpoints proxied in RECORD mode
+    private String samUpstream = "https://api.sam.gov";
+    private String usaSpendingUpstream = "https://api.usaspending.gov";
+    private String sbirUpstream = "https://api.www.sbir.gov";
+    private String censusUpstream = "https://geocoding.geo.census.gov";
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public String getRecordingsDir() {
+        return recordingsDir;
+    }
+
+    public void setRecordingsDir(String recordingsDir) {
+        this.recordingsDir = recordingsDir;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    public long getLatencyJitterMs() {
+        return latencyJitterMs;
+    }
+
+    public void setLatencyJitterMs(long latencyJitterMs) {
+        this.latencyJitterMs = latencyJitterMs;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public double getThrottleRate() {
+        return throttleRate;
+    }
+
+    public void setThrottleRate(double throttleRate) {
+        this.throttleRate = throttleRate;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getSamRecords() {
+        return samRecords;
+    }
+
+    public void setSamRecords(int samRecords) {
+        this.samRecords = samRecords;
+    }
+
+    public int getUsaSpendingRecords() {
+        return usaSpendingRecords;
+    }
+
+    public void setUsaSpendingRecords(int usaSpendingRecords) {
+        this.usaSpendingRecords = usaSpendingRecords;
+    }
+
+    public int getSbirRecords() {
+        return sbirRecords;
+    }
+
+    public void setSbirRecords(int sbirRecords) {
+        this.sbirRecords = sbirRecords;
+    }
+
+    public double getGeocodeMatchRate() {
+        return geocodeMatchRate;
+    }
+
+    public void setGeocodeMatchRate(double geocodeMatchRate) {
+        this.geocodeMatchRate = geocodeMatchRate;
+    }
+
+    public String getSamUpstream() {
+        return samUpstream;
+    }
+
+    public void setSamUpstream(String samUpstream) {
+        this.samUpstream = samUpstream;
+    }
+
+    public String getUsaSpendingUpstream() {
+        return usaSpendingUpstream;
+    }
+
+    public void setUsaSpendingUpstream(String usaSpendingUpstream) {
+        this.usaSpendingUpstream = usaSpendingUpstream;
+    }
+
+    public String getSbirUpstream() {
+        return sbirUpstream;
+    }
+
+    public void setSbirUpstream(String sbirUpstream) {
+        this.sbirUpstream = sbirUpstream;
+    }
+
+    public String getCensusUpstream() {
+        return censusUpstream;
+    }
+
+    public void setCensusUpstream(String censusUpstream) {
+        this.censusUpstream = censusUpstream;
+    }
+}
@@ -0,0 +1,324 @@
+package com.samgov.ingestor.stub;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for SAM.gov, USAspending.gov, SBIR.gov and the Census geocoder, for
+ * benchmarks and end-to-end tests that must not depend on live APIs or keys.
+ *
+ * Each API is mounted under its own prefix, mirroring the real path below it:
+ * <ul>
+ *   <li>/sam/opportunities/v2/search</li>
+ *   <li>/usaspending/v2/search/spending_by_award/</li>
+ *   <li>/sbir/public/api/awards, /sbir/public/api/solicitations</li>
+ *   <li>/census/geocoder/geographies/..., including the CSV addressbatch upload</li>
+ * </ul>
+ * Point a client's base URL at {@link #baseUrl(String)} plus the real path.
+ *
+ * Responses are synthetic, replayed from recordings, or recorded from the real API (see
+ * {@link ApiStubProperties.Mode}). Before answering, every request pays the configured
+ * latency and may be failed with a 500 or throttled with a 429, at the configured rates.
+ * Recordings are keyed by API, method, path, sorted query (minus {@code api_key}) and a
+ * hash of the request body.
+ *
+ * Runs standalone under the {@code stub} profile, or can be started directly from tests
+ * with {@code port=0}.
+ */
+public class ApiStubServer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiStubServer.class);
+
+    public static final String SAM = "sam";
+    public static final String USA_SPENDING = "usaspending";
+    public static final String SBIR = "sbir";
+    public static final String CENSUS = "census";
+
+    private final ApiStubProperties properties;
+    private final ObjectMapper objectMapper;
+    private final StubResponseGenerator generator;
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private ExecutorService executor;
+    private HttpClient upstream;
+
+    public ApiStubServer(ApiStubProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.generator = new StubResponseGenerator(properties);
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress("localhost", properties.getPort()), 0);
+        server.setExecutor(executor);
+        for (String api : new String[] {SAM, USA_SPENDING, SBIR, CENSUS}) {
+            requestCounts.put(api, new AtomicInteger());
+            server.createContext("/" + api + "/", exchange -> handle(api, exchange));
+        }
+        if (properties.getMode() == ApiStubProperties.Mode.RECORD) {
+            upstream = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        }
+        server.start();
+        log.info("API stub server listening on {} in {} mode (SAM.gov: {}, USAspending: {}, SBIR.gov: {} records)",
+                baseUrl(""), properties.getMode(), properties.getSamRecords(), properties.getUsaSpendingRecords(),
+                properties.getSbirRecords());
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Root URL of one stubbed API, e.g. {@code baseUrl("sam") + "/opportunities/v2/search"}.
+     */
+    public String baseUrl(String api) {
+        return "http://localhost:" + getPort() + (api.isEmpty() ? "" : "/" + api);
+    }
+
+    /**
+     * Requests received by one API, including injected failures.
+     */
+    public int getRequestCount(String api) {
+        return requestCounts.get(api).get();
+    }
+
+    private void handle(String api, HttpExchange exchange) {
+        try {
+            requestCounts.get(api).incrementAndGet();
+            byte[] requestBody = exchange.getRequestBody().readAllBytes();
+            simulateLatency();
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < properties.getThrottleRate()) {
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(properties.getRetryAfterSeconds()));
+                sendJson(exchange, 429, "{\"error\":\"Too Many Requests\"}");
+                return;
+            }
+            if (roll < properties.getThrottleRate() + properties.getErrorRate()) {
+                sendJson(exchange, 500, "{\"error\":\"Internal Server Error\"}");
+                return;
+            }
+
+            String path = exchange.getRequestURI().getRawPath().substring(api.length() + 1);
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            switch (properties.getMode()) {
+                case REPLAY -> {
+                    Recording recording = loadRecording(api, exchange.getRequestMethod(), path, query, requestBody);
+                    if (recording != null) {
+                        sendJson(exchange, recording.status(), recording.body());
+                    } else {
+                        writeSynthetic(api, path, query, requestBody, exchange);
+                    }
+                }
+                case RECORD -> record(api, path, exchange, query, requestBody);
+                default -> writeSynthetic(api, path, query, requestBody, exchange);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Stub {} failed to answer {}: {}", api, exchange.getRequestURI(), e.getMessage(), e);
+            try {
+                sendJson(exchange, 500, "{\"error\":\"Stub failure\"}");
+            } catch (IOException | RuntimeException ignored) {
+                // Headers already sent; closing the exchange truncates the response instead
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void writeSynthetic(String api, String path, Map<String, String> query, byte[] requestBody,
+                                HttpExchange exchange) throws IOException {
+        if (api.equals(CENSUS) && path.endsWith("/addressbatch")) {
+            exchange.getResponseHeaders().set("Content-Type", "text/csv");
+            exchange.sendResponseHeaders(200, 0);
+            try (Writer out = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)) {
+                generator.writeGeocodeBatch(requestBody, out);
+            }
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if (api.equals(USA_SPENDING) && !path.endsWith("/search/spending_by_award/")
+                || api.equals(SBIR) && !path.endsWith("/awards") && !path.endsWith("/solicitations")
+                || api.equals(CENSUS) && !path.contains("/geographies/")) {
+            sendJson(exchange, 404, "{\"error\":\"Not stubbed: " + path + "\"}");
+            return;
+        }
+        // Length 0 = chunked, so large pages stream out as they are generated
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody();
+             JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            switch (api) {
+                case SAM -> generator.writeSamSearch(query, gen);
+                case USA_SPENDING -> generator.writeUsaSpendingAwards(readBody(requestBody), gen);
+                case SBIR -> {
+                    if (path.endsWith("/solicitations")) {
+                        generator.writeSbirSolicitations(gen);
+                    } else {
+                        generator.writeSbirAwards(query, gen);
+                    }
+                }
+                default -> generator.writeGeocode(query, gen);
+            }
+        }
+    }
+
+    private void record(String api, String path, HttpExchange exchange, Map<String, String> query,
+                        byte[] requestBody) throws IOException, InterruptedException {
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        URI target = URI.create(upstreamUrl(api) + path + (rawQuery != null ? "?" + rawQuery : ""));
+        HttpRequest.Builder request = HttpRequest.newBuilder(target)
+                .timeout(Duration.ofSeconds(60))
+                .header("Accept", "application/json");
+        if (requestBody.length > 0) {
+            request.header("Content-Type", "application/json")
+                    .method(exchange.getRequestMethod(), HttpRequest.BodyPublishers.ofByteArray(requestBody));
+        } else {
+            request.method(exchange.getRequestMethod(), HttpRequest.BodyPublishers.noBody());
+        }
+        HttpResponse<String> response = upstream.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() < 400) {
+            saveRecording(api, exchange.getRequestMethod(), path, query, requestBody,
+                    new Recording(response.statusCode(), response.body()));
+        }
+        sendJson(exchange, response.statusCode(), response.body());
+    }
+
+    private String upstreamUrl(String api) {
+        return switch (api) {
+            case SAM -> properties.getSamUpstream();
+            case USA_SPENDING -> properties.getUsaSpendingUpstream();
+            case SBIR -> properties.getSbirUpstream();
+            default -> properties.getCensusUpstream();
+        };
+    }
+
+    /**
+     * A stored upstream response.
+     */
+    record Recording(int status, String body) {}
+
+    Recording loadRecording(String api, String method, String path, Map<String, String> query,
+                            byte[] requestBody) throws IOException {
+        Path file = recordingPath(api, method, path, query, requestBody);
+        if (!Files.exists(file)) {
+            log.debug("No recording for {} {} {}; using synthetic response", api, method, path);
+            return null;
+        }
+        JsonNode stored = objectMapper.readTree(file.toFile());
+        return new Recording(stored.path("status").asInt(200), stored.path("body").asText());
+    }
+
+    void saveRecording(String api, String method, String path, Map<String, String> query, byte[] requestBody,
+                       Recording recording) throws IOException {
+        Path file = recordingPath(api, method, path, query, requestBody);
+        Files.createDirectories(file.getParent());
+        ObjectNode stored = objectMapper.createObjectNode();
+        stored.put("request", method + " " + path + " " + redacted(query));
+        stored.put("status", recording.status());
+        stored.put("body", recording.body());
+        objectMapper.writeValue(file.toFile(), stored);
+    }
+
+    private Path recordingPath(String api, String method, String path, Map<String, String> query,
+                               byte[] requestBody) {
+        String key = method + " " + path + "?" + redacted(query) + "#" + HexFormat.of().formatHex(sha256(requestBody));
+        String name = HexFormat.of().formatHex(sha256(key.getBytes(StandardCharsets.UTF_8))).substring(0, 32);
+        return Path.of(properties.getRecordingsDir(), api, name + ".json");
+    }
+
+    private static Map<String, String> redacted(Map<String, String> query) {
+        Map<String, String> sorted = new TreeMap<>(query);
+        sorted.remove("api_key");
+        return sorted;
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private JsonNode readBody(byte[] requestBody) throws IOException {
+        return requestBody.length > 0 ? objectMapper.readTree(requestBody) : objectMapper.createObjectNode();
+    }
+
+    private void simulateLatency() throws InterruptedException {
+        long delay = properties.getLatencyMs();
+        if (properties.getLatencyJitterMs() > 0) {
+            delay += ThreadLocalRandom.current().nextLong(properties.getLatencyJitterMs() + 1);
+        }
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new TreeMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            String value = eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            query.putIfAbsent(name, value);
+        }
+        return query;
+    }
+}
@@ -0,0 +1,340 @@
+package com.samgov.ingestor.stub;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.samgov.ingestor.client.CensusGeocoderClient;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Writes deterministic synthetic responses in the shapes the real APIs return.
+ *
+ * Record {@code i} of a search is derived only from the seed, the search's filters and
+ * {@code i}, so any page can be generated independently and the same scenario always yields
+ * the same data. Responses are written straight to a {@link JsonGenerator}, so even a
+ * 1M-record scenario never holds more than one page in memory.
+ */
+class StubResponseGenerator {
+
+    private static final DateTimeFormatter SAM_DATE = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    private static final DateTimeFormatter ISO_DATE = DateTimeFormatter.ISO_LOCAL_DATE;
+
+    private static final List<String> AGENCIES = List.of(
+            "Department of Defense", "Department of Homeland Security", "National Aeronautics and Space Administration",
+            "Department of Energy", "Department of Health and Human Services", "General Services Administration");
+    private static final List<String> SBIR_AGENCIES = List.of("DOD", "NASA", "NSF", "DOE", "HHS");
+    private static final List<String> SUBJECTS = List.of(
+            "Cloud Migration", "Cybersecurity Operations", "Data Analytics Platform", "Software Modernization",
+            "Machine Learning Pipeline", "Network Engineering", "Help Desk Support", "GIS Mapping Services");
+    private static final List<String> CITIES = List.of(
+            "Arlington,VA,22201", "Huntsville,AL,35801", "San Diego,CA,92101", "Colorado Springs,CO,80903",
+            "Dayton,OH,45402", "Austin,TX,78701", "Washington,DC,20001", "Tampa,FL,33602");
+    private static final List<String> TYPES = List.of(
+            "Combined Synopsis/Solicitation", "Solicitation", "Presolicitation", "Sources Sought");
+
+    private final ApiStubProperties properties;
+
+    StubResponseGenerator(ApiStubProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * SAM.gov opportunity search: {@code limit}/{@code offset} paging over samRecords notices.
+     */
+    void writeSamSearch(Map<String, String> query, JsonGenerator gen) throws IOException {
+        int total = properties.getSamRecords();
+        int limit = intParam(query, "limit", 1000);
+        int offset = intParam(query, "offset", 0);
+        String naics = query.getOrDefault("ncode", "541511");
+        String keyword = query.get("title");
+        String scope = scopeId(keyword != null ? keyword : naics + "-" + query.getOrDefault("ptype", ""));
+        LocalDate postedTo = parseDate(query.get("postedTo"), SAM_DATE, LocalDate.now());
+        LocalDate postedFrom = parseDate(query.get("postedFrom"), SAM_DATE, postedTo.minusDays(30));
+        int days = (int) Math.max(1, postedTo.toEpochDay() - postedFrom.toEpochDay() + 1);
+
+        gen.writeStartObject();
+        gen.writeNumberField("totalRecords", total);
+        gen.writeNumberField("limit", limit);
+        gen.writeNumberField("offset", offset);
+        gen.writeArrayFieldStart("opportunitiesData");
+        for (int i = offset; i < Math.min(total, offset + limit); i++) {
+            SplittableRandom random = random(scope, i);
+            String subject = pick(SUBJECTS, random);
+            String title = (keyword != null ? keyword + " " : "")
+                    + (random.nextInt(10) == 0 ? "SBIR Phase " + (random.nextBoolean() ? "I " : "II ") : "")
+                    + subject + " " + i;
+            LocalDate posted = postedFrom.plusDays(random.nextInt(days));
+            gen.writeStartObject();
+            gen.writeStringField("noticeId", "stub-" + scope + "-" + i);
+            gen.writeStringField("title", title);
+            gen.writeStringField("solicitationNumber", "STUB-" + scope.toUpperCase() + "-" + i);
+            gen.writeStringField("postedDate", posted.format(ISO_DATE));
+            gen.writeStringField("responseDeadLine", posted.plusDays(14 + random.nextInt(45)) + "T17:00:00-05:00");
+            gen.writeStringField("naicsCode", naics);
+            gen.writeStringField("type", pick(TYPES, random));
+            gen.writeStringField("uiLink", "https://sam.gov/opp/stub-" + scope + "-" + i + "/view");
+            gen.writeStringField("description",
+                    "https://api.sam.gov/prod/opportunities/v1/noticedesc?noticeid=stub-" + scope + "-" + i);
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    /**
+     * USAspending award search: 1-based {@code page}/{@code limit} from the POST body over
+     * usaSpendingRecords awards. Like the real endpoint, only {@code hasNext} is reported.
+     */
+    void writeUsaSpendingAwards(JsonNode body, JsonGenerator gen) throws IOException {
+        int total = properties.getUsaSpendingRecords();
+        int page = Math.max(1, body.path("page").asInt(1));
+        int limit = Math.max(1, body.path("limit").asInt(100));
+        JsonNode filters = body.path("filters");
+        String naics = filters.path("naics_codes").path(0).asText(null);
+        String agency = filters.path("agencies").path(0).path("name").asText(null);
+        String scope = scopeId((naics != null ? naics : "all") + "-" + (agency != null ? agency : "all"));
+        int from = (page - 1) * limit;
+        int to = Math.min(total, from + limit);
+
+        gen.writeStartObject();
+        gen.writeArrayFieldStart("results");
+        for (int i = from; i < to; i++) {
+            SplittableRandom random = random(scope, i);
+            String[] city = pick(CITIES, random).split(",");
+            String awardingAgency = agency != null ? agency : pick(AGENCIES, random);
+            LocalDate start = LocalDate.now().minusDays(random.nextInt(365));
+            gen.writeStartObject();
+            gen.writeStringField("Award ID", "STUB-AWD-" + scope.toUpperCase() + "-" + i);
+            gen.writeStringField("Recipient Name", "Stub Contractor " + random.nextInt(500));
+            gen.writeStringField("Start Date", start.format(ISO_DATE));
+            gen.writeStringField("End Date", start.plusDays(180 + random.nextInt(900)).format(ISO_DATE));
+            gen.writeNumberField("Award Amount", 10_000 + random.nextInt(5_000_000));
+            gen.writeStringField("Description", pick(SUBJECTS, random).toUpperCase());
+            gen.writeStringField("Awarding Agency", awardingAgency);
+            gen.writeStringField("Awarding Sub Agency", awardingAgency + " Field Office");
+            gen.writeStringField("Contract Award Type", "Definitive Contract");
+            gen.writeStringField("Place of Performance City", city[0]);
+            gen.writeStringField("Place of Performance State", city[1]);
+            gen.writeStringField("Place of Performance Zip", city[2]);
+            gen.writeStringField("Place of Performance Country", "USA");
+            gen.writeStringField("NAICS Code", naics != null ? naics : "541512");
+            gen.writeStringField("PSC Code", "D302");
+            gen.writeStringField("generated_internal_id", "CONT_AWD_STUB_" + scope + "_" + i);
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeObjectFieldStart("page_metadata");
+        gen.writeNumberField("page", page);
+        gen.writeBooleanField("hasNext", to < total);
+        gen.writeEndObject();
+        gen.writeEndObject();
+    }
+
+    /**
+     * SBIR.gov award search: {@code rows}/{@code start} paging over sbirRecords awards.
+     */
+    void writeSbirAwards(Map<String, String> query, JsonGenerator gen) throws IOException {
+        int total = properties.getSbirRecords();
+        int rows = intParam(query, "rows", 100);
+        int start = intParam(query, "start", 0);
+        String agency = query.get("agency");
+        String year = query.getOrDefault("year", String.valueOf(LocalDate.now().getYear()));
+        String firm = query.get("firm");
+        String scope = scopeId((agency != null ? agency : "all") + "-" + year + (firm != null ? "-" + firm : ""));
+
+        gen.writeStartArray();
+        for (int i = start; i < Math.min(total, start + rows); i++) {
+            SplittableRandom random = random(scope, i);
+            String[] city = pick(CITIES, random).split(",");
+            String subject = pick(SUBJECTS, random);
+            gen.writeStartObject();
+            gen.writeStringField("firm", firm != null ? firm : "Stub Innovations " + random.nextInt(300));
+            gen.writeStringField("award_title", subject + " Prototype " + i);
+            gen.writeStringField("agency", agency != null ? agency : pick(SBIR_AGENCIES, random));
+            gen.writeStringField("phase", random.nextBoolean() ? "Phase I" : "Phase II");
+            gen.writeStringField("program", random.nextInt(4) == 0 ? "STTR" : "SBIR");
+            gen.writeStringField("agency_tracking_number", "STUB-" + scope.toUpperCase() + "-" + i);
+            gen.writeStringField("contract", "STUB-SBIR-" + scope.toUpperCase() + "-" + i);
+            gen.writeStringField("award_year", year);
+            gen.writeStringField("award_amount", String.valueOf(50_000 + random.nextInt(1_500_000)));
+            gen.writeStringField("city", city[0]);
+            gen.writeStringField("state", city[1]);
+            gen.writeStringField("zip", city[2]);
+            gen.writeStringField("abstract", "Develops " + subject.toLowerCase() + " software for mission data.");
+            gen.writeStringField("research_area_keywords", subject.toLowerCase());
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    /**
+     * SBIR.gov open solicitations: a small fixed list.
+     */
+    void writeSbirSolicitations(JsonGenerator gen) throws IOException {
+        gen.writeStartArray();
+        for (int i = 0; i < SBIR_AGENCIES.size(); i++) {
+            gen.writeStartObject();
+            gen.writeStringField("solicitation_title", SUBJECTS.get(i) + " Topics");
+            gen.writeStringField("solicitation_number", "STUB-SOL-" + i);
+            gen.writeStringField("agency", SBIR_AGENCIES.get(i));
+            gen.writeStringField("current_status", "open");
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    /**
+     * Census single-address geocode. Whether an address matches is a stable function of the
+     * address, so repeated lookups (and caches in front of them) see consistent answers.
+     */
+    void writeGeocode(Map<String, String> query, JsonGenerator gen) throws IOException {
+        String address = query.containsKey("address") ? query.get("address")
+                : String.join(", ", query.getOrDefault("street", ""), query.getOrDefault("city", ""),
+                query.getOrDefault("state", ""), query.getOrDefault("zip", ""));
+        if (query.containsKey("x") && query.containsKey("y")) {
+            address = query.get("y") + "," + query.get("x");
+        }
+
+        gen.writeStartObject();
+        gen.writeObjectFieldStart("result");
+        gen.writeObjectFieldStart("input");
+        gen.writeObjectFieldStart("address");
+        gen.writeStringField("address", address);
+        gen.writeEndObject();
+        gen.writeEndObject();
+        gen.writeArrayFieldStart("addressMatches");
+        if (geocodeMatches(address)) {
+            writeAddressMatch(address, gen);
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+        gen.writeEndObject();
+    }
+
+    boolean geocodeMatches(String address) {
+        return random("geocode", address.hashCode()).nextDouble() < properties.getGeocodeMatchRate();
+    }
+
+    /**
+     * Census batch geocode. Reads the uploaded CSV rows (id, street, city, state, ZIP) out of the
+     * multipart body and answers in the batch result format, matching each address exactly as
+     * the single-address endpoint would.
+     */
+    void writeGeocodeBatch(byte[] multipartBody, Writer out) throws IOException {
+        for (String line : new String(multipartBody, StandardCharsets.UTF_8).split("\r?\n")) {
+            if (!line.startsWith("\"")) {
+                continue;
+            }
+            List<String> fields = CensusGeocoderClient.parseCsvLine(line);
+            if (fields.size() < 5) {
+                continue;
+            }
+            String id = fields.get(0);
+            String address = String.join(", ", fields.subList(1, 5));
+            if (!geocodeMatches(address)) {
+                out.write(csv(id, address, "No_Match") + "\n");
+                continue;
+            }
+            GeocodedPlace place = place(address);
+            out.write(csv(id, address, "Match", "Exact", address.toUpperCase(),
+                    place.longitude() + "," + place.latitude(), "0", "L",
+                    place.state(), place.county(), place.tract(), "1000") + "\n");
+        }
+    }
+
+    private static String csv(String... fields) {
+        StringBuilder line = new StringBuilder();
+        for (String field : fields) {
+            if (!line.isEmpty()) {
+                line.append(',');
+            }
+            line.append('"').append(field.replace("\"", "\"\"")).append('"');
+        }
+        return line.toString();
+    }
+
+    private record GeocodedPlace(String state, String county, double longitude, double latitude, String tract) {}
+
+    private GeocodedPlace place(String address) {
+        SplittableRandom random = random("geocode", address.hashCode());
+        random.nextDouble();
+        String state = String.format("%02d", 1 + random.nextInt(56));
+        String county = String.format("%03d", 1 + random.nextInt(200));
+        double longitude = -70.0 - random.nextDouble() * 50.0;
+        double latitude = 25.0 + random.nextDouble() * 23.0;
+        String tract = String.format("%06d", random.nextInt(999_999));
+        return new GeocodedPlace(state, county, longitude, latitude, tract);
+    }
+
+    private void writeAddressMatch(String address, JsonGenerator gen) throws IOException {
+        GeocodedPlace place = place(address);
+        gen.writeStartObject();
+        gen.writeStringField("matchedAddress", address.toUpperCase());
+        gen.writeObjectFieldStart("coordinates");
+        gen.writeNumberField("x", place.longitude());
+        gen.writeNumberField("y", place.latitude());
+        gen.writeEndObject();
+        gen.writeObjectFieldStart("geographies");
+        gen.writeArrayFieldStart("States");
+        gen.writeStartObject();
+        gen.writeStringField("STATE", place.state());
+        gen.writeStringField("NAME", "Stub State " + place.state());
+        gen.writeEndObject();
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("Counties");
+        gen.writeStartObject();
+        gen.writeStringField("STATE", place.state());
+        gen.writeStringField("COUNTY", place.county());
+        gen.writeStringField("NAME", "Stub County " + place.county());
+        gen.writeEndObject();
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("Census Tracts");
+        gen.writeStartObject();
+        gen.writeStringField("STATE", place.state());
+        gen.writeStringField("COUNTY", place.county());
+        gen.writeStringField("TRACT", place.tract());
+        gen.writeEndObject();
+        gen.writeEndArray();
+        gen.writeEndObject();
+        gen.writeEndObject();
+    }
+
+    private SplittableRandom random(String scope, long index) {
+        return new SplittableRandom(properties.getSeed() * 31 + scope.hashCode() * 1_000_003L + index);
+    }
+
+    private static <T> T pick(List<T> values, SplittableRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String scopeId(String raw) {
+        return raw.toLowerCase().replaceAll("[^a-z0-9]+", "-");
+    }
+
+    private static int intParam(Map<String, String> query, String name, int defaultValue) {
+        try {
+            return query.containsKey(name) ? Math.max(0, Integer.parseInt(query.get(name))) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static LocalDate parseDate(String value, DateTimeFormatter format, LocalDate defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return LocalDate.parse(value, format);
+        } catch (DateTimeParseException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.samgov.ingestor.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Radix trie that returns the best values under a key prefix without walking the subtree.
+ *
+ * Every node caches the top k values of its subtree, ordered best first, so a lookup costs
+ * one descent along the prefix and a copy of at most k references, however many keys share
+ * the prefix. Edges carry whole key fragments rather than single characters, which keeps the
+ * node count close to the number of distinct keys.
+ *
+ * A value may be stored under several keys (for example once per word of a title); it is
+ * returned at most once per lookup. The order must not change while a value is in the trie:
+ * remove it from all its keys, change it, and put it back.
+ *
+ * Adding a value only touches the caches it qualifies for; removing one rebuilds the caches
+ * that held it from their children's caches. Not thread-safe; callers guard access.
+ */
+public final class CompletionTrie<T> {
+
+    private final Comparator<? super T> order;
+    private final int k;
+    private final Node<T> root = new Node<>("");
+    private int size;
+
+    /**
+     * @param order best values first
+     * @param k     values cached per node, i.e. the most a lookup can return
+     */
+    public CompletionTrie(Comparator<? super T> order, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1");
+        }
+        this.order = order;
+        this.k = k;
+    }
+
+    /**
+     * Number of (key, value) pairs stored.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Stores a value under a key.
+     */
+    public void put(String key, T value) {
+        List<Node<T>> path = new ArrayList<>();
+        path.add(root);
+        Node<T> node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node<T> child = node.child(key.charAt(i));
+            if (child == null) {
+                child = new Node<>(key.substring(i));
+                node.addChild(child);
+                i = key.length();
+            } else {
+                int common = commonPrefix(child.label, key, i);
+                if (common < child.label.length()) {
+                    child = node.split(child, common);
+                }
+                i += common;
+            }
+            path.add(child);
+            node = child;
+        }
+        node.addValue(value);
+        size++;
+
+        // Ancestors can only gain the value where it makes the cut, and once it misses (or is
+        // already cached through another key) it cannot make any cache further up
+        for (int j = path.size() - 1; j >= 0; j--) {
+            if (!path.get(j).offer(value, order, k)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes one (key, value) pair.
+     *
+     * @return false if the value was not stored under the key
+     */
+    public boolean remove(String key, T value) {
+        List<Node<T>> path = new ArrayList<>();
+        path.add(root);
+        Node<T> node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node<T> child = node.child(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return false;
+            }
+            i += child.label.length();
+            path.add(child);
+            node = child;
+        }
+        if (node.values == null || !node.values.remove(value)) {
+            return false;
+        }
+        size--;
+
+        // Drop nodes left empty and merge a node left with a single child into it
+        int last = path.size() - 1;
+        while (last > 0 && path.get(last).isEmpty()) {
+            path.get(last - 1).removeChild(path.get(last));
+            last--;
+        }
+        Node<T> tail = path.get(last);
+        if (last > 0 && tail.values == null && tail.children.length == 1) {
+            tail.absorbOnlyChild();
+        }
+
+        for (int j = last; j >= 0; j--) {
+            Node<T> current = path.get(j);
+            if (!current.caches(value)) {
+                return true;
+            }
+            current.rank(order, k);
+        }
+        return true;
+    }
+
+    /**
+     * The best values stored under keys starting with the prefix, best first.
+     */
+    public List<T> top(String prefix, int limit) {
+        Node<T> node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node<T> child = node.child(prefix.charAt(i));
+            if (child == null) {
+                return List.of();
+            }
+            int remaining = prefix.length() - i;
+            if (remaining <= child.label.length()) {
+                if (!child.label.startsWith(prefix.substring(i))) {
+                    return List.of();
+                }
+                node = child;
+                break;
+            }
+            if (!prefix.startsWith(child.label, i)) {
+                return List.of();
+            }
+            i += child.label.length();
+            node = child;
+        }
+        return List.copyOf(Arrays.asList(node.best).subList(0, Math.min(limit, node.best.length)));
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int n = 0;
+        while (n < max && label.charAt(n) == key.charAt(offset + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    private static final class Node<T> {
+
+        @SuppressWarnings("rawtypes")
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private String label;
+        // Sorted by the first character of their labels
+        @SuppressWarnings("unchecked")
+        private Node<T>[] children = NO_CHILDREN;
+        // Values whose key ends at this node; null when there are none
+        private List<T> values;
+        // Top values of the subtree, best first
+        @SuppressWarnings("unchecked")
+        private T[] best = (T[]) new Object[0];
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private boolean isEmpty() {
+            return values == null && children.length == 0;
+        }
+
+        private int indexOf(char first) {
+            int lo = 0;
+            int hi = children.length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) {
+                    lo = mid + 1;
+                } else if (c > first) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(lo + 1);
+        }
+
+        private Node<T> child(char first) {
+            int index = indexOf(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private void addChild(Node<T> child) {
+            int insert = -(indexOf(child.label.charAt(0)) + 1);
+            Node<T>[] grown = Arrays.copyOf(children, children.length + 1);
+            System.arraycopy(children, insert, grown, insert + 1, children.length - insert);
+            grown[insert] = child;
+            children = grown;
+        }
+
+        private void removeChild(Node<T> child) {
+            int index = indexOf(child.label.charAt(0));
+            Node<T>[] shrunk = Arrays.copyOf(children, children.length - 1);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk;
+        }
+
+        /**
+         * Splits the edge to a child after {@code at} characters and returns the new middle node.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Node<T> split(Node<T> child, int at) {
+            int index = indexOf(child.label.charAt(0));
+            Node<T> middle = new Node<>(child.label.substring(0, at));
+            child.label = child.label.substring(at);
+            middle.children = new Node[] {child};
+            middle.best = child.best.clone();
+            children[index] = middle;
+            return middle;
+        }
+
+        private void absorbOnlyChild() {
+            Node<T> only = children[0];
+            label = label + only.label;
+            values = only.values;
+            children = only.children;
+            best = only.best;
+        }
+
+        private void addValue(T value) {
+            if (values == null) {
+                values = new ArrayList<>(1);
+            }
+            values.add(value);
+        }
+
+        private boolean caches(T value) {
+            for (T cached : best) {
+                if (cached == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Adds a value to the cache if it ranks in the top k.
+         *
+         * @return whether the cache changed
+         */
+        private boolean offer(T value, Comparator<? super T> order, int k) {
+            if (caches(value)) {
+                return false;
+            }
+            int insert = 0;
+            while (insert < best.length && order.compare(best[insert], value) <= 0) {
+                insert++;
+            }
+            if (insert >= k) {
+                return false;
+            }
+            T[] grown = Arrays.copyOf(best, Math.min(best.length + 1, k));
+            System.arraycopy(best, insert, grown, insert + 1, grown.length - insert - 1);
+            grown[insert] = value;
+            best = grown;
+            return true;
+        }
+
+        /**
+         * Rebuilds the cache from this node's values and its children's caches.
+         */
+        @SuppressWarnings("unchecked")
+        private void rank(Comparator<? super T> order, int k) {
+            best = (T[]) new Object[0];
+            if (values != null) {
+                for (T value : values) {
+                    offer(value, order, k);
+                }
+            }
+            for (Node<T> child : children) {
+                for (T value : child.best) {
+                    // A child's cache is ordered, so the first value that misses ends it
+                    if (!caches(value) && !offer(value, order, k)) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.samgov.ingestor.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Stable SHA-256 fingerprint of an upstream DTO record, used to detect no-op updates.
+ *
+ * Components are hashed in declaration order as {@code name=value} pairs after
+ * normalization: strings are trimmed, blanks and nulls are treated alike, and decimals
+ * ignore trailing zeros. Bump {@link #VERSION} when entity mapping changes so stored
+ * rows are rewritten on the next run.
+ */
+public final class ContentHash {
+
+    private static final String VERSION = "v1";
+    private static final char FIELD_SEPARATOR = '\u001F';
+
+    private ContentHash() {}
+
+    public static String of(Record record) {
+        return sha256(normalized(record).toString());
+    }
+
+    /**
+     * Fingerprint of a record together with the version of anything else the stored row is
+     * derived from (e.g. the classification rules), so a change there rewrites the row too.
+     */
+    public static String of(Record record, String derivedFrom) {
+        return sha256(normalized(record).append(FIELD_SEPARATOR).append(derivedFrom).toString());
+    }
+
+    /**
+     * SHA-256 of a string as lowercase hex.
+     */
+    public static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    private static StringBuilder normalized(Record record) {
+        StringBuilder normalized = new StringBuilder(VERSION).append(FIELD_SEPARATOR)
+                .append(record.getClass().getSimpleName());
+        for (RecordComponent component : record.getClass().getRecordComponents()) {
+            normalized.append(FIELD_SEPARATOR)
+                    .append(component.getName())
+                    .append('=')
+                    .append(normalize(read(component, record)));
+        }
+        return normalized;
+    }
+
+    private static Object read(RecordComponent component, Record record) {
+        try {
+            return component.getAccessor().invoke(record);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot read record component " + component.getName(), e);
+        }
+    }
+
+    private static String normalize(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.stripTrailingZeros().toPlainString();
+        }
+        return value.toString().trim();
+    }
+}
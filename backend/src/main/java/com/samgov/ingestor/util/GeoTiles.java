@@ -0,0 +1,69 @@
+package com.samgov.ingestor.util;
+
+/**
+ * Web Mercator map tiles, numbered the way map clients and Elasticsearch's geotile_grid
+ * number them: at zoom z the world is 2^z by 2^z tiles, x growing east from the antimeridian
+ * and y growing south from the top of the projection.
+ *
+ * Tiles nest: tile (x, y) at zoom z holds the four tiles (2x..2x+1, 2y..2y+1) at zoom z+1. The
+ * {@link #morton} key interleaves x and y bits so that every tile of a subtree shares a key
+ * prefix, and all points of a tile at any zoom form one contiguous range of keys taken at
+ * {@link #MAX_ZOOM}.
+ */
+public final class GeoTiles {
+
+    // Finest zoom keys are taken at; tiles are well under a meter wide
+    public static final int MAX_ZOOM = 24;
+
+    // Web Mercator stops here; points beyond it land in the first or last row of tiles
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private GeoTiles() {}
+
+    public static int x(double longitude, int zoom) {
+        int tiles = 1 << zoom;
+        return clamp((int) Math.floor((longitude + 180.0) / 360.0 * tiles), tiles);
+    }
+
+    public static int y(double latitude, int zoom) {
+        int tiles = 1 << zoom;
+        double radians = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+        double projected = Math.log(Math.tan(radians) + 1 / Math.cos(radians));
+        return clamp((int) Math.floor((1 - projected / Math.PI) / 2 * tiles), tiles);
+    }
+
+    /**
+     * Key of a tile; x bits land on even positions and y bits on odd ones.
+     */
+    public static long morton(int x, int y) {
+        return spread(x) | (spread(y) << 1);
+    }
+
+    /**
+     * Key of the tile at {@link #MAX_ZOOM} holding a point.
+     */
+    public static long morton(double latitude, double longitude) {
+        return morton(x(longitude, MAX_ZOOM), y(latitude, MAX_ZOOM));
+    }
+
+    /**
+     * Tile id in the "zoom/x/y" form geotile_grid buckets are keyed by.
+     */
+    public static String key(int zoom, int x, int y) {
+        return zoom + "/" + x + "/" + y;
+    }
+
+    private static int clamp(int tile, int tiles) {
+        return Math.max(0, Math.min(tiles - 1, tile));
+    }
+
+    private static long spread(int value) {
+        long bits = value & 0xFFFFFFFFL;
+        bits = (bits | (bits << 16)) & 0x0000FFFF0000FFFFL;
+        bits = (bits | (bits << 8)) & 0x00FF00FF00FF00FFL;
+        bits = (bits | (bits << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        bits = (bits | (bits << 2)) & 0x3333333333333333L;
+        bits = (bits | (bits << 1)) & 0x5555555555555555L;
+        return bits;
+    }
+}
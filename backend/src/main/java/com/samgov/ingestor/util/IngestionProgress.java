@@ -0,0 +1,67 @@
+package com.samgov.ingestor.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live counters for the ingestion job running on the current thread.
+ *
+ * The job worker binds a progress instance for the duration of the job; clients and the
+ * upsert engine report pages and rows through the static methods, which are no-ops when no
+ * job is bound (scheduled runs, tests). Counters are read concurrently by the progress API.
+ */
+public final class IngestionProgress {
+
+    private static final ThreadLocal<IngestionProgress> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger pagesFetched = new AtomicInteger();
+    private final AtomicInteger rowsWritten = new AtomicInteger();
+    private final AtomicInteger rowsUnchanged = new AtomicInteger();
+
+    public static void bind(IngestionProgress progress) {
+        CURRENT.set(progress);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Progress bound to this thread, or null; lets pipelines hand it to their worker threads.
+     */
+    public static IngestionProgress current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Records one page fetched from an upstream API.
+     */
+    public static void recordPage() {
+        IngestionProgress progress = CURRENT.get();
+        if (progress != null) {
+            progress.pagesFetched.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records rows inserted or updated, and rows skipped as unchanged.
+     */
+    public static void recordRows(int written, int unchanged) {
+        IngestionProgress progress = CURRENT.get();
+        if (progress != null) {
+            progress.rowsWritten.addAndGet(written);
+            progress.rowsUnchanged.addAndGet(unchanged);
+        }
+    }
+
+    public int getPagesFetched() {
+        return pagesFetched.get();
+    }
+
+    public int getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    public int getRowsUnchanged() {
+        return rowsUnchanged.get();
+    }
+}
@@ -0,0 +1,167 @@
+package com.samgov.ingestor.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.IntConsumer;
+
+/**
+ * Aho-Corasick automaton that finds any number of keywords in one left-to-right pass,
+ * independent of how many keywords there are.
+ *
+ * Matching ignores ASCII case and only reports whole words: a keyword must not be preceded
+ * or followed by a letter or digit, so "CUI" does not match inside "CIRCUIT" and "PHASE I"
+ * does not match the start of "PHASE II". Keywords may contain spaces and punctuation
+ * ("TS/SCI", "DD-254"), which must then appear literally in the text.
+ *
+ * The automaton is compiled into a dense transition table over the keywords' own alphabet,
+ * so scanning costs one array lookup per character and allocates nothing. Instances are
+ * immutable and safe to share between threads.
+ */
+public final class KeywordAutomaton {
+
+    // Alphabet class for characters that appear in no keyword
+    private static final int OTHER = 0;
+
+    private final int[] charClass;
+    private final int alphabetSize;
+    private final int[] transitions;
+    private final int[][] outputs;
+    private final int[] keywordLengths;
+
+    private KeywordAutomaton(int[] charClass, int alphabetSize, int[] transitions, int[][] outputs,
+                             int[] keywordLengths) {
+        this.charClass = charClass;
+        this.alphabetSize = alphabetSize;
+        this.transitions = transitions;
+        this.outputs = outputs;
+        this.keywordLengths = keywordLengths;
+    }
+
+    /**
+     * Compiles keywords; a keyword's position in the list is the id reported for its matches.
+     * Blank keywords never match.
+     */
+    public static KeywordAutomaton compile(List<String> keywords) {
+        // Alphabet: every distinct (upper-cased) ASCII character used by a keyword
+        int[] charClass = new int[128];
+        int alphabetSize = 1;
+        for (String keyword : keywords) {
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = fold(keyword.charAt(i));
+                if (c < 128 && charClass[c] == OTHER) {
+                    charClass[c] = alphabetSize++;
+                }
+            }
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            charClass[c] = charClass[Character.toUpperCase(c)];
+        }
+
+        // Trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> matches = new ArrayList<>();
+        trie.add(newState(alphabetSize));
+        matches.add(new ArrayList<>());
+        int[] keywordLengths = new int[keywords.size()];
+        for (int id = 0; id < keywords.size(); id++) {
+            String keyword = keywords.get(id);
+            keywordLengths[id] = keyword.length();
+            if (keyword.isBlank() || !isAscii(keyword)) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int symbol = charClass[fold(keyword.charAt(i))];
+                if (trie.get(state)[symbol] < 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(newState(alphabetSize));
+                    matches.add(new ArrayList<>());
+                }
+                state = trie.get(state)[symbol];
+            }
+            matches.get(state).add(id);
+        }
+
+        // Breadth-first: resolve failure links into full transitions and inherit outputs
+        int states = trie.size();
+        int[] transitions = new int[states * alphabetSize];
+        int[] failure = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            int next = trie.get(0)[symbol];
+            transitions[symbol] = Math.max(next, 0);
+            if (next > 0) {
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matches.get(state).addAll(matches.get(failure[state]));
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int next = trie.get(state)[symbol];
+                int fallback = transitions[failure[state] * alphabetSize + symbol];
+                if (next > 0) {
+                    failure[next] = fallback;
+                    transitions[state * alphabetSize + symbol] = next;
+                    queue.add(next);
+                } else {
+                    transitions[state * alphabetSize + symbol] = fallback;
+                }
+            }
+        }
+
+        int[][] outputs = new int[states][];
+        for (int state = 0; state < states; state++) {
+            outputs[state] = matches.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new KeywordAutomaton(charClass, alphabetSize, transitions, outputs, keywordLengths);
+    }
+
+    /**
+     * Reports the id of every whole-word keyword occurrence in the text, in order of where
+     * the occurrences end. A null text has no matches.
+     */
+    public void scan(CharSequence text, IntConsumer matches) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int state = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            state = transitions[state * alphabetSize + (c < 128 ? charClass[c] : OTHER)];
+            int[] found = outputs[state];
+            if (found.length == 0 || (i + 1 < length && isWordChar(c) && isWordChar(text.charAt(i + 1)))) {
+                continue;
+            }
+            for (int id : found) {
+                int start = i + 1 - keywordLengths[id];
+                if (start == 0 || !isWordChar(text.charAt(start - 1))
+                        || !isWordChar(text.charAt(start))) {
+                    matches.accept(id);
+                }
+            }
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    private static char fold(char c) {
+        return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+    }
+
+    private static boolean isAscii(String keyword) {
+        return keyword.chars().allMatch(c -> c < 128);
+    }
+
+    private static int[] newState(int alphabetSize) {
+        int[] state = new int[alphabetSize];
+        Arrays.fill(state, -1);
+        return state;
+    }
+}
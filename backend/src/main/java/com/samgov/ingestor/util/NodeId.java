@@ -0,0 +1,32 @@
+package com.samgov.ingestor.util;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Identifies this application instance in rows that record which node is working on them
+ * (ingestion checkpoints and jobs).
+ *
+ * Host name plus process id, so a restarted process on the same host is a different node.
+ */
+public final class NodeId {
+
+    private static final String CURRENT = resolve();
+
+    private NodeId() {
+    }
+
+    public static String current() {
+        return CURRENT;
+    }
+
+    private static String resolve() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+}
@@ -0,0 +1,78 @@
+package com.samgov.ingestor.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Opaque keyset pagination cursors.
+ *
+ * A cursor is the sort key of the last row a client has seen - the sort column value followed
+ * by the row id, or an Elasticsearch hit's sort values - written as a JSON array and base64url
+ * encoded. Clients pass it back unchanged to get the rows that follow, so the next page is a
+ * seek on an index instead of an offset the database has to count its way to.
+ *
+ * Values must be JSON values; callers write dates and ids as strings.
+ */
+public final class PageCursor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<Object>> VALUES = new TypeReference<>() {};
+
+    private PageCursor() {}
+
+    public static String encode(List<?> values) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(values));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cursor values must be JSON values", e);
+        }
+    }
+
+    /**
+     * The values of a cursor made by {@link #encode}.
+     *
+     * @throws IllegalArgumentException if the cursor was not made by {@link #encode} or does not
+     *                                  hold {@code arity} values
+     */
+    public static List<Object> decode(String cursor, int arity) {
+        List<Object> values;
+        try {
+            values = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), VALUES);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (values == null || values.size() != arity) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return values;
+    }
+
+    /**
+     * Cursor after a row sorted by a timestamp, newest first, then by id.
+     */
+    public static String of(Instant timestamp, UUID id) {
+        return encode(List.of(timestamp.toString(), id.toString()));
+    }
+
+    /**
+     * The timestamp and id of a cursor made by {@link #of(Instant, UUID)}.
+     */
+    public static TimeKey timeKey(String cursor) {
+        List<Object> values = decode(cursor, 2);
+        try {
+            return new TimeKey(Instant.parse((String) values.get(0)), UUID.fromString((String) values.get(1)));
+        } catch (ClassCastException | NullPointerException | DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public record TimeKey(Instant timestamp, UUID id) {}
+}
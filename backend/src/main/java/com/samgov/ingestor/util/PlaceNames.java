@@ -0,0 +1,41 @@
+package com.samgov.ingestor.util;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalization for place-of-performance names, shared by the geocode cache and the
+ * offline gazetteer so both agree on when two spellings are the same place.
+ */
+public final class PlaceNames {
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^A-Z0-9 ]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern NON_DIGIT = Pattern.compile("[^0-9]");
+
+    private PlaceNames() {}
+
+    /**
+     * Upper-cases and collapses punctuation and whitespace: " St. Louis " becomes "ST LOUIS".
+     * Null becomes the empty string.
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String upper = NON_ALPHANUMERIC.matcher(value.toUpperCase(Locale.ROOT)).replaceAll(" ");
+        return WHITESPACE.matcher(upper).replaceAll(" ").trim();
+    }
+
+    /**
+     * The 5-digit ZIP of a ZIP or ZIP+4, or whatever digits there are if fewer than five.
+     * Null becomes the empty string.
+     */
+    public static String zip5(String zip) {
+        if (zip == null) {
+            return "";
+        }
+        String digits = NON_DIGIT.matcher(zip).replaceAll("");
+        return digits.length() >= 5 ? digits.substring(0, 5) : digits;
+    }
+}
@@ -0,0 +1,37 @@
+package com.samgov.ingestor.util;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Turns user keywords into PostgreSQL tsquery text for the full-text search functions.
+ */
+public final class SearchTerms {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern WEB_SEARCH_SYNTAX = Pattern.compile("\"|(^|\\s)-\\S|(^|\\s)or(\\s|$)",
+        Pattern.CASE_INSENSITIVE);
+
+    private SearchTerms() {}
+
+    /**
+     * Every word of the keyword as a prefix, all required: "Cyber defense" becomes
+     * "cyber:* & defense:*". Punctuation separates words, so "UNIQUE-789" becomes
+     * "unique:* & 789:*".
+     *
+     * Returns the empty string (an empty tsquery) for blank keywords and for keywords that use
+     * web search syntax - quotes, "or", or a leading "-" - so phrases, alternatives and
+     * exclusions are left to websearch_to_tsquery alone.
+     */
+    public static String prefixQuery(String keyword) {
+        if (keyword == null || keyword.isBlank() || WEB_SEARCH_SYNTAX.matcher(keyword).find()) {
+            return "";
+        }
+        return Arrays.stream(NON_WORD.split(keyword.toLowerCase(Locale.ROOT)))
+            .filter(word -> !word.isEmpty())
+            .map(word -> word + ":*")
+            .collect(Collectors.joining(" & "));
+    }
+}
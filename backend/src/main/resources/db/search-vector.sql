@@ -0,0 +1,12 @@
+-- Generated tsvector behind opportunity keyword search (see FullTextIndexRunner).
+-- Title > solicitation number > agency > NAICS description and description. Solicitation
+-- numbers are not stemmed, and the description is capped to stay under the 1MB tsvector limit.
+-- Adding a stored generated column rewrites the table under an exclusive lock; on a large
+-- table apply this in a maintenance window with search.full-text.migrate=false.
+ALTER TABLE opportunities ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(title, '')), 'A')
+    || setweight(to_tsvector('simple', coalesce(solicitation_number, '')), 'B')
+    || setweight(to_tsvector('english', coalesce(agency, '')), 'C')
+    || setweight(to_tsvector('english', coalesce(naics_description, '')), 'D')
+    || setweight(to_tsvector('english', left(coalesce(description, ''), 100000)), 'D')
+) STORED;
@@ -1,7 +1,10 @@
 package com.samgov.ingestor.client;
 
 import com.samgov.ingestor.config.CensusProperties;
+import com.samgov.ingestor.config.HttpCacheProperties;
 import com.samgov.ingestor.dto.GeocodingResultDto.*;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -9,9 +12,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -23,6 +30,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 class CensusGeocoderClientTest {
 
     private CensusGeocoderClient client;
+    private final OutboundRateLimiterRegistry rateLimiters =
+            new OutboundRateLimiterRegistry(new SimpleMeterRegistry());
+    private final HttpResponseCache responseCache =
+            new HttpResponseCache(new HttpCacheProperties(), new SimpleMeterRegistry());
     private CensusProperties properties;
 
     @BeforeEach
@@ -35,7 +46,7 @@ class CensusGeocoderClientTest {
         properties.setVintage("Current_Current");
         properties.setBatchSize(100);
 
-        client = new CensusGeocoderClient(properties);
+        client = new CensusGeocoderClient(properties, rateLimiters, responseCache);
     }
 
     @Nested
@@ -52,7 +63,7 @@ class CensusGeocoderClientTest {
         @DisplayName("should return false when disabled in properties")
         void shouldReturnFalseWhenDisabled() {
             properties.setEnabled(false);
-            CensusGeocoderClient disabledClient = new CensusGeocoderClient(properties);
+            CensusGeocoderClient disabledClient = new CensusGeocoderClient(properties, rateLimiters, responseCache);
             assertThat(disabledClient.isEnabled()).isFalse();
         }
     }
@@ -376,9 +387,93 @@ class CensusGeocoderClientTest {
         @DisplayName("should return null when disabled")
         void shouldReturnNullWhenDisabled() {
             properties.setEnabled(false);
-            CensusGeocoderClient disabledClient = new CensusGeocoderClient(properties);
+            CensusGeocoderClient disabledClient = new CensusGeocoderClient(properties, rateLimiters, responseCache);
             SimpleGeocodingResult result = disabledClient.geocodeAddress("1600 Pennsylvania Ave NW, Washington, DC");
             assertThat(result).isNull();
         }
     }
+
+    @Nested
+    @DisplayName("Batch Geocoding")
+    class BatchGeocoding {
+
+        @Test
+        @DisplayName("should split quoted CSV fields with embedded commas and quotes")
+        void shouldParseCsvLine() {
+            List<String> fields = CensusGeocoderClient.parseCsvLine(
+                    "\"1\",\"A, B\",\"Match\",\"Exact\",\"SAY \"\"HI\"\"\",\"-77.03,38.89\"");
+
+            assertThat(fields).containsExactly("1", "A, B", "Match", "Exact", "SAY \"HI\"", "-77.03,38.89");
+        }
+
+        @Test
+        @DisplayName("should upload addresses as CSV and return results for matched ids only")
+        void shouldBatchGeocode() throws Exception {
+            AtomicReference<String> uploaded = new AtomicReference<>();
+            String resultFile = String.join("\n",
+                    "\"0\",\", Washington, DC, 20001\",\"Match\",\"Non_Exact\",\"WASHINGTON, DC, 20001\","
+                            + "\"-77.0369,38.9072\",\"76225813\",\"L\",\"11\",\"001\",\"006202\",\"1031\"",
+                    "\"1\",\", Nowhere, XX, 00000\",\"No_Match\"");
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/geocoder/geographies/addressbatch", exchange -> {
+                uploaded.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                byte[] body = resultFile.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            try {
+                properties.setGeocoderUrl("http://localhost:" + server.getAddress().getPort() + "/geocoder");
+                properties.setRateLimitMs(0);
+                CensusGeocoderClient batchClient = new CensusGeocoderClient(
+                        properties, new OutboundRateLimiterRegistry(new SimpleMeterRegistry()), responseCache);
+
+                Map<String, SimpleGeocodingResult> results = batchClient.batchGeocode(List.of(
+                        new BatchAddress("0", null, "Washington", "DC", "20001"),
+                        new BatchAddress("1", null, "Nowhere", "XX", "00000")));
+
+                assertThat(uploaded.get()).contains("\"0\",\"\",\"Washington\",\"DC\",\"20001\"");
+                assertThat(uploaded.get()).contains("name=\"benchmark\"");
+                assertThat(results).containsOnlyKeys("0");
+                SimpleGeocodingResult match = results.get("0");
+                assertThat(match.latitude()).isEqualByComparingTo("38.9072");
+                assertThat(match.longitude()).isEqualByComparingTo("-77.0369");
+                assertThat(match.stateFips()).isEqualTo("11");
+                assertThat(match.countyFips()).isEqualTo("11001");
+                assertThat(match.censusTract()).isEqualTo("006202");
+            } finally {
+                server.stop(0);
+            }
+        }
+
+        @Test
+        @DisplayName("should return null when the batch request fails")
+        void shouldReturnNullOnFailure() throws Exception {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/geocoder/geographies/addressbatch", exchange -> {
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+            });
+            server.start();
+            try {
+                properties.setGeocoderUrl("http://localhost:" + server.getAddress().getPort() + "/geocoder");
+                properties.setRateLimitMs(0);
+                CensusGeocoderClient batchClient = new CensusGeocoderClient(
+                        properties, new OutboundRateLimiterRegistry(new SimpleMeterRegistry()), responseCache);
+
+                assertThat(batchClient.batchGeocode(List.of(new BatchAddress("0", null, "Washington", "DC", null))))
+                        .isNull();
+            } finally {
+                server.stop(0);
+            }
+        }
+
+        @Test
+        @DisplayName("should return an empty map without calling the API when there is nothing to geocode")
+        void shouldSkipEmptyBatch() {
+            assertThat(client.batchGeocode(List.of())).isEmpty();
+        }
+    }
 }
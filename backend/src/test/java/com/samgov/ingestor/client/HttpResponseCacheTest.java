@@ -0,0 +1,275 @@
+package com.samgov.ingestor.client;
+
+import com.samgov.ingestor.config.HttpCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.twice;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Unit tests for HttpResponseCache.
+ * Tests fresh hits, conditional revalidation, persistence and rate limiter bypass.
+ */
+class HttpResponseCacheTest {
+
+    private static final String BASE_URL = "https://api.example.gov/v2";
+
+    @TempDir
+    Path cacheDir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private HttpCacheProperties properties;
+    private AtomicInteger limiterCalls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new HttpCacheProperties();
+        properties.setDirectory(cacheDir.toString());
+        limiterCalls = new AtomicInteger();
+    }
+
+    private void cache(String path, Duration ttl) {
+        HttpCacheProperties.Endpoint endpoint = new HttpCacheProperties.Endpoint();
+        endpoint.setApi("test.api");
+        endpoint.setPath(path);
+        endpoint.setTtl(ttl);
+        properties.setEndpoints(List.of(endpoint));
+    }
+
+    private RestClient.Builder builder(HttpResponseCache cache) {
+        return RestClient.builder()
+                .baseUrl(BASE_URL)
+                .requestInterceptor(cache.interceptor("test.api"))
+                // Stands in for the rate limiter, which sits after the cache
+                .requestInterceptor((request, body, execution) -> {
+                    limiterCalls.incrementAndGet();
+                    return execution.execute(request, body);
+                });
+    }
+
+    private String get(RestClient client, String uri) {
+        return client.get().uri(uri).retrieve().body(String.class);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("samgov.http.cache.requests")
+                .tag("api", "test.api").tag("result", result).counter().count();
+    }
+
+    @Nested
+    @DisplayName("Fresh entries")
+    class FreshEntries {
+
+        @Test
+        @DisplayName("should serve a repeated request from disk without reaching the rate limiter")
+        void shouldServeHitWithoutLimiter() {
+            cache("/**/recipient/**", Duration.ofHours(1));
+            RestClient.Builder builder = builder(new HttpResponseCache(properties, meterRegistry));
+            MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+            RestClient client = builder.build();
+            server.expect(once(), requestTo(BASE_URL + "/recipient/ABC/"))
+                    .andRespond(withSuccess("{\"name\":\"Acme\"}", MediaType.APPLICATION_JSON));
+
+            assertThat(get(client, "/recipient/ABC/")).isEqualTo("{\"name\":\"Acme\"}");
+            assertThat(get(client, "/recipient/ABC/")).isEqualTo("{\"name\":\"Acme\"}");
+
+            server.verify();
+            assertThat(limiterCalls).hasValue(1);
+            assertThat(count("miss")).isEqualTo(1.0);
+            assertThat(count("hit")).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should ignore api_key and parameter order when matching entries")
+        void shouldNormalizeKey() {
+            cache("/**/coordinates", Duration.ofHours(1));
+            RestClient.Builder builder = builder(new HttpResponseCache(properties, meterRegistry));
+            MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+            RestClient client = builder.build();
+            server.expect(once(), requestTo(BASE_URL + "/coordinates?x=1&y=2&api_key=first"))
+                    .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+            get(client, "/coordinates?x=1&y=2&api_key=first");
+            get(client, "/coordinates?y=2&api_key=second&x=1");
+
+            server.verify();
+            assertThat(limiterCalls).hasValue(1);
+        }
+
+        @Test
+        @DisplayName("should keep entries across cache instances")
+        void shouldPersistEntries() {
+            cache("/**/recipient/**", Duration.ofHours(1));
+            RestClient.Builder first = builder(new HttpResponseCache(properties, meterRegistry));
+            MockRestServiceServer server = MockRestServiceServer.bindTo(first).build();
+            server.expect(once(), requestTo(BASE_URL + "/recipient/ABC/"))
+                    .andRespond(withSuccess("{\"name\":\"Acme\"}", MediaType.APPLICATION_JSON));
+            get(first.build(), "/recipient/ABC/");
+            server.verify();
+
+            RestClient.Builder second = builder(new HttpResponseCache(properties, new SimpleMeterRegistry()));
+            MockRestServiceServer.bindTo(second).build();
+
+            assertThat(get(second.build(), "/recipient/ABC/")).isEqualTo("{\"name\":\"Acme\"}");
+            assertThat(limiterCalls).hasValue(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Revalidation")
+    class Revalidation {
+
+        @Test
+        @DisplayName("should revalidate expired entries with If-None-Match and serve them on 304")
+        void shouldRevalidateWithEtag() {
+            cache("/**/budgetary_resources/**", Duration.ZERO);
+            RestClient.Builder builder = builder(new HttpResponseCache(properties, meterRegistry));
+            MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+            RestClient client = builder.build();
+            HttpHeaders validators = new HttpHeaders();
+            validators.setETag("\"v1\"");
+            server.expect(requestTo(BASE_URL + "/agency/097/budgetary_resources/"))
+                    .andRespond(withSuccess("{\"budget\":1}", MediaType.APPLICATION_JSON).headers(validators));
+            server.expect(requestTo(BASE_URL + "/agency/097/budgetary_resources/"))
+                    .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                    .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+            get(client, "/agency/097/budgetary_resources/");
+            assertThat(get(client, "/agency/097/budgetary_resources/")).isEqualTo("{\"budget\":1}");
+
+            server.verify();
+            assertThat(count("revalidated")).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should replace the entry when the API returns a new representation")
+        void shouldReplaceChangedEntry() {
+            cache("/**/solicitations", Duration.ZERO);
+            RestClient.Builder builder = builder(new HttpResponseCache(properties, meterRegistry));
+            MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+            RestClient client = builder.build();
+            server.expect(requestTo(BASE_URL + "/solicitations"))
+                    .andRespond(withSuccess("[1]", MediaType.APPLICATION_JSON));
+            server.expect(requestTo(BASE_URL + "/solicitations"))
+                    .andRespond(withSuccess("[1,2]", MediaType.APPLICATION_JSON));
+
+            get(client, "/solicitations");
+
+            assertThat(get(client, "/solicitations")).isEqualTo("[1,2]");
+            server.verify();
+        }
+    }
+
+    @Nested
+    @DisplayName("Pass-through")
+    class PassThrough {
+
+        @Test
+        @DisplayName("should not cache endpoints without a matching rule")
+        void shouldPassThroughUnmatchedPaths() {
+            cache("/**/recipient/**", Duration.ofHours(1));
+            RestClient.Builder builder = builder(new HttpResponseCache(properties, meterRegistry));
+            MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+            RestClient client = builder.build();
+            server.expect(twice(), requestTo(BASE_URL + "/awards"))
+                    .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+            get(client, "/awards");
+            get(client, "/awards");
+
+            server.verify();
+            assertThat(limiterCalls).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("should not store responses marked no-store")
+        void shouldHonorNoStore() {
+            cache("/**/recipient/**", Duration.ofHours(1));
+            RestClient.Builder builder = builder(new HttpResponseCache(properties, meterRegistry));
+            MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+            RestClient client = builder.build();
+            HttpHeaders noStore = new HttpHeaders();
+            noStore.setCacheControl("no-store");
+            server.expect(twice(), requestTo(BASE_URL + "/recipient/ABC/"))
+                    .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON).headers(noStore));
+
+            get(client, "/recipient/ABC/");
+            get(client, "/recipient/ABC/");
+
+            server.verify();
+        }
+
+        @Test
+        @DisplayName("should pass everything through when disabled")
+        void shouldPassThroughWhenDisabled() {
+            cache("/**/recipient/**", Duration.ofHours(1));
+            properties.setEnabled(false);
+            RestClient.Builder builder = builder(new HttpResponseCache(properties, meterRegistry));
+            MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+            RestClient client = builder.build();
+            server.expect(twice(), requestTo(BASE_URL + "/recipient/ABC/"))
+                    .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+            get(client, "/recipient/ABC/");
+            get(client, "/recipient/ABC/");
+
+            server.verify();
+        }
+    }
+
+    @Nested
+    @DisplayName("Purging")
+    class Purging {
+
+        @Test
+        @DisplayName("should delete entries past the retention on a scheduled purge")
+        void shouldPurgeExpiredEntries() throws IOException {
+            cache("/**/recipient/**", Duration.ofHours(1));
+            HttpResponseCache cache = new HttpResponseCache(properties, meterRegistry);
+            RestClient.Builder builder = builder(cache);
+            MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+            RestClient client = builder.build();
+            server.expect(twice(), requestTo(BASE_URL + "/recipient/ABC/"))
+                    .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+            get(client, "/recipient/ABC/");
+
+            assertThat(cache.purgeExpired()).isZero();
+            try (Stream<Path> files = Files.walk(cacheDir)) {
+                for (Path file : files.filter(Files::isRegularFile).toList()) {
+                    Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofDays(31))));
+                }
+            }
+
+            assertThat(cache.purgeExpired()).isEqualTo(1);
+            get(client, "/recipient/ABC/");
+            server.verify();
+            assertThat(count("miss")).isEqualTo(2.0);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.samgov.ingestor.client;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samgov.ingestor.dto.SamOpportunityDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for JsonStreamDecoder.
+ * Tests element-at-a-time decoding of array and wrapped-object payloads.
+ */
+class JsonStreamDecoderTest {
+
+    private final JsonStreamDecoder decoder = new JsonStreamDecoder(new ObjectMapper());
+
+    private static InputStream json(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nested
+    @DisplayName("readObject")
+    class ReadObject {
+
+        @Test
+        @DisplayName("should stream records and keep only requested metadata")
+        void shouldStreamRecordsAndKeepMetadata() throws Exception {
+            String body = """
+                {"totalRecords": 2,
+                 "links": [{"rel": "self", "href": "https://api.sam.gov"}],
+                 "opportunitiesData": [
+                   {"noticeId": "n1", "solicitationNumber": "S-1", "unknown": {"nested": [1, 2]}},
+                   null,
+                   {"noticeId": "n2", "solicitationNumber": "S-2"}
+                 ]}
+                """;
+            List<SamOpportunityDto> records = new ArrayList<>();
+
+            Map<String, JsonNode> metadata = decoder.readObject(json(body), "opportunitiesData",
+                SamOpportunityDto.class, Set.of("totalRecords"), records::add);
+
+            assertThat(records).extracting(SamOpportunityDto::solicitationNumber).containsExactly("S-1", "S-2");
+            assertThat(metadata).containsOnlyKeys("totalRecords");
+            assertThat(metadata.get("totalRecords").asInt()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should deliver each record before reading the next one")
+        void shouldDeliverRecordsIncrementally() {
+            String truncated = """
+                {"opportunitiesData": [{"noticeId": "n1", "solicitationNumber": "S-1"}, {"noticeId": "n2"
+                """;
+            List<SamOpportunityDto> records = new ArrayList<>();
+
+            assertThatThrownBy(() -> decoder.readObject(json(truncated), "opportunitiesData",
+                SamOpportunityDto.class, Set.of(), records::add))
+                .isInstanceOf(IOException.class);
+            assertThat(records).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("should return null for an empty body")
+        void shouldReturnNullForEmptyBody() throws Exception {
+            assertThat(decoder.readObject(json(""), "opportunitiesData", SamOpportunityDto.class,
+                Set.of(), record -> { })).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("readArray")
+    class ReadArray {
+
+        @Test
+        @DisplayName("should stream elements of a top-level array")
+        void shouldStreamTopLevelArray() throws Exception {
+            List<SamOpportunityDto> records = new ArrayList<>();
+
+            int count = decoder.readArray(json("[{\"noticeId\": \"n1\"}, {\"noticeId\": \"n2\"}]"),
+                SamOpportunityDto.class, records::add);
+
+            assertThat(count).isEqualTo(2);
+            assertThat(records).extracting(SamOpportunityDto::noticeId).containsExactly("n1", "n2");
+        }
+
+        @Test
+        @DisplayName("should reject a body that is not an array")
+        void shouldRejectNonArray() {
+            assertThatThrownBy(() -> decoder.readArray(json("{\"error\": \"maintenance\"}"),
+                SamOpportunityDto.class, record -> { }))
+                .isInstanceOf(JsonParseException.class);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.samgov.ingestor.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for OutboundRateLimiter.
+ * Tests quota accounting, 429 backoff, Retry-After parsing and metric registration.
+ */
+class OutboundRateLimiterTest {
+
+    @Nested
+    @DisplayName("Daily quota")
+    class DailyQuota {
+
+        @Test
+        @DisplayName("should fail fast once the daily quota is used up")
+        void shouldRejectOverQuota() throws InterruptedException {
+            OutboundRateLimiter limiter = new OutboundRateLimiter("test", Duration.ZERO, 1, 2);
+
+            limiter.acquire();
+            limiter.acquire();
+
+            assertThat(limiter.getRemainingQuota()).isZero();
+            assertThatThrownBy(limiter::acquire).isInstanceOf(OutboundQuotaExceededException.class);
+            assertThat(limiter.getUsedToday()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should not spend quota on a request cancelled before it starts")
+        void shouldNotChargeCancelledRequest() {
+            // Given
+            OutboundRateLimiter limiter = new OutboundRateLimiter("test", Duration.ZERO, 1, 2);
+            Thread.currentThread().interrupt();
+
+            // When / Then
+            assertThatThrownBy(limiter::acquire).isInstanceOf(InterruptedException.class);
+            assertThat(Thread.interrupted()).isFalse();
+            assertThat(limiter.getUsedToday()).isZero();
+        }
+
+        @Test
+        @DisplayName("should report -1 remaining when unlimited")
+        void shouldReportUnlimited() throws InterruptedException {
+            OutboundRateLimiter limiter = new OutboundRateLimiter("test", Duration.ZERO, 1, 0);
+
+            limiter.acquire();
+
+            assertThat(limiter.getRemainingQuota()).isEqualTo(-1);
+            assertThat(limiter.getUsedToday()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Throttling")
+    class Throttling {
+
+        @Test
+        @DisplayName("should honor Retry-After when throttled")
+        void shouldPauseForRetryAfter() {
+            OutboundRateLimiter limiter = new OutboundRateLimiter("test", Duration.ZERO, 1, 0);
+
+            Duration pause = limiter.onThrottled(Duration.ofSeconds(30));
+
+            assertThat(pause).isEqualTo(Duration.ofSeconds(30));
+            assertThat(limiter.getWaitSeconds()).isGreaterThan(25.0);
+            assertThat(limiter.getThrottledTotal()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should back off exponentially without Retry-After and reset on success")
+        void shouldBackOffExponentially() {
+            OutboundRateLimiter limiter = new OutboundRateLimiter("test", Duration.ZERO, 1, 0);
+
+            assertThat(limiter.onThrottled(null)).isEqualTo(Duration.ofSeconds(1));
+            assertThat(limiter.onThrottled(null)).isEqualTo(Duration.ofSeconds(2));
+            assertThat(limiter.onThrottled(null)).isEqualTo(Duration.ofSeconds(4));
+
+            limiter.onSuccess();
+
+            assertThat(limiter.onThrottled(null)).isEqualTo(Duration.ofSeconds(1));
+        }
+
+        @Test
+        @DisplayName("should parse Retry-After as seconds or HTTP date")
+        void shouldParseRetryAfter() {
+            HttpHeaders seconds = new HttpHeaders();
+            seconds.set(HttpHeaders.RETRY_AFTER, "120");
+            assertThat(OutboundRateLimiter.parseRetryAfter(seconds)).isEqualTo(Duration.ofSeconds(120));
+
+            HttpHeaders date = new HttpHeaders();
+            date.set(HttpHeaders.RETRY_AFTER, ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(2)
+                    .format(DateTimeFormatter.RFC_1123_DATE_TIME));
+            assertThat(OutboundRateLimiter.parseRetryAfter(date)).isBetween(Duration.ofSeconds(100), Duration.ofSeconds(120));
+
+            assertThat(OutboundRateLimiter.parseRetryAfter(new HttpHeaders())).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Registry")
+    class Registry {
+
+        @Test
+        @DisplayName("should share one limiter per API and expose gauges")
+        void shouldShareLimiterAndRegisterGauges() {
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            OutboundRateLimiterRegistry registry = new OutboundRateLimiterRegistry(meterRegistry);
+
+            OutboundRateLimiter first = registry.forApi("sam.gov", 500, 1, 1000);
+            OutboundRateLimiter second = registry.forApi("sam.gov", 100);
+
+            assertThat(second).isSameAs(first);
+            assertThat(meterRegistry.get("samgov.outbound.quota.remaining").tag("api", "sam.gov").gauge().value())
+                    .isEqualTo(1000.0);
+            assertThat(meterRegistry.get("samgov.outbound.wait").tag("api", "sam.gov").gauge()).isNotNull();
+        }
+    }
+}
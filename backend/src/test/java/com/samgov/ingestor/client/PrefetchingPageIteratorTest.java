@@ -0,0 +1,122 @@
+package com.samgov.ingestor.client;
+
+import com.samgov.ingestor.client.PrefetchingPageIterator.FetchedPage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PrefetchingPageIterator.
+ * Tests paging termination rules and lazy prefetch behavior.
+ */
+class PrefetchingPageIteratorTest {
+
+    /**
+     * Simulates an offset-paged API holding {@code total} records.
+     */
+    private static PrefetchingPageIterator.PageFetcher<Integer> fakeApi(int total, int pageSize,
+                                                                      ConcurrentLinkedQueue<Integer> requested) {
+        return pageIndex -> {
+            requested.add(pageIndex);
+            int from = pageIndex * pageSize;
+            int to = Math.min(total, from + pageSize);
+            List<Integer> items = from >= total ? List.of() : IntStream.range(from, to).boxed().toList();
+            return new FetchedPage<>(items, total);
+        };
+    }
+
+    @Nested
+    @DisplayName("Draining totalRecords")
+    class Draining {
+
+        @Test
+        @DisplayName("should yield every record across pages in order")
+        void shouldYieldAllRecords() {
+            ConcurrentLinkedQueue<Integer> requested = new ConcurrentLinkedQueue<>();
+            PrefetchingPageIterator<Integer> iterator =
+                    new PrefetchingPageIterator<>(fakeApi(2500, 1000, requested), 1000, 100, 2);
+
+            List<Integer> all;
+            try (Stream<List<Integer>> pages = iterator.stream()) {
+                all = pages.flatMap(List::stream).toList();
+            }
+
+            assertThat(all).hasSize(2500);
+            assertThat(all).isSorted();
+            assertThat(requested).containsExactlyInAnyOrder(0, 1, 2);
+        }
+
+        @Test
+        @DisplayName("should stop at maxPages even when more records are available")
+        void shouldRespectMaxPages() {
+            ConcurrentLinkedQueue<Integer> requested = new ConcurrentLinkedQueue<>();
+            PrefetchingPageIterator<Integer> iterator =
+                    new PrefetchingPageIterator<>(fakeApi(10_000, 100, requested), 100, 3, 2);
+
+            List<List<Integer>> pages = new ArrayList<>();
+            try (iterator) {
+                iterator.forEachRemaining(pages::add);
+            }
+
+            assertThat(pages).hasSize(3);
+            assertThat(requested).allMatch(page -> page < 3);
+        }
+
+        @Test
+        @DisplayName("should stop on a short page when total is unknown")
+        void shouldStopOnShortPageWithUnknownTotal() {
+            PrefetchingPageIterator.PageFetcher<Integer> fetcher = pageIndex -> pageIndex < 2
+                    ? new FetchedPage<>(List.of(1, 2, 3), -1)
+                    : new FetchedPage<>(List.of(4), -1);
+
+            List<Integer> all;
+            try (Stream<List<Integer>> pages = new PrefetchingPageIterator<>(fetcher, 3, 50, 4).stream()) {
+                all = pages.flatMap(List::stream).toList();
+            }
+
+            assertThat(all).containsExactly(1, 2, 3, 1, 2, 3, 4);
+        }
+    }
+
+    @Nested
+    @DisplayName("Error handling")
+    class ErrorHandling {
+
+        @Test
+        @DisplayName("should return no pages when the first request fails")
+        void shouldReturnNothingOnEmptyFirstPage() {
+            PrefetchingPageIterator<Integer> iterator =
+                    new PrefetchingPageIterator<>(pageIndex -> FetchedPage.empty(), 10, 10, 2);
+
+            try (iterator) {
+                assertThat(iterator.hasNext()).isFalse();
+            }
+        }
+
+        @Test
+        @DisplayName("should stop iteration when a prefetched page throws")
+        void shouldStopWhenPrefetchThrows() {
+            PrefetchingPageIterator.PageFetcher<Integer> fetcher = pageIndex -> {
+                if (pageIndex == 1) {
+                    throw new IllegalStateException("boom");
+                }
+                return new FetchedPage<>(List.of(pageIndex), 5);
+            };
+
+            List<List<Integer>> pages = new ArrayList<>();
+            try (PrefetchingPageIterator<Integer> iterator = new PrefetchingPageIterator<>(fetcher, 1, 10, 1)) {
+                iterator.forEachRemaining(pages::add);
+            }
+
+            assertThat(pages).containsExactly(List.of(0));
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.samgov.ingestor.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samgov.ingestor.config.SamGovProperties;
+import com.samgov.ingestor.dto.PostedDateWindow;
+import com.samgov.ingestor.dto.SamOpportunityDto;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for SamApiClient.
+ * Tests paging against a local HTTP server, including prefetches cancelled by a short page.
+ */
+class SamApiClientTest {
+
+    private static final int PAGE_SIZE = 2;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private SamGovProperties properties;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+
+        properties = new SamGovProperties();
+        properties.setApiKey("test-key");
+        properties.setBaseUrl("http://localhost:" + server.getAddress().getPort());
+        properties.setLimit(PAGE_SIZE);
+        properties.setMaxPages(10);
+        properties.setMaxInFlightPages(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    private SamApiClient client(CountDownLatch requestsFinished) {
+        OutboundRateLimiter limiter = new OutboundRateLimiterRegistry(new SimpleMeterRegistry())
+                .forApi("sam.gov", 0, 1, 0);
+        RestClient restClient = RestClient.builder()
+                .baseUrl(properties.getBaseUrl())
+                .requestFactory(new SimpleClientHttpRequestFactory())
+                .requestInterceptor(limiter.interceptor())
+                .requestInterceptor((request, body, execution) -> {
+                    try {
+                        return execution.execute(request, body);
+                    } finally {
+                        requestsFinished.countDown();
+                    }
+                })
+                .build();
+        return new SamApiClient(restClient, properties, new ObjectMapper());
+    }
+
+    private static void respond(HttpExchange exchange, int offset, int count, int totalRecords) throws IOException {
+        String opportunities = String.join(",", IntStream.range(offset, offset + count)
+                .mapToObj(i -> "{\"noticeId\":\"n-" + i + "\",\"title\":\"Notice " + i + "\"}")
+                .toList());
+        byte[] body = ("{\"totalRecords\":" + totalRecords + ",\"opportunitiesData\":[" + opportunities + "]}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static int offsetOf(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getQuery();
+        return Stream.of(query.split("&"))
+                .filter(param -> param.startsWith("offset="))
+                .mapToInt(param -> Integer.parseInt(param.substring("offset=".length())))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Nested
+    @DisplayName("Paging")
+    class Paging {
+
+        @Test
+        @DisplayName("should not report a failure for a prefetch cancelled by a short page")
+        void shouldIgnoreCancelledPrefetch() throws Exception {
+            // Given: page 1 is short and only answers once page 2 is in flight; page 2 never answers
+            CountDownLatch page2Requested = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            server.createContext("/", exchange -> {
+                try {
+                    switch (offsetOf(exchange) / PAGE_SIZE) {
+                        case 0 -> respond(exchange, 0, PAGE_SIZE, 100);
+                        case 1 -> {
+                            page2Requested.await(5, TimeUnit.SECONDS);
+                            respond(exchange, PAGE_SIZE, 1, 100);
+                        }
+                        default -> {
+                            page2Requested.countDown();
+                            release.await(10, TimeUnit.SECONDS);
+                            exchange.close();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            server.start();
+            CountDownLatch requestsFinished = new CountDownLatch(3);
+            AtomicBoolean fetchFailed = new AtomicBoolean();
+
+            // When
+            List<SamOpportunityDto> opportunities;
+            try (Stream<List<SamOpportunityDto>> pages = client(requestsFinished).streamOpportunityPages(
+                    "541511", "o", PostedDateWindow.lastDays(30), 0, fetchFailed)) {
+                opportunities = pages.flatMap(List::stream).toList();
+            }
+
+            // Then: the cancelled page 2 request ends without waiting for the server
+            assertThat(requestsFinished.await(5, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+            for (int i = 0; i < 20 && !fetchFailed.get(); i++) {
+                Thread.sleep(10);
+            }
+            assertThat(opportunities).extracting(SamOpportunityDto::noticeId).containsExactly("n-0", "n-1", "n-2");
+            assertThat(fetchFailed).isFalse();
+        }
+
+        @Test
+        @DisplayName("should report a failure when a page request fails")
+        void shouldReportFailedPage() throws Exception {
+            // Given
+            server.createContext("/", exchange -> {
+                if (offsetOf(exchange) == 0) {
+                    respond(exchange, 0, PAGE_SIZE, 100);
+                } else {
+                    exchange.sendResponseHeaders(500, -1);
+                    exchange.close();
+                }
+            });
+            server.start();
+            AtomicBoolean fetchFailed = new AtomicBoolean();
+
+            // When
+            List<SamOpportunityDto> opportunities;
+            try (Stream<List<SamOpportunityDto>> pages = client(new CountDownLatch(0)).streamOpportunityPages(
+                    "541511", "o", PostedDateWindow.lastDays(30), 0, fetchFailed)) {
+                opportunities = pages.flatMap(List::stream).toList();
+            }
+
+            // Then
+            assertThat(opportunities).hasSize(PAGE_SIZE);
+            assertThat(fetchFailed).isTrue();
+        }
+    }
+}
@@ -6,6 +6,9 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.test.context.support.WithMockUser;
 
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -64,11 +67,12 @@ class IngestControllerTest extends BaseControllerTest {
     class IngestUsaSpending {
 
         @Test
-        @DisplayName("should trigger USAspending ingestion for super admin")
+        @DisplayName("should queue USAspending ingestion for super admin")
         @WithMockUser(username = "superadmin", roles = {"SUPER_ADMIN"})
         void should_TriggerUsaSpendingIngestion() throws Exception {
             performPost("/ingest/usa-spending")
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").exists());
         }
 
         @Test
@@ -80,6 +84,39 @@ class IngestControllerTest extends BaseControllerTest {
         }
     }
 
+    // ============================================
+    // Ingestion Job Endpoints
+    // ============================================
+
+    @Nested
+    @DisplayName("GET /ingest/jobs")
+    class GetIngestionJobs {
+
+        @Test
+        @DisplayName("should list recent jobs for super admin")
+        @WithMockUser(username = "superadmin", roles = {"SUPER_ADMIN"})
+        void should_ListRecentJobs() throws Exception {
+            performGet("/ingest/jobs")
+                .andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("should return 404 for an unknown job")
+        @WithMockUser(username = "superadmin", roles = {"SUPER_ADMIN"})
+        void should_Return404ForUnknownJob() throws Exception {
+            performGet("/ingest/jobs/" + UUID.randomUUID())
+                .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("should reject non-super-admin users")
+        @WithMockUser(username = "user", roles = {"USER"})
+        void should_RejectNonSuperAdmin() throws Exception {
+            performGet("/ingest/jobs")
+                .andExpect(status().isForbidden());
+        }
+    }
+
     @Nested
     @DisplayName("GET /ingest/usa-spending/stats")
     class GetUsaSpendingStats {
@@ -102,11 +139,11 @@ class IngestControllerTest extends BaseControllerTest {
     class TriggerGeocoding {
 
         @Test
-        @DisplayName("should trigger geocoding for super admin")
+        @DisplayName("should queue geocoding for super admin")
         @WithMockUser(username = "superadmin", roles = {"SUPER_ADMIN"})
         void should_TriggerGeocoding() throws Exception {
             performPost("/ingest/geocode")
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
         }
 
         @Test
@@ -114,7 +151,7 @@ class IngestControllerTest extends BaseControllerTest {
         @WithMockUser(username = "superadmin", roles = {"SUPER_ADMIN"})
         void should_AcceptLimitParameter() throws Exception {
             performPost("/ingest/geocode?limit=50")
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
         }
 
         @Test
@@ -156,6 +193,30 @@ class IngestControllerTest extends BaseControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /opportunities/map")
+    class GetOpportunityMap {
+
+        @Test
+        @DisplayName("should return clusters for a viewport")
+        @WithMockUser(username = "user", roles = {"USER"})
+        void should_ReturnClusters() throws Exception {
+            performGet("/opportunities/map?minLat=24&minLon=-125&maxLat=50&maxLon=-66&zoom=4")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.zoom").value(4))
+                .andExpect(jsonPath("$.clusters").isArray())
+                .andExpect(jsonPath("$.points").isEmpty());
+        }
+
+        @Test
+        @DisplayName("should reject a viewport whose minimum exceeds its maximum")
+        @WithMockUser(username = "user", roles = {"USER"})
+        void should_Return400_WhenViewportInverted() throws Exception {
+            performGet("/opportunities/map?minLat=50&minLon=-125&maxLat=24&maxLon=-66&zoom=4")
+                .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     @DisplayName("GET /opportunities/by-state")
     class GetOpportunitiesByState {
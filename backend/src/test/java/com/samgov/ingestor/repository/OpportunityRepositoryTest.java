@@ -5,6 +5,7 @@ import com.samgov.ingestor.model.Opportunity;
 import com.samgov.ingestor.model.Opportunity.ContractLevel;
 import com.samgov.ingestor.model.Opportunity.DataSource;
 import com.samgov.ingestor.model.Opportunity.OpportunityStatus;
+import com.samgov.ingestor.runner.FullTextIndexRunner;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,15 +13,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -34,6 +38,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @ActiveProfiles("test")
+@Import(FullTextIndexRunner.class)
 class OpportunityRepositoryTest {
 
     @Autowired
@@ -418,12 +423,82 @@ class OpportunityRepositoryTest {
             // Then
             assertThat(result.getContent()).hasSize(2);
         }
+
+        @Test
+        @DisplayName("should rank title matches above description matches")
+        void shouldRankTitleMatchesFirst() {
+            // Given
+            Opportunity inDescription = opportunityRepository.save(anActiveOpportunity()
+                .withTitle("Support Services")
+                .withDescription("Includes satellite ground station maintenance").build());
+            Opportunity inTitle = opportunityRepository.save(anActiveOpportunity()
+                .withTitle("Satellite Ground Station Upgrade").build());
+
+            // When
+            Page<Opportunity> result = opportunityRepository.searchByKeyword(
+                "satellite", PageRequest.of(0, 10));
+
+            // Then
+            assertThat(result.getContent())
+                .extracting(Opportunity::getId)
+                .containsExactly(inTitle.getId(), inDescription.getId());
+        }
+
+        @Test
+        @DisplayName("should support web search syntax")
+        void shouldSupportWebSearchSyntax() {
+            // Given
+            opportunityRepository.save(anActiveOpportunity()
+                .withTitle("Cloud Migration Services").build());
+            Opportunity hosting = opportunityRepository.save(anActiveOpportunity()
+                .withTitle("Cloud Hosting Services").build());
+
+            // When
+            Page<Opportunity> result = opportunityRepository.searchByKeyword(
+                "cloud -migration", PageRequest.of(0, 10));
+
+            // Then
+            assertThat(result.getContent())
+                .extracting(Opportunity::getId)
+                .containsExactly(hosting.getId());
+        }
     }
 
     @Nested
     @DisplayName("Full Text Search")
     class FullTextSearch {
 
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @Test
+        @DisplayName("should create the search vector as a generated tsvector column")
+        void shouldCreateGeneratedSearchVector() {
+            // When
+            Map<String, Object> column = jdbcTemplate.queryForMap("""
+                SELECT udt_name, is_generated FROM information_schema.columns
+                WHERE table_name = 'opportunities' AND column_name = 'search_vector'
+                """);
+
+            // Then
+            assertThat(column).containsEntry("udt_name", "tsvector").containsEntry("is_generated", "ALWAYS");
+        }
+
+        @Test
+        @DisplayName("should build a valid GIN index on the search vector")
+        void shouldIndexSearchVector() {
+            // When
+            Map<String, Object> index = jdbcTemplate.queryForMap("""
+                SELECT i.indisvalid, am.amname FROM pg_index i
+                JOIN pg_class c ON c.oid = i.indexrelid
+                JOIN pg_am am ON am.oid = c.relam
+                WHERE c.relname = 'idx_opp_search_vector'
+                """);
+
+            // Then
+            assertThat(index).containsEntry("indisvalid", true).containsEntry("amname", "gin");
+        }
+
         @Test
         @DisplayName("should search across multiple fields")
         void shouldSearchAcrossMultipleFields() {
@@ -0,0 +1,209 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.BaseServiceTest;
+import com.samgov.ingestor.model.Opportunity;
+import com.samgov.ingestor.model.OpportunityAlert;
+import com.samgov.ingestor.repository.OpportunityAlertRepository;
+import com.samgov.ingestor.service.OpportunityAlertService.AlertMatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.samgov.ingestor.builder.OpportunityTestBuilder.anActiveOpportunity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for AlertPercolator.
+ *
+ * Uses an external Elasticsearch instance (from docker-compose) and is skipped if none is
+ * available at localhost:9200. Alerts are registered directly, since the service only writes
+ * them once its transaction commits and test transactions roll back.
+ */
+@SpringBootTest
+@ActiveProfiles("elasticsearch-test")
+@DisplayName("Alert Percolator Integration Tests")
+@EnabledIf("isElasticsearchAvailable")
+class AlertPercolatorTest extends BaseServiceTest {
+
+    private static final String ELASTICSEARCH_URL = "http://localhost:9200";
+
+    static boolean isElasticsearchAvailable() {
+        try {
+            URL url = new URL(ELASTICSEARCH_URL + "/_cluster/health");
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod("GET");
+            connection.setConnectTimeout(2000);
+            connection.setReadTimeout(2000);
+            int responseCode = connection.getResponseCode();
+            connection.disconnect();
+            return responseCode == 200;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @DynamicPropertySource
+    static void elasticsearchProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.elasticsearch.uris", () -> ELASTICSEARCH_URL);
+        registry.add("elasticsearch.enabled", () -> "true");
+    }
+
+    @Autowired
+    private AlertPercolator percolator;
+
+    @Autowired
+    private OpportunityAlertService opportunityAlertService;
+
+    @Autowired
+    private OpportunityAlertRepository alertRepository;
+
+    private final List<OpportunityAlert> registered = new ArrayList<>();
+
+    private Opportunity cyber;
+    private Opportunity cloud;
+    private Opportunity janitorial;
+
+    @Override
+    @BeforeEach
+    protected void setUp() {
+        super.setUp();
+        // Drop queries left by earlier tests; nothing is enabled in the rolled-back database
+        percolator.resync();
+
+        cyber = anActiveOpportunity()
+            .withTitle("Cybersecurity Operations Support")
+            .withNaicsCode("541512")
+            .withEstimatedValueHigh(new BigDecimal("500000"))
+            .build();
+        cloud = anActiveOpportunity()
+            .withTitle("Cloud Hosting Services")
+            .withDescription("Migration of legacy workloads to a FedRAMP cloud")
+            .withNaicsCode("518210")
+            .withAwardAmount(new BigDecimal("2000000"))
+            .build();
+        janitorial = anActiveOpportunity()
+            .withTitle("Janitorial Services")
+            .withNaicsCode("561720")
+            .withEstimatedValueLow(null)
+            .withEstimatedValueHigh(null)
+            .build();
+    }
+
+    private OpportunityAlert register(String name, List<String> naicsCodes, List<String> keywords,
+                                      BigDecimal minValue, BigDecimal maxValue) {
+        OpportunityAlert alert = alertRepository.save(OpportunityAlert.builder()
+            .user(testUser)
+            .tenant(testTenant)
+            .name(name)
+            .naicsCodes(new ArrayList<>(naicsCodes))
+            .keywords(new ArrayList<>(keywords))
+            .minValue(minValue)
+            .maxValue(maxValue)
+            .build());
+        percolator.register(alert);
+        registered.add(alert);
+        return alert;
+    }
+
+    private static List<String> alertNames(Map<String, List<AlertMatch>> matches, Opportunity opportunity) {
+        return matches.getOrDefault(opportunity.getId(), List.of()).stream().map(AlertMatch::alertName).toList();
+    }
+
+    @Nested
+    @DisplayName("Percolation")
+    class Percolation {
+
+        @Test
+        @DisplayName("should return every matching alert for each opportunity of a batch")
+        void shouldMatchBatch() throws Exception {
+            // Given
+            register("IT services", List.of("5415"), List.of(), null, null);
+            register("Cloud", List.of(), List.of("cloud", "fedramp"), null, null);
+            register("Mid-size", List.of(), List.of(), new BigDecimal("100000"), new BigDecimal("1000000"));
+            register("Everything", List.of(), List.of(), null, null);
+
+            // When
+            Map<String, List<AlertMatch>> matches = percolator.percolate(List.of(cyber, cloud, janitorial));
+
+            // Then
+            assertThat(alertNames(matches, cyber)).containsExactlyInAnyOrder("IT services", "Mid-size", "Everything");
+            assertThat(alertNames(matches, cloud)).containsExactlyInAnyOrder("Cloud", "Everything");
+            assertThat(alertNames(matches, janitorial)).containsExactly("Everything");
+        }
+
+        @Test
+        @DisplayName("should agree with the in-memory matcher")
+        void shouldAgreeWithMatchesAlert() throws Exception {
+            // Given
+            register("Cyber under 1M", List.of("541"), List.of("cyber"), null, new BigDecimal("1000000"));
+            register("Large awards", List.of(), List.of(), new BigDecimal("1000000"), null);
+            register("Migration", List.of("518"), List.of("legacy workloads"), null, null);
+            List<Opportunity> opportunities = List.of(cyber, cloud, janitorial);
+
+            // When
+            Map<String, List<AlertMatch>> matches = percolator.percolate(opportunities);
+
+            // Then
+            for (Opportunity opportunity : opportunities) {
+                List<String> expected = registered.stream()
+                    .filter(alert -> opportunityAlertService.matchesAlert(opportunity, alert))
+                    .map(OpportunityAlert::getName)
+                    .toList();
+                assertThat(alertNames(matches, opportunity))
+                    .as(opportunity.getTitle())
+                    .containsExactlyInAnyOrderElementsOf(expected);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Sync")
+    class Sync {
+
+        @Test
+        @DisplayName("should stop matching alerts that are disabled or removed")
+        void shouldUnregister() throws Exception {
+            // Given
+            OpportunityAlert disabled = register("Disabled", List.of("5415"), List.of(), null, null);
+            OpportunityAlert removed = register("Removed", List.of("5415"), List.of(), null, null);
+            register("Kept", List.of("5415"), List.of(), null, null);
+
+            // When
+            disabled.setEnabled(false);
+            percolator.register(disabled);
+            percolator.unregister(removed.getId());
+
+            // Then
+            assertThat(alertNames(percolator.percolate(List.of(cyber)), cyber)).containsExactly("Kept");
+        }
+
+        @Test
+        @DisplayName("should drop queries of alerts missing from the database on resync")
+        void shouldResync() throws Exception {
+            // Given
+            OpportunityAlert alert = register("Stale", List.of("5415"), List.of(), null, null);
+            alertRepository.delete(alert);
+            alertRepository.flush();
+
+            // When
+            percolator.resync();
+
+            // Then
+            assertThat(percolator.percolate(List.of(cyber))).isEmpty();
+        }
+    }
+}
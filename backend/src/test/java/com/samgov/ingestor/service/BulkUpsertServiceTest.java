@@ -0,0 +1,278 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.BaseServiceTest;
+import com.samgov.ingestor.model.Opportunity;
+import com.samgov.ingestor.model.Opportunity.OpportunityStatus;
+import com.samgov.ingestor.repository.OpportunityRepository;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertColumn;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertMapping;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertResult;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertTable;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Service layer tests for BulkUpsertService.
+ * Tests the generated statements, chunking, content-hash skipping and key/id conflicts.
+ */
+@DisplayName("BulkUpsertService Tests")
+class BulkUpsertServiceTest extends BaseServiceTest {
+
+    @Autowired
+    private BulkUpsertService bulkUpsertService;
+
+    @Autowired
+    private OpportunityRepository opportunityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SearchOutbox searchOutbox;
+
+    @Override
+    @BeforeEach
+    protected void setUp() {
+        super.setUp();
+        opportunityRepository.deleteAll();
+    }
+
+    private String solicitationNumberOf(String id) {
+        return jdbcTemplate.queryForObject(
+            "SELECT solicitation_number FROM opportunities WHERE id = ?", String.class, id);
+    }
+
+    private String titleOf(String solicitationNumber) {
+        return jdbcTemplate.queryForObject(
+            "SELECT title FROM opportunities WHERE solicitation_number = ?", String.class, solicitationNumber);
+    }
+
+    private long rowCount() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM opportunities", Long.class);
+    }
+
+    @Nested
+    @DisplayName("Upsert table")
+    class Table {
+
+        private record Row(String id, String key, String name, String created) {}
+
+        private final UpsertTable<Row> table = UpsertTable.of(
+            "rows",
+            List.of(
+                new UpsertColumn<>("id", Row::id),
+                new UpsertColumn<>("key", Row::key),
+                new UpsertColumn<>("name", Row::name),
+                new UpsertColumn<>("created", Row::created)
+            ),
+            List.of("key"),
+            Set.of("id", "created"));
+
+        @Test
+        @DisplayName("should upsert on the conflict target and leave insert-only columns alone")
+        void shouldBuildUpsert() {
+            assertThat(table.sql()).isEqualTo(
+                "INSERT INTO rows (id, key, name, created) VALUES (?, ?, ?, ?)"
+                    + " ON CONFLICT (key) DO UPDATE SET name = EXCLUDED.name");
+        }
+
+        @Test
+        @DisplayName("should update by id including the conflict columns")
+        void shouldBuildUpdateById() {
+            // When
+            Object[] values = table.bindUpdateById(new Row("r-1", "K-1", "first", "today"));
+
+            // Then
+            assertThat(table.updateByIdSql()).isEqualTo("UPDATE rows SET key = ?, name = ? WHERE id = ?");
+            assertThat(values).containsExactly("K-1", "first", "r-1");
+        }
+
+        @Test
+        @DisplayName("should require an id column")
+        void shouldRequireId() {
+            assertThatThrownBy(() -> UpsertTable.<Row>of("rows",
+                List.of(new UpsertColumn<>("key", Row::key)), List.of("key"), Set.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Upsert")
+    class Upsert {
+
+        @Test
+        @DisplayName("should insert new keys and update changed ones")
+        void shouldInsertAndUpdate() {
+            // Given
+            NoticeMapping mapping = new NoticeMapping();
+            bulkUpsertService.upsert(List.of(new Notice("SOL-1", "n-1", "Radar")), mapping);
+
+            // When
+            UpsertResult result = bulkUpsertService.upsert(
+                List.of(new Notice("SOL-1", "n-1", "Radar upgrade"), new Notice("SOL-2", "n-2", "Sonar")), mapping);
+
+            // Then
+            assertThat(result).isEqualTo(new UpsertResult(1, 1, 0));
+            assertThat(titleOf("SOL-1")).isEqualTo("Radar upgrade");
+            assertThat(titleOf("SOL-2")).isEqualTo("Sonar");
+        }
+
+        @Test
+        @DisplayName("should skip records whose content hash matches the stored row")
+        void shouldSkipUnchanged() {
+            // Given
+            NoticeMapping mapping = new NoticeMapping();
+            List<Notice> notices = List.of(new Notice("SOL-1", "n-1", "Radar"), new Notice("SOL-2", "n-2", "Sonar"));
+            bulkUpsertService.upsert(notices, mapping);
+            jdbcTemplate.update("UPDATE opportunities SET title = 'edited' WHERE solicitation_number = 'SOL-1'");
+
+            // When
+            UpsertResult result = bulkUpsertService.upsert(notices, mapping);
+
+            // Then
+            assertThat(result).isEqualTo(new UpsertResult(0, 0, 2));
+            assertThat(result.written()).isZero();
+            assertThat(titleOf("SOL-1")).isEqualTo("edited");
+        }
+
+        @Test
+        @DisplayName("should collapse records sharing a key within a chunk; the last one wins")
+        void shouldCollapseSameKey() {
+            // When
+            UpsertResult result = bulkUpsertService.upsert(
+                List.of(new Notice("SOL-1", "n-1", "Radar"), new Notice("SOL-1", "n-1", "Radar amended")),
+                new NoticeMapping());
+
+            // Then
+            assertThat(result).isEqualTo(new UpsertResult(1, 0, 0));
+            assertThat(titleOf("SOL-1")).isEqualTo("Radar amended");
+        }
+
+        @Test
+        @DisplayName("should write each chunk separately")
+        void shouldChunk() {
+            // Given
+            BulkUpsertService chunked = new BulkUpsertService(jdbcTemplate, entityManager, transactionTemplate,
+                searchOutbox);
+            ReflectionTestUtils.setField(chunked, "chunkSize", 2);
+            NoticeMapping mapping = new NoticeMapping();
+
+            // When
+            UpsertResult result = chunked.upsert(List.of(
+                new Notice("SOL-1", "n-1", "One"), new Notice("SOL-2", "n-2", "Two"),
+                new Notice("SOL-3", "n-3", "Three"), new Notice("SOL-4", "n-4", "Four"),
+                new Notice("SOL-5", "n-5", "Five")), mapping);
+
+            // Then
+            assertThat(result).isEqualTo(new UpsertResult(5, 0, 0));
+            assertThat(mapping.lookups).isEqualTo(3);
+            assertThat(rowCount()).isEqualTo(5);
+        }
+    }
+
+    @Nested
+    @DisplayName("Id conflicts")
+    class IdConflicts {
+
+        @Test
+        @DisplayName("should move an existing row to a new key that arrives with its id")
+        void shouldRewriteByIdUnderNewKey() {
+            // Given
+            NoticeMapping mapping = new NoticeMapping();
+            bulkUpsertService.upsert(List.of(new Notice("SOL-OLD", "n-1", "Radar")), mapping);
+
+            // When
+            UpsertResult result = bulkUpsertService.upsert(
+                List.of(new Notice("SOL-NEW", "n-1", "Radar"), new Notice("SOL-2", "n-2", "Sonar")), mapping);
+
+            // Then
+            assertThat(result).isEqualTo(new UpsertResult(1, 1, 0));
+            assertThat(solicitationNumberOf("n-1")).isEqualTo("SOL-NEW");
+            assertThat(rowCount()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should keep the last of several new keys that carry the same id without counting the others")
+        void shouldCollapseSameIdWithinChunk() {
+            // When
+            UpsertResult result = bulkUpsertService.upsert(
+                List.of(new Notice("SOL-A", "n-1", "Radar"), new Notice("SOL-B", "n-1", "Radar")),
+                new NoticeMapping());
+
+            // Then
+            assertThat(result).isEqualTo(new UpsertResult(1, 0, 0));
+            assertThat(solicitationNumberOf("n-1")).isEqualTo("SOL-B");
+            assertThat(rowCount()).isEqualTo(1);
+        }
+    }
+
+    private record Notice(String solicitationNumber, String noticeId, String title) {}
+
+    /**
+     * Minimal mapping onto the opportunities table, keyed by solicitation number with the notice
+     * id as the row id, like the SAM.gov mapping.
+     */
+    private class NoticeMapping implements UpsertMapping<Notice, Opportunity> {
+
+        private int lookups;
+
+        @Override
+        public UpsertTable<Opportunity> table() {
+            return BulkUpsertService.OPPORTUNITIES;
+        }
+
+        @Override
+        public String recordKey(Notice record) {
+            return record.solicitationNumber();
+        }
+
+        @Override
+        public String entityKey(Opportunity opportunity) {
+            return opportunity.getSolicitationNumber();
+        }
+
+        @Override
+        public List<Opportunity> findExisting(Collection<String> keys) {
+            lookups++;
+            return opportunityRepository.findBySolicitationNumberIn(keys);
+        }
+
+        @Override
+        public Opportunity create(Notice record) {
+            return Opportunity.builder()
+                .id(record.noticeId())
+                .solicitationNumber(record.solicitationNumber())
+                .title(record.title())
+                .status(OpportunityStatus.ACTIVE)
+                .postedDate(LocalDate.now())
+                .responseDeadLine(LocalDate.now().plusDays(30))
+                .build();
+        }
+
+        @Override
+        public void update(Opportunity opportunity, Notice record) {
+            opportunity.setTitle(record.title());
+        }
+    }
+}
@@ -15,8 +15,12 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Unit tests for CacheService ensuring proper caching behavior with multi-tenant isolation.
@@ -26,6 +30,7 @@ class CacheServiceTest {
 
     private CacheService cacheService;
     private CacheManager cacheManager;
+    private AtomicLong generation;
     private UUID testTenantId;
     private UUID testUserId;
 
@@ -40,7 +45,10 @@ class CacheServiceTest {
             CacheConfig.SEARCH_RESULTS_CACHE,
             CacheConfig.API_RESPONSES_CACHE
         );
-        cacheService = new CacheService(cacheManager);
+        generation = new AtomicLong();
+        OpportunityDataGeneration dataGeneration = mock(OpportunityDataGeneration.class);
+        when(dataGeneration.current()).thenAnswer(invocation -> generation.get());
+        cacheService = new CacheService(cacheManager, dataGeneration);
         testTenantId = UUID.randomUUID();
         testUserId = UUID.randomUUID();
 
@@ -243,6 +251,51 @@ class CacheServiceTest {
             // Then
             assertThat(cacheService.getCachedSearchResults(testTenantId, queryHash)).isEmpty();
         }
+
+        @Test
+        @DisplayName("should stop serving search results once the data generation advances")
+        void shouldRetireSearchResultsOnNewGeneration() {
+            // Given
+            String queryHash = "test-query-hash";
+            cacheService.cacheSearchResults(testTenantId, queryHash, "test-results");
+            assertThat(cacheService.getCachedSearchResults(testTenantId, queryHash)).isPresent();
+
+            // When
+            generation.incrementAndGet();
+
+            // Then
+            assertThat(cacheService.getCachedSearchResults(testTenantId, queryHash)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should run a search once per fingerprint and generation")
+        void shouldComputeSearchResultsOnMiss() {
+            // Given
+            AtomicInteger searches = new AtomicInteger();
+
+            // When
+            String first = cacheService.getOrComputeSearchResults(testTenantId, "keyword=cyber",
+                () -> "results-" + searches.incrementAndGet());
+            String second = cacheService.getOrComputeSearchResults(testTenantId, "keyword=cyber",
+                () -> "results-" + searches.incrementAndGet());
+            generation.incrementAndGet();
+            String third = cacheService.getOrComputeSearchResults(testTenantId, "keyword=cyber",
+                () -> "results-" + searches.incrementAndGet());
+
+            // Then
+            assertThat(first).isEqualTo("results-1");
+            assertThat(second).isEqualTo("results-1");
+            assertThat(third).isEqualTo("results-2");
+            assertThat(cacheService.getOrComputeSearchResults(UUID.randomUUID(), "keyword=cyber",
+                () -> "other-tenant")).isEqualTo("other-tenant");
+        }
+
+        @Test
+        @DisplayName("should normalize equivalent queries to the same text")
+        void shouldNormalizeQueries() {
+            assertThat(CacheService.normalizeQuery("  Cloud   MIGRATION\t")).isEqualTo("cloud migration");
+            assertThat(CacheService.normalizeQuery("   ")).isNull();
+        }
     }
 
     @Nested
@@ -0,0 +1,209 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.BaseServiceTest;
+import com.samgov.ingestor.config.OpportunityMapProperties;
+import com.samgov.ingestor.config.SearchCacheProperties;
+import com.samgov.ingestor.dto.OpportunityMapResponse;
+import com.samgov.ingestor.dto.OpportunityMapResponse.Cluster;
+import com.samgov.ingestor.dto.OpportunityMapResponse.Point;
+import com.samgov.ingestor.model.Opportunity.OpportunityStatus;
+import com.samgov.ingestor.repository.OpportunityRepository;
+import com.samgov.ingestor.service.OpportunityMapService.Viewport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static com.samgov.ingestor.builder.OpportunityTestBuilder.anActiveOpportunity;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for GeoTileIndex.
+ *
+ * Each test builds its own index over the test transaction's connection; rows are flushed so
+ * the index's JDBC reads see them.
+ */
+@DisplayName("GeoTileIndex Tests")
+class GeoTileIndexTest extends BaseServiceTest {
+
+    private static final Viewport CONTINENTAL_US = new Viewport(24, -125, 50, -66);
+    private static final Viewport WASHINGTON_DC = new Viewport(38.8, -77.2, 39.0, -76.9);
+
+    @Autowired
+    private OpportunityRepository opportunityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private OpportunityMapProperties properties;
+    private OpportunityDataGeneration dataGeneration;
+    private GeoTileIndex index;
+
+    @Override
+    @BeforeEach
+    protected void setUp() {
+        super.setUp();
+        opportunityRepository.deleteAll();
+        properties = new OpportunityMapProperties();
+        // Small pages so the keyset paging is exercised
+        properties.setBatchSize(2);
+        dataGeneration = generation();
+        index = new GeoTileIndex(jdbcTemplate, properties, dataGeneration);
+
+        save("DC 1", "38.8951", "-77.0364");
+        save("DC 2", "38.9072", "-77.0369");
+        save("DC 3", "38.8899", "-77.0091");
+        save("NYC 1", "40.7128", "-74.0060");
+        save("NYC 2", "40.7306", "-73.9866");
+        save("LA", "34.0522", "-118.2437");
+        opportunityRepository.saveAndFlush(anActiveOpportunity()
+            .withTitle("DC closed").withStatus(OpportunityStatus.CLOSED)
+            .withLatitude(new BigDecimal("38.9")).withLongitude(new BigDecimal("-77.03")).build());
+        opportunityRepository.saveAndFlush(anActiveOpportunity()
+            .withTitle("Not geocoded").withLatitude(null).withLongitude(null).build());
+    }
+
+    private OpportunityDataGeneration generation() {
+        SearchCacheProperties cacheProperties = new SearchCacheProperties();
+        cacheProperties.setGenerationPollMs(0);
+        return new OpportunityDataGeneration(jdbcTemplate, cacheProperties);
+    }
+
+    private void save(String title, String latitude, String longitude) {
+        opportunityRepository.saveAndFlush(anActiveOpportunity()
+            .withTitle(title)
+            .withAgency("Department of Energy")
+            .withResponseDeadLine(LocalDate.now().plusDays(30))
+            .withLatitude(new BigDecimal(latitude))
+            .withLongitude(new BigDecimal(longitude))
+            .build());
+    }
+
+    @Nested
+    @DisplayName("Clusters")
+    class Clusters {
+
+        @Test
+        @DisplayName("should count active geocoded opportunities per tile at their centroid")
+        void shouldClusterByTile() {
+            // When
+            OpportunityMapResponse response = index.query(CONTINENTAL_US, 4);
+
+            // Then
+            assertThat(response.total()).isEqualTo(6);
+            assertThat(response.points()).isEmpty();
+            assertThat(response.clusters()).extracting(Cluster::count).containsExactlyInAnyOrder(3L, 2L, 1L);
+            Cluster washington = response.clusters().stream().filter(c -> c.count() == 3).findFirst().orElseThrow();
+            assertThat(washington.tile()).startsWith("7/");
+            assertThat(washington.latitude()).isCloseTo(38.8974, within(0.001));
+            assertThat(washington.longitude()).isCloseTo(-77.0275, within(0.001));
+        }
+
+        @Test
+        @DisplayName("should cluster coarser when the viewport spans more than max-cells tiles")
+        void shouldCoarsenLargeViewports() {
+            // Given
+            properties.setMaxCells(4);
+
+            // When
+            OpportunityMapResponse response = index.query(CONTINENTAL_US, 4);
+
+            // Then
+            assertThat(response.total()).isEqualTo(6);
+            assertThat(response.clusters()).hasSizeLessThanOrEqualTo(4);
+            assertThat(response.clusters()).allSatisfy(cluster ->
+                assertThat(Integer.parseInt(cluster.tile().split("/")[0])).isLessThan(7));
+        }
+
+        @Test
+        @DisplayName("should keep clustering a zoomed-in viewport that holds more than max-points")
+        void shouldClusterWhenTooManyPoints() {
+            // Given
+            properties.setMaxPoints(2);
+
+            // When
+            OpportunityMapResponse response = index.query(WASHINGTON_DC, 12);
+
+            // Then
+            assertThat(response.points()).isEmpty();
+            assertThat(response.total()).isEqualTo(3);
+        }
+    }
+
+    @Nested
+    @DisplayName("Points")
+    class Points {
+
+        @Test
+        @DisplayName("should return the opportunities of a zoomed-in viewport as points")
+        void shouldReturnPoints() {
+            // When
+            OpportunityMapResponse response = index.query(WASHINGTON_DC, 12);
+
+            // Then
+            assertThat(response.clusters()).isEmpty();
+            assertThat(response.points()).extracting(Point::title).containsExactlyInAnyOrder("DC 1", "DC 2", "DC 3");
+            assertThat(response.points()).allSatisfy(point -> {
+                assertThat(point.agency()).isEqualTo("Department of Energy");
+                assertThat(point.responseDeadline()).isEqualTo(LocalDate.now().plusDays(30));
+            });
+        }
+
+        @Test
+        @DisplayName("should leave out points outside the viewport")
+        void shouldFilterToViewport() {
+            // When
+            OpportunityMapResponse response = index.query(new Viewport(38.9, -77.04, 38.91, -77.03), 14);
+
+            // Then
+            assertThat(response.points()).extracting(Point::title).containsExactly("DC 2");
+        }
+    }
+
+    @Nested
+    @DisplayName("Refresh")
+    class Refresh {
+
+        @Test
+        @DisplayName("should rebuild once the newest updated_at moves")
+        void shouldRebuildOnNewerChange() {
+            // Given
+            index.query(WASHINGTON_DC, 12);
+            save("DC 4", "38.8977", "-77.0365");
+
+            // When
+            index.refresh();
+
+            // Then
+            assertThat(index.query(WASHINGTON_DC, 12).total()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("should rebuild when another instance advances the data generation")
+        void shouldRebuildOnNewGeneration() {
+            // Given
+            index.query(WASHINGTON_DC, 12);
+            // Moves an opportunity into the viewport without touching updated_at
+            jdbcTemplate.update("UPDATE opportunities SET latitude = 38.9, longitude = -77.0 WHERE title = 'LA'");
+
+            // When
+            index.refresh();
+
+            // Then
+            assertThat(index.query(WASHINGTON_DC, 12).total()).isEqualTo(3);
+
+            // When
+            generation().advance();
+            index.refresh();
+
+            // Then
+            assertThat(index.query(WASHINGTON_DC, 12).total()).isEqualTo(4);
+        }
+    }
+}
@@ -3,9 +3,12 @@ package com.samgov.ingestor.service;
 import com.samgov.ingestor.BaseServiceTest;
 import com.samgov.ingestor.client.CensusGeocoderClient;
 import com.samgov.ingestor.config.CensusProperties;
+import com.samgov.ingestor.dto.GeocodingResultDto.BatchAddress;
 import com.samgov.ingestor.dto.GeocodingResultDto.SimpleGeocodingResult;
+import com.samgov.ingestor.model.GeocodeCacheEntry;
 import com.samgov.ingestor.model.Opportunity;
 import com.samgov.ingestor.model.Opportunity.OpportunityStatus;
+import com.samgov.ingestor.repository.GeocodeCacheRepository;
 import com.samgov.ingestor.repository.OpportunityRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,13 +18,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -39,9 +49,15 @@ class GeocodingServiceTest extends BaseServiceTest {
     @MockBean
     private CensusGeocoderClient censusGeocoderClient;
 
+    @MockBean
+    private PlaceGazetteer placeGazetteer;
+
     @Autowired
     private CensusProperties censusProperties;
 
+    @Autowired
+    private GeocodeCacheRepository geocodeCacheRepository;
+
     @Override
     @BeforeEach
     protected void setUp() {
@@ -77,6 +93,24 @@ class GeocodingServiceTest extends BaseServiceTest {
             assertThat(updated.getGeocodedAt()).isNotNull();
         }
 
+        @Test
+        @DisplayName("should geocode from the gazetteer without calling the geocoder")
+        void shouldGeocodeFromGazetteer() {
+            // Given
+            Opportunity opp = createOpportunityWithAddress("opp-gz", "Washington", "DC", "20001");
+            opportunityRepository.save(opp);
+
+            when(placeGazetteer.lookup("Washington", "DC", "20001")).thenReturn(createTestGeocodingResult());
+
+            // When
+            boolean result = geocodingService.geocodeOpportunity(opp);
+
+            // Then
+            assertThat(result).isTrue();
+            assertThat(opportunityRepository.findById("opp-gz").orElseThrow().getFipsStateCode()).isEqualTo("11");
+            verify(censusGeocoderClient, never()).geocodeAddressComponents(any(), any(), any(), any());
+        }
+
         @Test
         @DisplayName("should skip already geocoded opportunities")
         void shouldSkipAlreadyGeocodedOpportunities() {
@@ -161,8 +195,7 @@ class GeocodingServiceTest extends BaseServiceTest {
             opportunityRepository.save(createOpportunityWithAddress("opp-b3", "Los Angeles", "CA", "90001"));
 
             when(censusGeocoderClient.isEnabled()).thenReturn(true);
-            when(censusGeocoderClient.geocodeAddressComponents(any(), any(), any(), any()))
-                .thenReturn(createTestGeocodingResult());
+            answerBatch(address -> true);
 
             // When
             int geocoded = geocodingService.batchGeocodeOpportunities(10);
@@ -172,6 +205,8 @@ class GeocodingServiceTest extends BaseServiceTest {
 
             List<Opportunity> all = opportunityRepository.findAll();
             assertThat(all).allMatch(o -> o.getLatitude() != null);
+            assertThat(all).allMatch(o -> o.getGeocodedAt() != null);
+            verify(censusGeocoderClient, times(1)).batchGeocode(any());
         }
 
         @Test
@@ -184,8 +219,7 @@ class GeocodingServiceTest extends BaseServiceTest {
             }
 
             when(censusGeocoderClient.isEnabled()).thenReturn(true);
-            when(censusGeocoderClient.geocodeAddressComponents(any(), any(), any(), any()))
-                .thenReturn(createTestGeocodingResult());
+            answerBatch(address -> true);
 
             // When - Only process 2
             int geocoded = geocodingService.batchGeocodeOpportunities(2);
@@ -217,15 +251,152 @@ class GeocodingServiceTest extends BaseServiceTest {
             opportunityRepository.save(createOpportunityWithAddress("opp-pf-2", "Unknown", "XX", "00000"));
 
             when(censusGeocoderClient.isEnabled()).thenReturn(true);
-            when(censusGeocoderClient.geocodeAddressComponents(any(), any(), any(), any()))
-                .thenReturn(createTestGeocodingResult())  // First succeeds
-                .thenReturn(null);  // Second fails
+            answerBatch(address -> "Washington".equals(address.city()));
 
             // When
             int geocoded = geocodingService.batchGeocodeOpportunities(10);
 
             // Then
             assertThat(geocoded).isEqualTo(1);
+            assertThat(geocodeCacheRepository.findByAddressKey(GeocodeCacheEntry.addressKey("Unknown", "XX", "00000")))
+                .hasValueSatisfying(entry -> assertThat(entry.isMatched()).isFalse());
+        }
+
+        @Test
+        @DisplayName("should look up a place shared by several opportunities once")
+        void shouldGeocodeSharedPlaceOnce() {
+            // Given - Same place, spelled differently
+            opportunityRepository.save(createOpportunityWithAddress("opp-sp-1", "Washington", "DC", "20001"));
+            opportunityRepository.save(createOpportunityWithAddress("opp-sp-2", "WASHINGTON", "dc", "20001-1234"));
+            opportunityRepository.save(createOpportunityWithAddress("opp-sp-3", " washington ", "DC", "20001"));
+
+            when(censusGeocoderClient.isEnabled()).thenReturn(true);
+            Map<String, Integer> uploaded = new HashMap<>();
+            when(censusGeocoderClient.batchGeocode(any())).thenAnswer(invocation -> {
+                List<BatchAddress> addresses = invocation.getArgument(0);
+                uploaded.put("count", addresses.size());
+                return Map.of(addresses.get(0).id(), createTestGeocodingResult());
+            });
+
+            // When
+            int geocoded = geocodingService.batchGeocodeOpportunities(10);
+
+            // Then
+            assertThat(geocoded).isEqualTo(3);
+            assertThat(uploaded).containsEntry("count", 1);
+        }
+
+        @Test
+        @DisplayName("should use cached places without calling the geocoder")
+        void shouldUseCachedPlaces() {
+            // Given
+            geocodeCacheRepository.save(GeocodeCacheEntry.builder()
+                .addressKey(GeocodeCacheEntry.addressKey("Washington", "DC", "20001"))
+                .matched(true)
+                .latitude(new BigDecimal("38.9072"))
+                .longitude(new BigDecimal("-77.0369"))
+                .fipsStateCode("11")
+                .fipsCountyCode("11001")
+                .lookedUpAt(Instant.now())
+                .build());
+            opportunityRepository.save(createOpportunityWithAddress("opp-c1", "Washington", "DC", "20001"));
+
+            when(censusGeocoderClient.isEnabled()).thenReturn(true);
+
+            // When
+            int geocoded = geocodingService.batchGeocodeOpportunities(10);
+
+            // Then
+            assertThat(geocoded).isEqualTo(1);
+            assertThat(opportunityRepository.findById("opp-c1").orElseThrow().getFipsCountyCode()).isEqualTo("11001");
+            verify(censusGeocoderClient, never()).batchGeocode(any());
+        }
+
+        @Test
+        @DisplayName("should not retry cached misses within the retry window")
+        void shouldNotRetryCachedMisses() {
+            // Given
+            opportunityRepository.save(createOpportunityWithAddress("opp-m1", "Nowhere", "XX", "00000"));
+
+            when(censusGeocoderClient.isEnabled()).thenReturn(true);
+            answerBatch(address -> false);
+
+            // When
+            geocodingService.batchGeocodeOpportunities(10);
+            int geocoded = geocodingService.batchGeocodeOpportunities(10);
+
+            // Then
+            assertThat(geocoded).isZero();
+            verify(censusGeocoderClient, times(1)).batchGeocode(any());
+        }
+
+        @Test
+        @DisplayName("should cache nothing when the batch request fails")
+        void shouldNotCacheFailedRequests() {
+            // Given
+            opportunityRepository.save(createOpportunityWithAddress("opp-f1", "Washington", "DC", "20001"));
+
+            when(censusGeocoderClient.isEnabled()).thenReturn(true);
+            when(censusGeocoderClient.batchGeocode(any())).thenReturn(null);
+
+            // When
+            int geocoded = geocodingService.batchGeocodeOpportunities(10);
+
+            // Then
+            assertThat(geocoded).isZero();
+            assertThat(geocodeCacheRepository.count()).isZero();
+        }
+
+        @Test
+        @DisplayName("should resolve gazetteer places without the cache or the geocoder")
+        void shouldUseGazetteerPlaces() {
+            // Given
+            opportunityRepository.save(createOpportunityWithAddress("opp-g1", "Washington", "DC", "20001"));
+            opportunityRepository.save(createOpportunityWithAddress("opp-g2", "Nowhere", "XX", "00000"));
+
+            when(censusGeocoderClient.isEnabled()).thenReturn(true);
+            when(placeGazetteer.lookup("Washington", "DC", "20001")).thenReturn(createTestGeocodingResult());
+            Map<String, Integer> uploaded = new HashMap<>();
+            when(censusGeocoderClient.batchGeocode(any())).thenAnswer(invocation -> {
+                List<BatchAddress> addresses = invocation.getArgument(0);
+                uploaded.put("count", addresses.size());
+                return Map.of();
+            });
+
+            // When
+            int geocoded = geocodingService.batchGeocodeOpportunities(10);
+
+            // Then - only the unknown place is uploaded, and only it is cached
+            assertThat(geocoded).isEqualTo(1);
+            assertThat(uploaded).containsEntry("count", 1);
+            assertThat(opportunityRepository.findById("opp-g1").orElseThrow().getFipsCountyCode()).isEqualTo("11001");
+            assertThat(geocodeCacheRepository.findByAddressKey(GeocodeCacheEntry.addressKey("Washington", "DC", "20001")))
+                .isEmpty();
+        }
+
+        @Test
+        @DisplayName("should geocode one request at a time when batch mode is off")
+        void shouldGeocodeIndividuallyWhenBatchDisabled() {
+            // Given
+            opportunityRepository.save(createOpportunityWithAddress("opp-i1", "Washington", "DC", "20001"));
+            opportunityRepository.save(createOpportunityWithAddress("opp-i2", "Washington", "DC", "20001"));
+
+            when(censusGeocoderClient.isEnabled()).thenReturn(true);
+            when(censusGeocoderClient.geocodeAddressComponents(any(), any(), any(), any()))
+                .thenReturn(createTestGeocodingResult());
+
+            censusProperties.setBatchEnabled(false);
+            try {
+                // When
+                int geocoded = geocodingService.batchGeocodeOpportunities(10);
+
+                // Then - the second opportunity is served from the cache
+                assertThat(geocoded).isEqualTo(2);
+                verify(censusGeocoderClient, times(1)).geocodeAddressComponents(any(), any(), any(), any());
+                verify(censusGeocoderClient, never()).batchGeocode(any());
+            } finally {
+                censusProperties.setBatchEnabled(true);
+            }
         }
     }
 
@@ -291,6 +462,17 @@ class GeocodingServiceTest extends BaseServiceTest {
             .build();
     }
 
+    private void answerBatch(Predicate<BatchAddress> matches) {
+        when(censusGeocoderClient.batchGeocode(any())).thenAnswer(invocation -> {
+            List<BatchAddress> addresses = invocation.getArgument(0);
+            Map<String, SimpleGeocodingResult> results = new HashMap<>();
+            addresses.stream()
+                .filter(matches)
+                .forEach(address -> results.put(address.id(), createTestGeocodingResult()));
+            return results;
+        });
+    }
+
     private SimpleGeocodingResult createTestGeocodingResult() {
         return new SimpleGeocodingResult(
             "123 Test Street, Washington, DC 20001",  // matchedAddress
@@ -0,0 +1,204 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.IngestionPipelineProperties;
+import com.samgov.ingestor.dto.PostedDateWindow;
+import com.samgov.ingestor.model.IngestionCheckpoint;
+import com.samgov.ingestor.model.IngestionCheckpoint.CheckpointStatus;
+import com.samgov.ingestor.repository.IngestionCheckpointRepository;
+import com.samgov.ingestor.util.NodeId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for IngestionCheckpointService.
+ * Tests resume, restart, leasing and completion of per-scope checkpoints.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IngestionCheckpointService")
+class IngestionCheckpointServiceTest {
+
+    private static final String SOURCE = IngestionWatermarkService.SOURCE_SAM_GOV;
+    private static final String NAICS = "541511";
+    private static final String PTYPE = "k,o";
+
+    @Mock
+    private IngestionCheckpointRepository checkpointRepository;
+
+    @Mock
+    private IngestionWatermarkService watermarkService;
+
+    private IngestionCheckpointService checkpointService;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        checkpointService = new IngestionCheckpointService(checkpointRepository, watermarkService,
+            new IngestionPipelineProperties());
+        today = LocalDate.now();
+    }
+
+    private IngestionCheckpoint checkpoint(CheckpointStatus status, int nextPage) {
+        return IngestionCheckpoint.builder()
+            .id(UUID.randomUUID())
+            .source(SOURCE)
+            .naicsCode(NAICS)
+            .ptype(PTYPE)
+            .status(status)
+            .owner(NodeId.current())
+            .postedFrom(today.minusDays(10))
+            .postedTo(today.minusDays(1))
+            .nextPage(nextPage)
+            .recordsFetched(nextPage * 1000)
+            .build();
+    }
+
+    @Nested
+    @DisplayName("start")
+    class Start {
+
+        @Test
+        @DisplayName("should resume an interrupted run at its next page and window")
+        void shouldResumeInterruptedRun() {
+            IngestionCheckpoint existing = checkpoint(CheckpointStatus.RUNNING, 3);
+            existing.setOwner("crashed-node:1");
+            existing.setLeaseUntil(Instant.now().minusSeconds(60));
+            when(checkpointRepository.findScopeForUpdate(SOURCE, NAICS, PTYPE))
+                .thenReturn(Optional.of(existing));
+            when(checkpointRepository.save(any(IngestionCheckpoint.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            IngestionCheckpoint started = checkpointService.start(SOURCE, NAICS, PTYPE, false).orElseThrow();
+
+            assertThat(started.getNextPage()).isEqualTo(3);
+            assertThat(started.getPostedFrom()).isEqualTo(today.minusDays(10));
+            assertThat(started.getStatus()).isEqualTo(CheckpointStatus.RUNNING);
+            assertThat(started.getOwner()).isEqualTo(NodeId.current());
+            assertThat(started.getLeaseUntil()).isAfter(Instant.now());
+            verify(watermarkService, never()).nextWindow(anyString(), anyString(), anyString(), anyBoolean());
+        }
+
+        @Test
+        @DisplayName("should leave a scope alone while another run's lease is live")
+        void shouldSkipLeasedScope() {
+            IngestionCheckpoint existing = checkpoint(CheckpointStatus.RUNNING, 3);
+            existing.setOwner("other-node:1");
+            existing.setLeaseUntil(Instant.now().plusSeconds(60));
+            when(checkpointRepository.findScopeForUpdate(SOURCE, NAICS, PTYPE))
+                .thenReturn(Optional.of(existing));
+
+            assertThat(checkpointService.start(SOURCE, NAICS, PTYPE, false)).isEmpty();
+            assertThat(checkpointService.start(SOURCE, NAICS, PTYPE, true)).isEmpty();
+            assertThat(existing.getOwner()).isEqualTo("other-node:1");
+            verify(checkpointRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should start a new window from page 0 after a completed run")
+        void shouldRestartAfterCompletedRun() {
+            IngestionCheckpoint existing = checkpoint(CheckpointStatus.COMPLETED, 5);
+            when(checkpointRepository.findScopeForUpdate(SOURCE, NAICS, PTYPE))
+                .thenReturn(Optional.of(existing));
+            when(watermarkService.nextWindow(SOURCE, NAICS, PTYPE, false))
+                .thenReturn(new PostedDateWindow(today.minusDays(2), today, false));
+            when(checkpointRepository.save(any(IngestionCheckpoint.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            IngestionCheckpoint started = checkpointService.start(SOURCE, NAICS, PTYPE, false).orElseThrow();
+
+            assertThat(started.getNextPage()).isZero();
+            assertThat(started.getRecordsFetched()).isZero();
+            assertThat(started.getPostedFrom()).isEqualTo(today.minusDays(2));
+            assertThat(started.getStatus()).isEqualTo(CheckpointStatus.RUNNING);
+        }
+
+        @Test
+        @DisplayName("should discard an unfinished run when a full pass is forced")
+        void shouldDiscardUnfinishedRunWhenForced() {
+            IngestionCheckpoint existing = checkpoint(CheckpointStatus.FAILED, 4);
+            when(checkpointRepository.findScopeForUpdate(SOURCE, NAICS, PTYPE))
+                .thenReturn(Optional.of(existing));
+            when(watermarkService.nextWindow(SOURCE, NAICS, PTYPE, true))
+                .thenReturn(new PostedDateWindow(today.minusDays(30), today, true));
+            when(checkpointRepository.save(any(IngestionCheckpoint.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            IngestionCheckpoint started = checkpointService.start(SOURCE, NAICS, PTYPE, true).orElseThrow();
+
+            assertThat(started.getNextPage()).isZero();
+            assertThat(started.isFullReconciliation()).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("progress")
+    class Progress {
+
+        @Test
+        @DisplayName("should move the next page past the recorded page")
+        void shouldAdvanceNextPage() {
+            IngestionCheckpoint existing = checkpoint(CheckpointStatus.RUNNING, 2);
+            when(checkpointRepository.findByIdForUpdate(existing.getId())).thenReturn(Optional.of(existing));
+
+            checkpointService.recordPage(existing.getId(), 2, 1000, 40, today);
+
+            assertThat(existing.getNextPage()).isEqualTo(3);
+            assertThat(existing.getRecordsFetched()).isEqualTo(3000);
+            assertThat(existing.getRecordsWritten()).isEqualTo(40);
+            assertThat(existing.getLatestPostedDate()).isEqualTo(today);
+            assertThat(existing.getLeaseUntil()).isAfter(Instant.now());
+        }
+
+        @Test
+        @DisplayName("should reject pages and leave the checkpoint alone once another node took it over")
+        void shouldRejectTakenOverCheckpoint() {
+            IngestionCheckpoint existing = checkpoint(CheckpointStatus.RUNNING, 2);
+            existing.setOwner("other-node:1");
+            when(checkpointRepository.findByIdForUpdate(existing.getId())).thenReturn(Optional.of(existing));
+
+            assertThatThrownBy(() -> checkpointService.recordPage(existing.getId(), 2, 1000, 40, today))
+                .isInstanceOf(IllegalStateException.class);
+            checkpointService.fail(existing.getId(), "Page fetch or write failed");
+            checkpointService.complete(existing.getId());
+
+            assertThat(existing.getNextPage()).isEqualTo(2);
+            assertThat(existing.getStatus()).isEqualTo(CheckpointStatus.RUNNING);
+            verify(checkpointRepository, never()).save(any());
+            verify(watermarkService, never())
+                .advance(anyString(), anyString(), anyString(), any(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("should advance the watermark only when completed")
+        void shouldAdvanceWatermarkOnCompletion() {
+            IngestionCheckpoint existing = checkpoint(CheckpointStatus.RUNNING, 2);
+            when(checkpointRepository.findByIdForUpdate(existing.getId())).thenReturn(Optional.of(existing));
+
+            checkpointService.fail(existing.getId(), "Page fetch failed");
+            assertThat(existing.getStatus()).isEqualTo(CheckpointStatus.FAILED);
+            verify(watermarkService, never())
+                .advance(anyString(), anyString(), anyString(), any(), any(), anyInt());
+
+            checkpointService.complete(existing.getId());
+            assertThat(existing.getStatus()).isEqualTo(CheckpointStatus.COMPLETED);
+            verify(watermarkService).advance(SOURCE, NAICS, PTYPE, checkpointService.windowOf(existing),
+                null, 2000);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.BaseServiceTest;
+import com.samgov.ingestor.model.IngestionJob;
+import com.samgov.ingestor.model.IngestionJob.JobStatus;
+import com.samgov.ingestor.model.IngestionJob.JobType;
+import com.samgov.ingestor.repository.IngestionJobRepository;
+import com.samgov.ingestor.service.IngestionJobService.Submission;
+import com.samgov.ingestor.util.NodeId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for IngestionJobService against the database: coalescing, the per-source cap held by
+ * the running-slot index, and re-queueing of jobs whose node stopped.
+ *
+ * Jobs are handed to a recording executor and never run, so they stay RUNNING. Separate
+ * service instances over the same database stand in for separate nodes.
+ */
+@DisplayName("IngestionJobService lifecycle")
+class IngestionJobLifecycleTest extends BaseServiceTest {
+
+    @Autowired
+    private IngestionJobRepository jobRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Runnable> submitted = new ArrayList<>();
+
+    @Override
+    @BeforeEach
+    protected void setUp() {
+        super.setUp();
+        jobRepository.deleteAll();
+    }
+
+    private IngestionJobService service(int maxConcurrentPerSource) {
+        return new IngestionJobService(jobRepository, mock(IngestionService.class),
+            mock(UsaSpendingIngestionService.class), mock(GeocodingService.class), submitted::add,
+            transactionTemplate, maxConcurrentPerSource, 60000);
+    }
+
+    private IngestionJob job(UUID id) {
+        return jobRepository.findById(id).orElseThrow();
+    }
+
+    private IngestionJob running(JobType type, String node, Instant heartbeatAt) {
+        return jobRepository.saveAndFlush(IngestionJob.builder()
+            .type(type)
+            .source(type.getSource())
+            .status(JobStatus.RUNNING)
+            .node(node)
+            .slot(0)
+            .startedAt(heartbeatAt)
+            .heartbeatAt(heartbeatAt)
+            .build());
+    }
+
+    @Nested
+    @DisplayName("submit")
+    class Submit {
+
+        @Test
+        @DisplayName("should start a job on this node and coalesce an identical submission onto it")
+        void shouldStartAndCoalesce() {
+            // Given
+            IngestionJobService jobService = service(1);
+
+            // When
+            Submission first = jobService.submit(JobType.USA_SPENDING, false, null);
+            Submission second = jobService.submit(JobType.USA_SPENDING, false, null);
+
+            // Then
+            assertThat(first.coalesced()).isFalse();
+            assertThat(second.coalesced()).isTrue();
+            assertThat(second.job().id()).isEqualTo(first.job().id());
+            assertThat(submitted).hasSize(1);
+            IngestionJob started = job(first.job().id());
+            assertThat(started.getStatus()).isEqualTo(JobStatus.RUNNING);
+            assertThat(started.getNode()).isEqualTo(NodeId.current());
+            assertThat(started.getSlot()).isZero();
+            assertThat(started.getHeartbeatAt()).isNotNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("dispatch")
+    class Dispatch {
+
+        @Test
+        @DisplayName("should keep a second job of the same source queued on every node")
+        void shouldCapConcurrencyPerSource() {
+            // Given
+            IngestionJobService node = service(1);
+            IngestionJobService otherNode = service(1);
+            Submission samIncremental = node.submit(JobType.SAM_GOV, false, null);
+
+            // When
+            Submission samSbir = otherNode.submit(JobType.SBIR_STTR, false, null);
+            Submission usaSpending = otherNode.submit(JobType.USA_SPENDING, false, null);
+            node.resumeInterruptedJobs();
+
+            // Then
+            assertThat(submitted).hasSize(2);
+            assertThat(job(samIncremental.job().id()).getStatus()).isEqualTo(JobStatus.RUNNING);
+            assertThat(job(samSbir.job().id()).getStatus()).isEqualTo(JobStatus.QUEUED);
+            assertThat(job(usaSpending.job().id()).getStatus()).isEqualTo(JobStatus.RUNNING);
+        }
+
+        @Test
+        @DisplayName("should run up to the configured number of jobs per source in separate slots")
+        void shouldFillEverySlot() {
+            // Given
+            IngestionJobService jobService = service(2);
+
+            // When
+            Submission samIncremental = jobService.submit(JobType.SAM_GOV, false, null);
+            Submission samSbir = jobService.submit(JobType.SBIR_STTR, false, null);
+            Submission samFull = jobService.submit(JobType.SAM_GOV_FULL, false, null);
+
+            // Then
+            assertThat(submitted).hasSize(2);
+            assertThat(List.of(job(samIncremental.job().id()).getSlot(), job(samSbir.job().id()).getSlot()))
+                .containsExactlyInAnyOrder(0, 1);
+            assertThat(job(samFull.job().id()).getStatus()).isEqualTo(JobStatus.QUEUED);
+        }
+
+        @Test
+        @DisplayName("should reject a second running job in a taken slot in the database")
+        void shouldRejectTakenSlot() {
+            // Given
+            running(JobType.SAM_GOV, "other-node:1", Instant.now());
+            IngestionJob queued = jobRepository.saveAndFlush(IngestionJob.builder()
+                .type(JobType.SBIR_STTR)
+                .source(JobType.SBIR_STTR.getSource())
+                .status(JobStatus.QUEUED)
+                .build());
+
+            // When / Then
+            assertThatThrownBy(() -> jdbcTemplate.update(
+                "UPDATE ingestion_jobs SET status = 'RUNNING', slot = 0 WHERE id = ?", queued.getId()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("resume")
+    class Resume {
+
+        @Test
+        @DisplayName("should re-queue and restart only jobs whose node stopped sending heartbeats")
+        void shouldResumeOnlyStaleJobs() {
+            // Given
+            IngestionJob stale = running(JobType.USA_SPENDING, "stopped-node:1", Instant.now().minusSeconds(300));
+            IngestionJob live = running(JobType.SAM_GOV, "live-node:1", Instant.now());
+
+            // When
+            service(1).resumeInterruptedJobs();
+
+            // Then
+            IngestionJob resumed = job(stale.getId());
+            assertThat(resumed.getStatus()).isEqualTo(JobStatus.RUNNING);
+            assertThat(resumed.getNode()).isEqualTo(NodeId.current());
+            IngestionJob untouched = job(live.getId());
+            assertThat(untouched.getStatus()).isEqualTo(JobStatus.RUNNING);
+            assertThat(untouched.getNode()).isEqualTo("live-node:1");
+            assertThat(submitted).hasSize(1);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.model.IngestionJob;
+import com.samgov.ingestor.model.IngestionJob.JobStatus;
+import com.samgov.ingestor.model.IngestionJob.JobType;
+import com.samgov.ingestor.repository.IngestionJobRepository;
+import com.samgov.ingestor.service.IngestionJobService.Submission;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for IngestionJobService.
+ * Tests coalescing of duplicate submissions; dispatch against the database is covered by
+ * IngestionJobLifecycleTest.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IngestionJobService")
+class IngestionJobServiceTest {
+
+    @Mock
+    private IngestionJobRepository jobRepository;
+
+    @Mock
+    private IngestionService ingestionService;
+
+    @Mock
+    private UsaSpendingIngestionService usaSpendingIngestionService;
+
+    @Mock
+    private GeocodingService geocodingService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Runnable> submitted = new ArrayList<>();
+    private IngestionJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new IngestionJobService(jobRepository, ingestionService, usaSpendingIngestionService,
+            geocodingService, submitted::add, transactionTemplate, 1, 60000);
+    }
+
+    private IngestionJob job(JobType type, JobStatus status) {
+        return IngestionJob.builder()
+            .id(UUID.randomUUID())
+            .type(type)
+            .source(type.getSource())
+            .status(status)
+            .createdAt(Instant.now())
+            .build();
+    }
+
+    @Nested
+    @DisplayName("submit")
+    class Submit {
+
+        @Test
+        @DisplayName("should return the running job for a duplicate submission")
+        void shouldCoalesceOntoRunningJob() {
+            IngestionJob running = job(JobType.USA_SPENDING, JobStatus.RUNNING);
+            when(jobRepository.findByTypeAndStatusInOrderByCreatedAtAsc(eq(JobType.USA_SPENDING), anyCollection()))
+                .thenReturn(List.of(running));
+
+            Submission submission = jobService.submit(JobType.USA_SPENDING, false, null);
+
+            assertThat(submission.coalesced()).isTrue();
+            assertThat(submission.job().id()).isEqualTo(running.getId());
+            verify(jobRepository, never()).save(any());
+            assertThat(submitted).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should not coalesce a full reconciliation onto an incremental run")
+        void shouldNotCoalesceDifferentParameters() {
+            IngestionJob incremental = job(JobType.SAM_GOV, JobStatus.RUNNING);
+            IngestionJob queued = job(JobType.SAM_GOV, JobStatus.QUEUED);
+            queued.setFullReconciliation(true);
+            when(jobRepository.findByTypeAndStatusInOrderByCreatedAtAsc(eq(JobType.SAM_GOV), anyCollection()))
+                .thenReturn(List.of(incremental));
+            when(jobRepository.save(any(IngestionJob.class))).thenReturn(queued);
+            when(jobRepository.findByStatusOrderByCreatedAtAsc(JobStatus.QUEUED)).thenReturn(List.of());
+            when(jobRepository.findById(queued.getId())).thenReturn(Optional.of(queued));
+
+            Submission submission = jobService.submit(JobType.SAM_GOV, true, null);
+
+            assertThat(submission.coalesced()).isFalse();
+            assertThat(submission.job().fullReconciliation()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should not coalesce a geocode run onto one with a different record limit")
+        void shouldNotCoalesceDifferentRecordLimit() {
+            IngestionJob limited = job(JobType.GEOCODE, JobStatus.RUNNING);
+            limited.setRecordLimit(100);
+            IngestionJob queued = job(JobType.GEOCODE, JobStatus.QUEUED);
+            queued.setRecordLimit(5000);
+            when(jobRepository.findByTypeAndStatusInOrderByCreatedAtAsc(eq(JobType.GEOCODE), anyCollection()))
+                .thenReturn(List.of(limited));
+            when(jobRepository.save(any(IngestionJob.class))).thenReturn(queued);
+            when(jobRepository.findByStatusOrderByCreatedAtAsc(JobStatus.QUEUED)).thenReturn(List.of());
+            when(jobRepository.findById(queued.getId())).thenReturn(Optional.of(queued));
+
+            Submission submission = jobService.submit(JobType.GEOCODE, false, 5000);
+
+            assertThat(submission.coalesced()).isFalse();
+            assertThat(submission.job().recordLimit()).isEqualTo(5000);
+        }
+    }
+}
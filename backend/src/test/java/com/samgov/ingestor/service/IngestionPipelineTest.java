@@ -0,0 +1,227 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.IngestionPipelineProperties;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertResult;
+import com.samgov.ingestor.service.IngestionPipeline.ScopeSource;
+import com.samgov.ingestor.service.IngestionPipeline.ScopeSummary;
+import com.samgov.ingestor.util.IngestionProgress;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for IngestionPipeline.
+ * Tests per-scope ordering, failure isolation, progress propagation and stage metrics.
+ */
+@DisplayName("IngestionPipeline")
+class IngestionPipelineTest {
+
+    private SimpleMeterRegistry registry;
+    private IngestionPipelineMetrics metrics;
+    private IngestionPipelineProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new IngestionPipelineMetrics(registry);
+        properties = new IngestionPipelineProperties();
+        properties.setFetchers(2);
+        properties.setWriters(2);
+        properties.setQueueCapacity(1);
+    }
+
+    private static ScopeSource<String, Integer> scope(String name, int startPage, int pages) {
+        return new ScopeSource<>(name, startPage, () -> IntStream.range(0, pages)
+                .mapToObj(page -> List.of(page, page)));
+    }
+
+    @Nested
+    @DisplayName("Successful runs")
+    class SuccessfulRuns {
+
+        @Test
+        @DisplayName("should commit every scope's pages in order and report each scope once")
+        void shouldCommitPagesInOrderPerScope() {
+            RecordingHandler handler = new RecordingHandler();
+            IngestionPipeline<String, Integer, List<Integer>> pipeline =
+                    new IngestionPipeline<>("test", properties, metrics, handler);
+
+            pipeline.run(List.of(scope("a", 0, 5), scope("b", 3, 4), scope("c", 0, 0)));
+
+            assertThat(handler.committed.get("a")).containsExactly(0, 1, 2, 3, 4);
+            assertThat(handler.committed.get("b")).containsExactly(3, 4, 5, 6);
+            assertThat(handler.committed).doesNotContainKey("c");
+            assertThat(handler.finished).containsOnlyKeys("a", "b", "c");
+            assertThat(handler.finished.get("a")).isEqualTo(new ScopeSummary(5, 10, false));
+            assertThat(handler.finished.get("b")).isEqualTo(new ScopeSummary(4, 8, false));
+            assertThat(handler.finished.get("c")).isEqualTo(new ScopeSummary(0, 0, false));
+        }
+
+        @Test
+        @DisplayName("should return immediately when there are no scopes")
+        void shouldHandleNoScopes() {
+            RecordingHandler handler = new RecordingHandler();
+
+            new IngestionPipeline<>("test", properties, metrics, handler).run(List.of());
+
+            assertThat(handler.finished).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should report progress from stage threads to the caller's job")
+        void shouldPropagateProgress() {
+            RecordingHandler handler = new RecordingHandler();
+            IngestionProgress progress = new IngestionProgress();
+            IngestionProgress.bind(progress);
+            try {
+                new IngestionPipeline<>("test", properties, metrics, handler).run(List.of(scope("a", 0, 3)));
+            } finally {
+                IngestionProgress.clear();
+            }
+
+            assertThat(progress.getPagesFetched()).isEqualTo(3);
+            assertThat(progress.getRowsWritten()).isEqualTo(6);
+        }
+    }
+
+    @Nested
+    @DisplayName("Failures")
+    class Failures {
+
+        @Test
+        @DisplayName("should stop a scope at its first failed write without affecting other scopes")
+        void shouldIsolateWriteFailure() {
+            RecordingHandler handler = new RecordingHandler();
+            handler.failWriteAt = Map.entry("a", 2);
+
+            new IngestionPipeline<>("test", properties, metrics, handler)
+                    .run(List.of(scope("a", 0, 6), scope("b", 0, 3)));
+
+            assertThat(handler.committed.get("a")).containsExactly(0, 1);
+            assertThat(handler.finished.get("a")).isEqualTo(new ScopeSummary(2, 4, true));
+            assertThat(handler.committed.get("b")).containsExactly(0, 1, 2);
+            assertThat(handler.finished.get("b").failed()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should finish a scope as failed when its page stream throws")
+        void shouldFailScopeOnFetchError() {
+            RecordingHandler handler = new RecordingHandler();
+            ScopeSource<String, Integer> broken = new ScopeSource<>("broken", 0, () -> Stream.of(0, 1, 2)
+                    .map(page -> {
+                        if (page == 1) {
+                            throw new IllegalStateException("connection reset");
+                        }
+                        return List.of(page);
+                    }));
+
+            new IngestionPipeline<>("test", properties, metrics, handler).run(List.of(broken));
+
+            assertThat(handler.finished.get("broken").failed()).isTrue();
+            assertThat(handler.committed.getOrDefault("broken", List.of())).doesNotContain(1, 2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Metrics")
+    class Metrics {
+
+        @Test
+        @DisplayName("should export queue depth, queue wait and latency per stage")
+        void shouldExportStageMetrics() {
+            new IngestionPipeline<>("test", properties, metrics, new RecordingHandler())
+                    .run(List.of(scope("a", 0, 2)));
+
+            for (String stage : List.of("fetch", "normalize", "write", "commit")) {
+                assertThat(registry.get("samgov.ingestion.pipeline.queue.depth")
+                        .tags("pipeline", "test", "stage", stage).gauge().value()).isZero();
+                assertThat(registry.get("samgov.ingestion.pipeline.queue.wait")
+                        .tags("pipeline", "test", "stage", stage).timer().count()).isPositive();
+            }
+            assertThat(registry.get("samgov.ingestion.pipeline.stage.latency")
+                    .tags("pipeline", "test", "stage", "write").timer().count()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should count scopes waiting for a fetcher as the fetch stage's queue")
+        void shouldExportFetchQueueDepth() throws InterruptedException {
+            properties.setFetchers(1);
+            CountDownLatch fetching = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            ScopeSource<String, Integer> slow = new ScopeSource<>("slow", 0, () -> {
+                fetching.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Stream.of(List.of(0));
+            });
+            Thread run = Thread.ofPlatform().start(() -> new IngestionPipeline<>("test", properties, metrics,
+                    new RecordingHandler()).run(List.of(slow, scope("waiting", 0, 1))));
+
+            assertThat(fetching.await(5, TimeUnit.SECONDS)).isTrue();
+            // The second scope's fetcher starts on its own thread; give it a moment to queue up
+            double waiting = 0;
+            for (int i = 0; i < 100 && waiting == 0; i++) {
+                Thread.sleep(10);
+                waiting = registry.get("samgov.ingestion.pipeline.queue.depth")
+                        .tags("pipeline", "test", "stage", "fetch").gauge().value();
+            }
+            release.countDown();
+            run.join(5000);
+
+            assertThat(waiting).isEqualTo(1);
+            assertThat(registry.get("samgov.ingestion.pipeline.queue.depth")
+                    .tags("pipeline", "test", "stage", "fetch").gauge().value()).isZero();
+        }
+    }
+
+    /**
+     * Handler that records commits per scope; post-commit callbacks run on the test thread.
+     */
+    private static class RecordingHandler implements IngestionPipeline.Handler<String, Integer, List<Integer>> {
+
+        private final Map<String, List<Integer>> committed = new HashMap<>();
+        private final Map<String, ScopeSummary> finished = new HashMap<>();
+        private volatile Map.Entry<String, Integer> failWriteAt;
+
+        @Override
+        public List<Integer> normalize(String scope, int pageIndex, List<Integer> page) {
+            IngestionProgress.recordPage();
+            return page;
+        }
+
+        @Override
+        public UpsertResult write(String scope, int pageIndex, List<Integer> page) {
+            if (failWriteAt != null && failWriteAt.equals(Map.entry(scope, pageIndex))) {
+                throw new IllegalStateException("write failed");
+            }
+            IngestionProgress.recordRows(page.size(), 0);
+            return new UpsertResult(page.size(), 0, 0);
+        }
+
+        @Override
+        public void pageCommitted(String scope, int pageIndex, List<Integer> page, UpsertResult result) {
+            committed.computeIfAbsent(scope, key -> new ArrayList<>()).add(pageIndex);
+        }
+
+        @Override
+        public void scopeFinished(String scope, ScopeSummary summary) {
+            finished.put(scope, summary);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.SamGovProperties;
+import com.samgov.ingestor.dto.PostedDateWindow;
+import com.samgov.ingestor.model.IngestionWatermark;
+import com.samgov.ingestor.repository.IngestionWatermarkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for IngestionWatermarkService.
+ * Tests window selection and watermark advancement.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IngestionWatermarkService")
+class IngestionWatermarkServiceTest {
+
+    private static final String SOURCE = IngestionWatermarkService.SOURCE_SAM_GOV;
+    private static final String NAICS = "541511";
+    private static final String PTYPE = "k,o";
+
+    @Mock
+    private IngestionWatermarkRepository watermarkRepository;
+
+    @Captor
+    private ArgumentCaptor<IngestionWatermark> watermarkCaptor;
+
+    private IngestionWatermarkService watermarkService;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        SamGovProperties properties = new SamGovProperties();
+        properties.setPostedWithinDays(30);
+        properties.setWatermarkOverlapDays(1);
+        properties.setFullReconciliationDays(7);
+        watermarkService = new IngestionWatermarkService(watermarkRepository, properties);
+        today = LocalDate.now();
+    }
+
+    private IngestionWatermark watermark(LocalDate lastPostedTo, Instant lastFullSyncAt) {
+        return IngestionWatermark.builder()
+            .source(SOURCE)
+            .naicsCode(NAICS)
+            .ptype(PTYPE)
+            .lastPostedTo(lastPostedTo)
+            .lastFullSyncAt(lastFullSyncAt)
+            .build();
+    }
+
+    @Nested
+    @DisplayName("nextWindow")
+    class NextWindow {
+
+        @Test
+        @DisplayName("should use the full window when no watermark exists")
+        void shouldUseFullWindowWithoutWatermark() {
+            when(watermarkRepository.findBySourceAndNaicsCodeAndPtype(SOURCE, NAICS, PTYPE))
+                .thenReturn(Optional.empty());
+
+            PostedDateWindow window = watermarkService.nextWindow(SOURCE, NAICS, PTYPE, false);
+
+            assertThat(window.fullReconciliation()).isTrue();
+            assertThat(window.postedFrom()).isEqualTo(today.minusDays(30));
+            assertThat(window.postedTo()).isEqualTo(today);
+        }
+
+        @Test
+        @DisplayName("should fetch only the delta since the watermark minus overlap")
+        void shouldUseDeltaWindow() {
+            when(watermarkRepository.findBySourceAndNaicsCodeAndPtype(SOURCE, NAICS, PTYPE))
+                .thenReturn(Optional.of(watermark(today.minusDays(3), Instant.now().minus(Duration.ofDays(1)))));
+
+            PostedDateWindow window = watermarkService.nextWindow(SOURCE, NAICS, PTYPE, false);
+
+            assertThat(window.fullReconciliation()).isFalse();
+            assertThat(window.postedFrom()).isEqualTo(today.minusDays(4));
+            assertThat(window.postedTo()).isEqualTo(today);
+        }
+
+        @Test
+        @DisplayName("should reconcile fully once the reconciliation interval has elapsed")
+        void shouldReconcileWhenDue() {
+            when(watermarkRepository.findBySourceAndNaicsCodeAndPtype(SOURCE, NAICS, PTYPE))
+                .thenReturn(Optional.of(watermark(today.minusDays(1), Instant.now().minus(Duration.ofDays(8)))));
+
+            PostedDateWindow window = watermarkService.nextWindow(SOURCE, NAICS, PTYPE, false);
+
+            assertThat(window.fullReconciliation()).isTrue();
+            assertThat(window.postedFrom()).isEqualTo(today.minusDays(30));
+        }
+
+        @Test
+        @DisplayName("should ignore the watermark when forced")
+        void shouldHonorForceFull() {
+            PostedDateWindow window = watermarkService.nextWindow(SOURCE, NAICS, PTYPE, true);
+
+            assertThat(window.fullReconciliation()).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("advance")
+    class Advance {
+
+        @Test
+        @DisplayName("should create a watermark and record a full sync")
+        void shouldCreateWatermark() {
+            when(watermarkRepository.findBySourceAndNaicsCodeAndPtype(SOURCE, NAICS, PTYPE))
+                .thenReturn(Optional.empty());
+            PostedDateWindow window = new PostedDateWindow(today.minusDays(30), today, true);
+
+            watermarkService.advance(SOURCE, NAICS, PTYPE, window, today.minusDays(2), 42);
+
+            verify(watermarkRepository).save(watermarkCaptor.capture());
+            IngestionWatermark saved = watermarkCaptor.getValue();
+            assertThat(saved.getLastPostedTo()).isEqualTo(today);
+            assertThat(saved.getLastModifiedDate()).isEqualTo(today.minusDays(2));
+            assertThat(saved.getLastFullSyncAt()).isNotNull();
+            assertThat(saved.getLastRunRecords()).isEqualTo(42);
+        }
+
+        @Test
+        @DisplayName("should keep the last full sync time on incremental runs")
+        void shouldKeepFullSyncOnIncremental() {
+            Instant lastFull = Instant.now().minus(Duration.ofDays(2));
+            IngestionWatermark existing = watermark(today.minusDays(1), lastFull);
+            when(watermarkRepository.findBySourceAndNaicsCodeAndPtype(SOURCE, NAICS, PTYPE))
+                .thenReturn(Optional.of(existing));
+            PostedDateWindow window = new PostedDateWindow(today.minusDays(2), today, false);
+
+            watermarkService.advance(SOURCE, NAICS, PTYPE, window, null, 0);
+
+            verify(watermarkRepository).save(watermarkCaptor.capture());
+            assertThat(watermarkCaptor.getValue().getLastFullSyncAt()).isEqualTo(lastFull);
+            assertThat(watermarkCaptor.getValue().getLastPostedTo()).isEqualTo(today);
+        }
+    }
+}
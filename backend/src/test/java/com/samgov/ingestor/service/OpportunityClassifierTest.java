@@ -0,0 +1,164 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.EnrichmentProperties;
+import com.samgov.ingestor.config.EnrichmentProperties.Field;
+import com.samgov.ingestor.config.EnrichmentProperties.Rule;
+import com.samgov.ingestor.model.Opportunity;
+import com.samgov.ingestor.service.OpportunityClassifier.Classification;
+import com.samgov.ingestor.service.OpportunityClassifier.Rules;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for OpportunityClassifier.
+ * Tests keyword matching, whole-word boundaries and rule precedence.
+ */
+@DisplayName("OpportunityClassifier")
+class OpportunityClassifierTest {
+
+    private Rules rules;
+
+    @BeforeEach
+    void setUp() {
+        EnrichmentProperties properties = new EnrichmentProperties();
+        properties.setRules(List.of(
+                rule(Field.SBIR, null, "SBIR", "Small Business Innovation Research"),
+                rule(Field.STTR, null, "STTR"),
+                rule(Field.SBIR_PHASE, "III", "Phase III", "Phase 3"),
+                rule(Field.SBIR_PHASE, "II", "Phase II", "Phase 2"),
+                rule(Field.SBIR_PHASE, "I", "Phase I", "Phase 1"),
+                rule(Field.DOD, null, "DoD", "Department of Defense", "Air Force"),
+                rule(Field.ITAR, null, "ITAR"),
+                rule(Field.CUI, null, "CUI", "NIST SP 800-171"),
+                rule(Field.CLEARANCE, "TOP_SECRET_SCI", "TS/SCI"),
+                rule(Field.CLEARANCE, "TOP_SECRET", "Top Secret"),
+                rule(Field.CLEARANCE, "SECRET", "Secret clearance")));
+        rules = new OpportunityClassifier(properties).compile();
+    }
+
+    private static Rule rule(Field field, String value, String... keywords) {
+        Rule rule = new Rule();
+        rule.setField(field);
+        rule.setValue(value);
+        rule.setKeywords(List.of(keywords));
+        return rule;
+    }
+
+    @Nested
+    @DisplayName("SBIR/STTR")
+    class SbirSttr {
+
+        @Test
+        @DisplayName("should flag SBIR and STTR in any case")
+        void shouldFlagSbirAndSttr() {
+            Classification classification = rules.classify("sbir/Sttr topic: autonomous sensing", null);
+
+            assertThat(classification.sbir()).isTrue();
+            assertThat(classification.sttr()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should pick the highest phase mentioned")
+        void shouldPickHighestPhase() {
+            assertThat(rules.classify("SBIR Phase I", null).sbirPhase()).isEqualTo("I");
+            assertThat(rules.classify("SBIR Phase II", null).sbirPhase()).isEqualTo("II");
+            assertThat(rules.classify("SBIR Phase I and Phase III", null).sbirPhase()).isEqualTo("III");
+            assertThat(rules.classify("SBIR phase 2 follow-on", null).sbirPhase()).isEqualTo("II");
+            assertThat(rules.classify("SBIR Phase I/II", null).sbirPhase()).isEqualTo("I");
+        }
+
+        @Test
+        @DisplayName("should not match a phase inside a longer word")
+        void shouldRespectWordBoundaries() {
+            assertThat(rules.classify("Phase IIIa study", null).sbirPhase()).isNull();
+            assertThat(rules.classify("Phase 10 rollout", null).sbirPhase()).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("DoD and controls")
+    class DodAndControls {
+
+        @Test
+        @DisplayName("should classify from the description as well as the title")
+        void shouldScanDescription() {
+            Classification classification = rules.classify("Radar maintenance",
+                    "Work for the Air Force. Contractor must protect CUI per NIST SP 800-171 and comply with ITAR.");
+
+            assertThat(classification.dod()).isTrue();
+            assertThat(classification.cuiRequired()).isTrue();
+            assertThat(classification.itarControlled()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should not match keywords inside other words")
+        void shouldNotMatchInsideWords() {
+            Classification classification = rules.classify("Circuit board repair",
+                    "Dodge fleet and guitar amplifier service");
+
+            assertThat(classification.cuiRequired()).isFalse();
+            assertThat(classification.dod()).isFalse();
+            assertThat(classification.itarControlled()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should prefer the most specific clearance")
+        void shouldPreferMostSpecificClearance() {
+            assertThat(rules.classify("Analyst", "Requires an active Top Secret clearance").clearanceRequired())
+                    .isEqualTo("TOP_SECRET");
+            assertThat(rules.classify("Analyst (TS/SCI)", "Top Secret/SCI eligible").clearanceRequired())
+                    .isEqualTo("TOP_SECRET_SCI");
+            assertThat(rules.classify("Analyst", "Secret clearance").clearanceRequired()).isEqualTo("SECRET");
+            assertThat(rules.classify("Analyst", "No clearance needed").clearanceRequired()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("should set every classification field on the opportunity")
+    void shouldApplyToOpportunity() {
+        Opportunity opportunity = new Opportunity();
+        opportunity.setIsDod(true);
+        opportunity.setClearanceRequired("SECRET");
+
+        rules.classify("STTR Phase II", null).applyTo(opportunity);
+
+        assertThat(opportunity.getIsSbir()).isFalse();
+        assertThat(opportunity.getIsSttr()).isTrue();
+        assertThat(opportunity.getSbirPhase()).isEqualTo("II");
+        assertThat(opportunity.getIsDod()).isFalse();
+        assertThat(opportunity.getItarControlled()).isFalse();
+        assertThat(opportunity.getCuiRequired()).isFalse();
+        assertThat(opportunity.getClearanceRequired()).isNull();
+    }
+
+    @Test
+    @DisplayName("should change the rule-set version only when the rules change")
+    void shouldVersionRules() {
+        EnrichmentProperties properties = new EnrichmentProperties();
+        properties.setRules(List.of(rule(Field.ITAR, null, "ITAR")));
+        OpportunityClassifier classifier = new OpportunityClassifier(properties);
+        String version = classifier.compile().version();
+
+        assertThat(classifier.compile().version()).isEqualTo(version);
+        properties.setRules(List.of(rule(Field.ITAR, null, "ITAR", "export controlled")));
+        assertThat(classifier.compile().version()).isNotEqualTo(version);
+        properties.setRules(List.of(rule(Field.CUI, null, "ITAR")));
+        assertThat(classifier.compile().version()).isNotEqualTo(version);
+    }
+
+    @Test
+    @DisplayName("should classify nothing without rules or text")
+    void shouldHandleEmptyInput() {
+        Rules empty = new OpportunityClassifier(new EnrichmentProperties()).compile();
+
+        assertThat(empty.classify("SBIR Phase I", "DoD")).isEqualTo(
+                new Classification(false, false, null, false, false, false, null));
+        assertThat(rules.classify(null, null).sbir()).isFalse();
+    }
+}
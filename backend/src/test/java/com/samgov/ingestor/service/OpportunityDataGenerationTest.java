@@ -0,0 +1,61 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.BaseServiceTest;
+import com.samgov.ingestor.config.SearchCacheProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for OpportunityDataGeneration.
+ *
+ * Two instances over the same database stand in for two application instances.
+ */
+@DisplayName("OpportunityDataGeneration Tests")
+class OpportunityDataGenerationTest extends BaseServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private OpportunityDataGeneration generation(long pollMs) {
+        SearchCacheProperties properties = new SearchCacheProperties();
+        properties.setGenerationPollMs(pollMs);
+        return new OpportunityDataGeneration(jdbcTemplate, properties);
+    }
+
+    @Test
+    @DisplayName("should share advances between instances")
+    void shouldShareAdvances() {
+        // Given
+        OpportunityDataGeneration writer = generation(0);
+        OpportunityDataGeneration reader = generation(0);
+        long before = reader.current();
+
+        // When
+        writer.advance();
+
+        // Then
+        assertThat(writer.current()).isGreaterThan(before);
+        assertThat(reader.current()).isEqualTo(writer.current());
+    }
+
+    @Test
+    @DisplayName("should reuse the last read generation within the poll interval")
+    void shouldPollSharedGeneration() {
+        // Given
+        OpportunityDataGeneration writer = generation(0);
+        OpportunityDataGeneration reader = generation(60_000);
+        long before = reader.current();
+
+        // When
+        writer.advance();
+
+        // Then
+        assertThat(reader.current()).isEqualTo(before);
+        reader.advance();
+        assertThat(reader.current()).isGreaterThan(writer.current());
+    }
+}
@@ -0,0 +1,191 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.BaseServiceTest;
+import com.samgov.ingestor.config.FacetIndexProperties;
+import com.samgov.ingestor.model.Opportunity;
+import com.samgov.ingestor.model.Opportunity.OpportunityStatus;
+import com.samgov.ingestor.repository.OpportunityRepository;
+import com.samgov.ingestor.service.OpportunityFacetIndex.Dimension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static com.samgov.ingestor.builder.OpportunityTestBuilder.aClosedOpportunity;
+import static com.samgov.ingestor.builder.OpportunityTestBuilder.anActiveOpportunity;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Tests for OpportunityFacetIndex.
+ *
+ * The index is disabled in the test profile, so each test builds its own over the test
+ * transaction's connection; rows are flushed so the index's JDBC reads see them.
+ */
+@DisplayName("OpportunityFacetIndex Tests")
+class OpportunityFacetIndexTest extends BaseServiceTest {
+
+    private static final Map<Dimension, List<String>> ACTIVE = Map.of(Dimension.STATUS, List.of("ACTIVE"));
+
+    @Autowired
+    private OpportunityRepository opportunityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private OpportunityFacetIndex index;
+
+    @Override
+    @BeforeEach
+    protected void setUp() {
+        super.setUp();
+        opportunityRepository.deleteAll();
+        FacetIndexProperties properties = new FacetIndexProperties();
+        // Small pages so the keyset paging is exercised
+        properties.setBatchSize(2);
+        index = new OpportunityFacetIndex(jdbcTemplate, properties);
+    }
+
+    private Opportunity save(String agency, String naicsCode, String setAsideType) {
+        return opportunityRepository.saveAndFlush(anActiveOpportunity()
+            .withAgency(agency)
+            .withNaicsCode(naicsCode)
+            .withSetAsideType(setAsideType)
+            .build());
+    }
+
+    @Nested
+    @DisplayName("Counts")
+    class Counts {
+
+        @Test
+        @DisplayName("should count each value under the selections of the other attributes")
+        void shouldCountFacetValues() {
+            // Given
+            save("Department of the Navy", "541512", "SBA");
+            save("Department of the Navy", "541511", null);
+            save("Department of the Army", "541512", "SBA");
+            opportunityRepository.saveAndFlush(aClosedOpportunity()
+                .withAgency("Department of the Army").withNaicsCode("236220").build());
+            index.rebuild();
+
+            // When / Then
+            assertThat(index.counts(Dimension.AGENCY, Map.of(Dimension.NAICS, List.of("541512")), null, null))
+                .containsExactly(entry("Department of the Army", 1L), entry("Department of the Navy", 1L));
+            assertThat(index.counts(Dimension.AGENCY, Map.of(
+                    Dimension.AGENCY, List.of("Department of the Navy"),
+                    Dimension.NAICS, List.of("541511", "541512")), null, null))
+                .containsExactly(entry("Department of the Navy", 2L), entry("Department of the Army", 1L));
+            assertThat(index.counts(Dimension.NAICS, ACTIVE, null, null))
+                .containsExactly(entry("541512", 2L), entry("541511", 1L));
+            assertThat(index.count(Map.of(
+                    Dimension.STATUS, List.of("ACTIVE"),
+                    Dimension.SET_ASIDE, List.of("SBA")), null, null))
+                .isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should count deadlines within a range across week boundaries")
+        void shouldCountDeadlineRanges() {
+            // Given
+            LocalDate today = LocalDate.now();
+            for (int days : new int[] {-3, 0, 1, 5, 7, 8, 30}) {
+                opportunityRepository.saveAndFlush(anActiveOpportunity()
+                    .withResponseDeadLine(today.plusDays(days)).build());
+            }
+            index.rebuild();
+
+            // When / Then
+            assertThat(index.count(ACTIVE, today, today.plusDays(7))).isEqualTo(4);
+            assertThat(index.count(ACTIVE, today, null)).isEqualTo(6);
+            assertThat(index.count(ACTIVE, null, today.minusDays(1))).isEqualTo(1);
+            assertThat(index.counts(Dimension.DEADLINE_WEEK, ACTIVE, null, null).keySet())
+                .allSatisfy(week -> assertThat(LocalDate.parse(week).getDayOfWeek().getValue()).isEqualTo(1));
+        }
+
+        @Test
+        @DisplayName("should index SBIR and STTR as programs and list values in order")
+        void shouldIndexProgramsAndValues() {
+            // Given
+            opportunityRepository.saveAndFlush(anActiveOpportunity().withIsSbir(true).withSbirPhase("I").build());
+            opportunityRepository.saveAndFlush(anActiveOpportunity().withIsSttr(true).build());
+            opportunityRepository.saveAndFlush(anActiveOpportunity().withIsSbir(true).withIsSttr(true).build());
+            save("Department of the Navy", "541512", "SBA");
+            save("Department of Energy", "541512", "8A");
+            index.rebuild();
+
+            // When / Then
+            assertThat(index.count(Map.of(Dimension.PROGRAM, List.of("SBIR")), null, null)).isEqualTo(2);
+            assertThat(index.count(Map.of(Dimension.PROGRAM, List.of("STTR")), null, null)).isEqualTo(2);
+            assertThat(index.count(Map.of(Dimension.SBIR_PHASE, List.of("I")), null, null)).isEqualTo(1);
+            assertThat(index.values(Dimension.SET_ASIDE)).containsExactly("8A", "SBA");
+            assertThat(index.values(Dimension.AGENCY))
+                .containsExactly("Department of Defense", "Department of Energy", "Department of the Navy");
+        }
+    }
+
+    @Nested
+    @DisplayName("Deltas")
+    class Deltas {
+
+        @Test
+        @DisplayName("should not count before the first load")
+        void shouldStartEmpty() {
+            // Given
+            save("Department of the Navy", "541512", "SBA");
+
+            // When / Then
+            assertThat(index.isReady()).isFalse();
+            assertThat(index.count(ACTIVE, null, null)).isZero();
+        }
+
+        @Test
+        @DisplayName("should move changed opportunities between values on refresh")
+        void shouldApplyChanges() {
+            // Given
+            Opportunity navy = save("Department of the Navy", "541512", "SBA");
+            index.refresh();
+            assertThat(index.isReady()).isTrue();
+
+            navy.setAgency("Department of the Army");
+            navy.setStatus(OpportunityStatus.CLOSED);
+            opportunityRepository.saveAndFlush(navy);
+            save("Department of the Air Force", "541512", "SBA");
+
+            // When
+            int applied = index.refresh();
+
+            // Then
+            assertThat(applied).isEqualTo(2);
+            assertThat(index.counts(Dimension.AGENCY, ACTIVE, null, null))
+                .containsExactly(entry("Department of the Air Force", 1L));
+            assertThat(index.values(Dimension.AGENCY))
+                .containsExactly("Department of the Air Force", "Department of the Army");
+            assertThat(index.refresh()).isZero();
+        }
+
+        @Test
+        @DisplayName("should drop deleted opportunities on rebuild")
+        void shouldDropDeletedOnRebuild() {
+            // Given
+            Opportunity deleted = save("Department of the Navy", "541512", "SBA");
+            save("Department of the Army", "541512", "SBA");
+            index.rebuild();
+            opportunityRepository.delete(deleted);
+            opportunityRepository.flush();
+
+            // When
+            int indexed = index.rebuild();
+
+            // Then
+            assertThat(indexed).isEqualTo(1);
+            assertThat(index.values(Dimension.AGENCY)).containsExactly("Department of the Army");
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.BaseServiceTest;
+import com.samgov.ingestor.dto.FacetedSearchRequest;
+import com.samgov.ingestor.dto.FacetedSearchResponse;
+import com.samgov.ingestor.dto.FacetedSearchResponse.FacetBucket;
+import com.samgov.ingestor.dto.OpportunityDto;
+import com.samgov.ingestor.elasticsearch.OpportunityDocument;
+import com.samgov.ingestor.elasticsearch.OpportunitySearchRepository;
+import com.samgov.ingestor.model.Opportunity;
+import com.samgov.ingestor.repository.OpportunityRepository;
+import com.samgov.ingestor.util.PageCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.samgov.ingestor.builder.OpportunityTestBuilder.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Integration tests for OpportunityFacetSearch.
+ *
+ * Uses an external Elasticsearch instance (from docker-compose) and is skipped if none is
+ * available at localhost:9200.
+ */
+@SpringBootTest
+@ActiveProfiles("elasticsearch-test")
+@DisplayName("Opportunity Facet Search Integration Tests")
+@EnabledIf("isElasticsearchAvailable")
+class OpportunityFacetSearchTest extends BaseServiceTest {
+
+    private static final String ELASTICSEARCH_URL = "http://localhost:9200";
+
+    static boolean isElasticsearchAvailable() {
+        try {
+            URL url = new URL(ELASTICSEARCH_URL + "/_cluster/health");
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod("GET");
+            connection.setConnectTimeout(2000);
+            connection.setReadTimeout(2000);
+            int responseCode = connection.getResponseCode();
+            connection.disconnect();
+            return responseCode == 200;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @DynamicPropertySource
+    static void elasticsearchProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.elasticsearch.uris", () -> ELASTICSEARCH_URL);
+        registry.add("elasticsearch.enabled", () -> "true");
+    }
+
+    @Autowired
+    private SearchEnhancementService searchEnhancementService;
+
+    @Autowired
+    private ElasticsearchService elasticsearchService;
+
+    @Autowired
+    private OpportunitySearchRepository searchRepository;
+
+    @Autowired
+    private OpportunityRepository opportunityRepository;
+
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private Opportunity navyCyber;
+
+    @Override
+    @BeforeEach
+    protected void setUp() {
+        super.setUp();
+        searchRepository.deleteAll();
+        opportunityRepository.deleteAll();
+
+        LocalDate today = LocalDate.now();
+        navyCyber = opportunityRepository.save(anActiveOpportunity()
+            .withTitle("Cybersecurity Operations Support")
+            .withAgency("Department of the Navy")
+            .withNaicsCode("541512")
+            .withSetAsideType("SBA")
+            .withResponseDeadLine(today.plusDays(3))
+            .withEstimatedValueHigh(new BigDecimal("500000"))
+            .build());
+        Opportunity navyCloud = opportunityRepository.save(anActiveOpportunity()
+            .withTitle("Cloud Hosting Services")
+            .withAgency("Department of the Navy")
+            .withNaicsCode("518210")
+            .withResponseDeadLine(today.plusDays(20))
+            .withEstimatedValueHigh(new BigDecimal("5000000"))
+            .build());
+        Opportunity armyCyber = opportunityRepository.save(anActiveOpportunity()
+            .withTitle("Cybersecurity Assessment")
+            .withAgency("Department of the Army")
+            .withNaicsCode("541512")
+            .withResponseDeadLine(today.plusDays(60))
+            .withEstimatedValueHigh(new BigDecimal("50000"))
+            .build());
+        Opportunity closed = opportunityRepository.save(aClosedOpportunity()
+            .withTitle("Legacy Network Refresh")
+            .withAgency("Department of the Army")
+            .withNaicsCode("541512")
+            .withResponseDeadLine(today.minusDays(10))
+            .withEstimatedValueHigh(null)
+            .build());
+
+        elasticsearchService.indexOpportunities(List.of(navyCyber, navyCloud, armyCyber, closed));
+        elasticsearchOperations.indexOps(OpportunityDocument.class).refresh();
+    }
+
+    private static FacetedSearchRequest.FacetedSearchRequestBuilder request() {
+        return FacetedSearchRequest.builder().page(0).size(20);
+    }
+
+    private static List<FacetBucket> facet(FacetedSearchResponse response, String name) {
+        return response.getFacets().get(name);
+    }
+
+    @Nested
+    @DisplayName("Hits")
+    class Hits {
+
+        @Test
+        @DisplayName("should match text and load full opportunities from the database")
+        void shouldMatchText() {
+            // When
+            FacetedSearchResponse response = searchEnhancementService.facetedSearch(
+                request().query("cybersecurity").build());
+
+            // Then
+            assertThat(response.getTotalCount()).isEqualTo(2);
+            assertThat(response.getOpportunities().getContent())
+                .extracting(OpportunityDto::title)
+                .containsExactlyInAnyOrder("Cybersecurity Operations Support", "Cybersecurity Assessment");
+        }
+
+        @Test
+        @DisplayName("should apply facet selections, deadline range and active filter")
+        void shouldApplyFilters() {
+            // When
+            FacetedSearchResponse response = searchEnhancementService.facetedSearch(request()
+                .naicsCodes(List.of("541512"))
+                .agencies(List.of("Department of the Navy"))
+                .responseDateTo(LocalDate.now().plusDays(7))
+                .active(true)
+                .build());
+
+            // Then
+            assertThat(response.getOpportunities().getContent())
+                .extracting(OpportunityDto::id)
+                .containsExactly(navyCyber.getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Facets")
+    class Facets {
+
+        @Test
+        @DisplayName("should count every facet in one response")
+        void shouldCountFacets() {
+            // When
+            FacetedSearchResponse response = searchEnhancementService.facetedSearch(request().build());
+
+            // Then
+            assertThat(response.getFacets())
+                .containsKeys("agency", "naics", "setAside", "type", "state", "status", "value", "deadline");
+            assertThat(facet(response, "agency"))
+                .extracting(FacetBucket::getKey, FacetBucket::getCount)
+                .containsExactlyInAnyOrder(tuple("Department of the Navy", 2L), tuple("Department of the Army", 2L));
+            assertThat(facet(response, "status"))
+                .extracting(FacetBucket::getKey, FacetBucket::getCount)
+                .containsExactlyInAnyOrder(tuple("ACTIVE", 3L), tuple("CLOSED", 1L));
+            assertThat(facet(response, "value"))
+                .extracting(FacetBucket::getKey, FacetBucket::getCount)
+                .containsExactly(tuple("UNDER_250K", 1L), tuple("250K_1M", 1L), tuple("1M_10M", 1L),
+                    tuple("10M_100M", 0L), tuple("OVER_100M", 0L));
+            assertThat(facet(response, "deadline"))
+                .extracting(FacetBucket::getKey, FacetBucket::getCount)
+                .containsExactly(tuple("PAST", 1L), tuple("NEXT_7_DAYS", 1L), tuple("NEXT_30_DAYS", 1L),
+                    tuple("NEXT_90_DAYS", 1L), tuple("LATER", 0L));
+        }
+
+        @Test
+        @DisplayName("should count a facet without its own selection")
+        void shouldIgnoreOwnSelection() {
+            // When
+            FacetedSearchResponse response = searchEnhancementService.facetedSearch(request()
+                .agencies(List.of("Department of the Navy"))
+                .build());
+
+            // Then
+            assertThat(response.getTotalCount()).isEqualTo(2);
+            assertThat(facet(response, "agency"))
+                .extracting(FacetBucket::getKey)
+                .contains("Department of the Army");
+            assertThat(facet(response, "naics"))
+                .extracting(FacetBucket::getKey, FacetBucket::getCount)
+                .containsExactlyInAnyOrder(tuple("541512", 1L), tuple("518210", 1L));
+        }
+    }
+
+    @Nested
+    @DisplayName("Cursor paging")
+    class CursorPaging {
+
+        @Test
+        @DisplayName("should page through every hit in deadline order with search_after")
+        void shouldFollowCursor() {
+            // Given
+            List<String> ids = new ArrayList<>();
+            FacetedSearchResponse response = searchEnhancementService.facetedSearch(request().size(1).build());
+            ids.addAll(response.getOpportunities().getContent().stream().map(OpportunityDto::id).toList());
+
+            // When
+            int pages = 1;
+            while (response.getNextCursor() != null) {
+                response = searchEnhancementService.facetedSearch(request().size(1)
+                    .cursor(response.getNextCursor()).build());
+                ids.addAll(response.getOpportunities().getContent().stream().map(OpportunityDto::id).toList());
+                assertThat(response.getFacets()).isEmpty();
+                pages++;
+            }
+
+            // Then
+            assertThat(pages).isEqualTo(4);
+            Map<String, LocalDate> deadlines = opportunityRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Opportunity::getId, Opportunity::getResponseDeadLine));
+            assertThat(ids).hasSize(4).doesNotHaveDuplicates();
+            assertThat(ids).extracting(deadlines::get).isSorted();
+            assertThat(ids.get(1)).isEqualTo(navyCyber.getId());
+        }
+
+        @Test
+        @DisplayName("should pin a point in time only once a cursor is followed")
+        void shouldOpenPointInTimeOnSecondPage() {
+            // Given
+            FacetedSearchResponse first = searchEnhancementService.facetedSearch(request().size(1).build());
+
+            // When
+            FacetedSearchResponse second = searchEnhancementService.facetedSearch(request().size(1)
+                .cursor(first.getNextCursor()).build());
+            FacetedSearchResponse again = searchEnhancementService.facetedSearch(request().size(1)
+                .cursor(first.getNextCursor()).build());
+
+            // Then
+            assertThat(PageCursor.decode(first.getNextCursor(), 3).get(0)).isNull();
+            assertThat(PageCursor.decode(second.getNextCursor(), 3).get(0)).isInstanceOf(String.class);
+            assertThat(again.getOpportunities().getContent()).isEqualTo(second.getOpportunities().getContent());
+        }
+
+        @Test
+        @DisplayName("should hand out a cached first page whose cursor does not depend on a point in time")
+        void shouldCacheCursorWithoutPointInTime() {
+            // Given
+            FacetedSearchResponse first = searchEnhancementService.facetedSearch(request().size(1).build());
+
+            // When
+            FacetedSearchResponse cached = searchEnhancementService.facetedSearch(request().size(1).build());
+            FacetedSearchResponse next = searchEnhancementService.facetedSearch(request().size(1)
+                .cursor(cached.getNextCursor()).build());
+
+            // Then
+            assertThat(cached.getNextCursor()).isEqualTo(first.getNextCursor());
+            assertThat(PageCursor.decode(cached.getNextCursor(), 3).get(0)).isNull();
+            assertThat(next.getOpportunities().getContent()).extracting(OpportunityDto::id)
+                .containsExactly(navyCyber.getId());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.samgov.ingestor.service;
 
 import com.samgov.ingestor.BaseServiceTest;
 import com.samgov.ingestor.builder.OpportunityTestBuilder;
+import com.samgov.ingestor.dto.CursorPaginatedResponse;
 import com.samgov.ingestor.dto.OpportunityDto;
 import com.samgov.ingestor.model.Opportunity;
 import com.samgov.ingestor.model.Opportunity.ContractLevel;
@@ -21,11 +22,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 import static com.samgov.ingestor.builder.OpportunityTestBuilder.*;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Service layer tests for OpportunityService.
@@ -574,6 +578,87 @@ class OpportunityServiceTest extends BaseServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Keyset Search")
+    class KeysetSearch {
+
+        private final OpportunitySearchRequest allStatuses = new OpportunitySearchRequest(
+            null, null, null, null, null, null, null, null, null, null,
+            null, null, null, null, null, false);
+
+        @Test
+        @DisplayName("should walk every page once in order with ties and missing deadlines")
+        void shouldWalkAllPagesInOrder() {
+            // Given
+            LocalDate today = LocalDate.now();
+            for (int i = 0; i < 3; i++) {
+                opportunityRepository.save(anActiveOpportunity().withResponseDeadLine(today.plusDays(5)).build());
+            }
+            opportunityRepository.save(anActiveOpportunity().withResponseDeadLine(today.plusDays(1)).build());
+            opportunityRepository.save(anActiveOpportunity().withResponseDeadLine(today.plusDays(9)).build());
+            opportunityRepository.save(anActiveOpportunity().withResponseDeadLine(null).build());
+            opportunityRepository.save(anActiveOpportunity().withResponseDeadLine(null).build());
+
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                // When
+                List<OpportunityDto> seen = new ArrayList<>();
+                String cursor = null;
+                int pages = 0;
+                do {
+                    CursorPaginatedResponse<OpportunityDto> page = opportunityService.scroll(
+                        allStatuses, "responseDeadLine", direction, cursor, 2);
+                    seen.addAll(page.content());
+                    cursor = page.nextCursor();
+                    pages++;
+                } while (cursor != null);
+
+                // Then
+                Comparator<LocalDate> nullsLast = Comparator.nullsLast(Comparator.naturalOrder());
+                assertThat(pages).isEqualTo(4);
+                assertThat(seen).extracting(OpportunityDto::id).doesNotHaveDuplicates().hasSize(7);
+                assertThat(seen).extracting(OpportunityDto::responseDeadline)
+                    .isSortedAccordingTo(direction.isAscending() ? nullsLast : nullsLast.reversed());
+            }
+        }
+
+        @Test
+        @DisplayName("should apply the search filters to every page")
+        void shouldApplyFilters() {
+            // Given
+            for (int i = 0; i < 3; i++) {
+                opportunityRepository.save(anActiveOpportunity().withNaicsCode("541512").build());
+            }
+            opportunityRepository.save(anActiveOpportunity().withNaicsCode("236220").build());
+            OpportunitySearchRequest request = new OpportunitySearchRequest(
+                null, "541512", null, null, null, null, null, null, null, null,
+                null, null, null, null, null, false);
+
+            // When
+            CursorPaginatedResponse<OpportunityDto> first = opportunityService.scroll(
+                request, "postedDate", Sort.Direction.DESC, null, 2);
+            CursorPaginatedResponse<OpportunityDto> second = opportunityService.scroll(
+                request, "postedDate", Sort.Direction.DESC, first.nextCursor(), 2);
+
+            // Then
+            assertThat(first.hasNext()).isTrue();
+            assertThat(second.content()).hasSize(1);
+            assertThat(second.hasNext()).isFalse();
+            assertThat(second.nextCursor()).isNull();
+            assertThat(second.content().get(0).naicsCode()).isEqualTo("541512");
+        }
+
+        @Test
+        @DisplayName("should reject tampered cursors and unsupported sort fields")
+        void shouldRejectInvalidInput() {
+            assertThatThrownBy(() -> opportunityService.scroll(
+                allStatuses, "responseDeadLine", Sort.Direction.ASC, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> opportunityService.scroll(
+                allStatuses, "description", Sort.Direction.ASC, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
     @Nested
     @DisplayName("Get Active Opportunities")
     class GetActiveOpportunities {
@@ -0,0 +1,229 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.config.CensusProperties;
+import com.samgov.ingestor.dto.GeocodingResultDto.SimpleGeocodingResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PlaceGazetteer and GazetteerCompiler.
+ * Compiles small Census Gazetteer files and checks ZIP and city/state lookups.
+ */
+@DisplayName("PlaceGazetteer")
+class PlaceGazetteerTest {
+
+    @TempDir
+    Path directory;
+
+    private CensusProperties properties;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path sources = Files.createDirectories(directory.resolve("sources"));
+        Files.writeString(sources.resolve("2023_Gaz_zcta_national.txt"), String.join("\n",
+                "GEOID\tALAND\tAWATER\tALAND_SQMI\tAWATER_SQMI\tINTPTLAT\tINTPTLONG                                                                                                               ",
+                "20001\t2143343\t0\t0.828\t0.000\t38.909\t-77.017980",
+                "22201\t3926498\t0\t1.516\t0.000\t38.887\t-77.093595",
+                "80903\t10140071\t0\t3.915\t0.000\t38.838\t-104.812"));
+        Files.writeString(sources.resolve("tab20_zcta520_county20_natl.txt"), String.join("\n",
+                "OID_ZCTA5_20|GEOID_ZCTA5_20|NAMELSAD_ZCTA5_20|AREALAND_ZCTA5_20|AREAWATER_ZCTA5_20|MTFCC_ZCTA5_20|"
+                        + "CLASSFP_ZCTA5_20|FUNCSTAT_ZCTA5_20|OID_COUNTY_20|GEOID_COUNTY_20|NAMELSAD_COUNTY_20|"
+                        + "AREALAND_COUNTY_20|AREAWATER_COUNTY_20|MTFCC_COUNTY_20|CLASSFP_COUNTY_20|FUNCSTAT_COUNTY_20|"
+                        + "AREALAND_PART|AREAWATER_PART",
+                "1|20001|ZCTA5 20001|2143343|0|G6350|B5|S|2|11001|District of Columbia|158316181|18709762|G4020|H6|F|2143343|0",
+                "3|22201|ZCTA5 22201|3926498|0|G6350|B5|S|4|51510|Alexandria city|38950000|0|G4020|C7|F|1000|0",
+                "3|22201|ZCTA5 22201|3926498|0|G6350|B5|S|5|51013|Arlington County|67000000|0|G4020|H1|F|3925498|0",
+                "6|80903|ZCTA5 80903|10140071|0|G6350|B5|S|7|08041|El Paso County|5508000000|0|G4020|H1|A|10140071|0"));
+        Files.writeString(sources.resolve("2023_Gaz_place_national.txt"), String.join("\n",
+                "USPS\tGEOID\tANSICODE\tNAME\tLSAD\tFUNCSTAT\tALAND\tAWATER\tALAND_SQMI\tAWATER_SQMI\tINTPTLAT\tINTPTLONG",
+                "DC\t1150000\t02390665\tWashington city\t25\tA\t158316181\t18709762\t61.1\t7.2\t38.904\t-77.016",
+                "VA\t5103000\t02584778\tArlington CDP\t57\tS\t67000000\t0\t25.9\t0.0\t38.880\t-77.100",
+                "CO\t0816000\t02410197\tColorado Springs city\t25\tA\t503000000\t0\t194.5\t0.0\t38.867\t-104.760",
+                "CO\t0899999\t00000000\tColorado Springs CDP\t57\tS\t1000\t0\t0.1\t0.0\t40.000\t-105.000",
+                "TN\t4752006\t02405092\tNashville-Davidson metropolitan government (balance)\t00\tF\t1230000000\t0\t475.0\t0.0\t36.171\t-86.785"));
+
+        properties = new CensusProperties();
+        // Keep the gazetteer bundled by the build out of these tests
+        properties.setGazetteerResource("classpath:gazetteer/missing.bin");
+        properties.setGazetteerSourceDir(sources.toString());
+        properties.setGazetteerFile(directory.resolve("compiled/gazetteer.bin").toString());
+    }
+
+    @Nested
+    @DisplayName("Compiling")
+    class Compiling {
+
+        @Test
+        @DisplayName("should compile the source files on first load")
+        void shouldCompileOnFirstLoad() {
+            PlaceGazetteer gazetteer = new PlaceGazetteer(properties);
+
+            assertThat(gazetteer.isAvailable()).isTrue();
+            assertThat(gazetteer.getZipCount()).isEqualTo(3);
+            assertThat(gazetteer.getPlaceCount()).isEqualTo(4);
+            assertThat(Path.of(properties.getGazetteerFile())).isRegularFile();
+        }
+
+        @Test
+        @DisplayName("should load a compiled file without its sources")
+        void shouldLoadCompiledFileWithoutSources() {
+            new PlaceGazetteer(properties);
+            properties.setGazetteerSourceDir(directory.resolve("missing").toString());
+
+            PlaceGazetteer gazetteer = new PlaceGazetteer(properties);
+
+            assertThat(gazetteer.lookup(null, null, "20001")).isNotNull();
+        }
+
+        @Test
+        @DisplayName("should fall back to the bundled gazetteer without a configured file or sources")
+        void shouldLoadBundledGazetteer() {
+            new PlaceGazetteer(properties);
+            properties.setGazetteerResource("file:" + properties.getGazetteerFile());
+            properties.setGazetteerFile("");
+            properties.setGazetteerSourceDir("");
+
+            PlaceGazetteer gazetteer = new PlaceGazetteer(properties);
+
+            assertThat(gazetteer.isAvailable()).isTrue();
+            assertThat(gazetteer.lookup("Washington", "DC", null)).isNotNull();
+        }
+
+        @Test
+        @DisplayName("should compile configured sources without a configured file")
+        void shouldCompileSourcesWithoutFile() {
+            properties.setGazetteerFile("");
+
+            PlaceGazetteer gazetteer = new PlaceGazetteer(properties);
+
+            assertThat(gazetteer.getZipCount()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should be unavailable without a compiled file or sources")
+        void shouldBeUnavailableWithoutData() {
+            properties.setGazetteerSourceDir(directory.resolve("missing").toString());
+
+            PlaceGazetteer gazetteer = new PlaceGazetteer(properties);
+
+            assertThat(gazetteer.isAvailable()).isFalse();
+            assertThat(gazetteer.lookup("Washington", "DC", "20001")).isNull();
+        }
+
+        @Test
+        @DisplayName("should be unavailable when the file is not a compiled gazetteer")
+        void shouldRejectForeignFile() throws IOException {
+            properties.setGazetteerSourceDir(directory.resolve("missing").toString());
+            Path file = Path.of(properties.getGazetteerFile());
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, "not a gazetteer at all");
+
+            assertThat(new PlaceGazetteer(properties).isAvailable()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should be unavailable when disabled")
+        void shouldBeUnavailableWhenDisabled() {
+            properties.setGazetteerEnabled(false);
+
+            assertThat(new PlaceGazetteer(properties).isAvailable()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Lookups")
+    class Lookups {
+
+        private PlaceGazetteer gazetteer;
+
+        @BeforeEach
+        void setUp() {
+            gazetteer = new PlaceGazetteer(properties);
+        }
+
+        @Test
+        @DisplayName("should resolve a ZIP to its centroid and county")
+        void shouldResolveZip() {
+            SimpleGeocodingResult result = gazetteer.lookup(null, null, "20001");
+
+            assertThat(result).isNotNull();
+            assertThat(result.isValid()).isTrue();
+            assertThat(result.latitude()).isEqualByComparingTo(new BigDecimal("38.909"));
+            assertThat(result.longitude()).isEqualByComparingTo(new BigDecimal("-77.01798"));
+            assertThat(result.stateFips()).isEqualTo("11");
+            assertThat(result.countyFips()).isEqualTo("11001");
+        }
+
+        @Test
+        @DisplayName("should resolve ZIP+4 and pick the county with the most land")
+        void shouldResolveZipPlusFour() {
+            SimpleGeocodingResult result = gazetteer.lookup(null, null, "22201-1234");
+
+            assertThat(result).isNotNull();
+            assertThat(result.countyFips()).isEqualTo("51013");
+        }
+
+        @Test
+        @DisplayName("should keep leading zeros in FIPS codes")
+        void shouldPadFipsCodes() {
+            SimpleGeocodingResult result = gazetteer.lookup(null, null, "80903");
+
+            assertThat(result.stateFips()).isEqualTo("08");
+            assertThat(result.countyFips()).isEqualTo("08041");
+        }
+
+        @Test
+        @DisplayName("should resolve a city and state regardless of case and punctuation")
+        void shouldResolveCityAndState() {
+            SimpleGeocodingResult result = gazetteer.lookup("  washington ", "dc", null);
+
+            assertThat(result).isNotNull();
+            assertThat(result.latitude()).isEqualByComparingTo(new BigDecimal("38.904"));
+            assertThat(result.stateFips()).isEqualTo("11");
+            assertThat(result.countyFips()).isEqualTo("11001");
+        }
+
+        @Test
+        @DisplayName("should strip legal suffixes from place names")
+        void shouldStripPlaceSuffixes() {
+            assertThat(gazetteer.lookup("Arlington", "VA", null)).isNotNull();
+            assertThat(gazetteer.lookup("Nashville-Davidson", "TN", null)).isNotNull();
+        }
+
+        @Test
+        @DisplayName("should keep the larger of two places with the same name")
+        void shouldKeepLargerDuplicatePlace() {
+            SimpleGeocodingResult result = gazetteer.lookup("Colorado Springs", "CO", null);
+
+            assertThat(result.latitude()).isEqualByComparingTo(new BigDecimal("38.867"));
+            assertThat(result.countyFips()).isEqualTo("08041");
+        }
+
+        @Test
+        @DisplayName("should fall back to the city when the ZIP is unknown")
+        void shouldFallBackToCity() {
+            SimpleGeocodingResult result = gazetteer.lookup("Washington", "DC", "99999");
+
+            assertThat(result).isNotNull();
+            assertThat(result.latitude()).isEqualByComparingTo(new BigDecimal("38.904"));
+        }
+
+        @Test
+        @DisplayName("should miss unknown places")
+        void shouldMissUnknownPlaces() {
+            assertThat(gazetteer.lookup("Springfield", "DC", "99999")).isNull();
+            assertThat(gazetteer.lookup("Washington", null, null)).isNull();
+            assertThat(gazetteer.lookup(null, null, "200")).isNull();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.BaseServiceTest;
+import com.samgov.ingestor.config.SearchIndexerProperties;
+import com.samgov.ingestor.model.Opportunity;
+import com.samgov.ingestor.model.Opportunity.OpportunityStatus;
+import com.samgov.ingestor.model.SearchOutboxEntry;
+import com.samgov.ingestor.repository.OpportunityRepository;
+import com.samgov.ingestor.repository.SearchOutboxRepository;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertMapping;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertResult;
+import com.samgov.ingestor.service.BulkUpsertService.UpsertTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Service layer tests for SearchOutbox.
+ * Tests that opportunity changes are queued for the search indexer in the writing transaction.
+ */
+class SearchOutboxTest extends BaseServiceTest {
+
+    @Autowired
+    private SearchOutbox searchOutbox;
+
+    @Autowired
+    private SearchOutboxRepository searchOutboxRepository;
+
+    @Autowired
+    private SearchIndexerProperties searchIndexerProperties;
+
+    @Autowired
+    private BulkUpsertService bulkUpsertService;
+
+    @Autowired
+    private OpportunityService opportunityService;
+
+    @Autowired
+    private OpportunityRepository opportunityRepository;
+
+    @Override
+    @BeforeEach
+    protected void setUp() {
+        super.setUp();
+        opportunityRepository.deleteAll();
+        searchIndexerProperties.setEnabled(true);
+    }
+
+    @Override
+    @AfterEach
+    protected void tearDown() {
+        searchIndexerProperties.setEnabled(false);
+        super.tearDown();
+    }
+
+    @Nested
+    @DisplayName("Enqueue")
+    class Enqueue {
+
+        @Test
+        @DisplayName("should queue each opportunity once per call")
+        void shouldQueueDistinctIds() {
+            // When
+            searchOutbox.enqueue(List.of("opp-1", "opp-2", "opp-1"));
+
+            // Then
+            assertThat(searchOutboxRepository.findAll())
+                .extracting(SearchOutboxEntry::getOpportunityId)
+                .containsExactlyInAnyOrder("opp-1", "opp-2");
+            assertThat(searchOutboxRepository.findByOpportunityIdOrderById("opp-1"))
+                .singleElement()
+                .satisfies(entry -> {
+                    assertThat(entry.getAttempts()).isZero();
+                    assertThat(entry.getNextAttemptAt()).isNotNull();
+                });
+        }
+
+        @Test
+        @DisplayName("should queue nothing when the indexer is disabled")
+        void shouldSkipWhenDisabled() {
+            // Given
+            searchIndexerProperties.setEnabled(false);
+
+            // When
+            searchOutbox.enqueue(List.of("opp-1"));
+
+            // Then
+            assertThat(searchOutboxRepository.count()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Writers")
+    class Writers {
+
+        @Test
+        @DisplayName("should queue rows written by bulk upserts but not unchanged ones")
+        void shouldQueueUpsertedRows() {
+            // Given
+            TitleMapping mapping = new TitleMapping();
+
+            // When
+            UpsertResult first = bulkUpsertService.upsert(
+                List.of(new TitleRecord("SOL-1", "Radar"), new TitleRecord("SOL-2", "Sonar")), mapping);
+            UpsertResult second = bulkUpsertService.upsert(
+                List.of(new TitleRecord("SOL-1", "Radar"), new TitleRecord("SOL-2", "Sonar upgrade")), mapping);
+
+            // Then
+            assertThat(first.written()).isEqualTo(2);
+            assertThat(second.updated()).isEqualTo(1);
+            assertThat(searchOutboxRepository.findByOpportunityIdOrderById("id-SOL-1")).hasSize(1);
+            assertThat(searchOutboxRepository.findByOpportunityIdOrderById("id-SOL-2")).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("should queue archived and expired opportunities")
+        void shouldQueueStatusChanges() {
+            // Given
+            LocalDate today = LocalDate.now();
+            Opportunity old = opportunityRepository.save(opportunity("opp-old", OpportunityStatus.CLOSED,
+                today.minusDays(100)));
+            Opportunity expired = opportunityRepository.save(opportunity("opp-expired", OpportunityStatus.ACTIVE,
+                today.minusDays(1)));
+            opportunityRepository.save(opportunity("opp-open", OpportunityStatus.ACTIVE, today.plusDays(10)));
+
+            // When
+            opportunityService.archiveOldOpportunities(90);
+            opportunityService.updateExpiredOpportunities();
+
+            // Then
+            assertThat(searchOutboxRepository.findAll())
+                .extracting(SearchOutboxEntry::getOpportunityId)
+                .containsExactlyInAnyOrder(old.getId(), expired.getId());
+        }
+    }
+
+    private static Opportunity opportunity(String id, OpportunityStatus status, LocalDate deadline) {
+        return Opportunity.builder()
+            .id(id)
+            .solicitationNumber("SOL-" + id)
+            .title("Opportunity " + id)
+            .status(status)
+            .postedDate(LocalDate.now().minusDays(200))
+            .responseDeadLine(deadline)
+            .build();
+    }
+
+    private record TitleRecord(String solicitationNumber, String title) {}
+
+    /**
+     * Minimal mapping onto the opportunities table.
+     */
+    private class TitleMapping implements UpsertMapping<TitleRecord, Opportunity> {
+
+        @Override
+        public UpsertTable<Opportunity> table() {
+            return BulkUpsertService.OPPORTUNITIES;
+        }
+
+        @Override
+        public String recordKey(TitleRecord record) {
+            return record.solicitationNumber();
+        }
+
+        @Override
+        public String entityKey(Opportunity opportunity) {
+            return opportunity.getSolicitationNumber();
+        }
+
+        @Override
+        public List<Opportunity> findExisting(Collection<String> keys) {
+            return opportunityRepository.findBySolicitationNumberIn(keys);
+        }
+
+        @Override
+        public Opportunity create(TitleRecord record) {
+            Opportunity opportunity = opportunity("id-" + record.solicitationNumber(), OpportunityStatus.ACTIVE,
+                LocalDate.now().plusDays(30));
+            opportunity.setSolicitationNumber(record.solicitationNumber());
+            opportunity.setTitle(record.title());
+            return opportunity;
+        }
+
+        @Override
+        public void update(Opportunity opportunity, TitleRecord record) {
+            opportunity.setTitle(record.title());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.samgov.ingestor.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.samgov.ingestor.BaseServiceTest;
+import com.samgov.ingestor.config.SearchIndexerProperties;
+import com.samgov.ingestor.elasticsearch.OpportunitySearchRepository;
+import com.samgov.ingestor.model.Opportunity;
+import com.samgov.ingestor.repository.OpportunityRepository;
+import com.samgov.ingestor.service.SearchReindexer.ReindexStatus;
+import com.samgov.ingestor.service.SearchReindexer.State;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+import static com.samgov.ingestor.builder.OpportunityTestBuilder.anActiveOpportunity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for SearchReindexer.
+ *
+ * Uses an external Elasticsearch instance (from docker-compose) and is skipped if none is
+ * available at localhost:9200. Slices read on their own threads, so these tests run without a
+ * test-managed transaction and clean up opportunities themselves.
+ */
+@SpringBootTest
+@ActiveProfiles("elasticsearch-test")
+@DisplayName("Search Reindexer Integration Tests")
+@EnabledIf("isElasticsearchAvailable")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SearchReindexerTest extends BaseServiceTest {
+
+    private static final String ELASTICSEARCH_URL = "http://localhost:9200";
+
+    static boolean isElasticsearchAvailable() {
+        try {
+            URL url = new URL(ELASTICSEARCH_URL + "/_cluster/health");
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod("GET");
+            connection.setConnectTimeout(2000);
+            connection.setReadTimeout(2000);
+            int responseCode = connection.getResponseCode();
+            connection.disconnect();
+            return responseCode == 200;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @DynamicPropertySource
+    static void elasticsearchProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.elasticsearch.uris", () -> ELASTICSEARCH_URL);
+        registry.add("elasticsearch.enabled", () -> "true");
+    }
+
+    @Autowired
+    private SearchReindexer searchReindexer;
+
+    @Autowired
+    private SearchIndexerProperties searchIndexerProperties;
+
+    @Autowired
+    private OpportunityRepository opportunityRepository;
+
+    @Autowired
+    private OpportunitySearchRepository searchRepository;
+
+    @Autowired
+    private ElasticsearchClient client;
+
+    @Autowired
+    private SearchIndexer searchIndexer;
+
+    @Autowired
+    private SearchOutbox searchOutbox;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Override
+    @BeforeEach
+    protected void setUp() {
+        super.setUp();
+        opportunityRepository.deleteAll();
+        // Small slices and pages so every keyset path is exercised
+        searchIndexerProperties.setReindexSlices(2);
+        searchIndexerProperties.setReindexBatchSize(2);
+    }
+
+    @Override
+    @AfterEach
+    protected void tearDown() {
+        opportunityRepository.deleteAll();
+        searchIndexerProperties.setReindexSlices(4);
+        searchIndexerProperties.setReindexBatchSize(1000);
+        searchIndexerProperties.setEnabled(false);
+        super.tearDown();
+    }
+
+    @Test
+    @DisplayName("should rebuild the index behind the alias and drop the previous one")
+    void shouldSwapAlias() throws IOException {
+        // Given
+        for (int i = 0; i < 7; i++) {
+            opportunityRepository.save(anActiveOpportunity().withTitle("Reindexed opportunity " + i).build());
+        }
+
+        // When
+        ReindexStatus first = searchReindexer.reindex();
+        ReindexStatus second = searchReindexer.reindex();
+
+        // Then
+        assertThat(first.state()).isEqualTo(State.COMPLETED);
+        assertThat(second.state()).isEqualTo(State.COMPLETED);
+        assertThat(second.total()).isEqualTo(7);
+        assertThat(second.indexed()).isEqualTo(7);
+        assertThat(second.failed()).isZero();
+        assertThat(second.docsPerSecond()).isPositive();
+
+        Set<String> aliased = client.indices().getAlias(get -> get.name("opportunities")).result().keySet();
+        assertThat(aliased).containsExactly(second.index());
+        assertThat(client.indices().exists(exists -> exists.index(first.index())).value()).isFalse();
+        assertThat(searchRepository.count()).isEqualTo(7);
+        assertThat(searchReindexer.status()).isEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("should keep every node from draining the outbox while a reindex holds the pause")
+    void shouldPauseAcrossNodes() throws SQLException {
+        // Given: the pause lock held on another session, as by a reindex on another node
+        searchIndexerProperties.setEnabled(true);
+        Opportunity opportunity = opportunityRepository.save(anActiveOpportunity().build());
+        searchOutbox.enqueue(List.of(opportunity.getId()));
+
+        try (Connection otherNode = dataSource.getConnection();
+             PreparedStatement lock = otherNode.prepareStatement("SELECT pg_advisory_lock(?)");
+             PreparedStatement unlock = otherNode.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            lock.setLong(1, SearchIndexer.PAUSE_LOCK);
+            lock.execute();
+
+            // When / Then
+            assertThat(searchIndexer.drain()).isZero();
+
+            unlock.setLong(1, SearchIndexer.PAUSE_LOCK);
+            unlock.execute();
+        }
+        assertThat(searchIndexer.drain()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should swap in an empty index when there are no opportunities")
+    void shouldReindexEmptyTable() {
+        // When
+        ReindexStatus status = searchReindexer.reindex();
+
+        // Then
+        assertThat(status.state()).isEqualTo(State.COMPLETED);
+        assertThat(status.indexed()).isZero();
+        assertThat(searchRepository.count()).isZero();
+    }
+}
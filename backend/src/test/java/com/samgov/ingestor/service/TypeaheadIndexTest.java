@@ -0,0 +1,175 @@
+package com.samgov.ingestor.service;
+
+import com.samgov.ingestor.BaseServiceTest;
+import com.samgov.ingestor.config.TypeaheadProperties;
+import com.samgov.ingestor.model.Opportunity;
+import com.samgov.ingestor.model.Opportunity.OpportunityStatus;
+import com.samgov.ingestor.repository.OpportunityRepository;
+import com.samgov.ingestor.service.TypeaheadIndex.Completion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static com.samgov.ingestor.builder.OpportunityTestBuilder.anActiveOpportunity;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests for TypeaheadIndex.
+ *
+ * The index is disabled in the test profile, so each test builds its own over the test
+ * transaction's connection; rows are flushed so the index's JDBC reads see them.
+ */
+@DisplayName("TypeaheadIndex Tests")
+class TypeaheadIndexTest extends BaseServiceTest {
+
+    @Autowired
+    private OpportunityRepository opportunityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TypeaheadIndex index;
+
+    @Override
+    @BeforeEach
+    protected void setUp() {
+        super.setUp();
+        opportunityRepository.deleteAll();
+        TypeaheadProperties properties = new TypeaheadProperties();
+        // Small pages so the keyset paging is exercised
+        properties.setBatchSize(2);
+        index = new TypeaheadIndex(jdbcTemplate, properties);
+    }
+
+    @Nested
+    @DisplayName("Suggestions")
+    class Suggestions {
+
+        @Test
+        @DisplayName("should suggest titles by their first or any later word")
+        void shouldSuggestTitlesByAnyWord() {
+            // Given
+            opportunityRepository.saveAndFlush(anActiveOpportunity()
+                .withTitle("Navy Cybersecurity Support").build());
+            opportunityRepository.saveAndFlush(anActiveOpportunity()
+                .withTitle("Cyber Range Operations").build());
+            index.rebuild();
+
+            // When / Then
+            assertThat(index.suggest("CYBER", 10))
+                .filteredOn(completion -> completion.type().equals("opportunity"))
+                .extracting(Completion::text)
+                .containsExactlyInAnyOrder("Navy Cybersecurity Support", "Cyber Range Operations");
+            assertThat(index.suggest("range op", 10))
+                .extracting(Completion::text)
+                .containsExactly("Cyber Range Operations");
+        }
+
+        @Test
+        @DisplayName("should rank by number and recency of opportunities")
+        void shouldRankByPopularityAndRecency() {
+            // Given
+            LocalDate today = LocalDate.now();
+            opportunityRepository.saveAndFlush(anActiveOpportunity()
+                .withAgency("Department of Education").withPostedDate(today.minusDays(200)).build());
+            opportunityRepository.saveAndFlush(anActiveOpportunity()
+                .withAgency("Department of Energy").withPostedDate(today).build());
+            opportunityRepository.saveAndFlush(anActiveOpportunity()
+                .withAgency("Department of Energy").withPostedDate(today.minusDays(1)).build());
+            index.rebuild();
+
+            // When
+            var suggestions = index.suggest("department of e", 10);
+
+            // Then
+            assertThat(suggestions)
+                .extracting(Completion::text, Completion::type, Completion::count)
+                .containsExactly(
+                    tuple("Department of Energy", "agency", 2),
+                    tuple("Department of Education", "agency", 1));
+        }
+
+        @Test
+        @DisplayName("should suggest NAICS codes and solicitation numbers ignoring punctuation")
+        void shouldSuggestCodes() {
+            // Given
+            opportunityRepository.saveAndFlush(anActiveOpportunity()
+                .withNaicsCode("541512")
+                .withNaicsDescription("Computer Systems Design Services")
+                .withSolicitationNumber("W912DY-24-R-0001").build());
+            index.rebuild();
+
+            // When / Then
+            assertThat(index.suggest("5415", 10))
+                .extracting(Completion::text, Completion::type)
+                .containsExactly(tuple("541512 - Computer Systems Design Services", "naics"));
+            assertThat(index.suggest("systems design", 10))
+                .extracting(Completion::type)
+                .containsExactly("naics");
+            assertThat(index.suggest("w912dy-24", 10))
+                .extracting(Completion::text, Completion::type)
+                .containsExactly(tuple("W912DY-24-R-0001", "solicitation"));
+        }
+
+        @Test
+        @DisplayName("should respect the limit and ignore blank queries")
+        void shouldRespectLimit() {
+            // Given
+            for (int i = 0; i < 5; i++) {
+                opportunityRepository.saveAndFlush(anActiveOpportunity()
+                    .withTitle("Cloud Migration Wave " + i).build());
+            }
+            index.rebuild();
+
+            // When / Then
+            assertThat(index.suggest("cloud", 3)).hasSize(3);
+            assertThat(index.suggest("  ", 10)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Deltas")
+    class Deltas {
+
+        @Test
+        @DisplayName("should not serve suggestions before the first load")
+        void shouldStartEmpty() {
+            // Given
+            opportunityRepository.saveAndFlush(anActiveOpportunity().withTitle("Cloud Hosting").build());
+
+            // When / Then
+            assertThat(index.isReady()).isFalse();
+            assertThat(index.suggest("cloud", 10)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should fold new and closed opportunities in on refresh")
+        void shouldApplyChanges() {
+            // Given
+            Opportunity hosting = opportunityRepository.saveAndFlush(anActiveOpportunity()
+                .withTitle("Cloud Hosting").build());
+            index.refresh();
+            assertThat(index.isReady()).isTrue();
+
+            hosting.setStatus(OpportunityStatus.CLOSED);
+            opportunityRepository.saveAndFlush(hosting);
+            opportunityRepository.saveAndFlush(anActiveOpportunity().withTitle("Cloud Migration").build());
+
+            // When
+            int applied = index.refresh();
+
+            // Then
+            assertThat(applied).isEqualTo(2);
+            assertThat(index.suggest("cloud", 10))
+                .extracting(Completion::text)
+                .containsExactly("Cloud Migration");
+            assertThat(index.refresh()).isZero();
+        }
+    }
+}
@@ -8,25 +8,35 @@ import com.samgov.ingestor.model.Opportunity;
 import com.samgov.ingestor.model.Opportunity.DataSource;
 import com.samgov.ingestor.model.Opportunity.OpportunityStatus;
 import com.samgov.ingestor.repository.OpportunityRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
  * Service layer tests for UsaSpendingIngestionService.
  * Tests ingestion logic, upsert pattern, and data mapping.
+ *
+ * Awards are written on ingestion pipeline writer threads in their own transactions, so these
+ * tests run without a test-managed transaction and clean up opportunities themselves.
  */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
 class UsaSpendingIngestionServiceTest extends BaseServiceTest {
 
     @Autowired
@@ -48,6 +58,13 @@ class UsaSpendingIngestionServiceTest extends BaseServiceTest {
         opportunityRepository.deleteAll();
     }
 
+    @Override
+    @AfterEach
+    protected void tearDown() {
+        opportunityRepository.deleteAll();
+        super.tearDown();
+    }
+
     @Nested
     @DisplayName("Ingest Recent Awards")
     class IngestRecentAwards {
@@ -57,8 +74,8 @@ class UsaSpendingIngestionServiceTest extends BaseServiceTest {
         void shouldCreateNewOpportunityFromAward() {
             // Given
             when(usaSpendingApiClient.isEnabled()).thenReturn(true);
-            when(usaSpendingApiClient.fetchAllAwards(any(), any()))
-                .thenReturn(List.of(createTestAwardDto("AWARD-001")));
+            when(usaSpendingApiClient.streamAwardPages(any(), any(), any()))
+                .thenAnswer(invocation -> Stream.of(List.of(createTestAwardDto("AWARD-001"))));
 
             // When
             var result = usaSpendingIngestionService.ingestRecentAwards();
@@ -90,8 +107,8 @@ class UsaSpendingIngestionServiceTest extends BaseServiceTest {
             opportunityRepository.save(existing);
 
             when(usaSpendingApiClient.isEnabled()).thenReturn(true);
-            when(usaSpendingApiClient.fetchAllAwards(any(), any()))
-                .thenReturn(List.of(createTestAwardDto("AWARD-002")));
+            when(usaSpendingApiClient.streamAwardPages(any(), any(), any()))
+                .thenAnswer(invocation -> Stream.of(List.of(createTestAwardDto("AWARD-002"))));
 
             // When
             var result = usaSpendingIngestionService.ingestRecentAwards();
@@ -108,6 +125,25 @@ class UsaSpendingIngestionServiceTest extends BaseServiceTest {
             assertThat(updated.getAgency()).isEqualTo("Test Agency");
         }
 
+        @Test
+        @DisplayName("should skip rewriting unchanged awards on re-ingestion")
+        void shouldSkipUnchangedAwards() {
+            // Given
+            when(usaSpendingApiClient.isEnabled()).thenReturn(true);
+            when(usaSpendingApiClient.streamAwardPages(any(), any(), any()))
+                .thenAnswer(invocation -> Stream.of(List.of(createTestAwardDto("AWARD-003"))));
+            usaSpendingIngestionService.ingestRecentAwards();
+
+            // When
+            var result = usaSpendingIngestionService.ingestRecentAwards();
+
+            // Then
+            assertThat(result.newRecords()).isEqualTo(0);
+            assertThat(result.updatedRecords()).isEqualTo(0);
+            assertThat(result.unchangedRecords()).isEqualTo(1);
+            assertThat(opportunityRepository.findAll()).hasSize(1);
+        }
+
         @Test
         @DisplayName("should return zero counts when integration is disabled")
         void shouldReturnZeroWhenDisabled() {
@@ -127,8 +163,8 @@ class UsaSpendingIngestionServiceTest extends BaseServiceTest {
         void shouldHandleEmptyResponse() {
             // Given
             when(usaSpendingApiClient.isEnabled()).thenReturn(true);
-            when(usaSpendingApiClient.fetchAllAwards(any(), any()))
-                .thenReturn(Collections.emptyList());
+            when(usaSpendingApiClient.streamAwardPages(any(), any(), any()))
+                .thenAnswer(invocation -> Stream.empty());
 
             // When
             var result = usaSpendingIngestionService.ingestRecentAwards();
@@ -143,8 +179,8 @@ class UsaSpendingIngestionServiceTest extends BaseServiceTest {
         void shouldSkipAwardsWithNullId() {
             // Given
             when(usaSpendingApiClient.isEnabled()).thenReturn(true);
-            when(usaSpendingApiClient.fetchAllAwards(any(), any()))
-                .thenReturn(List.of(createTestAwardDto(null)));
+            when(usaSpendingApiClient.streamAwardPages(any(), any(), any()))
+                .thenAnswer(invocation -> Stream.of(List.of(createTestAwardDto(null))));
 
             // When
             var result = usaSpendingIngestionService.ingestRecentAwards();
@@ -155,6 +191,41 @@ class UsaSpendingIngestionServiceTest extends BaseServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Filter Combinations")
+    class FilterCombinations {
+
+        @Test
+        @DisplayName("should search every configured NAICS and agency combination")
+        void shouldSearchEveryCombination() {
+            // Given
+            List<String> originalNaics = usaSpendingProperties.getNaicsCodes();
+            List<String> originalAgencies = usaSpendingProperties.getAgencies();
+            usaSpendingProperties.setNaicsCodes(List.of("541511", "541512"));
+            usaSpendingProperties.setAgencies(List.of("DOD", "NASA"));
+            when(usaSpendingApiClient.isEnabled()).thenReturn(true);
+            when(usaSpendingApiClient.streamAwardPages(any(), any(), any()))
+                .thenAnswer(invocation -> Stream.of(List.of(createTestAwardDto(
+                    invocation.getArgument(0) + "-" + invocation.getArgument(1)))));
+
+            try {
+                // When
+                var result = usaSpendingIngestionService.ingestRecentAwards();
+
+                // Then
+                assertThat(result.newRecords()).isEqualTo(4);
+                for (String naics : List.of("541511", "541512")) {
+                    for (String agency : List.of("DOD", "NASA")) {
+                        verify(usaSpendingApiClient).streamAwardPages(eq(naics), eq(agency), any());
+                    }
+                }
+            } finally {
+                usaSpendingProperties.setNaicsCodes(originalNaics);
+                usaSpendingProperties.setAgencies(originalAgencies);
+            }
+        }
+    }
+
     @Nested
     @DisplayName("Ingest By NAICS")
     class IngestByNaics {
@@ -164,10 +235,10 @@ class UsaSpendingIngestionServiceTest extends BaseServiceTest {
         void shouldIngestByNaics() {
             // Given
             when(usaSpendingApiClient.isEnabled()).thenReturn(true);
-            when(usaSpendingApiClient.fetchAllAwards("541511", null))
-                .thenReturn(List.of(
-                    createTestAwardDto("AWARD-N1"),
-                    createTestAwardDto("AWARD-N2")
+            when(usaSpendingApiClient.streamAwardPages(eq("541511"), isNull(), any()))
+                .thenAnswer(invocation -> Stream.of(
+                    List.of(createTestAwardDto("AWARD-N1")),
+                    List.of(createTestAwardDto("AWARD-N2"))
                 ));
 
             // When
@@ -188,8 +259,8 @@ class UsaSpendingIngestionServiceTest extends BaseServiceTest {
         void shouldIngestByAgency() {
             // Given
             when(usaSpendingApiClient.isEnabled()).thenReturn(true);
-            when(usaSpendingApiClient.fetchAllAwards(null, "DOD"))
-                .thenReturn(List.of(createTestAwardDto("AWARD-A1")));
+            when(usaSpendingApiClient.streamAwardPages(isNull(), eq("DOD"), any()))
+                .thenAnswer(invocation -> Stream.of(List.of(createTestAwardDto("AWARD-A1"))));
 
             // When
             var result = usaSpendingIngestionService.ingestByAgency("DOD");
@@ -241,8 +312,8 @@ class UsaSpendingIngestionServiceTest extends BaseServiceTest {
             );
 
             when(usaSpendingApiClient.isEnabled()).thenReturn(true);
-            when(usaSpendingApiClient.fetchAllAwards(any(), any()))
-                .thenReturn(List.of(dto));
+            when(usaSpendingApiClient.streamAwardPages(any(), any(), any()))
+                .thenAnswer(invocation -> Stream.of(List.of(dto)));
 
             // When
             usaSpendingIngestionService.ingestRecentAwards();
@@ -275,8 +346,8 @@ class UsaSpendingIngestionServiceTest extends BaseServiceTest {
                 "DOD-001", "Department of Defense");
 
             when(usaSpendingApiClient.isEnabled()).thenReturn(true);
-            when(usaSpendingApiClient.fetchAllAwards(any(), any()))
-                .thenReturn(List.of(dodAward));
+            when(usaSpendingApiClient.streamAwardPages(any(), any(), any()))
+                .thenAnswer(invocation -> Stream.of(List.of(dodAward)));
 
             // When
             usaSpendingIngestionService.ingestRecentAwards();
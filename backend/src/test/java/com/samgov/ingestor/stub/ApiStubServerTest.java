@@ -0,0 +1,256 @@
+package com.samgov.ingestor.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samgov.ingestor.client.CensusGeocoderClient;
+import com.samgov.ingestor.client.HttpResponseCache;
+import com.samgov.ingestor.client.OutboundRateLimiterRegistry;
+import com.samgov.ingestor.client.SamApiClient;
+import com.samgov.ingestor.client.UsaSpendingApiClient;
+import com.samgov.ingestor.config.CensusProperties;
+import com.samgov.ingestor.config.HttpCacheProperties;
+import com.samgov.ingestor.config.SamGovProperties;
+import com.samgov.ingestor.config.UsaSpendingProperties;
+import com.samgov.ingestor.dto.GeocodingResultDto.BatchAddress;
+import com.samgov.ingestor.dto.GeocodingResultDto.SimpleGeocodingResult;
+import com.samgov.ingestor.dto.PostedDateWindow;
+import com.samgov.ingestor.dto.SamOpportunityDto;
+import com.samgov.ingestor.dto.UsaSpendingAwardDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ApiStubServer.
+ * Drives the real API clients against synthetic, replayed and fault-injected responses.
+ */
+@DisplayName("ApiStubServer")
+class ApiStubServerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private ApiStubProperties properties;
+    private ApiStubServer server;
+
+    @TempDir
+    Path recordings;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ApiStubProperties();
+        properties.setPort(0);
+        properties.setRecordingsDir(recordings.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private void startServer() throws IOException {
+        server = new ApiStubServer(properties, objectMapper);
+        server.start();
+    }
+
+    private HttpResponse<String> get(String api, String pathAndQuery) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.baseUrl(api) + pathAndQuery)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Nested
+    @DisplayName("Synthetic responses")
+    class SyntheticResponses {
+
+        @Test
+        @DisplayName("should page SAM.gov searches until the configured volume is drained")
+        void shouldPageSamSearches() throws Exception {
+            properties.setSamRecords(2_500);
+            startServer();
+
+            SamGovProperties samProperties = new SamGovProperties();
+            samProperties.setApiKey("stub-key");
+            samProperties.setBaseUrl(server.baseUrl(ApiStubServer.SAM) + "/opportunities/v2/search");
+            samProperties.setLimit(1_000);
+            samProperties.setMaxPages(100);
+            samProperties.setMaxInFlightPages(2);
+            SamApiClient client = new SamApiClient(
+                    RestClient.builder().baseUrl(samProperties.getBaseUrl()).build(), samProperties, objectMapper);
+
+            AtomicBoolean fetchFailed = new AtomicBoolean();
+            List<Integer> pageSizes;
+            try (Stream<List<SamOpportunityDto>> pages = client.streamOpportunityPages(
+                    "541511", "k,o", PostedDateWindow.lastDays(30), 0, fetchFailed)) {
+                pageSizes = pages.map(List::size).toList();
+            }
+
+            assertThat(pageSizes).containsExactly(1_000, 1_000, 500);
+            assertThat(fetchFailed).isFalse();
+            assertThat(server.getRequestCount(ApiStubServer.SAM)).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should page USAspending award searches by hasNext")
+        void shouldPageUsaSpendingSearches() throws Exception {
+            properties.setUsaSpendingRecords(250);
+            startServer();
+
+            UsaSpendingProperties usaProperties = new UsaSpendingProperties();
+            usaProperties.setBaseUrl(server.baseUrl(ApiStubServer.USA_SPENDING) + "/v2");
+            usaProperties.setRateLimitMs(0);
+            usaProperties.setPageSize(100);
+            usaProperties.setMaxResults(1_000);
+            UsaSpendingApiClient client = new UsaSpendingApiClient(usaProperties, objectMapper,
+                    new OutboundRateLimiterRegistry(new SimpleMeterRegistry()),
+                    new HttpResponseCache(new HttpCacheProperties(), new SimpleMeterRegistry()));
+
+            List<UsaSpendingAwardDto> awards = client.fetchAllAwards("541511", "Department of Defense");
+
+            assertThat(awards).hasSize(250);
+            assertThat(awards).extracting(UsaSpendingAwardDto::awardId).doesNotHaveDuplicates();
+            assertThat(awards).allSatisfy(award -> {
+                assertThat(award.naicsCode()).isEqualTo("541511");
+                assertThat(award.awardingAgency()).isEqualTo("Department of Defense");
+            });
+        }
+
+        @Test
+        @DisplayName("should answer Census batch uploads in the batch CSV format")
+        void shouldAnswerGeocodeBatches() throws Exception {
+            properties.setGeocodeMatchRate(1.0);
+            startServer();
+
+            CensusProperties censusProperties = new CensusProperties();
+            censusProperties.setGeocoderUrl(server.baseUrl(ApiStubServer.CENSUS) + "/geocoder");
+            censusProperties.setRateLimitMs(0);
+            CensusGeocoderClient client = new CensusGeocoderClient(censusProperties,
+                    new OutboundRateLimiterRegistry(new SimpleMeterRegistry()),
+                    new HttpResponseCache(new HttpCacheProperties(), new SimpleMeterRegistry()));
+
+            Map<String, SimpleGeocodingResult> results = client.batchGeocode(List.of(
+                    new BatchAddress("0", null, "Arlington", "VA", "22201"),
+                    new BatchAddress("1", null, "Dayton", "OH", "45402")));
+
+            assertThat(results).containsOnlyKeys("0", "1");
+            assertThat(results.values()).allSatisfy(result -> {
+                assertThat(result.isValid()).isTrue();
+                assertThat(result.countyFips()).hasSize(5);
+            });
+        }
+
+        @Test
+        @DisplayName("should generate identical responses for identical requests")
+        void shouldBeDeterministic() throws Exception {
+            properties.setSbirRecords(50);
+            startServer();
+
+            HttpResponse<String> first = get(ApiStubServer.SBIR, "/public/api/awards?agency=NASA&rows=20&start=20");
+            HttpResponse<String> second = get(ApiStubServer.SBIR, "/public/api/awards?agency=NASA&rows=20&start=20");
+
+            assertThat(first.statusCode()).isEqualTo(200);
+            assertThat(objectMapper.readTree(first.body())).hasSize(20);
+            assertThat(first.body()).isEqualTo(second.body());
+        }
+
+        @Test
+        @DisplayName("should answer unknown endpoints with 404")
+        void shouldRejectUnknownEndpoints() throws Exception {
+            startServer();
+
+            assertThat(get(ApiStubServer.SBIR, "/public/api/firms").statusCode()).isEqualTo(404);
+        }
+    }
+
+    @Nested
+    @DisplayName("Fault injection")
+    class FaultInjection {
+
+        @Test
+        @DisplayName("should throttle with 429 and Retry-After at the configured rate")
+        void shouldThrottle() throws Exception {
+            properties.setThrottleRate(1.0);
+            properties.setRetryAfterSeconds(3);
+            startServer();
+
+            HttpResponse<String> response = get(ApiStubServer.SAM, "/opportunities/v2/search?limit=10&offset=0");
+
+            assertThat(response.statusCode()).isEqualTo(429);
+            assertThat(response.headers().firstValue("Retry-After")).contains("3");
+        }
+
+        @Test
+        @DisplayName("should fail with 500 at the configured error rate")
+        void shouldInjectErrors() throws Exception {
+            properties.setErrorRate(1.0);
+            startServer();
+
+            assertThat(get(ApiStubServer.CENSUS, "/geocoder/geographies/onelineaddress?address=x").statusCode())
+                    .isEqualTo(500);
+        }
+
+        @Test
+        @DisplayName("should delay responses by the configured latency")
+        void shouldAddLatency() throws Exception {
+            properties.setLatencyMs(200);
+            startServer();
+
+            long started = System.nanoTime();
+            get(ApiStubServer.SBIR, "/public/api/solicitations?open=1");
+
+            assertThat((System.nanoTime() - started) / 1_000_000).isGreaterThanOrEqualTo(200);
+        }
+    }
+
+    @Nested
+    @DisplayName("Replay")
+    class Replay {
+
+        @Test
+        @DisplayName("should replay a recorded response regardless of api_key and parameter order")
+        void shouldReplayRecording() throws Exception {
+            properties.setMode(ApiStubProperties.Mode.REPLAY);
+            startServer();
+            String recorded = "{\"totalRecords\":1,\"opportunitiesData\":[{\"noticeId\":\"recorded-1\"}]}";
+            server.saveRecording(ApiStubServer.SAM, "GET", "/opportunities/v2/search",
+                    Map.of("ncode", "541511", "limit", "10", "offset", "0"), new byte[0],
+                    new ApiStubServer.Recording(200, recorded));
+
+            HttpResponse<String> response = get(ApiStubServer.SAM,
+                    "/opportunities/v2/search?offset=0&api_key=secret&limit=10&ncode=541511");
+
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.body()).isEqualTo(recorded);
+        }
+
+        @Test
+        @DisplayName("should fall back to synthetic responses when nothing was recorded")
+        void shouldFallBackToSynthetic() throws Exception {
+            properties.setMode(ApiStubProperties.Mode.REPLAY);
+            properties.setSamRecords(5);
+            startServer();
+
+            HttpResponse<String> response = get(ApiStubServer.SAM, "/opportunities/v2/search?limit=10&offset=0");
+
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(objectMapper.readTree(response.body()).path("opportunitiesData")).hasSize(5);
+        }
+    }
+}